@@ -1,11 +1,14 @@
 package com.labs.copilot;
 
+import com.labs.copilot.config.CatalogProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @SpringBootApplication
+@EnableConfigurationProperties(CatalogProperties.class)
 @RestController
 public class BackendJavaApplication {
 
@@ -0,0 +1,129 @@
+package com.labs.copilot.actuator;
+
+import com.labs.copilot.cache.MappedFileCache;
+import com.labs.copilot.cache.ProductJsonCache;
+import com.labs.copilot.cache.SingleFlight;
+import com.labs.copilot.cache.TinyLfuCache;
+import com.labs.copilot.config.CatalogProperties;
+import com.labs.copilot.service.CatalogSnapshot;
+import com.labs.copilot.service.ProductService;
+import com.labs.copilot.warmup.TopQueriesRecorder;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/catalog}: search engine statistics for sizing heaps and cache
+ * capacities on real traffic.
+ *
+ * Reports the catalog snapshot being served, the approximate heap footprint of
+ * each index, hit, miss and eviction counts with average load times for every
+ * cache layer, and how often each filter and sort key has been requested.
+ */
+@Component
+@Endpoint(id = "catalog")
+public class CatalogEndpoint {
+
+    private final ProductService productService;
+    private final ProductJsonCache productJsonCache;
+    private final TopQueriesRecorder topQueriesRecorder;
+    private final CatalogProperties properties;
+
+    public CatalogEndpoint(ProductService productService, ProductJsonCache productJsonCache,
+                           TopQueriesRecorder topQueriesRecorder, CatalogProperties properties) {
+        this.productService = productService;
+        this.productJsonCache = productJsonCache;
+        this.topQueriesRecorder = topQueriesRecorder;
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("catalog", catalog(productService.currentSnapshot()));
+        statistics.put("caches", caches());
+        Map<String, Object> queries = new LinkedHashMap<>();
+        queries.put("filters", topQueriesRecorder.filterUsage());
+        queries.put("sortKeys", topQueriesRecorder.sortKeyUsage());
+        statistics.put("queries", queries);
+        return statistics;
+    }
+
+    private Map<String, Object> catalog(CatalogSnapshot snapshot) {
+        Map<String, Object> catalog = new LinkedHashMap<>();
+        catalog.put("version", snapshot.version());
+        catalog.put("publishedAt", snapshot.publishedAt().toString());
+        catalog.put("products", snapshot.productCount());
+        catalog.put("slots", snapshot.slotCount());
+        catalog.put("storage", properties.getStorage().getMode());
+        catalog.put("offHeapBytes", snapshot.offHeapBytes());
+
+        Map<String, Long> indexes = snapshot.indexSizes();
+        Map<String, Object> footprint = new LinkedHashMap<>(indexes);
+        footprint.put("total", indexes.values().stream().mapToLong(Long::longValue).sum());
+        catalog.put("indexBytes", footprint);
+        return catalog;
+    }
+
+    private Map<String, Object> caches() {
+        Map<String, Object> caches = new LinkedHashMap<>();
+        caches.put("queryResults", cache(productService.resultCache()));
+        caches.put("productJson", cache(productJsonCache.entries()));
+        caches.put("productJsonFile", file(productJsonCache.l2()));
+        Map<String, Object> unknownIds = cache(productService.unknownIdCache());
+        unknownIds.put("misses", productService.lookupMisses());
+        caches.put("unknownIds", unknownIds);
+        caches.put("searchesInFlight", inFlight(productService.searchesInFlight()));
+        return caches;
+    }
+
+    static Map<String, Object> cache(TinyLfuCache<?, ?> cache) {
+        long hits = cache.hitCount();
+        long misses = cache.missCount();
+        long loads = cache.loadCount();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.size());
+        stats.put("maximumSize", cache.maximumSize());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", ratio(hits, hits + misses));
+        stats.put("evictions", cache.evictionCount());
+        stats.put("rejections", cache.rejectionCount());
+        stats.put("loads", loads);
+        stats.put("averageLoadMillis", loads == 0 ? 0.0 : cache.totalLoadNanos() / 1e6 / loads);
+        return stats;
+    }
+
+    static Map<String, Object> file(MappedFileCache cache) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", cache != null);
+        if (cache != null) {
+            long hits = cache.hitCount();
+            long misses = cache.missCount();
+            stats.put("file", cache.file().toString());
+            stats.put("sizeBytes", cache.sizeInBytes());
+            stats.put("entries", cache.entryCount());
+            stats.put("slots", cache.slotCount());
+            stats.put("hits", hits);
+            stats.put("misses", misses);
+            stats.put("hitRate", ratio(hits, hits + misses));
+            stats.put("writes", cache.writeCount());
+        }
+        return stats;
+    }
+
+    private static Map<String, Object> inFlight(SingleFlight<?, ?> inFlight) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("executed", inFlight.executionCount());
+        stats.put("coalesced", inFlight.coalescedCount());
+        stats.put("inFlight", inFlight.inFlightCount());
+        return stats;
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? 0.0 : (double) part / whole;
+    }
+}
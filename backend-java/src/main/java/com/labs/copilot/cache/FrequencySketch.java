@@ -0,0 +1,66 @@
+package com.labs.copilot.cache;
+
+/**
+ * Count-min sketch of recent key popularity for cache admission decisions.
+ *
+ * Each key is counted in one saturating counter per row; its estimated frequency
+ * is the minimum across rows. Once the number of increments reaches ten times the
+ * cache size, every counter is halved, so the sketch tracks recent popularity
+ * rather than all-time totals.
+ */
+final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final int[] table;
+    private final int width;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+        int size = Math.max(16, maximumSize);
+        this.width = Integer.highestOneBit(size - 1) << 1;
+        this.table = new int[width * DEPTH];
+        this.sampleSize = 10 * size;
+    }
+
+    void increment(Object key) {
+        int hash = key.hashCode();
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            int i = index(row, hash);
+            if (table[i] < MAX_COUNT) {
+                table[i]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(Object key) {
+        int hash = key.hashCode();
+        int min = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, table[index(row, hash)]);
+        }
+        return min;
+    }
+
+    // Halve every counter so old popularity decays
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] >>>= 1;
+        }
+        additions >>>= 1;
+    }
+
+    private int index(int row, int hash) {
+        int h = (hash ^ SEEDS[row]) * 0x45D9F3B;
+        h ^= h >>> 16;
+        return row * width + (h & (width - 1));
+    }
+}
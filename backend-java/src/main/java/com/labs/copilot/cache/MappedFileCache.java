@@ -0,0 +1,287 @@
+package com.labs.copilot.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * Fixed-size cache of byte values in a memory-mapped file on local disk, keyed by
+ * id and version. The file outlives the process, so entries written before a
+ * restart are served after it.
+ *
+ * The file is a header followed by fixed-size slots grouped into two-way sets; an
+ * id hashes to one set. A put replaces the slot already holding the id, else an
+ * empty one, else the one written longest ago. Values larger than a slot are not
+ * stored. Reads copy straight out of the mapping, with no read system call.
+ *
+ * Each slot carries a checksum of its value, and its length is written last, so a
+ * slot torn by a crash reads as a miss. A file whose header does not match the
+ * configured layout, or the schema of the values it was opened for, is cleared.
+ */
+public final class MappedFileCache implements Closeable {
+
+    private static final long MAGIC = 0x4C32_4341_4348_4531L;
+    private static final int FORMAT = 2;
+    private static final int HEADER_BYTES = 64;
+
+    // Slot layout: length, checksum, id, version, write time, value
+    private static final int LENGTH = 0;
+    private static final int CHECKSUM = 4;
+    private static final int ID_HIGH = 8;
+    private static final int ID_LOW = 16;
+    private static final int VERSION = 24;
+    private static final int WRITTEN_AT = 32;
+    private static final int VALUE = 40;
+
+    private static final int WAYS = 2;
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slotBytes;
+    private final int setCount;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+
+    private MappedFileCache(Path file, FileChannel channel, MappedByteBuffer buffer, int slotBytes, int setCount) {
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.slotBytes = slotBytes;
+        this.setCount = setCount;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Open (or create) a cache file, keeping its entries if the layout matches.
+     *
+     * @param file      cache file; parent directories are created
+     * @param sizeBytes file size, at most 1 GiB
+     * @param slotBytes bytes per slot, including a 40-byte slot header
+     */
+    public static MappedFileCache open(Path file, long sizeBytes, int slotBytes) throws IOException {
+        return open(file, sizeBytes, slotBytes, 0);
+    }
+
+    /**
+     * Open (or create) a cache file, keeping its entries if the layout and value schema match.
+     *
+     * @param schema version of the encoding of the stored values; entries written
+     *               under another schema are discarded
+     */
+    public static MappedFileCache open(Path file, long sizeBytes, int slotBytes, long schema) throws IOException {
+        if (slotBytes <= VALUE || sizeBytes > (1L << 30)) {
+            throw new IllegalArgumentException("Unsupported cache layout: " + sizeBytes + " bytes, " + slotBytes + " per slot");
+        }
+        int setCount = (int) ((sizeBytes - HEADER_BYTES) / ((long) slotBytes * WAYS));
+        if (setCount < 1) {
+            throw new IllegalArgumentException("Cache file of " + sizeBytes + " bytes holds no " + slotBytes + "-byte slots");
+        }
+        long mappedBytes = HEADER_BYTES + (long) setCount * WAYS * slotBytes;
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            boolean reuse = channel.size() == mappedBytes && headerMatches(channel, slotBytes, setCount, schema);
+            if (!reuse) {
+                channel.truncate(0);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedBytes);
+            if (!reuse) {
+                buffer.putLong(0, MAGIC).putInt(8, FORMAT).putInt(12, slotBytes).putInt(16, setCount)
+                        .putLong(20, schema);
+            }
+            return new MappedFileCache(file, channel, buffer, slotBytes, setCount);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Value stored for exactly this id and version, or null.
+     *
+     * @return a copy of the stored bytes
+     */
+    public byte[] get(UUID id, long version) {
+        int set = setOf(id);
+        synchronized (lockOf(set)) {
+            for (int way = 0; way < WAYS; way++) {
+                int slot = slotOffset(set, way);
+                int length = buffer.getInt(slot + LENGTH);
+                if (length > 0 && holds(slot, id) && buffer.getLong(slot + VERSION) == version) {
+                    byte[] value = new byte[length];
+                    buffer.get(slot + VALUE, value);
+                    if (checksum(value) == buffer.getInt(slot + CHECKSUM)) {
+                        hits.increment();
+                        return value;
+                    }
+                }
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Store a value for an id and version, replacing any other version of the id.
+     *
+     * @return false if the value does not fit in a slot
+     */
+    public boolean put(UUID id, long version, byte[] value) {
+        if (value.length == 0 || value.length > maxValueBytes()) {
+            return false;
+        }
+        int set = setOf(id);
+        synchronized (lockOf(set)) {
+            int slot = victim(set, id);
+            buffer.putInt(slot + LENGTH, 0);
+            buffer.putLong(slot + ID_HIGH, id.getMostSignificantBits());
+            buffer.putLong(slot + ID_LOW, id.getLeastSignificantBits());
+            buffer.putLong(slot + VERSION, version);
+            buffer.putLong(slot + WRITTEN_AT, System.currentTimeMillis());
+            buffer.put(slot + VALUE, value);
+            buffer.putInt(slot + CHECKSUM, checksum(value));
+            buffer.putInt(slot + LENGTH, value.length);
+        }
+        writes.increment();
+        return true;
+    }
+
+    /**
+     * Largest value that fits in a slot.
+     */
+    public int maxValueBytes() {
+        return slotBytes - VALUE;
+    }
+
+    public int slotCount() {
+        return setCount * WAYS;
+    }
+
+    /**
+     * Number of occupied slots; scans the file.
+     */
+    public int entryCount() {
+        int count = 0;
+        for (int set = 0; set < setCount; set++) {
+            for (int way = 0; way < WAYS; way++) {
+                if (buffer.getInt(slotOffset(set, way) + LENGTH) > 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    public long sizeInBytes() {
+        return buffer.capacity();
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long writeCount() {
+        return writes.sum();
+    }
+
+    /**
+     * Write dirty pages back to the file.
+     */
+    public void flush() {
+        buffer.force();
+    }
+
+    /**
+     * Flush and close the file. The mapping itself is released when it is garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    // Slot to overwrite for an id: its current slot, else an empty one, else the oldest write
+    private int victim(int set, UUID id) {
+        int oldest = slotOffset(set, 0);
+        for (int way = 0; way < WAYS; way++) {
+            int slot = slotOffset(set, way);
+            if (buffer.getInt(slot + LENGTH) > 0 && holds(slot, id)) {
+                return slot;
+            }
+        }
+        for (int way = 0; way < WAYS; way++) {
+            int slot = slotOffset(set, way);
+            if (buffer.getInt(slot + LENGTH) <= 0) {
+                return slot;
+            }
+            if (buffer.getLong(slot + WRITTEN_AT) < buffer.getLong(oldest + WRITTEN_AT)) {
+                oldest = slot;
+            }
+        }
+        return oldest;
+    }
+
+    private boolean holds(int slot, UUID id) {
+        return buffer.getLong(slot + ID_HIGH) == id.getMostSignificantBits()
+                && buffer.getLong(slot + ID_LOW) == id.getLeastSignificantBits();
+    }
+
+    private int setOf(UUID id) {
+        long h = id.getMostSignificantBits() * 0x9E3779B97F4A7C15L ^ id.getLeastSignificantBits();
+        h ^= h >>> 31;
+        return (int) Math.floorMod(h, (long) setCount);
+    }
+
+    private Object lockOf(int set) {
+        return locks[set % LOCK_STRIPES];
+    }
+
+    private int slotOffset(int set, int way) {
+        return HEADER_BYTES + (set * WAYS + way) * slotBytes;
+    }
+
+    private static boolean headerMatches(FileChannel channel, int slotBytes, int setCount, long schema)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(28);
+        channel.read(header, 0);
+        return header.position() == 28
+                && header.getLong(0) == MAGIC
+                && header.getInt(8) == FORMAT
+                && header.getInt(12) == slotBytes
+                && header.getInt(16) == setCount
+                && header.getLong(20) == schema;
+    }
+
+    private static int checksum(byte[] value) {
+        CRC32 crc = new CRC32();
+        crc.update(value);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,222 @@
+package com.labs.copilot.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labs.copilot.config.CatalogProperties;
+import com.labs.copilot.model.Product;
+import com.labs.copilot.model.ProductImage;
+import com.labs.copilot.model.ProductStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Rendered JSON of individual products, so product-detail requests write cached
+ * bytes instead of running Jackson over the BigDecimal and LocalDateTime fields
+ * on every call.
+ *
+ * Entries are keyed by product id and remember the Product instance they were
+ * rendered from. Catalog writes replace a changed product with a new instance, so
+ * an entry is stale exactly when that product changed; other products keep their
+ * entries across catalog versions.
+ *
+ * With {@code catalog.cache.l2.enabled}, this on-heap cache is backed by a larger
+ * {@link MappedFileCache} on local disk that survives restarts. L2 entries are keyed
+ * by product id and a {@link #fingerprint} of every field the product renders, so an
+ * update that leaves the timestamps alone still misses; an L2 hit is promoted to the
+ * on-heap cache. The file is tagged with a fingerprint of how the ObjectMapper renders
+ * a product, so a release that changes the JSON shape starts from an empty file
+ * instead of serving the old shape.
+ *
+ * The returned arrays are shared between requests and must not be modified.
+ */
+@Component
+public class ProductJsonCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductJsonCache.class);
+
+    private static final class Rendered {
+        final Product source;
+        final byte[] json;
+
+        Rendered(Product source, byte[] json) {
+            this.source = source;
+            this.json = json;
+        }
+    }
+
+    // Validity is checked against the Product instance, so every entry uses the same version
+    private static final long VERSION = 0;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    // Hashed after each field value, and in place of a null one; neither occurs in product text
+    private static final char END_OF_VALUE = '\u001f';
+    private static final char NULL_VALUE = '\u001e';
+
+    private final ObjectMapper objectMapper;
+    private final TinyLfuCache<UUID, Rendered> entries;
+    // Null unless catalog.cache.l2.enabled
+    private final MappedFileCache l2;
+
+    public ProductJsonCache(ObjectMapper objectMapper, CatalogProperties properties) {
+        this.objectMapper = objectMapper;
+        this.entries = new TinyLfuCache<>(properties.getCache().getProductJsonEntries());
+        this.l2 = openL2(properties.getCache().getL2(), objectMapper);
+    }
+
+    /**
+     * JSON for a product as currently served by the catalog.
+     *
+     * @param product product from the current catalog snapshot
+     * @return UTF-8 encoded JSON; shared, do not modify
+     */
+    public byte[] render(Product product) {
+        TinyLfuCache.Entry<Rendered> entry = entries.get(product.getId(), VERSION);
+        if (entry != null && entry.value().source == product) {
+            return entry.value().json;
+        }
+        long start = System.nanoTime();
+        long fingerprint = l2 != null ? fingerprint(product) : 0;
+        byte[] json = l2 != null ? l2.get(product.getId(), fingerprint) : null;
+        if (json == null) {
+            try {
+                json = objectMapper.writeValueAsBytes(product);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize product " + product.getId(), e);
+            }
+            if (l2 != null) {
+                l2.put(product.getId(), fingerprint, json);
+            }
+        }
+        entries.put(product.getId(), new Rendered(product, json), VERSION);
+        entries.recordLoad(System.nanoTime() - start);
+        return json;
+    }
+
+    /**
+     * Underlying cache, for statistics.
+     */
+    public TinyLfuCache<UUID, ?> entries() {
+        return entries;
+    }
+
+    /**
+     * On-disk second tier, for statistics; null when disabled.
+     */
+    public MappedFileCache l2() {
+        return l2;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (l2 != null) {
+            try {
+                l2.close();
+            } catch (IOException e) {
+                log.warn("Failed to close product JSON cache file {}", l2.file(), e);
+            }
+        }
+    }
+
+    private static MappedFileCache openL2(CatalogProperties.Cache.L2 settings, ObjectMapper objectMapper) {
+        if (!settings.isEnabled()) {
+            return null;
+        }
+        Path file = Path.of(settings.getFile());
+        try {
+            MappedFileCache cache = MappedFileCache.open(file, settings.getSize().toBytes(),
+                    (int) settings.getSlotSize().toBytes(), schema(objectMapper));
+            log.info("Product JSON cache file {} opened with {} of {} slots in use",
+                    file, cache.entryCount(), cache.slotCount());
+            return cache;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Running without the product JSON cache file {}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Fingerprint of the JSON a product renders to: a fully populated sample product is
+     * rendered and checksummed, so added, removed or renamed fields and changed mapper
+     * settings all change it.
+     */
+    static long schema(ObjectMapper objectMapper) throws JsonProcessingException {
+        Product sample = new Product(new UUID(1, 1), "name", new BigDecimal("1.00"), "category", "sku");
+        sample.setDescription("description");
+        sample.setStockQuantity(1);
+        sample.setImages(List.of(new ProductImage("url", "alt", true)));
+        sample.setAttributes(Map.of("key", "value"));
+        sample.setStatus(ProductStatus.ACTIVE);
+        sample.setCreatedAt(LocalDateTime.of(2000, 1, 1, 0, 0));
+        sample.setUpdatedAt(LocalDateTime.of(2000, 1, 2, 0, 0));
+        sample.setCreatedBy("createdBy");
+        sample.setUpdatedBy("updatedBy");
+        CRC32 crc = new CRC32();
+        crc.update(objectMapper.writeValueAsBytes(sample));
+        return crc.getValue();
+    }
+
+    /**
+     * Stable 64-bit FNV-1a hash of every product field, the L2 version of a product.
+     * Hashing the field values is far cheaper than rendering them, and unlike the
+     * last-modified time it changes with the content. Nulls hash apart from the text
+     * "null", and each value is terminated so adjacent fields cannot run together.
+     */
+    static long fingerprint(Product product) {
+        long hash = FNV_OFFSET;
+        hash = hash(hash, product.getId());
+        hash = hash(hash, product.getName());
+        hash = hash(hash, product.getDescription());
+        hash = hash(hash, product.getPrice());
+        hash = hash(hash, product.getCategory());
+        hash = hash(hash, product.getStockQuantity());
+        hash = hash(hash, product.getSku());
+        List<ProductImage> images = product.getImages();
+        hash = hash(hash, images != null ? images.size() : null);
+        if (images != null) {
+            for (ProductImage image : images) {
+                hash = hash(hash, image != null ? image.getUrl() : null);
+                hash = hash(hash, image != null ? image.getAlt() : null);
+                hash = hash(hash, image != null ? image.getPrimary() : null);
+            }
+        }
+        Map<String, String> attributes = product.getAttributes();
+        hash = hash(hash, attributes != null ? attributes.size() : null);
+        if (attributes != null) {
+            // Iteration order is the order Jackson renders them in
+            for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+                hash = hash(hash, attribute.getKey());
+                hash = hash(hash, attribute.getValue());
+            }
+        }
+        hash = hash(hash, product.getStatus());
+        hash = hash(hash, product.getCreatedAt());
+        hash = hash(hash, product.getUpdatedAt());
+        hash = hash(hash, product.getCreatedBy());
+        hash = hash(hash, product.getUpdatedBy());
+        return hash;
+    }
+
+    private static long hash(long hash, Object value) {
+        if (value == null) {
+            return (hash ^ NULL_VALUE) * FNV_PRIME;
+        }
+        String text = value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return (hash ^ END_OF_VALUE) * FNV_PRIME;
+    }
+}
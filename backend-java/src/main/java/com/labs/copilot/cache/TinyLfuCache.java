@@ -0,0 +1,157 @@
+package com.labs.copilot.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-process cache with frequency-aware admission, for values derived from
+ * a versioned source.
+ *
+ * Entries live in an LRU order. When the cache is full, a new entry only replaces
+ * the least recently used one if the sketch says its key has been requested more
+ * often (TinyLFU admission), so a burst of one-off keys cannot flush the popular ones.
+ *
+ * Every entry records the source version it was computed from. A lookup with a
+ * newer version treats the entry as a miss and drops it, so invalidation follows
+ * the data instead of a TTL.
+ */
+public final class TinyLfuCache<K, V> {
+
+    /**
+     * A cached value with the version it was computed from and its creation time.
+     */
+    public static final class Entry<V> {
+        private final V value;
+        private final long version;
+        private final long createdNanos;
+
+        private Entry(V value, long version) {
+            this.value = value;
+            this.version = version;
+            this.createdNanos = System.nanoTime();
+        }
+
+        public V value() {
+            return value;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        /**
+         * Milliseconds since the entry was stored.
+         */
+        public long ageMillis() {
+            return (System.nanoTime() - createdNanos) / 1_000_000;
+        }
+    }
+
+    private final int maximumSize;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final FrequencySketch sketch;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long rejections;
+    // Time callers spent computing values after a miss, reported through recordLoad
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    public TinyLfuCache(int maximumSize) {
+        this.maximumSize = Math.max(1, maximumSize);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.sketch = new FrequencySketch(this.maximumSize);
+    }
+
+    /**
+     * Look up a value computed from the given source version.
+     *
+     * @return the entry, or null on a miss or if the entry is from another version
+     */
+    public synchronized Entry<V> get(K key, long version) {
+        sketch.increment(key);
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.version != version) {
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry;
+    }
+
+    /**
+     * Store a value computed from the given source version, subject to admission.
+     *
+     * @return true if the value was stored
+     */
+    public synchronized boolean put(K key, V value, long version) {
+        Entry<V> entry = new Entry<>(value, version);
+        if (entries.containsKey(key) || entries.size() < maximumSize) {
+            entries.put(key, entry);
+            return true;
+        }
+
+        Iterator<Map.Entry<K, Entry<V>>> lru = entries.entrySet().iterator();
+        Map.Entry<K, Entry<V>> victim = lru.next();
+        // Entries from an older version are dead weight and always make room
+        if (victim.getValue().version < version || sketch.frequency(key) > sketch.frequency(victim.getKey())) {
+            lru.remove();
+            evictions++;
+            entries.put(key, entry);
+            return true;
+        }
+        rejections++;
+        return false;
+    }
+
+    /**
+     * Record the time spent computing a value after a miss.
+     */
+    public void recordLoad(long nanos) {
+        loads.increment();
+        loadNanos.add(nanos);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    public synchronized long evictionCount() {
+        return evictions;
+    }
+
+    public synchronized long rejectionCount() {
+        return rejections;
+    }
+
+    public long loadCount() {
+        return loads.sum();
+    }
+
+    public long totalLoadNanos() {
+        return loadNanos.sum();
+    }
+}
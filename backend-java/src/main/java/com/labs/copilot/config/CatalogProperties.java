@@ -0,0 +1,300 @@
+package com.labs.copilot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Catalog settings, bound from the {@code catalog.*} properties.
+ */
+@ConfigurationProperties("catalog")
+public class CatalogProperties {
+
+    private final Ingestion ingestion = new Ingestion();
+    private final Cache cache = new Cache();
+    private final Warmup warmup = new Warmup();
+    private final Storage storage = new Storage();
+
+    public Ingestion getIngestion() {
+        return ingestion;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Warmup getWarmup() {
+        return warmup;
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Where product records are kept ({@code catalog.storage.*}).
+     */
+    public static class Storage {
+        // "heap" (Product objects) or "off-heap" (serialized records in direct memory)
+        private String mode = "heap";
+        // Size of each direct buffer allocated for off-heap records
+        private DataSize offHeapChunkSize = DataSize.ofMegabytes(8);
+        // Maximum off-heap records kept decoded on the heap
+        private int decodedCacheEntries = 10000;
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public DataSize getOffHeapChunkSize() {
+            return offHeapChunkSize;
+        }
+
+        public void setOffHeapChunkSize(DataSize offHeapChunkSize) {
+            this.offHeapChunkSize = offHeapChunkSize;
+        }
+
+        public int getDecodedCacheEntries() {
+            return decodedCacheEntries;
+        }
+
+        public void setDecodedCacheEntries(int decodedCacheEntries) {
+            this.decodedCacheEntries = decodedCacheEntries;
+        }
+    }
+
+    /**
+     * Startup warm-up from recorded top queries ({@code catalog.warmup.*}).
+     */
+    public static class Warmup {
+        // Replay the warm-up file before reporting ready
+        private boolean enabled = true;
+        // Top-queries file, written by the running service and read at startup
+        private String file = "data/top-queries.json";
+        // How often the running service rewrites the file
+        private Duration dumpInterval = Duration.ofMinutes(5);
+        // Maximum searches and listings kept in the file
+        private int maxQueries = 200;
+        // Maximum product ids kept in the file
+        private int maxProducts = 500;
+        // Passes over the file at startup
+        private int iterations = 2;
+        // Give up on the warm-up after this long
+        private Duration timeout = Duration.ofSeconds(60);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public Duration getDumpInterval() {
+            return dumpInterval;
+        }
+
+        public void setDumpInterval(Duration dumpInterval) {
+            this.dumpInterval = dumpInterval;
+        }
+
+        public int getMaxQueries() {
+            return maxQueries;
+        }
+
+        public void setMaxQueries(int maxQueries) {
+            this.maxQueries = maxQueries;
+        }
+
+        public int getMaxProducts() {
+            return maxProducts;
+        }
+
+        public void setMaxProducts(int maxProducts) {
+            this.maxProducts = maxProducts;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public void setIterations(int iterations) {
+            this.iterations = iterations;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * In-process caches ({@code catalog.cache.*}).
+     */
+    public static class Cache {
+        // Maximum search/listing pages kept in the query result cache
+        private int queryResultEntries = 1024;
+        // Maximum products kept as pre-rendered JSON for GET /products/{id}
+        private int productJsonEntries = 10000;
+        // Maximum unknown product ids remembered after a Bloom filter false positive
+        private int unknownIdEntries = 1024;
+        private final L2 l2 = new L2();
+
+        public int getQueryResultEntries() {
+            return queryResultEntries;
+        }
+
+        public void setQueryResultEntries(int queryResultEntries) {
+            this.queryResultEntries = queryResultEntries;
+        }
+
+        public int getProductJsonEntries() {
+            return productJsonEntries;
+        }
+
+        public void setProductJsonEntries(int productJsonEntries) {
+            this.productJsonEntries = productJsonEntries;
+        }
+
+        public int getUnknownIdEntries() {
+            return unknownIdEntries;
+        }
+
+        public void setUnknownIdEntries(int unknownIdEntries) {
+            this.unknownIdEntries = unknownIdEntries;
+        }
+
+        public L2 getL2() {
+            return l2;
+        }
+
+        /**
+         * Memory-mapped second tier behind the product JSON cache ({@code catalog.cache.l2.*}).
+         */
+        public static class L2 {
+            // Keep rendered products in a file that survives restarts
+            private boolean enabled = false;
+            // Cache file on local disk
+            private String file = "data/product-json.cache";
+            // Size of the cache file, at most 1GB
+            private DataSize size = DataSize.ofMegabytes(64);
+            // Bytes per entry; larger products are not stored
+            private DataSize slotSize = DataSize.ofKilobytes(4);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getFile() {
+                return file;
+            }
+
+            public void setFile(String file) {
+                this.file = file;
+            }
+
+            public DataSize getSize() {
+                return size;
+            }
+
+            public void setSize(DataSize size) {
+                this.size = size;
+            }
+
+            public DataSize getSlotSize() {
+                return slotSize;
+            }
+
+            public void setSlotSize(DataSize slotSize) {
+                this.slotSize = slotSize;
+            }
+        }
+    }
+
+    /**
+     * Change-data-capture ingestion ({@code catalog.ingestion.*}).
+     */
+    public static class Ingestion {
+        // Start the ingestion worker
+        private boolean enabled = true;
+        // Event source: "queue" (in-process) or "file" (JSON lines)
+        private String source = "queue";
+        // JSON-lines file tailed by the "file" source
+        private String file = "data/catalog-changes.jsonl";
+        // Maximum events per micro-batch
+        private int maxBatchSize = 500;
+        // How long a batch keeps collecting after its first event
+        private Duration batchWindow = Duration.ofMillis(200);
+        // How long an idle poll waits for the first event
+        private Duration pollTimeout = Duration.ofSeconds(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public void setSource(String source) {
+            this.source = source;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public Duration getBatchWindow() {
+            return batchWindow;
+        }
+
+        public void setBatchWindow(Duration batchWindow) {
+            this.batchWindow = batchWindow;
+        }
+
+        public Duration getPollTimeout() {
+            return pollTimeout;
+        }
+
+        public void setPollTimeout(Duration pollTimeout) {
+            this.pollTimeout = pollTimeout;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.labs.copilot.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labs.copilot.ingestion.CatalogIngestionService;
+import com.labs.copilot.ingestion.ChangeEventSource;
+import com.labs.copilot.ingestion.FileChangeEventSource;
+import com.labs.copilot.ingestion.InMemoryChangeEventSource;
+import com.labs.copilot.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Wires the CDC ingestion pipeline that feeds the read-side catalog.
+ *
+ * Set {@code catalog.ingestion.source=file} to tail {@code catalog.ingestion.file};
+ * the default in-process queue receives events published by other components.
+ */
+@Configuration
+public class IngestionConfiguration {
+
+    @Bean
+    public ChangeEventSource changeEventSource(CatalogProperties properties, ObjectMapper objectMapper) {
+        CatalogProperties.Ingestion ingestion = properties.getIngestion();
+        return switch (ingestion.getSource()) {
+            case "queue" -> new InMemoryChangeEventSource();
+            case "file" -> new FileChangeEventSource(Path.of(ingestion.getFile()), objectMapper);
+            default -> throw new IllegalArgumentException("Unknown catalog.ingestion.source: " + ingestion.getSource());
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "catalog.ingestion", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public CatalogIngestionService catalogIngestionService(ProductService productService, ChangeEventSource source,
+                                                           MeterRegistry meterRegistry, CatalogProperties properties) {
+        CatalogProperties.Ingestion ingestion = properties.getIngestion();
+        return new CatalogIngestionService(productService, source, meterRegistry,
+                ingestion.getMaxBatchSize(), ingestion.getBatchWindow(), ingestion.getPollTimeout());
+    }
+}
@@ -0,0 +1,38 @@
+package com.labs.copilot.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labs.copilot.cache.ProductJsonCache;
+import com.labs.copilot.service.ProductService;
+import com.labs.copilot.warmup.CatalogWarmup;
+import com.labs.copilot.warmup.TopQueriesRecorder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Wires the startup warm-up and the recorder that produces its input file.
+ *
+ * The recorder always counts requests; {@code catalog.warmup.enabled=false} only
+ * turns off replaying the file at startup.
+ */
+@Configuration
+public class WarmupConfiguration {
+
+    @Bean
+    public TopQueriesRecorder topQueriesRecorder(CatalogProperties properties, ObjectMapper objectMapper) {
+        CatalogProperties.Warmup warmup = properties.getWarmup();
+        return new TopQueriesRecorder(Path.of(warmup.getFile()), objectMapper, warmup.getDumpInterval(),
+                warmup.getMaxQueries(), warmup.getMaxProducts());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "catalog.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public CatalogWarmup catalogWarmup(ProductService productService, ProductJsonCache productJsonCache,
+                                       ObjectMapper objectMapper, CatalogProperties properties) {
+        CatalogProperties.Warmup warmup = properties.getWarmup();
+        return new CatalogWarmup(productService, productJsonCache, objectMapper, Path.of(warmup.getFile()),
+                warmup.getIterations(), warmup.getTimeout());
+    }
+}
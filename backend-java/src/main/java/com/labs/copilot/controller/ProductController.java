@@ -1,20 +1,46 @@
 package com.labs.copilot.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labs.copilot.cache.ProductJsonCache;
 import com.labs.copilot.dto.ErrorResponse;
+import com.labs.copilot.dto.FacetResponse;
+import com.labs.copilot.dto.Facets;
 import com.labs.copilot.dto.PaginatedResponse;
 import com.labs.copilot.dto.ResponseMetadata;
+import com.labs.copilot.dto.SuggestResponse;
+import com.labs.copilot.dto.Suggestion;
+import com.labs.copilot.model.LastModified;
 import com.labs.copilot.model.Product;
+import com.labs.copilot.search.Facet;
+import com.labs.copilot.search.FacetCounts;
+import com.labs.copilot.search.Fuzziness;
+import com.labs.copilot.search.InvalidCursorException;
+import com.labs.copilot.search.TextMatchMode;
+import com.labs.copilot.service.CatalogSnapshot;
 import com.labs.copilot.service.ProductService;
+import com.labs.copilot.service.SearchQuery;
+import com.labs.copilot.warmup.TopQueries;
+import com.labs.copilot.warmup.TopQueriesRecorder;
 
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Product controller for product search and retrieval endpoints.
@@ -23,6 +49,11 @@ import java.util.UUID;
  * It routes to: GET /api/v1/products and GET /api/v1/search
  * 
  * All endpoints return paginated responses with metadata about data freshness and source.
+ *
+ * Successful responses carry {@code Cache-Control: max-age=300} and strong validators:
+ * list and search pages are tagged with the catalog version plus the normalized query,
+ * single products with their id and {@code updatedAt}. A matching If-None-Match (or
+ * If-Modified-Since) is answered with 304 before any search runs or JSON is written.
  */
 @RestController
 @RequestMapping("/products")
@@ -32,30 +63,86 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductJsonCache productJsonCache;
+
+    @Autowired
+    private TopQueriesRecorder topQueriesRecorder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(300, TimeUnit.SECONDS);
+
+    private static final String PRODUCT_ID_PLACEHOLDER = "{productId}";
+    private static final String TIMESTAMP_PLACEHOLDER = "{timestamp}";
+
+    // Product-not-found body rendered once, split around the timestamp and the
+    // product id in its path, in the order they appear in the JSON
+    private byte[][] notFoundParts;
+    private boolean notFoundTimestampFirst;
+
+    @PostConstruct
+    void renderNotFoundBody() throws JsonProcessingException {
+        ErrorResponse template = new ErrorResponse("Product not found", "PRODUCT_NOT_FOUND",
+                "/api/v1/products/" + PRODUCT_ID_PLACEHOLDER);
+        template.setTimestamp(TIMESTAMP_PLACEHOLDER);
+        String json = objectMapper.writeValueAsString(template);
+        int id = json.indexOf(PRODUCT_ID_PLACEHOLDER);
+        int timestamp = json.indexOf(TIMESTAMP_PLACEHOLDER);
+        notFoundTimestampFirst = timestamp < id;
+        int first = Math.min(id, timestamp);
+        int second = Math.max(id, timestamp);
+        int firstEnd = first + (notFoundTimestampFirst ? TIMESTAMP_PLACEHOLDER : PRODUCT_ID_PLACEHOLDER).length();
+        int secondEnd = second + (notFoundTimestampFirst ? PRODUCT_ID_PLACEHOLDER : TIMESTAMP_PLACEHOLDER).length();
+        notFoundParts = new byte[][] {
+                json.substring(0, first).getBytes(StandardCharsets.UTF_8),
+                json.substring(firstEnd, second).getBytes(StandardCharsets.UTF_8),
+                json.substring(secondEnd).getBytes(StandardCharsets.UTF_8)
+        };
+    }
+
     /**
      * Get all products with pagination and sorting.
      * 
      * GET /api/v1/products?page=1&pageSize=20&sortBy=name&sortOrder=asc
      *
-     * @param page      page number (1-based, default: 1)
+     * Deep pages are cheaper through {@code cursor}: pass the previous page's
+     * {@code nextCursor} with the same sort and the listing resumes right after it.
+     *
+     * @param page      page number (1-based, default: 1); ignored with a cursor
      * @param pageSize  items per page (default: 20, max: 100)
      * @param sortBy    sort field (name, price, created; default: name)
      * @param sortOrder sort order (asc or desc; default: asc)
-     * @return paginated product list
+     * @param cursor    nextCursor of the previous page (optional)
+     * @return paginated product list, or 400 if the cursor is invalid for this sort
      */
     @GetMapping("")
-    public ResponseEntity<PaginatedResponse<Product>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "20") Integer pageSize,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortOrder) {
+            @RequestParam(defaultValue = "asc") String sortOrder,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
         
         // Validate pagination parameters
         if (page < 1) page = 1;
         if (pageSize < 1 || pageSize > 100) pageSize = 20;
 
+        // Cursor pages cannot be replayed on warmup, so only page-number requests are recorded
+        if (cursor == null) {
+            topQueriesRecorder.recordListing(new TopQueries.Listing(page, pageSize, sortBy, sortOrder));
+        }
         try {
-            ProductService.SearchResult result = productService.searchProducts(page, pageSize, sortBy, sortOrder);
+            CatalogSnapshot current = productService.currentSnapshot();
+            if (request.checkNotModified(
+                    productService.listingETag(page, pageSize, sortBy, sortOrder, cursor, current.version()),
+                    current.publishedAt().toEpochMilli())) {
+                return notModified();
+            }
+
+            ProductService.SearchResult result = productService.searchProducts(page, pageSize, sortBy, sortOrder, cursor);
 
             PaginatedResponse<Product> response = new PaginatedResponse<>();
             response.setData(result.products);
@@ -65,15 +152,20 @@ public class ProductController {
                     result.totalCount,
                     result.totalPages
             ));
+            response.setNextCursor(result.nextCursor);
 
             ResponseMetadata metadata = new ResponseMetadata();
             metadata.setCached(result.cached);
-            metadata.setCacheAge("120s");
+            metadata.setCacheAge(result.cacheAgeMillis / 1000 + "s");
             metadata.setSource(result.source);
+            metadata.setCatalogVersion(result.catalogVersion);
             metadata.setTimestamp(LocalDateTime.now());
             response.set_metadata(metadata);
 
-            return ResponseEntity.ok(response);
+            return cacheable(productService.listingETag(page, pageSize, sortBy, sortOrder, cursor, result.catalogVersion),
+                    result).body(response);
+        } catch (InvalidCursorException e) {
+            return invalidCursor("/api/v1/products");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -89,25 +181,25 @@ public class ProductController {
      */
     @GetMapping("/{productId}")
     public ResponseEntity<?> getProductById(
-            @PathVariable String productId) {
+            @PathVariable String productId,
+            WebRequest request) {
         try {
             UUID id = UUID.fromString(productId);
             Optional<Product> product = productService.getProductById(id);
 
             if (product.isPresent()) {
-                ResponseMetadata metadata = new ResponseMetadata();
-                metadata.setCached(true);
-                metadata.setCacheAge("300s");
-                metadata.setSource("redis");
-                
-                return ResponseEntity.ok(product.get());
+                topQueriesRecorder.recordProduct(id);
+                if (request.checkNotModified(productETag(product.get()), LastModified.of(product.get()))) {
+                    return notModified();
+                }
+                // Write the pre-rendered JSON rather than serializing the product again
+                return cacheable(product.get())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(productJsonCache.render(product.get()));
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(new ErrorResponse(
-                                "Product not found",
-                                "PRODUCT_NOT_FOUND",
-                                "/api/v1/products/" + productId
-                        ));
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(productNotFound(productId));
             }
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -119,29 +211,73 @@ public class ProductController {
         }
     }
 
+    /**
+     * Get a product by SKU.
+     * 
+     * GET /api/v1/products/sku/{sku}
+     *
+     * @param sku product SKU (case-insensitive)
+     * @return product details or 404 if not found
+     */
+    @GetMapping("/sku/{sku}")
+    public ResponseEntity<?> getProductBySku(
+            @PathVariable String sku,
+            WebRequest request) {
+        Optional<Product> product = productService.getProductBySku(sku);
+
+        if (product.isPresent()) {
+            if (request.checkNotModified(productETag(product.get()), LastModified.of(product.get()))) {
+                return notModified();
+            }
+            return cacheable(product.get()).body(product.get());
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse(
+                        "Product not found",
+                        "PRODUCT_NOT_FOUND",
+                        "/api/v1/products/sku/" + sku
+                ));
+    }
+
     /**
      * Search products with filters.
      * 
      * GET /api/v1/search?query=laptop&category=Electronics&minPrice=500&maxPrice=1500&inStock=true
      *
-     * @param query     search query (searches name and description)
+     * @param query     search query (terms matched against name and description)
      * @param category  filter by category
      * @param minPrice  minimum price filter
      * @param maxPrice  maximum price filter
      * @param inStock   filter by stock availability (true = in stock only)
-     * @param page      page number (default: 1)
+     * @param page      page number (default: 1); ignored with a cursor
      * @param pageSize  items per page (default: 20)
-     * @return search results with pagination
+     * @param cursor    nextCursor of the previous page, with the same filters and sort (optional)
+     * @param matchMode text matching (all, any, substring; default: all)
+     * @param fuzziness edits tolerated per query term (0, 1, 2 or auto; default: 0)
+     * @param sortBy    optional sort (name, price, created, or relevance for BM25 ranking of the
+     *                  query terms); omitted keeps catalog order
+     * @param sortOrder sort order (asc or desc; default: asc)
+     * @param debug     include the chosen query plan in the metadata (default: false)
+     * @param facets    facets to aggregate over every match (category, price, stock or all; default: none)
+     * @return search results with pagination, or 400 if the cursor is invalid for this sort
      */
     @GetMapping("/search")
-    public ResponseEntity<PaginatedResponse<Product>> searchProducts(
+    public ResponseEntity<?> searchProducts(
             @RequestParam(required = false) String query,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) Boolean inStock,
             @RequestParam(defaultValue = "1") Integer page,
-            @RequestParam(defaultValue = "20") Integer pageSize) {
+            @RequestParam(defaultValue = "20") Integer pageSize,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "all") String matchMode,
+            @RequestParam(defaultValue = "0") String fuzziness,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "asc") String sortOrder,
+            @RequestParam(defaultValue = "false") boolean debug,
+            @RequestParam(required = false) String facets,
+            WebRequest request) {
 
         long startTime = System.currentTimeMillis();
         
@@ -149,9 +285,31 @@ public class ProductController {
         if (pageSize < 1 || pageSize > 100) pageSize = 20;
 
         try {
-            ProductService.SearchResult result = productService.searchByFilters(
-                    query, category, minPrice, maxPrice, inStock, page, pageSize
-            );
+            SearchQuery searchQuery = new SearchQuery();
+            searchQuery.setQuery(query);
+            searchQuery.setCategory(category);
+            searchQuery.setMinPrice(minPrice);
+            searchQuery.setMaxPrice(maxPrice);
+            searchQuery.setInStock(inStock);
+            searchQuery.setPage(page);
+            searchQuery.setPageSize(pageSize);
+            searchQuery.setCursor(cursor);
+            searchQuery.setMatchMode(TextMatchMode.fromValue(matchMode));
+            searchQuery.setFuzziness(Fuzziness.fromValue(fuzziness));
+            searchQuery.setSortBy(sortBy);
+            searchQuery.setSortOrder(sortOrder);
+            searchQuery.setFacets(Facet.fromValues(facets));
+            if (cursor == null) {
+                topQueriesRecorder.recordSearch(TopQueries.Search.of(searchQuery));
+            }
+
+            CatalogSnapshot current = productService.currentSnapshot();
+            String currentETag = productService.searchETag(searchQuery, current.version());
+            if (request.checkNotModified(debug ? currentETag + "-debug" : currentETag, current.publishedAt().toEpochMilli())) {
+                return notModified();
+            }
+
+            ProductService.SearchResult result = productService.searchByFilters(searchQuery);
 
             PaginatedResponse<Product> response = new PaginatedResponse<>();
             response.setData(result.products);
@@ -161,20 +319,145 @@ public class ProductController {
                     result.totalCount,
                     result.totalPages
             ));
+            response.setNextCursor(result.nextCursor);
+            if (result.facets != null) {
+                response.setFacets(toFacets(result.facets));
+            }
+
+            ResponseMetadata metadata = new ResponseMetadata();
+            metadata.setCached(result.cached);
+            metadata.setCacheAge(result.cacheAgeMillis / 1000 + "s");
+            metadata.setSource(result.source);
+            metadata.setCatalogVersion(result.catalogVersion);
+            metadata.setSearchTime((System.currentTimeMillis() - startTime) + "ms");
+            metadata.setDataFreshness("current");
+            if (debug && result.plan != null) {
+                metadata.setQueryPlan(result.plan.toString());
+            }
+            response.set_metadata(metadata);
+
+            String eTag = productService.searchETag(searchQuery, result.catalogVersion);
+            return cacheable(debug ? eTag + "-debug" : eTag, result).body(response);
+        } catch (InvalidCursorException e) {
+            return invalidCursor("/api/v1/products/search");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Facet counts for a filter set.
+     *
+     * GET /api/v1/products/facets?query=laptop&minPrice=100&facets=category,price,stock
+     *
+     * Counts categories, price buckets and stock state over every product matching the
+     * filters in one pass, instead of one category request per facet value.
+     *
+     * @param query     search query (terms matched against name and description)
+     * @param category  filter by category
+     * @param minPrice  minimum price filter
+     * @param maxPrice  maximum price filter
+     * @param inStock   filter by stock availability (true = in stock only)
+     * @param matchMode text matching (all, any, substring; default: all)
+     * @param fuzziness edits tolerated per query term (0, 1, 2 or auto; default: 0)
+     * @param facets    facets to aggregate (category, price, stock; default: all)
+     * @return facet counts and the total match count
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<FacetResponse> getFacets(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "all") String matchMode,
+            @RequestParam(defaultValue = "0") String fuzziness,
+            @RequestParam(defaultValue = "all") String facets,
+            WebRequest request) {
+
+        long startTime = System.currentTimeMillis();
+
+        try {
+            SearchQuery searchQuery = new SearchQuery();
+            searchQuery.setQuery(query);
+            searchQuery.setCategory(category);
+            searchQuery.setMinPrice(minPrice);
+            searchQuery.setMaxPrice(maxPrice);
+            searchQuery.setInStock(inStock);
+            searchQuery.setMatchMode(TextMatchMode.fromValue(matchMode));
+            searchQuery.setFuzziness(Fuzziness.fromValue(fuzziness));
+            searchQuery.setFacets(Facet.fromValues(facets));
+
+            CatalogSnapshot current = productService.currentSnapshot();
+            if (request.checkNotModified(productService.facetsETag(searchQuery, current.version()),
+                    current.publishedAt().toEpochMilli())) {
+                return notModified();
+            }
+
+            ProductService.SearchResult result = productService.facets(searchQuery);
+
+            FacetResponse response = new FacetResponse(toFacets(result.facets), result.totalCount);
 
             ResponseMetadata metadata = new ResponseMetadata();
             metadata.setCached(result.cached);
+            metadata.setCacheAge(result.cacheAgeMillis / 1000 + "s");
             metadata.setSource(result.source);
+            metadata.setCatalogVersion(result.catalogVersion);
             metadata.setSearchTime((System.currentTimeMillis() - startTime) + "ms");
             metadata.setDataFreshness("current");
             response.set_metadata(metadata);
 
-            return ResponseEntity.ok(response);
+            return cacheable(productService.facetsETag(searchQuery, result.catalogVersion), result).body(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * Typeahead completions for the search bar.
+     *
+     * GET /api/v1/products/suggest?prefix=wire&limit=5
+     *
+     * Matches the prefix against normalized product names and SKUs of active products
+     * and returns the best completions from a prefix trie, without running a search.
+     *
+     * @param prefix text typed so far (case, spacing and punctuation are ignored)
+     * @param limit  maximum number of suggestions (1 to 10, default: 10)
+     * @return completions, most stock on hand first
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<SuggestResponse> suggest(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") Integer limit,
+            WebRequest request) {
+
+        long startTime = System.nanoTime();
+
+        CatalogSnapshot current = productService.currentSnapshot();
+        if (request.checkNotModified(productService.suggestETag(prefix, limit, current.version()),
+                current.publishedAt().toEpochMilli())) {
+            return notModified();
+        }
+
+        ProductService.SearchResult result = productService.suggest(prefix, limit);
+
+        List<Suggestion> suggestions = new ArrayList<>(result.products.size());
+        for (Product product : result.products) {
+            suggestions.add(new Suggestion(product.getId(), product.getName(), product.getSku(),
+                    product.getCategory(), product.getPrice()));
+        }
+        SuggestResponse response = new SuggestResponse(prefix, suggestions);
+
+        ResponseMetadata metadata = new ResponseMetadata();
+        metadata.setCached(false);
+        metadata.setSource(result.source);
+        metadata.setCatalogVersion(result.catalogVersion);
+        metadata.setSearchTime(String.format(Locale.ROOT, "%.3fms", (System.nanoTime() - startTime) / 1e6));
+        response.set_metadata(metadata);
+
+        return cacheable(productService.suggestETag(prefix, limit, result.catalogVersion), result).body(response);
+    }
+
     /**
      * Search products by category.
      * 
@@ -189,12 +472,21 @@ public class ProductController {
     public ResponseEntity<PaginatedResponse<Product>> getByCategory(
             @PathVariable String category,
             @RequestParam(defaultValue = "1") Integer page,
-            @RequestParam(defaultValue = "20") Integer pageSize) {
+            @RequestParam(defaultValue = "20") Integer pageSize,
+            WebRequest request) {
 
         if (page < 1) page = 1;
         if (pageSize < 1 || pageSize > 100) pageSize = 20;
 
+        topQueriesRecorder.recordSearch(new TopQueries.Search(null, TextMatchMode.ALL, Fuzziness.ZERO, category, null, null,
+                true, null, null, page, pageSize));
         try {
+            CatalogSnapshot current = productService.currentSnapshot();
+            if (request.checkNotModified(productService.categoryETag(category, page, pageSize, current.version()),
+                    current.publishedAt().toEpochMilli())) {
+                return notModified();
+            }
+
             ProductService.SearchResult result = productService.getByCategory(category, page, pageSize);
 
             PaginatedResponse<Product> response = new PaginatedResponse<>();
@@ -208,15 +500,75 @@ public class ProductController {
 
             ResponseMetadata metadata = new ResponseMetadata();
             metadata.setCached(result.cached);
+            metadata.setCacheAge(result.cacheAgeMillis / 1000 + "s");
             metadata.setSource(result.source);
+            metadata.setCatalogVersion(result.catalogVersion);
             response.set_metadata(metadata);
 
-            return ResponseEntity.ok(response);
+            return cacheable(productService.categoryETag(category, page, pageSize, result.catalogVersion), result)
+                    .body(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    private static Facets toFacets(FacetCounts counts) {
+        Facets facets = new Facets();
+        facets.setCategories(counts.getCategories());
+        if (counts.getPriceBuckets() != null) {
+            List<Facets.PriceBucket> buckets = new ArrayList<>(counts.getPriceBuckets().size());
+            for (FacetCounts.PriceBucket bucket : counts.getPriceBuckets()) {
+                buckets.add(new Facets.PriceBucket(bucket.min(), bucket.max(), bucket.count()));
+            }
+            facets.setPriceBuckets(buckets);
+        }
+        if (counts.getInStock() != null) {
+            facets.setStock(new Facets.StockCounts(counts.getInStock(), counts.getOutOfStock()));
+        }
+        return facets;
+    }
+
+    // productId has already parsed as a UUID and the timestamp is an ISO date-time,
+    // so neither needs JSON escaping
+    private byte[] productNotFound(String productId) {
+        byte[] id = productId.getBytes(StandardCharsets.US_ASCII);
+        byte[] timestamp = LocalDateTime.now().toString().getBytes(StandardCharsets.US_ASCII);
+        byte[] first = notFoundTimestampFirst ? timestamp : id;
+        byte[] second = notFoundTimestampFirst ? id : timestamp;
+        byte[] body = new byte[notFoundParts[0].length + first.length + notFoundParts[1].length + second.length
+                + notFoundParts[2].length];
+        int at = 0;
+        for (byte[] part : new byte[][] {notFoundParts[0], first, notFoundParts[1], second, notFoundParts[2]}) {
+            System.arraycopy(part, 0, body, at, part.length);
+            at += part.length;
+        }
+        return body;
+    }
+
+    private static ResponseEntity<ErrorResponse> invalidCursor(String path) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse("Invalid cursor", "INVALID_CURSOR", path));
+    }
+
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CACHE_CONTROL).build();
+    }
+
+    private static ResponseEntity.BodyBuilder cacheable(String eTag, ProductService.SearchResult result) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(CACHE_CONTROL).eTag(eTag);
+        return result.catalogPublishedAt != null ? builder.lastModified(result.catalogPublishedAt) : builder;
+    }
+
+    private static ResponseEntity.BodyBuilder cacheable(Product product) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(CACHE_CONTROL).eTag(productETag(product));
+        long lastModified = LastModified.of(product);
+        return lastModified >= 0 ? builder.lastModified(lastModified) : builder;
+    }
+
+    private static String productETag(Product product) {
+        return product.getId() + "-" + LastModified.of(product);
+    }
+
     /**
      * Health check endpoint.
      * 
@@ -0,0 +1,42 @@
+package com.labs.copilot.dto;
+
+/**
+ * Facet counts for a filter set, without a result page.
+ */
+public class FacetResponse {
+    private Facets facets;
+    private Long totalCount;
+    private ResponseMetadata _metadata;
+
+    public FacetResponse() {
+    }
+
+    public FacetResponse(Facets facets, Long totalCount) {
+        this.facets = facets;
+        this.totalCount = totalCount;
+    }
+
+    public Facets getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Facets facets) {
+        this.facets = facets;
+    }
+
+    public Long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(Long totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public ResponseMetadata get_metadata() {
+        return _metadata;
+    }
+
+    public void set_metadata(ResponseMetadata _metadata) {
+        this._metadata = _metadata;
+    }
+}
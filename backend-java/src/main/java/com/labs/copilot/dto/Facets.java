@@ -0,0 +1,119 @@
+package com.labs.copilot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet counts for a search; facets that were not requested are omitted.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Facets {
+    private Map<String, Long> categories;
+    private List<PriceBucket> priceBuckets;
+    private StockCounts stock;
+
+    public Facets() {
+    }
+
+    public Map<String, Long> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(Map<String, Long> categories) {
+        this.categories = categories;
+    }
+
+    public List<PriceBucket> getPriceBuckets() {
+        return priceBuckets;
+    }
+
+    public void setPriceBuckets(List<PriceBucket> priceBuckets) {
+        this.priceBuckets = priceBuckets;
+    }
+
+    public StockCounts getStock() {
+        return stock;
+    }
+
+    public void setStock(StockCounts stock) {
+        this.stock = stock;
+    }
+
+    /**
+     * Products priced from {@code min} (inclusive) to {@code max} (exclusive); the last bucket has no max.
+     */
+    public static class PriceBucket {
+        private BigDecimal min;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private BigDecimal max;
+        private Long count;
+
+        public PriceBucket() {
+        }
+
+        public PriceBucket(BigDecimal min, BigDecimal max, Long count) {
+            this.min = min;
+            this.max = max;
+            this.count = count;
+        }
+
+        public BigDecimal getMin() {
+            return min;
+        }
+
+        public void setMin(BigDecimal min) {
+            this.min = min;
+        }
+
+        public BigDecimal getMax() {
+            return max;
+        }
+
+        public void setMax(BigDecimal max) {
+            this.max = max;
+        }
+
+        public Long getCount() {
+            return count;
+        }
+
+        public void setCount(Long count) {
+            this.count = count;
+        }
+    }
+
+    /**
+     * Products with and without stock on hand.
+     */
+    public static class StockCounts {
+        private Long inStock;
+        private Long outOfStock;
+
+        public StockCounts() {
+        }
+
+        public StockCounts(Long inStock, Long outOfStock) {
+            this.inStock = inStock;
+            this.outOfStock = outOfStock;
+        }
+
+        public Long getInStock() {
+            return inStock;
+        }
+
+        public void setInStock(Long inStock) {
+            this.inStock = inStock;
+        }
+
+        public Long getOutOfStock() {
+            return outOfStock;
+        }
+
+        public void setOutOfStock(Long outOfStock) {
+            this.outOfStock = outOfStock;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.labs.copilot.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 /**
@@ -9,6 +11,12 @@ public class PaginatedResponse<T> {
     private List<T> data;
     private PaginationInfo pagination;
     private ResponseMetadata _metadata;
+    // Only reported when facets were requested
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Facets facets;
+    // Token for the following page; omitted on the last page
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 
     public PaginatedResponse() {
     }
@@ -42,6 +50,22 @@ public class PaginatedResponse<T> {
         this._metadata = _metadata;
     }
 
+    public Facets getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Facets facets) {
+        this.facets = facets;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     /**
      * Pagination information.
      */
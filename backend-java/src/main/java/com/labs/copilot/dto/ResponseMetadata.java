@@ -1,5 +1,7 @@
 package com.labs.copilot.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
 
 /**
@@ -12,6 +14,10 @@ public class ResponseMetadata {
     private String searchTime;
     private String dataFreshness;
     private LocalDateTime timestamp;
+    private Long catalogVersion;
+    // Only reported in debug mode
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String queryPlan;
 
     public ResponseMetadata() {
         this.timestamp = LocalDateTime.now();
@@ -64,4 +70,20 @@ public class ResponseMetadata {
     public void setTimestamp(LocalDateTime timestamp) {
         this.timestamp = timestamp;
     }
+
+    public Long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public void setCatalogVersion(Long catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    public String getQueryPlan() {
+        return queryPlan;
+    }
+
+    public void setQueryPlan(String queryPlan) {
+        this.queryPlan = queryPlan;
+    }
 }
@@ -0,0 +1,44 @@
+package com.labs.copilot.dto;
+
+import java.util.List;
+
+/**
+ * Typeahead completions for a prefix, best first.
+ */
+public class SuggestResponse {
+    private String prefix;
+    private List<Suggestion> suggestions;
+    private ResponseMetadata _metadata;
+
+    public SuggestResponse() {
+    }
+
+    public SuggestResponse(String prefix, List<Suggestion> suggestions) {
+        this.prefix = prefix;
+        this.suggestions = suggestions;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public List<Suggestion> getSuggestions() {
+        return suggestions;
+    }
+
+    public void setSuggestions(List<Suggestion> suggestions) {
+        this.suggestions = suggestions;
+    }
+
+    public ResponseMetadata get_metadata() {
+        return _metadata;
+    }
+
+    public void set_metadata(ResponseMetadata _metadata) {
+        this._metadata = _metadata;
+    }
+}
@@ -0,0 +1,66 @@
+package com.labs.copilot.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A typeahead completion: just enough of a product to render the dropdown entry.
+ */
+public class Suggestion {
+    private UUID id;
+    private String name;
+    private String sku;
+    private String category;
+    private BigDecimal price;
+
+    public Suggestion() {
+    }
+
+    public Suggestion(UUID id, String name, String sku, String category, BigDecimal price) {
+        this.id = id;
+        this.name = name;
+        this.sku = sku;
+        this.category = category;
+        this.price = price;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+}
@@ -0,0 +1,254 @@
+package com.labs.copilot.ingestion;
+
+import com.labs.copilot.model.Product;
+import com.labs.copilot.model.ProductStatus;
+import com.labs.copilot.service.ProductService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies product change events from a {@link ChangeEventSource} to the catalog.
+ *
+ * Events are gathered into micro-batches (up to {@code maxBatchSize} events or
+ * {@code batchWindow} after the first event), coalesced so that only the net change
+ * per product id survives, and applied with a single
+ * {@link ProductService#applyChanges} call, which publishes one new snapshot per batch.
+ *
+ * Metrics:
+ * <ul>
+ *   <li>{@code catalog.ingestion.events} - events by outcome (received, coalesced, applied, rejected)</li>
+ *   <li>{@code catalog.ingestion.batch.size} - events per batch</li>
+ *   <li>{@code catalog.ingestion.apply} - time to apply and publish a batch</li>
+ *   <li>{@code catalog.ingestion.lag} - time from the oldest event in a batch to its publication</li>
+ *   <li>{@code catalog.ingestion.pending} - events waiting in the source</li>
+ *   <li>{@code catalog.snapshot.version} - catalog version currently served</li>
+ * </ul>
+ */
+public class CatalogIngestionService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogIngestionService.class);
+
+    private final ProductService productService;
+    private final ChangeEventSource source;
+    private final int maxBatchSize;
+    private final Duration batchWindow;
+    private final Duration pollTimeout;
+
+    private final Counter received;
+    private final Counter coalesced;
+    private final Counter applied;
+    private final Counter rejected;
+    private final DistributionSummary batchSize;
+    private final Timer applyTimer;
+    private final Timer lagTimer;
+
+    private volatile Thread worker;
+    private volatile boolean running;
+
+    public CatalogIngestionService(ProductService productService, ChangeEventSource source, MeterRegistry registry,
+                                   int maxBatchSize, Duration batchWindow, Duration pollTimeout) {
+        this.productService = productService;
+        this.source = source;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.batchWindow = batchWindow;
+        this.pollTimeout = pollTimeout;
+
+        this.received = eventCounter(registry, "received");
+        this.coalesced = eventCounter(registry, "coalesced");
+        this.applied = eventCounter(registry, "applied");
+        this.rejected = eventCounter(registry, "rejected");
+        this.batchSize = DistributionSummary.builder("catalog.ingestion.batch.size")
+                .description("Change events per ingestion batch")
+                .register(registry);
+        this.applyTimer = Timer.builder("catalog.ingestion.apply")
+                .description("Time to apply a batch and publish the new catalog snapshot")
+                .register(registry);
+        this.lagTimer = Timer.builder("catalog.ingestion.lag")
+                .description("Time from the oldest event in a batch being committed upstream to its publication")
+                .register(registry);
+        Gauge.builder("catalog.ingestion.pending", source, s -> Math.max(0, s.pending()))
+                .description("Change events waiting in the source")
+                .register(registry);
+        Gauge.builder("catalog.snapshot.version", productService, s -> s.currentSnapshot().version())
+                .description("Version of the catalog snapshot being served")
+                .register(registry);
+    }
+
+    /**
+     * Poll, coalesce and apply one micro-batch.
+     *
+     * @return number of events consumed from the source
+     */
+    public int runOnce() throws InterruptedException {
+        List<ProductChangeEvent> events = new ArrayList<>(source.poll(maxBatchSize, pollTimeout));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        // Keep filling the batch until it is full or the window after the first event closes
+        long deadline = System.nanoTime() + batchWindow.toNanos();
+        while (events.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            List<ProductChangeEvent> more = source.poll(maxBatchSize - events.size(), Duration.ofNanos(remaining));
+            if (more.isEmpty()) {
+                break;
+            }
+            events.addAll(more);
+        }
+
+        Batch batch = coalesce(events);
+        received.increment(events.size());
+        coalesced.increment(events.size() - batch.size() - batch.invalid);
+        batchSize.record(events.size());
+
+        ProductService.ChangeResult result = applyTimer.record(
+                () -> productService.applyChanges(batch.upserts.values(), batch.statusChanges, batch.removals));
+        applied.increment(result.applied);
+        rejected.increment(result.rejected + batch.invalid);
+        if (batch.oldestEventTime != null) {
+            lagTimer.record(Duration.between(batch.oldestEventTime, Instant.now()));
+        }
+        if (result.rejected > 0) {
+            log.warn("Rejected {} of {} catalog changes in batch (version {})",
+                    result.rejected, batch.size(), result.catalogVersion);
+        }
+        return events.size();
+    }
+
+    /**
+     * Net changes of a batch, at most one per product id.
+     */
+    static final class Batch {
+        final Map<UUID, Product> upserts = new LinkedHashMap<>();
+        final Map<UUID, ProductStatus> statusChanges = new LinkedHashMap<>();
+        final List<UUID> removals = new ArrayList<>();
+        // Events dropped before coalescing because they were incomplete or inconsistent
+        int invalid;
+        Instant oldestEventTime;
+
+        int size() {
+            return upserts.size() + statusChanges.size() + removals.size();
+        }
+    }
+
+    /**
+     * Reduce events (in source order) to the net change per product id:
+     * the last UPSERT or DELETE wins, and a STATUS_CHANGE is folded into a pending
+     * upsert, dropped after a pending delete, or kept as a status-only change.
+     * An UPSERT whose product has no id, or an id other than the event's, is dropped
+     * as invalid on its own.
+     */
+    static Batch coalesce(List<ProductChangeEvent> events) {
+        Map<UUID, ProductChangeEvent> latest = new LinkedHashMap<>();
+        Batch batch = new Batch();
+        Instant oldest = null;
+        for (ProductChangeEvent event : events) {
+            if (event.getEventTime() != null && (oldest == null || event.getEventTime().isBefore(oldest))) {
+                oldest = event.getEventTime();
+            }
+            UUID id = event.targetId();
+            if (id == null || event.getType() == null
+                    || (event.getType() == ProductChangeEvent.Type.UPSERT && event.getProduct() == null)
+                    || (event.getType() == ProductChangeEvent.Type.STATUS_CHANGE && event.getStatus() == null)) {
+                log.warn("Skipping incomplete change event (sequence {})", event.getSequence());
+                batch.invalid++;
+                continue;
+            }
+            // Coalescing keys on the event's id, so an upsert must carry the same product id
+            if (event.getType() == ProductChangeEvent.Type.UPSERT && !id.equals(event.getProduct().getId())) {
+                log.warn("Skipping upsert whose product id does not match the event (sequence {})",
+                        event.getSequence());
+                batch.invalid++;
+                continue;
+            }
+
+            ProductChangeEvent previous = latest.get(id);
+            if (event.getType() == ProductChangeEvent.Type.STATUS_CHANGE && previous != null) {
+                if (previous.getType() == ProductChangeEvent.Type.DELETE) {
+                    continue;
+                }
+                if (previous.getType() == ProductChangeEvent.Type.UPSERT) {
+                    Product product = new Product(previous.getProduct());
+                    product.setStatus(event.getStatus());
+                    event = ProductChangeEvent.upsert(product);
+                }
+            }
+            latest.put(id, event);
+        }
+
+        batch.oldestEventTime = oldest;
+        for (Map.Entry<UUID, ProductChangeEvent> entry : latest.entrySet()) {
+            ProductChangeEvent event = entry.getValue();
+            switch (event.getType()) {
+                case UPSERT -> batch.upserts.put(entry.getKey(), event.getProduct());
+                case DELETE -> batch.removals.add(entry.getKey());
+                case STATUS_CHANGE -> batch.statusChanges.put(entry.getKey(), event.getStatus());
+            }
+        }
+        return batch;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::run, "catalog-ingestion");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        worker = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                runOnce();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.error("Catalog ingestion batch failed", e);
+            }
+        }
+    }
+
+    private static Counter eventCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("catalog.ingestion.events")
+                .description("Catalog change events by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.labs.copilot.ingestion;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Pluggable source of product change events, consumed in source order by
+ * {@link CatalogIngestionService}.
+ */
+public interface ChangeEventSource {
+
+    /**
+     * Wait up to {@code timeout} for events and return at most {@code maxEvents} of them.
+     *
+     * @return events in source order; empty if none arrived before the timeout
+     */
+    List<ProductChangeEvent> poll(int maxEvents, Duration timeout) throws InterruptedException;
+
+    /**
+     * Number of events waiting to be polled, or -1 if the source cannot tell.
+     */
+    long pending();
+}
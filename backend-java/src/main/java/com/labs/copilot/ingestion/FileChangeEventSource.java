@@ -0,0 +1,113 @@
+package com.labs.copilot.ingestion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tails a JSON-lines file of {@link ProductChangeEvent}s, one event per line.
+ *
+ * The read position is kept in memory, so appended lines are picked up on the next
+ * poll and an incomplete trailing line waits until its newline is written. If the
+ * file shrinks (truncated or replaced) it is read again from the start. Malformed
+ * lines are logged and skipped.
+ */
+public class FileChangeEventSource implements ChangeEventSource {
+
+    private static final Logger log = LoggerFactory.getLogger(FileChangeEventSource.class);
+
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final long IDLE_SLEEP_MILLIS = 100;
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private long offset;
+    private long sequence;
+
+    public FileChangeEventSource(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized List<ProductChangeEvent> poll(int maxEvents, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            List<ProductChangeEvent> events = readAvailable(maxEvents);
+            long remaining = deadline - System.nanoTime();
+            if (!events.isEmpty() || remaining <= 0) {
+                return events;
+            }
+            Thread.sleep(Math.min(IDLE_SLEEP_MILLIS, Math.max(1, remaining / 1_000_000)));
+        }
+    }
+
+    @Override
+    public synchronized long pending() {
+        return -1;
+    }
+
+    private List<ProductChangeEvent> readAvailable(int maxEvents) {
+        List<ProductChangeEvent> events = new ArrayList<>();
+        if (!Files.isRegularFile(path)) {
+            return events;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            long length = file.length();
+            if (length < offset) {
+                log.warn("Change file {} shrank; reading it again from the start", path);
+                offset = 0;
+            }
+            while (events.size() < maxEvents && offset < length) {
+                byte[] chunk = new byte[(int) Math.min(CHUNK_SIZE, length - offset)];
+                file.seek(offset);
+                file.readFully(chunk);
+
+                int lineStart = 0;
+                for (int i = 0; i < chunk.length && events.size() < maxEvents; i++) {
+                    if (chunk[i] == '\n') {
+                        parse(new String(chunk, lineStart, i - lineStart, StandardCharsets.UTF_8), events);
+                        lineStart = i + 1;
+                    }
+                }
+                if (lineStart == 0) {
+                    if (chunk.length == CHUNK_SIZE) {
+                        log.warn("Skipping a line longer than {} bytes in {}", CHUNK_SIZE, path);
+                        offset += chunk.length;
+                        continue;
+                    }
+                    // Only an incomplete line is left
+                    break;
+                }
+                offset += lineStart;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read change file {}: {}", path, e.getMessage());
+        }
+        return events;
+    }
+
+    private void parse(String line, List<ProductChangeEvent> events) {
+        if (line.isBlank()) {
+            return;
+        }
+        try {
+            ProductChangeEvent event = objectMapper.readValue(line, ProductChangeEvent.class);
+            if (event.getSequence() == 0) {
+                event.setSequence(++sequence);
+            }
+            events.add(event);
+        } catch (IOException e) {
+            log.warn("Skipping malformed change event in {}: {}", path, e.getMessage());
+        }
+    }
+}
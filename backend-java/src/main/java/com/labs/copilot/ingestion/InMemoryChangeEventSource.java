@@ -0,0 +1,46 @@
+package com.labs.copilot.ingestion;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process queue standing in for the CDC stream. Events published here are
+ * consumed in publish order.
+ */
+public class InMemoryChangeEventSource implements ChangeEventSource {
+
+    private final BlockingQueue<ProductChangeEvent> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Enqueue an event, assigning the next sequence number if it has none.
+     */
+    public void publish(ProductChangeEvent event) {
+        if (event.getSequence() == 0) {
+            event.setSequence(sequence.incrementAndGet());
+        }
+        queue.add(event);
+    }
+
+    @Override
+    public List<ProductChangeEvent> poll(int maxEvents, Duration timeout) throws InterruptedException {
+        ProductChangeEvent first = queue.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return List.of();
+        }
+        List<ProductChangeEvent> events = new ArrayList<>();
+        events.add(first);
+        queue.drainTo(events, maxEvents - 1);
+        return events;
+    }
+
+    @Override
+    public long pending() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,118 @@
+package com.labs.copilot.ingestion;
+
+import com.labs.copilot.model.Product;
+import com.labs.copilot.model.ProductStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A single product change captured from the write side (.NET service / PostgreSQL).
+ *
+ * UPSERT carries the full product, DELETE only the product id, and STATUS_CHANGE
+ * the product id and its new status. {@code eventTime} is when the change was
+ * committed upstream and is used to measure apply lag.
+ */
+public class ProductChangeEvent {
+
+    /**
+     * Kind of change.
+     * UPSERT: product created or replaced
+     * DELETE: product removed
+     * STATUS_CHANGE: only the status changed
+     */
+    public enum Type {
+        UPSERT, DELETE, STATUS_CHANGE
+    }
+
+    private Type type;
+    private UUID productId;
+    private Product product;
+    private ProductStatus status;
+    private long sequence;
+    private Instant eventTime;
+
+    public ProductChangeEvent() {
+    }
+
+    public static ProductChangeEvent upsert(Product product) {
+        ProductChangeEvent event = new ProductChangeEvent();
+        event.type = Type.UPSERT;
+        event.productId = product.getId();
+        event.product = product;
+        event.eventTime = Instant.now();
+        return event;
+    }
+
+    public static ProductChangeEvent delete(UUID productId) {
+        ProductChangeEvent event = new ProductChangeEvent();
+        event.type = Type.DELETE;
+        event.productId = productId;
+        event.eventTime = Instant.now();
+        return event;
+    }
+
+    public static ProductChangeEvent statusChange(UUID productId, ProductStatus status) {
+        ProductChangeEvent event = new ProductChangeEvent();
+        event.type = Type.STATUS_CHANGE;
+        event.productId = productId;
+        event.status = status;
+        event.eventTime = Instant.now();
+        return event;
+    }
+
+    /**
+     * Id of the affected product, falling back to the embedded product's id.
+     */
+    public UUID targetId() {
+        return productId != null ? productId : product != null ? product.getId() : null;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public UUID getProductId() {
+        return productId;
+    }
+
+    public void setProductId(UUID productId) {
+        this.productId = productId;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public void setProduct(Product product) {
+        this.product = product;
+    }
+
+    public ProductStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ProductStatus status) {
+        this.status = status;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Instant getEventTime() {
+        return eventTime;
+    }
+
+    public void setEventTime(Instant eventTime) {
+        this.eventTime = eventTime;
+    }
+}
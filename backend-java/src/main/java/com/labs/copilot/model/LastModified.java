@@ -0,0 +1,24 @@
+package com.labs.copilot.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * When a product last changed, as used by its HTTP validators and by caches of its
+ * rendered JSON, so both always agree on whether a product changed.
+ */
+public final class LastModified {
+
+    private LastModified() {
+    }
+
+    /**
+     * {@code updatedAt}, else {@code createdAt}, as epoch millis in the system time zone.
+     *
+     * @return -1 if the product has neither timestamp
+     */
+    public static long of(Product product) {
+        LocalDateTime at = product.getUpdatedAt() != null ? product.getUpdatedAt() : product.getCreatedAt();
+        return at != null ? at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+}
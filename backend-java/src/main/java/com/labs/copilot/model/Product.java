@@ -56,6 +56,26 @@ public class Product implements Serializable {
         this.stockQuantity = 0;
     }
 
+    /**
+     * Shallow copy; images and attributes are shared with {@code other}.
+     */
+    public Product(Product other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.description = other.description;
+        this.price = other.price;
+        this.category = other.category;
+        this.stockQuantity = other.stockQuantity;
+        this.sku = other.sku;
+        this.images = other.images;
+        this.attributes = other.attributes;
+        this.status = other.status;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.createdBy = other.createdBy;
+        this.updatedBy = other.updatedBy;
+    }
+
     // Getters and Setters
     public UUID getId() {
         return id;
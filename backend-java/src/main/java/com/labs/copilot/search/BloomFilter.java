@@ -0,0 +1,89 @@
+package com.labs.copilot.search;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Immutable Bloom filter over product ids.
+ *
+ * {@link #mightContain} never returns false for an id that was added, so a false
+ * answer proves the id is unknown without consulting the catalog. A true answer is
+ * wrong with probability close to the false-positive rate the filter was sized for.
+ * Probes use double hashing over the two halves of the UUID.
+ */
+public final class BloomFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final int insertions;
+
+    private BloomFilter(long bitCount, int hashCount, int insertions) {
+        this.bits = new long[(int) ((bitCount + 63) >>> 6)];
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.insertions = insertions;
+    }
+
+    /**
+     * Filter containing exactly the given ids.
+     *
+     * @param falsePositiveRate target rate for ids that were not added, e.g. 0.01
+     */
+    public static BloomFilter of(Collection<UUID> ids, double falsePositiveRate) {
+        int n = Math.max(1, ids.size());
+        long m = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        BloomFilter filter = new BloomFilter(m, k, ids.size());
+        for (UUID id : ids) {
+            filter.add(id);
+        }
+        return filter;
+    }
+
+    public boolean mightContain(UUID id) {
+        return probe(id, false);
+    }
+
+    /**
+     * False-positive rate predicted from the filter's size, hash count and contents.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions / bitCount), hashCount);
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    public long sizeInBytes() {
+        return 16L + bits.length * 8L;
+    }
+
+    private void add(UUID id) {
+        probe(id, true);
+    }
+
+    // Checks (or sets) the k bits of an id; returns false as soon as one is clear
+    private boolean probe(UUID id, boolean set) {
+        long h1 = mix(id.getMostSignificantBits() ^ 0x9E3779B97F4A7C15L * id.getLeastSignificantBits());
+        long h2 = mix(h1 ^ id.getLeastSignificantBits()) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            if (set) {
+                bits[word] |= 1L << bit;
+            } else if ((bits[word] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Finalizer of SplitMix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
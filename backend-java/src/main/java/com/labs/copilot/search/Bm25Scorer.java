@@ -0,0 +1,185 @@
+package com.labs.copilot.search;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Okapi BM25 scores of documents for one query, read from the postings of an {@link InvertedIndex}:
+ *
+ * <pre>
+ * score(d) = sum over query terms t of idf(t) * tf * (k1 + 1) / (tf + k1 * (1 - b + b * len(d) / avgLen))
+ * </pre>
+ *
+ * Every term also carries an upper bound on what it can add to any document.
+ * {@link #score(int, float)} adds terms in decreasing bound order and abandons a
+ * document as soon as its partial score plus the bounds of the remaining terms falls
+ * short of the score it has to beat. Fed the current threshold of a
+ * {@link TopScoreCollector}, most matches cost one or two posting lookups once the
+ * heap is full, and the smaller the page, the sooner that happens.
+ *
+ * A scorer keeps a cursor per term, so it is for one thread and expects documents in
+ * increasing ordinal order (out-of-order documents are still scored correctly, just slower).
+ */
+public final class Bm25Scorer {
+
+    public static final float K1 = 1.2f;
+    public static final float B = 0.75f;
+
+    // Prefix completions and fuzzy matches rank below the exact term
+    public static final float EXPANSION_WEIGHT = 0.5f;
+
+    // Query terms in decreasing upper bound order
+    private final Term[] terms;
+    // remaining[i]: summed upper bounds of terms i and after
+    private final float[] remaining;
+    private final float[] lengths;
+    private final float averageLength;
+
+    /**
+     * Postings of one query term: document ordinals, boosted term frequencies and the
+     * term weight (idf, reduced for expansions), per entry once several terms are merged.
+     */
+    static final class Term {
+
+        static final Term NONE = new Term(new int[0], new float[0], 0, 0, 0);
+
+        final int[] docs;
+        final float[] freqs;
+        final int size;
+        final float weight;
+        final float[] weights;
+        final float upperBound;
+        private int cursor;
+
+        Term(int[] docs, float[] freqs, int size, float weight, float maxFreq) {
+            this(docs, freqs, size, weight, null, weight * saturation(maxFreq, K1 * (1 - B)));
+        }
+
+        private Term(int[] docs, float[] freqs, int size, float weight, float[] weights, float upperBound) {
+            this.docs = docs;
+            this.freqs = freqs;
+            this.size = size;
+            this.weight = weight;
+            this.weights = weights;
+            this.upperBound = upperBound;
+        }
+
+        /**
+         * Union of the expansions of one query term, merged in a single pass; a document
+         * in several keeps the entry that scores highest.
+         */
+        static Term best(List<Term> expansions) {
+            if (expansions.isEmpty()) {
+                return NONE;
+            }
+            if (expansions.size() == 1) {
+                return expansions.get(0);
+            }
+            int[][] sources = new int[expansions.size()][];
+            int[] sizes = new int[sources.length];
+            int total = 0;
+            float upperBound = 0;
+            for (int k = 0; k < sources.length; k++) {
+                Term expansion = expansions.get(k);
+                sources[k] = expansion.docs;
+                sizes[k] = expansion.size;
+                total += expansion.size;
+                upperBound = Math.max(upperBound, expansion.upperBound);
+            }
+            int[] docs = new int[total];
+            float[] freqs = new float[total];
+            float[] weights = new float[total];
+            int n = 0;
+            for (DocHeap heap = new DocHeap(sources, sizes); !heap.isEmpty(); heap.advance()) {
+                Term expansion = expansions.get(heap.source());
+                int pos = heap.position();
+                float weight = expansion.weight(pos);
+                float freq = expansion.freqs[pos];
+                if (n > 0 && docs[n - 1] == heap.doc()) {
+                    // Length normalization is the same for both entries, so compare at average length
+                    if (weight * saturation(freq, K1) > weights[n - 1] * saturation(freqs[n - 1], K1)) {
+                        freqs[n - 1] = freq;
+                        weights[n - 1] = weight;
+                    }
+                    continue;
+                }
+                docs[n] = heap.doc();
+                freqs[n] = freq;
+                weights[n++] = weight;
+            }
+            return new Term(docs, freqs, n, 0, weights, upperBound);
+        }
+
+        float weight(int pos) {
+            return weights != null ? weights[pos] : weight;
+        }
+
+        float contribution(int doc, float norm) {
+            if (cursor > 0 && (cursor > size || docs[cursor - 1] >= doc)) {
+                cursor = 0;
+            }
+            cursor = InvertedIndex.gallop(docs, cursor, size, doc);
+            if (cursor == size || docs[cursor] != doc) {
+                return 0;
+            }
+            return weight(cursor) * saturation(freqs[cursor], norm);
+        }
+    }
+
+    Bm25Scorer(Term[] terms, float[] lengths, double averageLength) {
+        this.terms = terms.clone();
+        Arrays.sort(this.terms, (a, b) -> Float.compare(b.upperBound, a.upperBound));
+        this.remaining = new float[terms.length + 1];
+        for (int i = terms.length - 1; i >= 0; i--) {
+            remaining[i] = remaining[i + 1] + this.terms[i].upperBound;
+        }
+        this.lengths = lengths;
+        this.averageLength = (float) averageLength;
+    }
+
+    /**
+     * Inverse document frequency, always positive: ln(1 + (N - df + 0.5) / (df + 0.5)).
+     */
+    public static float idf(int documentCount, int documentFrequency) {
+        return (float) Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    /**
+     * Upper bound on the score of any document.
+     */
+    public float maxScore() {
+        return remaining[0];
+    }
+
+    /**
+     * BM25 score of a document; 0 if it contains none of the query terms.
+     */
+    public float score(int doc) {
+        return score(doc, Float.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * BM25 score of a document, or {@link Float#NEGATIVE_INFINITY} as soon as it is
+     * certain to score below {@code minScore}.
+     */
+    public float score(int doc, float minScore) {
+        if (remaining[0] < minScore) {
+            return Float.NEGATIVE_INFINITY;
+        }
+        float length = doc < lengths.length ? lengths[doc] : 0;
+        float norm = averageLength > 0 ? K1 * (1 - B + B * length / averageLength) : K1;
+        float score = 0;
+        for (int i = 0; i < terms.length; i++) {
+            score += terms[i].contribution(doc, norm);
+            if (score + remaining[i + 1] < minScore) {
+                return Float.NEGATIVE_INFINITY;
+            }
+        }
+        return score;
+    }
+
+    // tf * (k1 + 1) / (tf + norm): grows with tf but never past k1 + 1
+    private static float saturation(float freq, float norm) {
+        return freq * (K1 + 1) / (freq + norm);
+    }
+}
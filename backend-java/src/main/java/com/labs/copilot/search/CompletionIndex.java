@@ -0,0 +1,311 @@
+package com.labs.copilot.search;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Prefix tries over normalized product names and SKUs for typeahead.
+ *
+ * Every trie node keeps the best {@link #MAX_SUGGESTIONS} documents of its subtree,
+ * ranked by a stored weight, so a lookup walks one node per prefix character and
+ * reads a precomputed list: its cost depends on the prefix length, not on the
+ * catalog size or the number of matching products.
+ *
+ * Nodes are immutable. An update copies only the nodes on the path to its key, so
+ * {@link #copy()} shares the tries with the original and costs O(1) per trie.
+ * Names and SKUs live in separate tries, so each holds a document at most once.
+ */
+public class CompletionIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final int[] NO_DOCS = new int[0];
+    private static final Node EMPTY = new Node(new char[0], new Node[0], NO_DOCS, NO_DOCS);
+
+    // Per document: its weight and normalized name, which break weight ties
+    private long[] weights = new long[0];
+    private String[] names = new String[0];
+
+    private Node byName = EMPTY;
+    private Node bySku = EMPTY;
+
+    private static final class Node {
+        final char[] labels;
+        final Node[] children;
+        // Documents whose key ends at this node
+        final int[] ends;
+        // Best documents in this subtree, best first
+        final int[] top;
+
+        Node(char[] labels, Node[] children, int[] ends, int[] top) {
+            this.labels = labels;
+            this.children = children;
+            this.ends = ends;
+            this.top = top;
+        }
+
+        Node child(char label) {
+            int pos = Arrays.binarySearch(labels, label);
+            return pos >= 0 ? children[pos] : null;
+        }
+
+        boolean isEmpty() {
+            return ends.length == 0 && children.length == 0;
+        }
+    }
+
+    /**
+     * Index a document; higher weights rank first.
+     */
+    public void add(int doc, String name, String sku, long weight) {
+        if (doc >= weights.length) {
+            int capacity = Math.max(doc + 1, weights.length + (weights.length >> 1));
+            weights = Arrays.copyOf(weights, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+        weights[doc] = weight;
+        names[doc] = normalize(name);
+        if (!names[doc].isEmpty()) {
+            byName = insert(byName, names[doc], 0, doc);
+        }
+        String skuKey = normalize(sku);
+        if (!skuKey.isEmpty()) {
+            bySku = insert(bySku, skuKey, 0, doc);
+        }
+    }
+
+    /**
+     * Remove a document; {@code name} and {@code sku} must be the values it was indexed with.
+     */
+    public void remove(int doc, String name, String sku) {
+        if (doc >= names.length || names[doc] == null) {
+            return;
+        }
+        if (!names[doc].isEmpty()) {
+            byName = delete(byName, names[doc], 0, doc);
+        }
+        String skuKey = normalize(sku);
+        if (!skuKey.isEmpty()) {
+            bySku = delete(bySku, skuKey, 0, doc);
+        }
+        names[doc] = null;
+    }
+
+    /**
+     * Copy that can be modified without affecting this index; trie nodes are shared.
+     */
+    public CompletionIndex copy() {
+        CompletionIndex copy = new CompletionIndex();
+        copy.weights = weights.clone();
+        copy.names = names.clone();
+        copy.byName = byName;
+        copy.bySku = bySku;
+        return copy;
+    }
+
+    /**
+     * Best documents whose name or SKU starts with the prefix, best first.
+     *
+     * @param prefix text typed so far; normalized like the indexed keys
+     * @param limit  maximum number of documents, capped at {@link #MAX_SUGGESTIONS}
+     */
+    public int[] suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        int n = Math.min(limit, MAX_SUGGESTIONS);
+        if (key.isEmpty() || n <= 0) {
+            return NO_DOCS;
+        }
+        int[] nameMatches = top(byName, key);
+        int[] skuMatches = top(bySku, key);
+
+        // Each list is already ranked; merge them, keeping the first occurrence of a document
+        int[] merged = new int[Math.min(n, nameMatches.length + skuMatches.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (size < merged.length && (i < nameMatches.length || j < skuMatches.length)) {
+            int doc = j >= skuMatches.length || (i < nameMatches.length && compare(nameMatches[i], skuMatches[j]) <= 0)
+                    ? nameMatches[i++]
+                    : skuMatches[j++];
+            if (!contains(merged, size, doc)) {
+                merged[size++] = doc;
+            }
+        }
+        return size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+
+    /**
+     * Approximate heap footprint in bytes, including trie nodes shared with copies.
+     */
+    public long sizeInBytes() {
+        long bytes = 48L + weights.length * 8L + names.length * 4L;
+        for (String name : names) {
+            if (name != null) {
+                bytes += 48L + name.length();
+            }
+        }
+        return bytes + sizeInBytes(byName) + sizeInBytes(bySku);
+    }
+
+    /**
+     * Key a name or SKU is indexed and looked up under: its lower-cased terms
+     * separated by single spaces, so "USB-C Hub" and "usb c hub" are the same key.
+     */
+    public static String normalize(String text) {
+        List<String> terms = TextAnalyzer.tokenize(text);
+        return String.join(" ", terms);
+    }
+
+    private static long sizeInBytes(Node node) {
+        long bytes = 48L + node.labels.length * 2L + node.children.length * 4L
+                + node.ends.length * 4L + node.top.length * 4L;
+        for (Node child : node.children) {
+            bytes += sizeInBytes(child);
+        }
+        return bytes;
+    }
+
+    private static int[] top(Node root, String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        return node != null ? node.top : NO_DOCS;
+    }
+
+    private Node insert(Node node, String key, int depth, int doc) {
+        char[] labels = node.labels;
+        Node[] children = node.children;
+        int[] ends = node.ends;
+        if (depth == key.length()) {
+            ends = Arrays.copyOf(ends, ends.length + 1);
+            ends[ends.length - 1] = doc;
+        } else {
+            char label = key.charAt(depth);
+            int pos = Arrays.binarySearch(labels, label);
+            if (pos >= 0) {
+                children = children.clone();
+                children[pos] = insert(children[pos], key, depth + 1, doc);
+            } else {
+                pos = -pos - 1;
+                labels = insertAt(labels, pos, label);
+                Node[] grown = new Node[children.length + 1];
+                System.arraycopy(children, 0, grown, 0, pos);
+                System.arraycopy(children, pos, grown, pos + 1, children.length - pos);
+                grown[pos] = insert(EMPTY, key, depth + 1, doc);
+                children = grown;
+            }
+        }
+        return new Node(labels, children, ends, offer(node.top, doc));
+    }
+
+    private Node delete(Node node, String key, int depth, int doc) {
+        char[] labels = node.labels;
+        Node[] children = node.children;
+        int[] ends = node.ends;
+        if (depth == key.length()) {
+            int pos = indexOf(ends, doc);
+            if (pos < 0) {
+                return node;
+            }
+            ends = removeAt(ends, pos);
+        } else {
+            int pos = Arrays.binarySearch(labels, key.charAt(depth));
+            if (pos < 0) {
+                return node;
+            }
+            Node child = delete(children[pos], key, depth + 1, doc);
+            if (child.isEmpty()) {
+                labels = removeAt(labels, pos);
+                Node[] shrunk = new Node[children.length - 1];
+                System.arraycopy(children, 0, shrunk, 0, pos);
+                System.arraycopy(children, pos + 1, shrunk, pos, children.length - pos - 1);
+                children = shrunk;
+            } else {
+                children = children.clone();
+                children[pos] = child;
+            }
+        }
+        // Only a node that ranked the document needs its list rebuilt, from its own ends and its children's lists
+        int[] top = node.top;
+        if (indexOf(top, doc) >= 0) {
+            top = NO_DOCS;
+            for (int end : ends) {
+                top = offer(top, end);
+            }
+            for (Node child : children) {
+                for (int candidate : child.top) {
+                    top = offer(top, candidate);
+                }
+            }
+        }
+        return new Node(labels, children, ends, top);
+    }
+
+    // Insert a document into a ranked list, keeping at most MAX_SUGGESTIONS
+    private int[] offer(int[] top, int doc) {
+        if (top.length == MAX_SUGGESTIONS && compare(doc, top[top.length - 1]) >= 0) {
+            return top;
+        }
+        int pos = 0;
+        while (pos < top.length && compare(top[pos], doc) < 0) {
+            pos++;
+        }
+        int size = Math.min(top.length + 1, MAX_SUGGESTIONS);
+        int[] ranked = new int[size];
+        System.arraycopy(top, 0, ranked, 0, pos);
+        ranked[pos] = doc;
+        System.arraycopy(top, pos, ranked, pos + 1, size - pos - 1);
+        return ranked;
+    }
+
+    // Higher weight first, then name, then ordinal
+    private int compare(int a, int b) {
+        int c = Long.compare(weights[b], weights[a]);
+        if (c != 0) {
+            return c;
+        }
+        c = names[a].compareTo(names[b]);
+        return c != 0 ? c : Integer.compare(a, b);
+    }
+
+    private static boolean contains(int[] docs, int size, int doc) {
+        for (int i = 0; i < size; i++) {
+            if (docs[i] == doc) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOf(int[] docs, int doc) {
+        for (int i = 0; i < docs.length; i++) {
+            if (docs[i] == doc) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] removeAt(int[] docs, int pos) {
+        int[] out = new int[docs.length - 1];
+        System.arraycopy(docs, 0, out, 0, pos);
+        System.arraycopy(docs, pos + 1, out, pos, docs.length - pos - 1);
+        return out;
+    }
+
+    private static char[] insertAt(char[] labels, int pos, char label) {
+        char[] out = new char[labels.length + 1];
+        System.arraycopy(labels, 0, out, 0, pos);
+        out[pos] = label;
+        System.arraycopy(labels, pos, out, pos + 1, labels.length - pos);
+        return out;
+    }
+
+    private static char[] removeAt(char[] labels, int pos) {
+        char[] out = new char[labels.length - 1];
+        System.arraycopy(labels, 0, out, 0, pos);
+        System.arraycopy(labels, pos + 1, out, pos, labels.length - pos - 1);
+        return out;
+    }
+}
@@ -0,0 +1,110 @@
+package com.labs.copilot.search;
+
+import com.labs.copilot.model.Product;
+import com.labs.copilot.model.ProductStatus;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Product counts per category, {@link ProductStatus} and in-stock state, maintained
+ * as products are added and removed.
+ *
+ * Any combination of those three filters is answered by summing at most a dozen
+ * cells, so result totals for structured filters never need a scan or a bitmap
+ * cardinality. Categories are case-insensitive, as in {@link FilterIndex}.
+ */
+public class CountCube {
+
+    private static final ProductStatus[] STATUSES = ProductStatus.values();
+    // Cells per category: each status plus "no status", times in stock or not
+    private static final int STATUS_SLOTS = STATUSES.length + 1;
+    private static final int CELLS = STATUS_SLOTS * 2;
+
+    private final Map<String, long[]> byCategory = new HashMap<>();
+    // Every product, including those without a category
+    private final long[] all = new long[CELLS];
+
+    public void add(Product product) {
+        update(product, 1);
+    }
+
+    /**
+     * Remove a product; it must be the version that was added.
+     */
+    public void remove(Product product) {
+        update(product, -1);
+    }
+
+    /**
+     * Deep copy that can be modified without affecting this cube.
+     */
+    public CountCube copy() {
+        CountCube copy = new CountCube();
+        System.arraycopy(all, 0, copy.all, 0, CELLS);
+        byCategory.forEach((key, cells) -> copy.byCategory.put(key, cells.clone()));
+        return copy;
+    }
+
+    /**
+     * Number of products matching every given filter; a null filter matches any value.
+     *
+     * @param category category (case-insensitive), or null for every category
+     * @param status   status, or null for any status (including none)
+     * @param inStock  true for stock on hand, false for none, null for either
+     */
+    public long count(String category, ProductStatus status, Boolean inStock) {
+        long[] cells = category == null ? all : byCategory.get(FilterIndex.normalizeCategory(category));
+        if (cells == null) {
+            return 0;
+        }
+        long count = 0;
+        for (int slot = 0; slot < STATUS_SLOTS; slot++) {
+            if (status != null && slot != status.ordinal()) {
+                continue;
+            }
+            if (!Boolean.TRUE.equals(inStock)) {
+                count += cells[slot * 2];
+            }
+            if (!Boolean.FALSE.equals(inStock)) {
+                count += cells[slot * 2 + 1];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Approximate heap footprint in bytes.
+     */
+    public long sizeInBytes() {
+        return 48L + (byCategory.size() + 1) * (16L + CELLS * 8L) + byCategory.size() * (32L + 64L);
+    }
+
+    private void update(Product product, int delta) {
+        int cell = cell(product);
+        all[cell] += delta;
+        if (product.getCategory() != null) {
+            String key = FilterIndex.normalizeCategory(product.getCategory());
+            long[] cells = byCategory.computeIfAbsent(key, k -> new long[CELLS]);
+            cells[cell] += delta;
+            if (delta < 0 && isEmpty(cells)) {
+                byCategory.remove(key);
+            }
+        }
+    }
+
+    private static int cell(Product product) {
+        int slot = product.getStatus() != null ? product.getStatus().ordinal() : STATUSES.length;
+        boolean inStock = product.getStockQuantity() != null && product.getStockQuantity() > 0;
+        return slot * 2 + (inStock ? 1 : 0);
+    }
+
+    private static boolean isEmpty(long[] cells) {
+        for (long cell : cells) {
+            if (cell != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
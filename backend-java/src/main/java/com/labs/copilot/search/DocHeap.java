@@ -0,0 +1,100 @@
+package com.labs.copilot.search;
+
+/**
+ * Min-heap over several sorted arrays of document ordinals, for merging them in a
+ * single pass. k arrays with n entries in total cost O(n log k); merging them two at
+ * a time instead copies the growing result once per array.
+ *
+ * Entries come out in increasing ordinal order. An ordinal held by several arrays
+ * comes out once per array, so callers see every source of a document.
+ */
+final class DocHeap {
+
+    private final int[][] docs;
+    private final int[] sizes;
+    private final int[] positions;
+    // Arrays that still have entries, ordered by the ordinal each one is at
+    private final int[] heap;
+    private int heapSize;
+
+    /**
+     * @param docs  sorted ordinal arrays
+     * @param sizes number of valid entries in each array
+     */
+    DocHeap(int[][] docs, int[] sizes) {
+        this.docs = docs;
+        this.sizes = sizes;
+        this.positions = new int[docs.length];
+        this.heap = new int[docs.length];
+        for (int source = 0; source < docs.length; source++) {
+            if (sizes[source] > 0) {
+                heap[heapSize++] = source;
+            }
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    boolean isEmpty() {
+        return heapSize == 0;
+    }
+
+    /**
+     * Smallest ordinal not yet consumed.
+     */
+    int doc() {
+        return head(heap[0]);
+    }
+
+    /**
+     * Array the current ordinal comes from.
+     */
+    int source() {
+        return heap[0];
+    }
+
+    /**
+     * Position of the current ordinal within its array.
+     */
+    int position() {
+        return positions[heap[0]];
+    }
+
+    /**
+     * Consume the current ordinal.
+     */
+    void advance() {
+        int top = heap[0];
+        if (++positions[top] == sizes[top]) {
+            heap[0] = heap[--heapSize];
+        }
+        if (heapSize > 0) {
+            siftDown(0);
+        }
+    }
+
+    private int head(int source) {
+        return docs[source][positions[source]];
+    }
+
+    private void siftDown(int i) {
+        int source = heap[i];
+        int doc = head(source);
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && head(heap[child + 1]) < head(heap[child])) {
+                child++;
+            }
+            if (head(heap[child]) >= doc) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = source;
+    }
+}
@@ -0,0 +1,61 @@
+package com.labs.copilot.search;
+
+/**
+ * Stable sort of document ordinals in a primitive {@code int[]} by a
+ * {@link TopKCollector.DocComparator}, so bulk index builds do not box every ordinal
+ * into an {@code Integer[]} just to call {@code Arrays.sort} with a comparator.
+ */
+final class DocSort {
+
+    // Runs up to this length are insertion-sorted before merging
+    private static final int INSERTION_THRESHOLD = 32;
+
+    private DocSort() {
+    }
+
+    /**
+     * Sort {@code docs[from, to)} in place; equal documents keep their relative order.
+     */
+    static void sort(int[] docs, int from, int to, TopKCollector.DocComparator comparator) {
+        if (to - from < 2) {
+            return;
+        }
+        int[] buffer = new int[to - from];
+        mergeSort(docs, from, to, buffer, comparator);
+    }
+
+    private static void mergeSort(int[] docs, int from, int to, int[] buffer, TopKCollector.DocComparator comparator) {
+        if (to - from <= INSERTION_THRESHOLD) {
+            insertionSort(docs, from, to, comparator);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(docs, from, mid, buffer, comparator);
+        mergeSort(docs, mid, to, buffer, comparator);
+        if (comparator.compare(docs[mid - 1], docs[mid]) <= 0) {
+            // Already in order across the halves
+            return;
+        }
+        int left = mid - from;
+        System.arraycopy(docs, from, buffer, 0, left);
+        int i = 0;
+        int j = mid;
+        int out = from;
+        while (i < left && j < to) {
+            docs[out++] = comparator.compare(docs[j], buffer[i]) < 0 ? docs[j++] : buffer[i++];
+        }
+        System.arraycopy(buffer, i, docs, out, left - i);
+    }
+
+    private static void insertionSort(int[] docs, int from, int to, TopKCollector.DocComparator comparator) {
+        for (int i = from + 1; i < to; i++) {
+            int doc = docs[i];
+            int j = i - 1;
+            while (j >= from && comparator.compare(docs[j], doc) > 0) {
+                docs[j + 1] = docs[j];
+                j--;
+            }
+            docs[j + 1] = doc;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.labs.copilot.search;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Facets that can be aggregated over a search result.
+ * CATEGORY: matches per category
+ * PRICE: matches per price bucket
+ * STOCK: matches in stock and out of stock
+ */
+public enum Facet {
+    CATEGORY("category"),
+    PRICE("price"),
+    STOCK("stock");
+
+    private final String value;
+
+    Facet(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Resolve a comma-separated request parameter, e.g. {@code category,price}.
+     * {@code all} selects every facet; unknown names are ignored.
+     *
+     * @return requested facets, empty if the parameter is null or blank
+     */
+    public static Set<Facet> fromValues(String values) {
+        Set<Facet> facets = EnumSet.noneOf(Facet.class);
+        if (values == null) {
+            return facets;
+        }
+        for (String value : values.split(",")) {
+            String name = value.trim();
+            if ("all".equalsIgnoreCase(name)) {
+                return EnumSet.allOf(Facet.class);
+            }
+            for (Facet facet : Facet.values()) {
+                if (facet.value.equalsIgnoreCase(name)) {
+                    facets.add(facet);
+                }
+            }
+        }
+        return facets;
+    }
+}
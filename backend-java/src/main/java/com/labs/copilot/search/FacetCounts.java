@@ -0,0 +1,53 @@
+package com.labs.copilot.search;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet counts aggregated by a {@link FacetCollector}. Facets that were not
+ * requested are null.
+ */
+public final class FacetCounts {
+
+    /**
+     * Matches priced within {@code [min, max)}; {@code max} is null for the last, open-ended bucket.
+     */
+    public record PriceBucket(BigDecimal min, BigDecimal max, long count) {
+    }
+
+    private final Map<String, Long> categories;
+    private final List<PriceBucket> priceBuckets;
+    private final Long inStock;
+    private final Long outOfStock;
+
+    FacetCounts(Map<String, Long> categories, List<PriceBucket> priceBuckets, Long inStock, Long outOfStock) {
+        this.categories = categories != null ? Collections.unmodifiableMap(categories) : null;
+        this.priceBuckets = priceBuckets != null ? Collections.unmodifiableList(priceBuckets) : null;
+        this.inStock = inStock;
+        this.outOfStock = outOfStock;
+    }
+
+    /**
+     * Matches per category, most frequent first, under the category name as first seen.
+     */
+    public Map<String, Long> getCategories() {
+        return categories;
+    }
+
+    /**
+     * Matches per price bucket, cheapest first; every bucket is listed, including empty ones.
+     */
+    public List<PriceBucket> getPriceBuckets() {
+        return priceBuckets;
+    }
+
+    public Long getInStock() {
+        return inStock;
+    }
+
+    public Long getOutOfStock() {
+        return outOfStock;
+    }
+}
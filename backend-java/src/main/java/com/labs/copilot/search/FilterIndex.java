@@ -0,0 +1,116 @@
+package com.labs.copilot.search;
+
+import com.labs.copilot.model.Product;
+import com.labs.copilot.model.ProductStatus;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bitmap indexes for the structured product filters: one bitmap per category value,
+ * one per {@link ProductStatus}, and one for products with stock on hand.
+ *
+ * Filter combinations become bitmap AND/OR operations whose cost depends on the
+ * number of matching documents, and whose cardinality is an exact result count.
+ * Returned bitmaps are owned by the index and must not be mutated by callers.
+ */
+public class FilterIndex {
+
+    private static final CompressedBitmap EMPTY = new CompressedBitmap();
+
+    private CompressedBitmap all = new CompressedBitmap();
+    private CompressedBitmap inStock = new CompressedBitmap();
+    private final Map<String, CompressedBitmap> byCategory = new HashMap<>();
+    private final Map<ProductStatus, CompressedBitmap> byStatus = new EnumMap<>(ProductStatus.class);
+
+    public void add(int doc, Product product) {
+        all.add(doc);
+        if (product.getStockQuantity() != null && product.getStockQuantity() > 0) {
+            inStock.add(doc);
+        }
+        if (product.getCategory() != null) {
+            byCategory.computeIfAbsent(normalizeCategory(product.getCategory()), c -> new CompressedBitmap()).add(doc);
+        }
+        if (product.getStatus() != null) {
+            byStatus.computeIfAbsent(product.getStatus(), s -> new CompressedBitmap()).add(doc);
+        }
+    }
+
+    /**
+     * Remove a document; {@code product} must be the version it was indexed with.
+     */
+    public void remove(int doc, Product product) {
+        all.remove(doc);
+        inStock.remove(doc);
+        if (product.getCategory() != null) {
+            String key = normalizeCategory(product.getCategory());
+            CompressedBitmap bitmap = byCategory.get(key);
+            if (bitmap != null) {
+                bitmap.remove(doc);
+                if (bitmap.isEmpty()) {
+                    byCategory.remove(key);
+                }
+            }
+        }
+        if (product.getStatus() != null && byStatus.containsKey(product.getStatus())) {
+            byStatus.get(product.getStatus()).remove(doc);
+        }
+    }
+
+    /**
+     * Deep copy that can be modified without affecting this index.
+     */
+    public FilterIndex copy() {
+        FilterIndex copy = new FilterIndex();
+        copy.all = all.copy();
+        copy.inStock = inStock.copy();
+        byCategory.forEach((key, bitmap) -> copy.byCategory.put(key, bitmap.copy()));
+        byStatus.forEach((key, bitmap) -> copy.byStatus.put(key, bitmap.copy()));
+        return copy;
+    }
+
+    /**
+     * Every indexed document.
+     */
+    public CompressedBitmap all() {
+        return all;
+    }
+
+    /**
+     * Documents with a stock quantity greater than zero.
+     */
+    public CompressedBitmap inStock() {
+        return inStock;
+    }
+
+    /**
+     * Documents in the given category (case-insensitive).
+     */
+    public CompressedBitmap category(String category) {
+        return byCategory.getOrDefault(normalizeCategory(category), EMPTY);
+    }
+
+    public CompressedBitmap status(ProductStatus status) {
+        return byStatus.getOrDefault(status, EMPTY);
+    }
+
+    /**
+     * Approximate heap footprint in bytes.
+     */
+    public long sizeInBytes() {
+        long bytes = 64L + all.sizeInBytes() + inStock.sizeInBytes();
+        for (Map.Entry<String, CompressedBitmap> entry : byCategory.entrySet()) {
+            bytes += 32L + 48L + entry.getKey().length() + entry.getValue().sizeInBytes();
+        }
+        for (CompressedBitmap bitmap : byStatus.values()) {
+            bytes += 8L + bitmap.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    public static String normalizeCategory(String category) {
+        return category.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,49 @@
+package com.labs.copilot.search;
+
+/**
+ * Typo tolerance for indexed text queries: the number of single-character edits
+ * (insertions, deletions, substitutions) a query term may be away from an indexed term.
+ * ZERO: exact terms only (default)
+ * ONE, TWO: up to one or two edits per term
+ * AUTO: none for terms of 1-2 characters, one for 3-5, two for longer terms
+ */
+public enum Fuzziness {
+    ZERO("0"),
+    ONE("1"),
+    TWO("2"),
+    AUTO("auto");
+
+    private final String value;
+
+    Fuzziness(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Edits allowed for a query term of the given length.
+     */
+    public int maxEdits(int termLength) {
+        return switch (this) {
+            case ZERO -> 0;
+            case ONE -> 1;
+            case TWO -> 2;
+            case AUTO -> termLength < 3 ? 0 : termLength < 6 ? 1 : 2;
+        };
+    }
+
+    /**
+     * Resolve a fuzziness from a request parameter, defaulting to ZERO.
+     */
+    public static Fuzziness fromValue(String value) {
+        for (Fuzziness fuzziness : Fuzziness.values()) {
+            if (fuzziness.value.equalsIgnoreCase(value)) {
+                return fuzziness;
+            }
+        }
+        return ZERO;
+    }
+}
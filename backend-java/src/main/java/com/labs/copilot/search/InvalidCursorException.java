@@ -0,0 +1,16 @@
+package com.labs.copilot.search;
+
+/**
+ * A pagination cursor that cannot be decoded, or that was issued for another ordering.
+ */
+public class InvalidCursorException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,422 @@
+package com.labs.copilot.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tokenized inverted index over product name and description.
+ *
+ * Each term maps to a sorted posting list of document ordinals, so a query only
+ * touches the postings of its own terms. The last query term is matched as a
+ * prefix ("lap" finds "laptop"), which keeps search-as-you-type working the way
+ * the old substring scan did.
+ *
+ * With a non-zero {@link Fuzziness}, each query term also matches dictionary terms
+ * within a few edits of it. Those are found through a trigram {@link NGramIndex} over
+ * the dictionary, so typo tolerance never compares the query against every product.
+ *
+ * Postings also carry term frequencies, and the index keeps per-document lengths and
+ * collection totals up to date on every add and remove, so {@link #scorer} can rank
+ * matches by BM25 without a pass over the catalog. The first field is the title: its
+ * occurrences and length count {@link #TITLE_BOOST} times.
+ */
+public class InvertedIndex {
+
+    public static final float TITLE_BOOST = 2.0f;
+
+    private static final int[] EMPTY = new int[0];
+
+    // Sorted term dictionary; sorted order makes prefix expansion a range scan
+    private final TreeMap<String, PostingList> postings = new TreeMap<>();
+    // Trigrams of the dictionary terms, kept in step with postings
+    private NGramIndex grams = new NGramIndex();
+
+    // BM25 collection statistics: boosted length per document, indexed documents and their total length
+    private float[] lengths = new float[0];
+    private BitSet documents = new BitSet();
+    private double totalLength;
+
+    /**
+     * Index a document's text fields under the given ordinal; the first field is the title.
+     */
+    public void add(int doc, String... fields) {
+        Map<String, Float> freqs = new LinkedHashMap<>();
+        float length = 0;
+        for (int i = 0; i < fields.length; i++) {
+            float boost = i == 0 ? TITLE_BOOST : 1.0f;
+            for (String term : TextAnalyzer.tokenize(fields[i])) {
+                freqs.merge(term, boost, Float::sum);
+                length += boost;
+            }
+        }
+        for (Map.Entry<String, Float> entry : freqs.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), t -> {
+                grams.add(t);
+                return new PostingList();
+            }).add(doc, entry.getValue());
+        }
+
+        if (doc >= lengths.length) {
+            lengths = Arrays.copyOf(lengths, Math.max(doc + 1, lengths.length + (lengths.length >> 1)));
+        }
+        if (documents.get(doc)) {
+            totalLength -= lengths[doc];
+        }
+        documents.set(doc);
+        lengths[doc] = length;
+        totalLength += length;
+    }
+
+    /**
+     * Remove a document; {@code fields} must be the text it was indexed with.
+     */
+    public void remove(int doc, String... fields) {
+        for (String field : fields) {
+            for (String term : TextAnalyzer.tokenize(field)) {
+                PostingList list = postings.get(term);
+                if (list != null && list.remove(doc) && list.size() == 0) {
+                    postings.remove(term);
+                    grams.remove(term);
+                }
+            }
+        }
+        if (documents.get(doc)) {
+            documents.clear(doc);
+            totalLength -= lengths[doc];
+            lengths[doc] = 0;
+        }
+    }
+
+    /**
+     * Deep copy that can be modified without affecting this index.
+     */
+    public InvertedIndex copy() {
+        InvertedIndex copy = new InvertedIndex();
+        for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+            copy.postings.put(entry.getKey(), entry.getValue().copy());
+        }
+        copy.grams = grams.copy();
+        copy.lengths = lengths.clone();
+        copy.documents = (BitSet) documents.clone();
+        copy.totalLength = totalLength;
+        return copy;
+    }
+
+    /**
+     * Number of distinct terms in the dictionary.
+     */
+    public int termCount() {
+        return postings.size();
+    }
+
+    /**
+     * Approximate heap footprint in bytes: dictionary entries, terms and postings.
+     */
+    public long sizeInBytes() {
+        long bytes = 48L;
+        for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+            bytes += 40L + 48L + entry.getKey().length() + entry.getValue().sizeInBytes();
+        }
+        return bytes + grams.sizeInBytes() + 16L + lengths.length * 4L + documents.size() / 8;
+    }
+
+    /**
+     * Number of indexed documents.
+     */
+    public int documentCount() {
+        return documents.cardinality();
+    }
+
+    /**
+     * Mean boosted document length, the BM25 length normalization pivot.
+     */
+    public double averageLength() {
+        int count = documentCount();
+        return count == 0 ? 0 : totalLength / count;
+    }
+
+    /**
+     * Number of documents containing exactly this term.
+     */
+    public int documentFrequency(String term) {
+        PostingList list = postings.get(term);
+        return list == null ? 0 : list.size();
+    }
+
+    /**
+     * Upper bound on the number of documents a query can match, from posting list
+     * sizes alone: the rarest term for ALL, the summed postings for ANY.
+     */
+    public long estimate(String query, TextMatchMode mode) {
+        return estimate(query, mode, Fuzziness.ZERO);
+    }
+
+    /**
+     * Like {@link #estimate(String, TextMatchMode)}, counting the postings of terms
+     * within the allowed edits as well.
+     */
+    public long estimate(String query, TextMatchMode mode, Fuzziness fuzziness) {
+        return estimate(expand(query, fuzziness), mode);
+    }
+
+    /**
+     * Like {@link #estimate(String, TextMatchMode)}, over terms already expanded by {@link #expand}.
+     */
+    public long estimate(QueryTerms terms, TextMatchMode mode) {
+        if (terms.size() == 0) {
+            return 0;
+        }
+        long min = Long.MAX_VALUE;
+        long sum = 0;
+        for (int i = 0; i < terms.size(); i++) {
+            long df = 0;
+            for (PostingList list : terms.matches(i).values()) {
+                df += list.size();
+            }
+            min = Math.min(min, df);
+            sum += df;
+        }
+        return mode == TextMatchMode.ANY ? sum : min;
+    }
+
+    /**
+     * Find documents matching a free-text query.
+     *
+     * @param query text query
+     * @param mode  ALL to intersect term matches, ANY to union them
+     * @return sorted document ordinals
+     */
+    public int[] search(String query, TextMatchMode mode) {
+        return search(query, mode, Fuzziness.ZERO);
+    }
+
+    /**
+     * Find documents matching a free-text query, tolerating misspelled terms.
+     *
+     * @param query     text query
+     * @param mode      ALL to intersect term matches, ANY to union them
+     * @param fuzziness edits allowed between a query term and an indexed term
+     * @return sorted document ordinals
+     */
+    public int[] search(String query, TextMatchMode mode, Fuzziness fuzziness) {
+        return search(expand(query, fuzziness), mode);
+    }
+
+    /**
+     * Find documents matching terms already expanded by {@link #expand}.
+     *
+     * @param terms query terms and the dictionary terms each one matches
+     * @param mode  ALL to intersect term matches, ANY to union them
+     * @return sorted document ordinals
+     */
+    public int[] search(QueryTerms terms, TextMatchMode mode) {
+        if (terms.size() == 0) {
+            return EMPTY;
+        }
+
+        List<int[]> termMatches = new ArrayList<>(terms.size());
+        for (int i = 0; i < terms.size(); i++) {
+            int[] docs = docs(terms.matches(i).values());
+            if (docs.length == 0 && mode != TextMatchMode.ANY) {
+                return EMPTY;
+            }
+            termMatches.add(docs);
+        }
+
+        return mode == TextMatchMode.ANY ? union(termMatches) : intersect(termMatches);
+    }
+
+    /**
+     * BM25 scorer for a free-text query, over the same term expansions {@link #search} matches:
+     * the last term's prefix completions and, with fuzziness, terms within the allowed edits.
+     * Expanded terms score at {@link Bm25Scorer#EXPANSION_WEIGHT} of an exact term.
+     */
+    public Bm25Scorer scorer(String query, Fuzziness fuzziness) {
+        return scorer(expand(query, fuzziness));
+    }
+
+    /**
+     * Like {@link #scorer(String, Fuzziness)}, over terms already expanded by {@link #expand}.
+     */
+    public Bm25Scorer scorer(QueryTerms terms) {
+        int documentCount = documentCount();
+        Bm25Scorer.Term[] scored = new Bm25Scorer.Term[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.term(i);
+            List<Bm25Scorer.Term> expansions = new ArrayList<>(terms.matches(i).size());
+            for (Map.Entry<String, PostingList> expansion : terms.matches(i).entrySet()) {
+                PostingList list = expansion.getValue();
+                float weight = Bm25Scorer.idf(documentCount, list.size())
+                        * (expansion.getKey().equals(term) ? 1.0f : Bm25Scorer.EXPANSION_WEIGHT);
+                expansions.add(new Bm25Scorer.Term(list.docs(), list.freqs(), list.size(), weight, list.maxFreq()));
+            }
+            scored[i] = Bm25Scorer.Term.best(expansions);
+        }
+        return new Bm25Scorer(scored, lengths, averageLength());
+    }
+
+    /**
+     * Tokenize a query and look up the dictionary terms each query term matches: itself,
+     * its prefix completions if it is the last term, and terms within the allowed edits.
+     * The trigram lookup for typos is the expensive part, so a query is expanded once and
+     * the result shared by {@link #estimate}, {@link #search} and {@link #scorer}.
+     */
+    public QueryTerms expand(String query, Fuzziness fuzziness) {
+        List<String> terms = TextAnalyzer.tokenize(query);
+        List<Map<String, PostingList>> matches = new ArrayList<>(terms.size());
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            Map<String, PostingList> expansions = new LinkedHashMap<>();
+            PostingList exact = postings.get(term);
+            if (exact != null) {
+                expansions.put(term, exact);
+            }
+            if (i == terms.size() - 1) {
+                expansions.putAll(postings.subMap(term, true, term + Character.MAX_VALUE, false));
+            }
+            for (String similar : grams.similar(term, fuzziness.maxEdits(term.length()))) {
+                expansions.put(similar, postings.get(similar));
+            }
+            matches.add(expansions);
+        }
+        return new QueryTerms(terms, matches);
+    }
+
+    /**
+     * Query terms with the dictionary terms and postings each one matches, from
+     * {@link #expand}. Only valid for the index that produced them, until it is next modified.
+     */
+    public static final class QueryTerms {
+        private final List<String> terms;
+        private final List<Map<String, PostingList>> matches;
+
+        private QueryTerms(List<String> terms, List<Map<String, PostingList>> matches) {
+            this.terms = terms;
+            this.matches = matches;
+        }
+
+        public int size() {
+            return terms.size();
+        }
+
+        String term(int i) {
+            return terms.get(i);
+        }
+
+        Map<String, PostingList> matches(int i) {
+            return matches.get(i);
+        }
+    }
+
+    // Union of the postings a query term matches, read straight from the posting arrays
+    private static int[] docs(Collection<PostingList> lists) {
+        if (lists.size() == 1) {
+            return lists.iterator().next().toArray();
+        }
+        int[][] docs = new int[lists.size()][];
+        int[] sizes = new int[docs.length];
+        int i = 0;
+        for (PostingList list : lists) {
+            docs[i] = list.docs();
+            sizes[i++] = list.size();
+        }
+        return union(docs, sizes);
+    }
+
+    /**
+     * Intersect sorted arrays, driving from the shortest and galloping through the rest.
+     */
+    static int[] intersect(List<int[]> arrays) {
+        if (arrays.isEmpty()) {
+            return EMPTY;
+        }
+        int[][] sorted = arrays.toArray(new int[0][]);
+        Arrays.sort(sorted, (a, b) -> Integer.compare(a.length, b.length));
+
+        int[] result = sorted[0].clone();
+        int resultSize = result.length;
+        for (int k = 1; k < sorted.length && resultSize > 0; k++) {
+            int[] other = sorted[k];
+            int write = 0;
+            int pos = 0;
+            for (int i = 0; i < resultSize && pos < other.length; i++) {
+                pos = gallop(other, pos, result[i]);
+                if (pos < other.length && other[pos] == result[i]) {
+                    result[write++] = result[i];
+                }
+            }
+            resultSize = write;
+        }
+        return resultSize == result.length ? result : Arrays.copyOf(result, resultSize);
+    }
+
+    /**
+     * Union sorted arrays into a single sorted, duplicate-free array.
+     */
+    static int[] union(List<int[]> arrays) {
+        int[][] docs = arrays.toArray(new int[0][]);
+        int[] sizes = new int[docs.length];
+        for (int i = 0; i < docs.length; i++) {
+            sizes[i] = docs[i].length;
+        }
+        return union(docs, sizes);
+    }
+
+    // One k-way merge, so a prefix with thousands of completions costs O(n log k), not O(n * k)
+    private static int[] union(int[][] docs, int[] sizes) {
+        long total = 0;
+        int nonEmpty = 0;
+        int last = -1;
+        for (int i = 0; i < docs.length; i++) {
+            total += sizes[i];
+            if (sizes[i] > 0) {
+                nonEmpty++;
+                last = i;
+            }
+        }
+        if (nonEmpty == 0) {
+            return EMPTY;
+        }
+        if (nonEmpty == 1) {
+            return Arrays.copyOf(docs[last], sizes[last]);
+        }
+        int[] out = new int[(int) total];
+        int n = 0;
+        for (DocHeap heap = new DocHeap(docs, sizes); !heap.isEmpty(); heap.advance()) {
+            int doc = heap.doc();
+            if (n == 0 || out[n - 1] != doc) {
+                out[n++] = doc;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static int gallop(int[] docs, int from, int target) {
+        return gallop(docs, from, docs.length, target);
+    }
+
+    /**
+     * Position of the first entry at or after {@code from} that is not below {@code target},
+     * or {@code size} if there is none.
+     */
+    static int gallop(int[] docs, int from, int size, int target) {
+        int bound = 1;
+        int lo = from;
+        while (from + bound < size && docs[from + bound] < target) {
+            lo = from + bound;
+            bound <<= 1;
+        }
+        int hi = Math.min(from + bound, size - 1);
+        if (lo > hi || docs[hi] < target) {
+            return size;
+        }
+        int pos = Arrays.binarySearch(docs, lo, hi + 1, target);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+}
@@ -0,0 +1,136 @@
+package com.labs.copilot.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Character trigram index over a term dictionary, for finding terms within a few
+ * edits of a (possibly misspelled) query term.
+ *
+ * Terms are padded with two boundary characters at each end, so a term of length L
+ * has L + 2 trigrams. One edit changes at most three of them, so a term within k edits
+ * shares at least |grams(q)| - 3k distinct trigrams with the query. Only terms that
+ * pass that count filter, and whose length is within k, are verified with a bounded
+ * {@link EditDistance}; the rest of the dictionary is never compared.
+ */
+public class NGramIndex {
+
+    private static final int N = 3;
+    private static final char START = '^';
+    private static final char END = '$';
+
+    private final Map<String, Set<String>> termsByGram = new HashMap<>();
+    // For queries too short for the trigram filter to prune anything
+    private final Map<Integer, Set<String>> termsByLength = new HashMap<>();
+
+    /**
+     * Index a dictionary term.
+     */
+    public void add(String term) {
+        if (termsByLength.computeIfAbsent(term.length(), l -> new HashSet<>()).add(term)) {
+            for (String gram : grams(term)) {
+                termsByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+            }
+        }
+    }
+
+    /**
+     * Remove a dictionary term.
+     */
+    public void remove(String term) {
+        Set<String> sameLength = termsByLength.get(term.length());
+        if (sameLength == null || !sameLength.remove(term)) {
+            return;
+        }
+        if (sameLength.isEmpty()) {
+            termsByLength.remove(term.length());
+        }
+        for (String gram : grams(term)) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                termsByGram.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Deep copy that can be modified without affecting this index.
+     */
+    public NGramIndex copy() {
+        NGramIndex copy = new NGramIndex();
+        termsByGram.forEach((gram, terms) -> copy.termsByGram.put(gram, new HashSet<>(terms)));
+        termsByLength.forEach((length, terms) -> copy.termsByLength.put(length, new HashSet<>(terms)));
+        return copy;
+    }
+
+    /**
+     * Approximate heap footprint in bytes; term strings are shared with the dictionary.
+     */
+    public long sizeInBytes() {
+        long bytes = 96L;
+        for (Set<String> terms : termsByGram.values()) {
+            bytes += 40L + 48L + N + 64L + terms.size() * 36L;
+        }
+        for (Set<String> terms : termsByLength.values()) {
+            bytes += 40L + 16L + 64L + terms.size() * 36L;
+        }
+        return bytes;
+    }
+
+    /**
+     * Indexed terms within {@code maxEdits} edits of the given term, including the term itself.
+     */
+    public List<String> similar(String term, int maxEdits) {
+        List<String> matches = new ArrayList<>();
+        if (maxEdits <= 0) {
+            if (termsByLength.getOrDefault(term.length(), Set.of()).contains(term)) {
+                matches.add(term);
+            }
+            return matches;
+        }
+
+        Set<String> queryGrams = grams(term);
+        int threshold = queryGrams.size() - N * maxEdits;
+        if (threshold <= 0) {
+            // Every term of a close enough length could qualify; fall back to those
+            for (int length = Math.max(1, term.length() - maxEdits); length <= term.length() + maxEdits; length++) {
+                for (String candidate : termsByLength.getOrDefault(length, Set.of())) {
+                    if (EditDistance.bounded(term, candidate, maxEdits) <= maxEdits) {
+                        matches.add(candidate);
+                    }
+                }
+            }
+            return matches;
+        }
+
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : queryGrams) {
+            for (String candidate : termsByGram.getOrDefault(gram, Set.of())) {
+                if (Math.abs(candidate.length() - term.length()) <= maxEdits) {
+                    shared.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            if (entry.getValue() >= threshold
+                    && EditDistance.bounded(term, entry.getKey(), maxEdits) <= maxEdits) {
+                matches.add(entry.getKey());
+            }
+        }
+        return matches;
+    }
+
+    private static Set<String> grams(String term) {
+        String padded = "" + START + START + term + END + END;
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + N <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + N));
+        }
+        return grams;
+    }
+}
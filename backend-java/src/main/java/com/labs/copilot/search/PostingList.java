@@ -0,0 +1,103 @@
+package com.labs.copilot.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, duplicate-free list of document ordinals for a single term, with the
+ * field-boosted frequency of the term in each document.
+ * Documents are usually added in increasing ordinal order, which makes
+ * {@link #add(int, float)} an amortized O(1) append.
+ */
+final class PostingList {
+
+    private int[] docs;
+    private float[] freqs;
+    private int size;
+    // Never lowered on removal, so it stays an upper bound
+    private float maxFreq;
+
+    PostingList() {
+        this.docs = new int[4];
+        this.freqs = new float[4];
+    }
+
+    private PostingList(int[] docs, float[] freqs, int size, float maxFreq) {
+        this.docs = docs;
+        this.freqs = freqs;
+        this.size = size;
+        this.maxFreq = maxFreq;
+    }
+
+    PostingList copy() {
+        int capacity = Math.max(size, 4);
+        return new PostingList(Arrays.copyOf(docs, capacity), Arrays.copyOf(freqs, capacity), size, maxFreq);
+    }
+
+    void add(int doc, float freq) {
+        maxFreq = Math.max(maxFreq, freq);
+        if (size > 0 && docs[size - 1] >= doc) {
+            int pos = Arrays.binarySearch(docs, 0, size, doc);
+            if (pos >= 0) {
+                freqs[pos] = freq;
+                return;
+            }
+            insertAt(-pos - 1, doc, freq);
+            return;
+        }
+        insertAt(size, doc, freq);
+    }
+
+    boolean remove(int doc) {
+        int pos = Arrays.binarySearch(docs, 0, size, doc);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+        System.arraycopy(freqs, pos + 1, freqs, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long sizeInBytes() {
+        return 48L + docs.length * 8L;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(docs, size);
+    }
+
+    /**
+     * Backing ordinal array; only the first {@link #size()} entries are valid.
+     * Published indexes are never modified, so scorers may read it without copying.
+     */
+    int[] docs() {
+        return docs;
+    }
+
+    /**
+     * Backing frequency array, parallel to {@link #docs()}.
+     */
+    float[] freqs() {
+        return freqs;
+    }
+
+    float maxFreq() {
+        return maxFreq;
+    }
+
+    private void insertAt(int pos, int doc, float freq) {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+            freqs = Arrays.copyOf(freqs, size * 2);
+        }
+        System.arraycopy(docs, pos, docs, pos + 1, size - pos);
+        System.arraycopy(freqs, pos, freqs, pos + 1, size - pos);
+        docs[pos] = doc;
+        freqs[pos] = freq;
+        size++;
+    }
+}
@@ -0,0 +1,225 @@
+package com.labs.copilot.search;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Document ordinals sorted by price, with prices stored as primitive cents
+ * (rounded half up, so sub-cent prices compare at cent precision).
+ *
+ * A minPrice/maxPrice filter becomes two binary searches that bound a contiguous
+ * run of the arrays, so a narrow price band over a large catalog costs
+ * O(log n + matches) instead of a comparison per product.
+ */
+public class PriceIndex {
+
+    // Extremes of the cent column, in price units
+    private static final BigDecimal MAX_PRICE = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+    private static final BigDecimal MIN_PRICE = BigDecimal.valueOf(Long.MIN_VALUE, 2);
+
+    private long[] cents = new long[0];
+    private int[] docs = new int[0];
+    private int size;
+
+    /**
+     * Build the index in one sort.
+     *
+     * @param sourceDocs   document ordinals
+     * @param sourcePrices prices, parallel to {@code sourceDocs}; null prices are not indexed
+     */
+    public static PriceIndex build(int[] sourceDocs, BigDecimal[] sourcePrices) {
+        // Positions into the source arrays, sorted by price and then ordinal
+        int[] order = new int[sourceDocs.length];
+        long[] sourceCents = new long[sourceDocs.length];
+        int n = 0;
+        for (int i = 0; i < sourceDocs.length; i++) {
+            if (sourcePrices[i] != null) {
+                sourceCents[i] = toCents(sourcePrices[i]);
+                order[n++] = i;
+            }
+        }
+        DocSort.sort(order, 0, n, (a, b) -> sourceCents[a] != sourceCents[b]
+                ? Long.compare(sourceCents[a], sourceCents[b])
+                : Integer.compare(sourceDocs[a], sourceDocs[b]));
+
+        PriceIndex index = new PriceIndex();
+        index.cents = new long[n];
+        index.docs = new int[n];
+        for (int i = 0; i < n; i++) {
+            index.cents[i] = sourceCents[order[i]];
+            index.docs[i] = sourceDocs[order[i]];
+        }
+        index.size = n;
+        return index;
+    }
+
+    public void add(int doc, BigDecimal price) {
+        if (price == null) {
+            return;
+        }
+        long value = toCents(price);
+        int pos = position(value, doc);
+        if (pos >= 0) {
+            return;
+        }
+        pos = -pos - 1;
+        if (size == docs.length) {
+            int capacity = Math.max(8, size + (size >> 1));
+            cents = Arrays.copyOf(cents, capacity);
+            docs = Arrays.copyOf(docs, capacity);
+        }
+        System.arraycopy(cents, pos, cents, pos + 1, size - pos);
+        System.arraycopy(docs, pos, docs, pos + 1, size - pos);
+        cents[pos] = value;
+        docs[pos] = doc;
+        size++;
+    }
+
+    /**
+     * Remove a document; {@code price} must be the price it was indexed with.
+     */
+    public void remove(int doc, BigDecimal price) {
+        if (price == null) {
+            return;
+        }
+        int pos = position(toCents(price), doc);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(cents, pos + 1, cents, pos, size - pos - 1);
+        System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+        size--;
+    }
+
+    /**
+     * Copy that can be modified without affecting this index.
+     */
+    public PriceIndex copy() {
+        PriceIndex copy = new PriceIndex();
+        copy.cents = Arrays.copyOf(cents, size);
+        copy.docs = Arrays.copyOf(docs, size);
+        copy.size = size;
+        return copy;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of documents priced within the inclusive range; null bounds are open.
+     */
+    public int count(BigDecimal minPrice, BigDecimal maxPrice) {
+        return Math.max(0, upperBound(maxPrice) - lowerBound(minPrice));
+    }
+
+    /**
+     * Documents priced within the inclusive range, as a bitmap for intersection
+     * with the other filters; null bounds are open.
+     */
+    public CompressedBitmap range(BigDecimal minPrice, BigDecimal maxPrice) {
+        int from = lowerBound(minPrice);
+        int to = upperBound(maxPrice);
+        CompressedBitmap bitmap = new CompressedBitmap();
+        if (from >= to) {
+            return bitmap;
+        }
+        int[] matches = Arrays.copyOfRange(docs, from, to);
+        Arrays.sort(matches);
+        for (int doc : matches) {
+            bitmap.add(doc);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Approximate heap footprint in bytes.
+     */
+    public long sizeInBytes() {
+        return 32L + cents.length * 8L + docs.length * 4L;
+    }
+
+    /**
+     * Price in whole cents, rounding half up; saturates outside the {@code long} range.
+     */
+    public static long toCents(BigDecimal price) {
+        return cents(price, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Smallest cent value satisfying {@code price >= minPrice}; a null bound is open.
+     */
+    public static long minCents(BigDecimal minPrice) {
+        return minPrice == null ? Long.MIN_VALUE : cents(minPrice, RoundingMode.CEILING);
+    }
+
+    /**
+     * Largest cent value satisfying {@code price <= maxPrice}; a null bound is open.
+     */
+    public static long maxCents(BigDecimal maxPrice) {
+        return maxPrice == null ? Long.MAX_VALUE : cents(maxPrice, RoundingMode.FLOOR);
+    }
+
+    // Bounds such as 1e20 are valid but beyond any stored price, so they clamp instead of overflowing.
+    // Rescaling costs time in the exponent (1e100000000 or 1e-100000000 would take seconds), so
+    // only values whose scale is bounded by their own digits reach setScale.
+    private static long cents(BigDecimal price, RoundingMode rounding) {
+        // compareTo orders by magnitude first, without rescaling
+        if (price.compareTo(MAX_PRICE) >= 0) {
+            return Long.MAX_VALUE;
+        }
+        if (price.compareTo(MIN_PRICE) <= 0) {
+            return Long.MIN_VALUE;
+        }
+        if (price.precision() - price.scale() < -2) {
+            // Under a tenth of a cent: rounds like +-0.1 cent
+            return BigDecimal.valueOf(price.signum(), 1).setScale(0, rounding).longValue();
+        }
+        return price.movePointRight(2).setScale(0, rounding).longValue();
+    }
+
+    // First position whose price is >= minPrice
+    private int lowerBound(BigDecimal minPrice) {
+        return minPrice == null ? 0 : search(minCents(minPrice));
+    }
+
+    // First position whose price is > maxPrice
+    private int upperBound(BigDecimal maxPrice) {
+        long bound = maxCents(maxPrice);
+        return bound == Long.MAX_VALUE ? size : search(bound + 1);
+    }
+
+    // First position whose price is >= value
+    private int search(long value) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cents[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Exact position of (value, doc), or -(insertion point) - 1
+    private int position(long value, int doc) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = cents[mid] != value ? Long.compare(cents[mid], value) : Integer.compare(docs[mid], doc);
+            if (c < 0) {
+                lo = mid + 1;
+            } else if (c > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -lo - 1;
+    }
+}
@@ -0,0 +1,269 @@
+package com.labs.copilot.search;
+
+import com.labs.copilot.model.Product;
+import com.labs.copilot.model.ProductStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Struct-of-arrays copy of the catalog fields that filters and sorts read, indexed
+ * by document ordinal: price in cents, stock, status ordinal, epoch-millis timestamps,
+ * a dictionary-encoded category id, and the name and description for sorts and
+ * substring scans.
+ *
+ * Scans and comparisons walk primitive arrays instead of chasing each Product's
+ * boxed and object-valued fields, so {@link Product} objects only need to be touched
+ * for the rows on the returned page.
+ *
+ * Missing values use sentinels: {@link #NULL_LONG} for price and timestamps (which
+ * sorts first, like the nulls-first ordering of {@link SortKey}), {@code 0} for
+ * stock, {@link #NO_STATUS} and {@link #NO_CATEGORY} for status and category.
+ */
+public class ProductColumns {
+
+    public static final long NULL_LONG = Long.MIN_VALUE;
+    public static final byte NO_STATUS = -1;
+    public static final int NO_CATEGORY = -1;
+
+    private static final ProductStatus[] STATUSES = ProductStatus.values();
+
+    private long[] priceCents = new long[0];
+    private int[] stock = new int[0];
+    private byte[] status = new byte[0];
+    private long[] createdAt = new long[0];
+    private long[] updatedAt = new long[0];
+    private int[] category = new int[0];
+    private long[] idHigh = new long[0];
+    private long[] idLow = new long[0];
+    private String[] name = new String[0];
+    // Shared with the Product; substring scans match case-insensitively in place rather than keep lower-cased copies
+    private String[] description = new String[0];
+    private boolean[] live = new boolean[0];
+
+    // Category dictionary; ids are assigned in first-seen order and never reused
+    private final Map<String, Integer> categoryIds = new HashMap<>();
+    private final List<String> categoryNames = new ArrayList<>();
+
+    private int capacity;
+
+    public ProductColumns() {
+        this(0);
+    }
+
+    public ProductColumns(int initialCapacity) {
+        grow(initialCapacity);
+    }
+
+    /**
+     * Copy that can be modified without affecting these columns.
+     */
+    public ProductColumns copy() {
+        ProductColumns copy = new ProductColumns();
+        copy.priceCents = priceCents.clone();
+        copy.stock = stock.clone();
+        copy.status = status.clone();
+        copy.createdAt = createdAt.clone();
+        copy.updatedAt = updatedAt.clone();
+        copy.category = category.clone();
+        copy.idHigh = idHigh.clone();
+        copy.idLow = idLow.clone();
+        copy.name = name.clone();
+        copy.description = description.clone();
+        copy.live = live.clone();
+        copy.categoryIds.putAll(categoryIds);
+        copy.categoryNames.addAll(categoryNames);
+        copy.capacity = capacity;
+        return copy;
+    }
+
+    /**
+     * Store (or overwrite) the row for a document.
+     */
+    public void set(int doc, Product product) {
+        if (doc >= capacity) {
+            grow(Math.max(doc + 1, capacity + (capacity >> 1)));
+        }
+        priceCents[doc] = product.getPrice() != null ? PriceIndex.toCents(product.getPrice()) : NULL_LONG;
+        stock[doc] = product.getStockQuantity() != null ? product.getStockQuantity() : 0;
+        status[doc] = product.getStatus() != null ? (byte) product.getStatus().ordinal() : NO_STATUS;
+        createdAt[doc] = toEpochMillis(product.getCreatedAt());
+        updatedAt[doc] = toEpochMillis(product.getUpdatedAt());
+        category[doc] = product.getCategory() != null ? encodeCategory(product.getCategory()) : NO_CATEGORY;
+        idHigh[doc] = product.getId().getMostSignificantBits();
+        idLow[doc] = product.getId().getLeastSignificantBits();
+        name[doc] = product.getName();
+        description[doc] = product.getDescription();
+        live[doc] = true;
+    }
+
+    /**
+     * Drop the row for a removed document.
+     */
+    public void clear(int doc) {
+        if (doc < capacity) {
+            live[doc] = false;
+            name[doc] = null;
+            description[doc] = null;
+        }
+    }
+
+    public boolean isLive(int doc) {
+        return doc >= 0 && doc < capacity && live[doc];
+    }
+
+    public long priceCents(int doc) {
+        return priceCents[doc];
+    }
+
+    public int stock(int doc) {
+        return stock[doc];
+    }
+
+    /**
+     * Status of a document, or null if it has none.
+     */
+    public ProductStatus status(int doc) {
+        return status[doc] == NO_STATUS ? null : STATUSES[status[doc]];
+    }
+
+    public long createdAt(int doc) {
+        return createdAt[doc];
+    }
+
+    public long updatedAt(int doc) {
+        return updatedAt[doc];
+    }
+
+    public String name(int doc) {
+        return name[doc];
+    }
+
+    public long idHigh(int doc) {
+        return idHigh[doc];
+    }
+
+    public long idLow(int doc) {
+        return idLow[doc];
+    }
+
+    public int categoryId(int doc) {
+        return category[doc];
+    }
+
+    /**
+     * Dictionary id of a category (case-insensitive), or {@link #NO_CATEGORY} if unseen.
+     */
+    public int lookupCategory(String value) {
+        Integer id = categoryIds.get(FilterIndex.normalizeCategory(value));
+        return id != null ? id : NO_CATEGORY;
+    }
+
+    /**
+     * Category name as first seen for a dictionary id.
+     */
+    public String categoryName(int id) {
+        return categoryNames.get(id);
+    }
+
+    public int categoryCount() {
+        return categoryNames.size();
+    }
+
+    /**
+     * Whether the document's name or description contains an already lower-cased needle,
+     * ignoring case.
+     */
+    public boolean containsText(int doc, String needleLower) {
+        return containsIgnoreCase(name[doc], needleLower) || containsIgnoreCase(description[doc], needleLower);
+    }
+
+    /**
+     * Column-backed equivalent of {@link SortKey#comparator()}: the sort key, then the
+     * product id. Prices compare at cent precision.
+     */
+    public TopKCollector.DocComparator comparator(SortKey key, boolean descending) {
+        TopKCollector.DocComparator byKey = switch (key) {
+            case NAME -> (a, b) -> compareNames(name[a], name[b]);
+            case PRICE -> (a, b) -> Long.compare(priceCents[a], priceCents[b]);
+            case CREATED -> (a, b) -> Long.compare(createdAt[a], createdAt[b]);
+        };
+        TopKCollector.DocComparator total = (a, b) -> {
+            int c = byKey.compare(a, b);
+            return c != 0 ? c : compareIds(a, b);
+        };
+        return descending ? (a, b) -> total.compare(b, a) : total;
+    }
+
+    /**
+     * Order of two documents by product id, the tie-breaker of every sort.
+     */
+    public int compareIds(int a, int b) {
+        int c = Long.compare(idHigh[a], idHigh[b]);
+        return c != 0 ? c : Long.compare(idLow[a], idLow[b]);
+    }
+
+    /**
+     * Approximate heap footprint in bytes, excluding the shared String contents.
+     */
+    public long sizeInBytes() {
+        // 5 long columns, 2 int columns, 2 byte-sized columns, 2 reference columns
+        return 64L + capacity * (5L * 8 + 2L * 4 + 2L + 2L * 4);
+    }
+
+    private int encodeCategory(String value) {
+        return categoryIds.computeIfAbsent(FilterIndex.normalizeCategory(value), key -> {
+            categoryNames.add(value);
+            return categoryNames.size() - 1;
+        });
+    }
+
+    private void grow(int newCapacity) {
+        priceCents = Arrays.copyOf(priceCents, newCapacity);
+        stock = Arrays.copyOf(stock, newCapacity);
+        status = Arrays.copyOf(status, newCapacity);
+        createdAt = Arrays.copyOf(createdAt, newCapacity);
+        updatedAt = Arrays.copyOf(updatedAt, newCapacity);
+        category = Arrays.copyOf(category, newCapacity);
+        idHigh = Arrays.copyOf(idHigh, newCapacity);
+        idLow = Arrays.copyOf(idLow, newCapacity);
+        name = Arrays.copyOf(name, newCapacity);
+        description = Arrays.copyOf(description, newCapacity);
+        live = Arrays.copyOf(live, newCapacity);
+        capacity = newCapacity;
+    }
+
+    // String.contains on a lower-cased copy, without making the copy
+    private static boolean containsIgnoreCase(String text, String needleLower) {
+        if (text == null) {
+            return false;
+        }
+        int length = needleLower.length();
+        if (length == 0) {
+            return true;
+        }
+        char first = needleLower.charAt(0);
+        for (int i = 0, last = text.length() - length; i <= last; i++) {
+            if (Character.toLowerCase(text.charAt(i)) == first && text.regionMatches(true, i, needleLower, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static int compareNames(String a, String b) {
+        if (a == null) {
+            return b == null ? 0 : -1;
+        }
+        return b == null ? 1 : a.compareTo(b);
+    }
+
+    private static long toEpochMillis(LocalDateTime value) {
+        return value != null ? value.toInstant(ZoneOffset.UTC).toEpochMilli() : NULL_LONG;
+    }
+}
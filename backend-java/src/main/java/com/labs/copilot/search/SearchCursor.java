@@ -0,0 +1,177 @@
+package com.labs.copilot.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination token: the sort value and product id of the last document
+ * on a page, plus the ordering it belongs to and the number of the page it leads to.
+ *
+ * The next page starts strictly after that position, so it is found by seeking in an
+ * ordering or filtering on the key instead of skipping {@code (page - 1) * pageSize}
+ * results, and products added or removed on earlier pages do not shift it. The product
+ * id breaks ties exactly like the sorts do, so every document is either before or after
+ * a cursor.
+ */
+public final class SearchCursor {
+
+    /**
+     * Orderings a cursor can continue: catalog order (by ordinal), a {@link SortKey}, or relevance.
+     */
+    public enum Order {
+        CATALOG, NAME, PRICE, CREATED, RELEVANCE;
+
+        public static Order of(SortKey key) {
+            return switch (key) {
+                case NAME -> NAME;
+                case PRICE -> PRICE;
+                case CREATED -> CREATED;
+            };
+        }
+    }
+
+    private static final String VERSION = "1";
+
+    private final Order order;
+    private final boolean descending;
+    private final int page;
+    // Ordinal, price in cents, epoch millis or float score bits, by order; unused for NAME
+    private final long value;
+    private final String name;
+    private final long idHigh;
+    private final long idLow;
+
+    private SearchCursor(Order order, boolean descending, int page, long value, String name, long idHigh, long idLow) {
+        this.order = order;
+        this.descending = descending;
+        this.page = page;
+        this.value = value;
+        this.name = name;
+        this.idHigh = idHigh;
+        this.idLow = idLow;
+    }
+
+    /**
+     * Cursor positioned after a document in a column-backed ordering.
+     *
+     * @param page number of the page the cursor leads to
+     */
+    public static SearchCursor after(int doc, Order order, boolean descending, int page, ProductColumns columns) {
+        return after(doc, order, descending, page, columns, 0);
+    }
+
+    /**
+     * Cursor positioned after a document; {@code score} is its relevance score for {@link Order#RELEVANCE}.
+     */
+    public static SearchCursor after(int doc, Order order, boolean descending, int page, ProductColumns columns,
+                                     float score) {
+        long value = switch (order) {
+            case CATALOG -> doc;
+            case NAME -> 0;
+            case PRICE -> columns.priceCents(doc);
+            case CREATED -> columns.createdAt(doc);
+            case RELEVANCE -> Float.floatToIntBits(score);
+        };
+        return new SearchCursor(order, descending, page, value, order == Order.NAME ? columns.name(doc) : null,
+                columns.idHigh(doc), columns.idLow(doc));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}.
+     *
+     * @throws InvalidCursorException if the token is malformed
+     */
+    public static SearchCursor decode(String token) {
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The name goes last, so it may contain the separator
+            String[] parts = text.split(":", 8);
+            if (parts.length != 8 || !VERSION.equals(parts[0])) {
+                throw new InvalidCursorException("Unsupported cursor");
+            }
+            Order order = Order.valueOf(parts[1]);
+            int page = Integer.parseInt(parts[3]);
+            if (page < 2) {
+                throw new InvalidCursorException("Invalid cursor page");
+            }
+            String name = order == Order.NAME && parts[7].startsWith("=") ? parts[7].substring(1) : null;
+            return new SearchCursor(order, "d".equals(parts[2]), page, Long.parseLong(parts[4]), name,
+                    Long.parseLong(parts[5]), Long.parseLong(parts[6]));
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid cursor: " + token, e);
+        }
+    }
+
+    /**
+     * URL-safe token for this cursor.
+     */
+    public String encode() {
+        String text = String.join(":", VERSION, order.name(), descending ? "d" : "a", Integer.toString(page),
+                Long.toString(value), Long.toString(idHigh), Long.toString(idLow), name != null ? "=" + name : "-");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Order order() {
+        return order;
+    }
+
+    public boolean descending() {
+        return descending;
+    }
+
+    /**
+     * Number of the page that starts at this cursor.
+     */
+    public int page() {
+        return page;
+    }
+
+    /**
+     * Ordinal of the last document, for catalog order.
+     */
+    public int ordinal() {
+        return (int) value;
+    }
+
+    /**
+     * Whether this cursor continues the given ordering.
+     */
+    public boolean continues(Order order, boolean descending) {
+        // Catalog order and relevance have a single direction
+        return this.order == order
+                && (order == Order.CATALOG || order == Order.RELEVANCE || this.descending == descending);
+    }
+
+    /**
+     * Whether a document comes after the cursor in a column-backed ordering.
+     */
+    public boolean follows(int doc, ProductColumns columns) {
+        int c = switch (order) {
+            case CATALOG -> Long.compare(doc, value);
+            case NAME -> ProductColumns.compareNames(columns.name(doc), name);
+            case PRICE -> Long.compare(columns.priceCents(doc), value);
+            case CREATED -> Long.compare(columns.createdAt(doc), value);
+            case RELEVANCE -> throw new IllegalStateException("Relevance cursors need the document score");
+        };
+        if (c == 0 && order != Order.CATALOG) {
+            c = compareId(doc, columns);
+        }
+        return descending ? c < 0 : c > 0;
+    }
+
+    /**
+     * Whether a document with the given relevance score comes after the cursor: a lower
+     * score, or an equal score and a higher product id.
+     */
+    public boolean follows(int doc, float score, ProductColumns columns) {
+        int c = Float.compare(Float.intBitsToFloat((int) value), score);
+        return c != 0 ? c > 0 : compareId(doc, columns) > 0;
+    }
+
+    private int compareId(int doc, ProductColumns columns) {
+        int c = Long.compare(columns.idHigh(doc), idHigh);
+        return c != 0 ? c : Long.compare(columns.idLow(doc), idLow);
+    }
+}
@@ -0,0 +1,236 @@
+package com.labs.copilot.search;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Pre-sorted permutations of a document set, one per {@link SortKey}.
+ *
+ * A page request in either direction is an array slice, and single-document
+ * changes are applied with a binary search and an array shift instead of a re-sort.
+ *
+ * Orderings compare documents through {@link ProductColumns}, so the index holds
+ * only ordinals and never a reference to a {@code Product}. The columns must hold
+ * a document's row whenever it is added or removed.
+ */
+public class SortIndex {
+
+    private final ProductColumns columns;
+    private final Map<SortKey, Ordering> orderings = new EnumMap<>(SortKey.class);
+
+    public SortIndex(ProductColumns columns) {
+        this.columns = columns;
+        for (SortKey key : SortKey.values()) {
+            orderings.put(key, new Ordering(columns.comparator(key, false)));
+        }
+    }
+
+    /**
+     * Build all orderings in one sort per key.
+     *
+     * @param docs    document ordinals
+     * @param columns columns already holding a row for every document in {@code docs}
+     */
+    public static SortIndex build(int[] docs, ProductColumns columns) {
+        SortIndex index = new SortIndex(columns);
+        index.load(docs);
+        return index;
+    }
+
+    /**
+     * Replace the contents with the given documents, in one sort per key.
+     */
+    public void load(int[] docs) {
+        for (Ordering ordering : orderings.values()) {
+            ordering.load(docs);
+        }
+    }
+
+    public void add(int doc) {
+        for (Ordering ordering : orderings.values()) {
+            ordering.add(doc);
+        }
+    }
+
+    /**
+     * Remove a document; its row in the columns must still be the one it was indexed with.
+     */
+    public void remove(int doc) {
+        for (Ordering ordering : orderings.values()) {
+            ordering.remove(doc);
+        }
+    }
+
+    /**
+     * Copy that can be modified without affecting this index, comparing through
+     * {@code columns} (normally a copy of this index's columns).
+     */
+    public SortIndex copy(ProductColumns columns) {
+        SortIndex copy = new SortIndex(columns);
+        orderings.forEach((key, ordering) -> {
+            Ordering target = copy.orderings.get(key);
+            target.docs = Arrays.copyOf(ordering.docs, ordering.size);
+            target.size = ordering.size;
+        });
+        return copy;
+    }
+
+    public int size() {
+        return orderings.get(SortKey.NAME).size;
+    }
+
+    /**
+     * Approximate heap footprint in bytes, excluding the shared columns.
+     */
+    public long sizeInBytes() {
+        long bytes = 32L;
+        for (Ordering ordering : orderings.values()) {
+            bytes += 32L + ordering.docs.length * 4L;
+        }
+        return bytes;
+    }
+
+    /**
+     * Document ordinals for one page of the given ordering.
+     *
+     * @param key        sort key
+     * @param descending true for descending order
+     * @param offset     number of documents to skip
+     * @param limit      maximum number of documents to return
+     */
+    public int[] page(SortKey key, boolean descending, int offset, int limit) {
+        Ordering ordering = orderings.get(key);
+        int from = Math.min(Math.max(offset, 0), ordering.size);
+        int to = (int) Math.min((long) from + limit, ordering.size);
+        int[] out = new int[to - from];
+        for (int i = 0; i < out.length; i++) {
+            int pos = from + i;
+            out[i] = ordering.docs[descending ? ordering.size - 1 - pos : pos];
+        }
+        return out;
+    }
+
+    /**
+     * One page of the given ordering, counting only documents that pass a filter.
+     * The walk stops as soon as the page is full, so its cost depends on how deep
+     * the page is and how selective the filter is, not on the number of matches.
+     *
+     * @param key        sort key
+     * @param descending true for descending order
+     * @param offset     number of passing documents to skip
+     * @param limit      maximum number of documents to return
+     * @param filter     documents to keep
+     */
+    public int[] page(SortKey key, boolean descending, int offset, int limit, IntPredicate filter) {
+        Ordering ordering = orderings.get(key);
+        int[] out = new int[Math.max(0, Math.min(limit, ordering.size))];
+        int skipped = 0;
+        int n = 0;
+        for (int i = 0; i < ordering.size && n < out.length; i++) {
+            int doc = ordering.docs[descending ? ordering.size - 1 - i : i];
+            if (!filter.test(doc)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                out[n++] = doc;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /**
+     * One page of the given ordering starting right after a keyset position, counting
+     * only documents that pass a filter. The start is found by binary search, so the
+     * cost depends on the page and the filter's selectivity, not on how deep the page is.
+     *
+     * @param key        sort key
+     * @param descending true for descending order
+     * @param follows    whether a document comes after the position; must be monotonic in the ordering
+     * @param limit      maximum number of documents to return
+     * @param filter     documents to keep
+     */
+    public int[] pageAfter(SortKey key, boolean descending, IntPredicate follows, int limit, IntPredicate filter) {
+        Ordering ordering = orderings.get(key);
+        // First position in walk order whose document comes after the cursor
+        int lo = 0;
+        int hi = ordering.size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (follows.test(ordering.docs[descending ? ordering.size - 1 - mid : mid])) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        int[] out = new int[Math.max(0, Math.min(limit, ordering.size - lo))];
+        int n = 0;
+        for (int i = lo; i < ordering.size && n < out.length; i++) {
+            int doc = ordering.docs[descending ? ordering.size - 1 - i : i];
+            if (filter.test(doc)) {
+                out[n++] = doc;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Ordinals kept sorted by a total order over their column rows.
+     */
+    private static final class Ordering {
+        private final TopKCollector.DocComparator comparator;
+        private int[] docs = new int[0];
+        private int size;
+
+        Ordering(TopKCollector.DocComparator comparator) {
+            this.comparator = comparator;
+        }
+
+        void load(int[] sourceDocs) {
+            docs = sourceDocs.clone();
+            DocSort.sort(docs, 0, docs.length, comparator);
+            size = docs.length;
+        }
+
+        void add(int doc) {
+            int pos = search(doc);
+            pos = pos >= 0 ? pos : -pos - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, Math.max(8, size + (size >> 1)));
+            }
+            System.arraycopy(docs, pos, docs, pos + 1, size - pos);
+            docs[pos] = doc;
+            size++;
+        }
+
+        void remove(int doc) {
+            int pos = search(doc);
+            if (pos < 0 || docs[pos] != doc) {
+                return;
+            }
+            System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+            size--;
+        }
+
+        // Same contract as Arrays.binarySearch, over docs[0, size)
+        private int search(int doc) {
+            int lo = 0;
+            int hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = comparator.compare(docs[mid], doc);
+                if (c < 0) {
+                    lo = mid + 1;
+                } else if (c > 0) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(lo + 1);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.labs.copilot.search;
+
+import com.labs.copilot.model.Product;
+
+import java.util.Comparator;
+
+/**
+ * Sort keys supported by the product listing endpoints.
+ * NAME: product name (default)
+ * PRICE: product price
+ * CREATED: creation timestamp
+ */
+public enum SortKey {
+    NAME("name", Comparator.comparing(Product::getName, Comparator.nullsFirst(Comparator.naturalOrder()))),
+    PRICE("price", Comparator.comparing(Product::getPrice, Comparator.nullsFirst(Comparator.naturalOrder()))),
+    CREATED("created", Comparator.comparing(Product::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+    private final String value;
+    private final Comparator<Product> comparator;
+
+    SortKey(String value, Comparator<Product> keyComparator) {
+        this.value = value;
+        // Product id breaks ties, so every product has exactly one position
+        this.comparator = keyComparator.thenComparing(Product::getId);
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Total order on products: the sort key, then the product id.
+     */
+    public Comparator<Product> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Resolve a sort key from a request parameter, defaulting to NAME.
+     */
+    public static SortKey fromValue(String value) {
+        for (SortKey key : SortKey.values()) {
+            if (key.value.equalsIgnoreCase(value)) {
+                return key;
+            }
+        }
+        return NAME;
+    }
+}
@@ -0,0 +1,49 @@
+package com.labs.copilot.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits product text into lowercase terms.
+ * A term is a maximal run of letters or digits; everything else is a separator,
+ * so "USB-C Hub" produces [usb, c, hub].
+ */
+public final class TextAnalyzer {
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Tokenize text into lowercase terms, in order of appearance.
+     *
+     * @param text text to tokenize (may be null)
+     * @return terms, possibly empty
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean termChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (termChar && start < 0) {
+                start = i;
+            } else if (!termChar && start >= 0) {
+                terms.add(normalize(text, start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static String normalize(String text, int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = Character.toLowerCase(text.charAt(i));
+        }
+        return new String(chars);
+    }
+}
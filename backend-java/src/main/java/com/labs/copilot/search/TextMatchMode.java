@@ -0,0 +1,35 @@
+package com.labs.copilot.search;
+
+/**
+ * Text matching mode for product search queries.
+ * ALL: every query term must match (AND)
+ * ANY: at least one query term must match (OR)
+ * SUBSTRING: legacy case-insensitive substring scan over name and description
+ */
+public enum TextMatchMode {
+    ALL("all"),
+    ANY("any"),
+    SUBSTRING("substring");
+
+    private final String value;
+
+    TextMatchMode(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Resolve a match mode from a request parameter, defaulting to ALL.
+     */
+    public static TextMatchMode fromValue(String value) {
+        for (TextMatchMode mode : TextMatchMode.values()) {
+            if (mode.value.equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        return ALL;
+    }
+}
@@ -0,0 +1,108 @@
+package com.labs.copilot.search;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the best {@code k} documents seen so far under a comparator, using a bounded
+ * binary heap whose root is the worst retained document.
+ *
+ * Serving page {@code p} only needs the top {@code p * pageSize} documents, so a
+ * shallow page costs O(n log k) time and O(k) memory instead of a full sort, while
+ * {@link #totalHits()} still counts every collected document.
+ */
+public final class TopKCollector {
+
+    /**
+     * Orders document ordinals; negative means the first document ranks higher.
+     */
+    @FunctionalInterface
+    public interface DocComparator {
+        int compare(int a, int b);
+    }
+
+    private final int k;
+    private final DocComparator comparator;
+    private int[] heap;
+    private int size;
+    private long totalHits;
+
+    public TopKCollector(int k, DocComparator comparator) {
+        this.k = Math.max(k, 0);
+        this.comparator = comparator;
+        this.heap = new int[Math.min(this.k, 128)];
+    }
+
+    public void collect(int doc) {
+        totalHits++;
+        if (size < k) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, (int) Math.min((long) k, Math.max(8L, size * 2L)));
+            }
+            heap[size] = doc;
+            siftUp(heap, size++);
+        } else if (k > 0 && comparator.compare(doc, heap[0]) < 0) {
+            heap[0] = doc;
+            siftDown(heap, size, 0);
+        }
+    }
+
+    /**
+     * Number of documents collected, including those not retained.
+     */
+    public long totalHits() {
+        return totalHits;
+    }
+
+    /**
+     * Retained documents ranked best first, skipping {@code offset} and returning at most {@code limit}.
+     */
+    public int[] page(int offset, int limit) {
+        int[] ranked = ranked();
+        int from = Math.min(Math.max(offset, 0), ranked.length);
+        int to = (int) Math.min((long) from + limit, ranked.length);
+        return Arrays.copyOfRange(ranked, from, to);
+    }
+
+    private int[] ranked() {
+        // Heap sort a copy: repeatedly move the worst remaining document to the end
+        int[] docs = Arrays.copyOf(heap, size);
+        for (int end = docs.length - 1; end > 0; end--) {
+            int worst = docs[0];
+            docs[0] = docs[end];
+            docs[end] = worst;
+            siftDown(docs, end, 0);
+        }
+        return docs;
+    }
+
+    // Max-heap on rank: a parent never ranks better than its children
+    private void siftUp(int[] docs, int i) {
+        int doc = docs[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (comparator.compare(docs[parent], doc) >= 0) {
+                break;
+            }
+            docs[i] = docs[parent];
+            i = parent;
+        }
+        docs[i] = doc;
+    }
+
+    private void siftDown(int[] docs, int n, int i) {
+        int doc = docs[i];
+        int half = n >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < n && comparator.compare(docs[child + 1], docs[child]) > 0) {
+                child++;
+            }
+            if (comparator.compare(doc, docs[child]) >= 0) {
+                break;
+            }
+            docs[i] = docs[child];
+            i = child;
+        }
+        docs[i] = doc;
+    }
+}
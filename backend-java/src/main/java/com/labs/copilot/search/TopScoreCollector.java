@@ -0,0 +1,129 @@
+package com.labs.copilot.search;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the {@code k} highest-scoring documents seen so far in a bounded min-heap,
+ * the score-carrying counterpart of {@link TopKCollector}. Equal scores are ordered
+ * by a tie-breaking comparator, so every document has exactly one rank.
+ *
+ * {@link #threshold()} is the score a document must reach to enter the heap, which
+ * lets a {@link Bm25Scorer} stop scoring documents that cannot make the page.
+ */
+public final class TopScoreCollector {
+
+    private final int k;
+    private final TopKCollector.DocComparator tieBreak;
+    private int[] docs;
+    private float[] scores;
+    private int size;
+    private long totalHits;
+
+    public TopScoreCollector(int k, TopKCollector.DocComparator tieBreak) {
+        this.k = Math.max(k, 0);
+        this.tieBreak = tieBreak;
+        int capacity = Math.min(this.k, 128);
+        this.docs = new int[capacity];
+        this.scores = new float[capacity];
+    }
+
+    public void collect(int doc, float score) {
+        totalHits++;
+        if (size < k) {
+            if (size == docs.length) {
+                int capacity = (int) Math.min((long) k, Math.max(8L, size * 2L));
+                docs = Arrays.copyOf(docs, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+            }
+            docs[size] = doc;
+            scores[size] = score;
+            siftUp(docs, scores, size++);
+        } else if (k > 0 && ranksBefore(doc, score, docs[0], scores[0])) {
+            docs[0] = doc;
+            scores[0] = score;
+            siftDown(docs, scores, size, 0);
+        }
+    }
+
+    /**
+     * Lowest score that can still enter the heap: negative infinity until it is full,
+     * positive infinity when {@code k} is zero.
+     */
+    public float threshold() {
+        if (k == 0) {
+            return Float.POSITIVE_INFINITY;
+        }
+        return size < k ? Float.NEGATIVE_INFINITY : scores[0];
+    }
+
+    /**
+     * Number of documents collected, including those not retained.
+     */
+    public long totalHits() {
+        return totalHits;
+    }
+
+    /**
+     * Retained documents ranked best first, skipping {@code offset} and returning at most {@code limit}.
+     */
+    public int[] page(int offset, int limit) {
+        // Heap sort a copy: repeatedly move the worst remaining document to the end
+        int[] ranked = Arrays.copyOf(docs, size);
+        float[] rankedScores = Arrays.copyOf(scores, size);
+        for (int end = ranked.length - 1; end > 0; end--) {
+            int worst = ranked[0];
+            float worstScore = rankedScores[0];
+            ranked[0] = ranked[end];
+            rankedScores[0] = rankedScores[end];
+            ranked[end] = worst;
+            rankedScores[end] = worstScore;
+            siftDown(ranked, rankedScores, end, 0);
+        }
+        int from = Math.min(Math.max(offset, 0), ranked.length);
+        int to = (int) Math.min((long) from + limit, ranked.length);
+        return Arrays.copyOfRange(ranked, from, to);
+    }
+
+    // Higher score first, then the tie-breaker
+    private boolean ranksBefore(int a, float scoreA, int b, float scoreB) {
+        int c = Float.compare(scoreB, scoreA);
+        return c != 0 ? c < 0 : tieBreak.compare(a, b) < 0;
+    }
+
+    // Min-heap on rank: a parent never ranks before its children
+    private void siftUp(int[] docs, float[] scores, int i) {
+        int doc = docs[i];
+        float score = scores[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!ranksBefore(docs[parent], scores[parent], doc, score)) {
+                break;
+            }
+            docs[i] = docs[parent];
+            scores[i] = scores[parent];
+            i = parent;
+        }
+        docs[i] = doc;
+        scores[i] = score;
+    }
+
+    private void siftDown(int[] docs, float[] scores, int n, int i) {
+        int doc = docs[i];
+        float score = scores[i];
+        int half = n >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < n && ranksBefore(docs[child], scores[child], docs[child + 1], scores[child + 1])) {
+                child++;
+            }
+            if (!ranksBefore(doc, score, docs[child], scores[child])) {
+                break;
+            }
+            docs[i] = docs[child];
+            scores[i] = scores[child];
+            i = child;
+        }
+        docs[i] = doc;
+        scores[i] = score;
+    }
+}
@@ -0,0 +1,229 @@
+package com.labs.copilot.service;
+
+import com.labs.copilot.model.Product;
+import com.labs.copilot.model.ProductStatus;
+import com.labs.copilot.search.CompletionIndex;
+import com.labs.copilot.search.CountCube;
+import com.labs.copilot.search.FilterIndex;
+import com.labs.copilot.search.InvertedIndex;
+import com.labs.copilot.search.PriceIndex;
+import com.labs.copilot.search.ProductColumns;
+import com.labs.copilot.search.SortIndex;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * All indexes derived from the catalog, keyed by document ordinal
+ * (a product's slot in the catalog's {@link com.labs.copilot.store.ProductStore}).
+ *
+ * Instances are mutated only before they are published in a {@link CatalogSnapshot};
+ * writers modify a {@link #copy()} instead.
+ */
+final class CatalogIndexes {
+
+    // Columnar copy of the scanned and sorted fields
+    final ProductColumns columns;
+
+    // Primary-key and SKU hash indexes
+    final Map<UUID, Integer> ordinalsById;
+    final Map<String, Integer> ordinalsBySku;
+
+    // Inverted index over name and description
+    final InvertedIndex text;
+
+    // Category, status and in-stock bitmaps
+    final FilterIndex filters;
+
+    // Counts per category, status and in-stock state
+    final CountCube counts;
+
+    // Sorted price column for range filters
+    final PriceIndex prices;
+
+    // Pre-sorted orderings of the ACTIVE products
+    final SortIndex activeSorted;
+
+    // Name and SKU prefix tries over the ACTIVE products, for typeahead
+    final CompletionIndex completions;
+
+    // Slots left by removed products, handed out again before the catalog grows
+    private final BitSet freeOrdinals;
+
+    private CatalogIndexes(ProductColumns columns, int capacity, PriceIndex prices) {
+        this(columns, new HashMap<>(capacity * 2), new HashMap<>(capacity * 2),
+                new InvertedIndex(), new FilterIndex(), new CountCube(), prices, new SortIndex(columns),
+                new CompletionIndex(), new BitSet());
+    }
+
+    private CatalogIndexes(ProductColumns columns, Map<UUID, Integer> ordinalsById, Map<String, Integer> ordinalsBySku,
+                           InvertedIndex text, FilterIndex filters, CountCube counts, PriceIndex prices,
+                           SortIndex activeSorted, CompletionIndex completions, BitSet freeOrdinals) {
+        this.columns = columns;
+        this.ordinalsById = ordinalsById;
+        this.ordinalsBySku = ordinalsBySku;
+        this.text = text;
+        this.filters = filters;
+        this.counts = counts;
+        this.prices = prices;
+        this.activeSorted = activeSorted;
+        this.completions = completions;
+        this.freeOrdinals = freeOrdinals;
+    }
+
+    /**
+     * Build every index for the given catalog. Null entries are removed products.
+     *
+     * @throws IllegalStateException if two products share the same id or SKU
+     */
+    static CatalogIndexes build(List<Product> catalog) {
+        int liveCount = 0;
+        int[] liveDocs = new int[catalog.size()];
+        BigDecimal[] livePrices = new BigDecimal[catalog.size()];
+        int activeCount = 0;
+        int[] activeDocs = new int[catalog.size()];
+        for (int ordinal = 0; ordinal < catalog.size(); ordinal++) {
+            Product product = catalog.get(ordinal);
+            if (product == null) {
+                continue;
+            }
+            liveDocs[liveCount] = ordinal;
+            livePrices[liveCount++] = product.getPrice();
+            if (product.getStatus() == ProductStatus.ACTIVE) {
+                activeDocs[activeCount++] = ordinal;
+            }
+        }
+
+        // Sorted structures are bulk-loaded with one sort instead of per-document inserts
+        CatalogIndexes indexes = new CatalogIndexes(new ProductColumns(catalog.size()), catalog.size(),
+                PriceIndex.build(Arrays.copyOf(liveDocs, liveCount), Arrays.copyOf(livePrices, liveCount)));
+        for (int ordinal = 0; ordinal < catalog.size(); ordinal++) {
+            Product product = catalog.get(ordinal);
+            if (product != null) {
+                indexes.addUnsorted(ordinal, product);
+            } else {
+                indexes.freeOrdinals.set(ordinal);
+            }
+        }
+        // Orderings compare through the columns, so they load once every row is in place
+        indexes.activeSorted.load(Arrays.copyOf(activeDocs, activeCount));
+        return indexes;
+    }
+
+    /**
+     * Deep copy for copy-on-write updates. Costs O(catalog size), which is why
+     * writers batch their changes into a single copy.
+     */
+    CatalogIndexes copy() {
+        ProductColumns columnsCopy = columns.copy();
+        return new CatalogIndexes(columnsCopy, new HashMap<>(ordinalsById), new HashMap<>(ordinalsBySku),
+                text.copy(), filters.copy(), counts.copy(), prices.copy(), activeSorted.copy(columnsCopy),
+                completions.copy(), (BitSet) freeOrdinals.clone());
+    }
+
+    /**
+     * Lowest slot left by a removed product, or -1 if there is none. Reusing these
+     * keeps the store, the columns and every ordinal-sized array bounded by the peak
+     * number of live products instead of growing with every removal.
+     */
+    int freeOrdinal() {
+        return freeOrdinals.nextSetBit(0);
+    }
+
+    /**
+     * Index a product under the given ordinal.
+     *
+     * @throws IllegalStateException if another product already uses the same id or SKU
+     */
+    void add(int ordinal, Product product) {
+        addUnsorted(ordinal, product);
+        prices.add(ordinal, product.getPrice());
+        if (product.getStatus() == ProductStatus.ACTIVE) {
+            activeSorted.add(ordinal);
+        }
+    }
+
+    /**
+     * Remove a product; {@code product} must be the version it was indexed with.
+     */
+    void remove(int ordinal, Product product) {
+        // Before the column row is cleared: the orderings locate the document by it
+        if (product.getStatus() == ProductStatus.ACTIVE) {
+            activeSorted.remove(ordinal);
+            completions.remove(ordinal, product.getName(), product.getSku());
+        }
+        ordinalsById.remove(product.getId());
+        if (product.getSku() != null) {
+            ordinalsBySku.remove(normalizeSku(product.getSku()), ordinal);
+        }
+        text.remove(ordinal, product.getName(), product.getDescription());
+        filters.remove(ordinal, product);
+        counts.remove(product);
+        columns.clear(ordinal);
+        prices.remove(ordinal, product.getPrice());
+        freeOrdinals.set(ordinal);
+    }
+
+    /**
+     * Approximate heap footprint of each index in bytes, by name.
+     */
+    Map<String, Long> sizesInBytes() {
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        sizes.put("columns", columns.sizeInBytes());
+        // Hash map node, table slot, UUID key and boxed ordinal per entry
+        sizes.put("ids", 48L + ordinalsById.size() * (32L + 8L + 32L + 16L));
+        long skus = 48L;
+        for (String sku : ordinalsBySku.keySet()) {
+            skus += 32L + 8L + 48L + sku.length() + 16L;
+        }
+        sizes.put("skus", skus);
+        sizes.put("text", text.sizeInBytes());
+        sizes.put("filters", filters.sizeInBytes());
+        sizes.put("counts", counts.sizeInBytes());
+        sizes.put("prices", prices.sizeInBytes());
+        sizes.put("activeSorted", activeSorted.sizeInBytes());
+        sizes.put("completions", completions.sizeInBytes());
+        return sizes;
+    }
+
+    /**
+     * Ordinal currently holding the given SKU, or null.
+     */
+    Integer ordinalOfSku(String sku) {
+        return ordinalsBySku.get(normalizeSku(sku));
+    }
+
+    private void addUnsorted(int ordinal, Product product) {
+        if (product.getSku() != null) {
+            Integer existing = ordinalsBySku.putIfAbsent(normalizeSku(product.getSku()), ordinal);
+            if (existing != null && existing != ordinal) {
+                throw new IllegalStateException("Duplicate SKU in catalog: " + product.getSku());
+            }
+        }
+        Integer previous = ordinalsById.putIfAbsent(product.getId(), ordinal);
+        if (previous != null && previous != ordinal) {
+            throw new IllegalStateException("Duplicate product id in catalog: " + product.getId());
+        }
+        text.add(ordinal, product.getName(), product.getDescription());
+        filters.add(ordinal, product);
+        counts.add(product);
+        columns.set(ordinal, product);
+        freeOrdinals.clear(ordinal);
+        if (product.getStatus() == ProductStatus.ACTIVE) {
+            // Suggest what can be sold now: products with the most stock on hand rank first
+            completions.add(ordinal, product.getName(), product.getSku(),
+                    product.getStockQuantity() != null ? Math.max(product.getStockQuantity(), 0) : 0);
+        }
+    }
+
+    static String normalizeSku(String sku) {
+        return sku.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,124 @@
+package com.labs.copilot.service;
+
+import com.labs.copilot.model.Product;
+import com.labs.copilot.search.BloomFilter;
+import com.labs.copilot.store.HeapProductStore;
+import com.labs.copilot.store.ProductStore;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, versioned view of the catalog and every index derived from it.
+ *
+ * Writers build the next snapshot off to the side and publish it with a single
+ * reference swap, so readers never block and always see one consistent version.
+ * A product's slot in the {@link ProductStore} is its document ordinal; removed
+ * products leave a null slot so the remaining ordinals stay stable, and the next
+ * new product reuses it.
+ *
+ * Each snapshot also carries a Bloom filter of its product ids, so lookups of ids
+ * that do not exist can be rejected without touching the indexes.
+ */
+public final class CatalogSnapshot {
+
+    private static final double KNOWN_IDS_FALSE_POSITIVE_RATE = 0.01;
+
+    private final long version;
+    private final ProductStore store;
+    private final Instant publishedAt;
+    final CatalogIndexes indexes;
+    final BloomFilter knownIds;
+
+    private CatalogSnapshot(long version, ProductStore store, CatalogIndexes indexes) {
+        this.version = version;
+        this.store = store;
+        this.indexes = indexes;
+        this.knownIds = BloomFilter.of(indexes.ordinalsById.keySet(), KNOWN_IDS_FALSE_POSITIVE_RATE);
+        this.publishedAt = Instant.now();
+    }
+
+    /**
+     * First version of a catalog.
+     *
+     * @throws IllegalStateException if two products share the same id or SKU
+     */
+    static CatalogSnapshot initial(List<Product> products) {
+        return initial(products, new HeapProductStore());
+    }
+
+    /**
+     * First version of a catalog, kept in the given (empty) store.
+     *
+     * @throws IllegalStateException if two products share the same id or SKU
+     */
+    static CatalogSnapshot initial(List<Product> products, ProductStore empty) {
+        CatalogIndexes indexes = CatalogIndexes.build(products);
+        ProductStore.Editor editor = empty.edit();
+        products.forEach(editor::append);
+        return new CatalogSnapshot(1, editor.publish(), indexes);
+    }
+
+    /**
+     * Successor snapshot; {@code indexes} must not be modified afterwards.
+     */
+    CatalogSnapshot next(ProductStore store, CatalogIndexes indexes) {
+        return new CatalogSnapshot(version + 1, store, indexes);
+    }
+
+    /**
+     * Monotonically increasing version, starting at 1.
+     */
+    public long version() {
+        return version;
+    }
+
+    public Instant publishedAt() {
+        return publishedAt;
+    }
+
+    /**
+     * Number of products in the catalog, excluding removed slots.
+     */
+    public int productCount() {
+        return indexes.ordinalsById.size();
+    }
+
+    /**
+     * Number of product slots, including those left by removed products.
+     */
+    public int slotCount() {
+        return store.size();
+    }
+
+    /**
+     * Approximate heap footprint of each index in bytes, by name.
+     */
+    public Map<String, Long> indexSizes() {
+        Map<String, Long> sizes = indexes.sizesInBytes();
+        sizes.put("knownIds", knownIds.sizeInBytes());
+        return sizes;
+    }
+
+    /**
+     * Catalog slots by ordinal; removed products are null.
+     */
+    ProductStore store() {
+        return store;
+    }
+
+    /**
+     * Product at an ordinal, or null if it was removed. Off-heap stores decode it here.
+     */
+    Product product(int ordinal) {
+        return store.get(ordinal);
+    }
+
+    /**
+     * Bytes of product records held outside the Java heap.
+     */
+    public long offHeapBytes() {
+        return store.offHeapBytes();
+    }
+}
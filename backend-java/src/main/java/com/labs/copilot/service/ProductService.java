@@ -1,13 +1,39 @@
 package com.labs.copilot.service;
 
+import com.labs.copilot.cache.SingleFlight;
+import com.labs.copilot.cache.TinyLfuCache;
+import com.labs.copilot.config.CatalogProperties;
 import com.labs.copilot.model.Product;
 import com.labs.copilot.model.ProductStatus;
+import com.labs.copilot.search.Bm25Scorer;
+import com.labs.copilot.search.CompletionIndex;
+import com.labs.copilot.search.Facet;
+import com.labs.copilot.search.FacetCollector;
+import com.labs.copilot.search.FacetCounts;
+import com.labs.copilot.search.InvalidCursorException;
+import com.labs.copilot.search.ProductColumns;
+import com.labs.copilot.search.SearchCursor;
+import com.labs.copilot.search.SortKey;
+import com.labs.copilot.search.TextMatchMode;
+import com.labs.copilot.search.TopKCollector;
+import com.labs.copilot.search.TopScoreCollector;
+import com.labs.copilot.store.HeapProductStore;
+import com.labs.copilot.store.OffHeapProductStore;
+import com.labs.copilot.store.ProductStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 /**
  * Product service for searching and retrieving products.
@@ -15,20 +41,324 @@ import java.util.stream.Collectors;
  * In production, this would connect to a database or Elasticsearch.
  */
 @Service
-public class ProductService {
+public class ProductService implements MeterBinder {
 
-    // Mock product database (in production, this would be MongoDB/Elasticsearch)
-    private List<Product> mockProducts;
+    // Mock product database (in production, this would be MongoDB/Elasticsearch),
+    // published together with its indexes as one immutable, versioned snapshot.
+    // Readers take a single volatile read; writers copy, modify and swap.
+    private final AtomicReference<CatalogSnapshot> snapshot;
+
+    // Search and listing pages, tagged with the catalog version they were computed from
+    private final TinyLfuCache<SearchCacheKey, SearchResult> resultCache;
+
+    // Ids that passed the Bloom filter but are not in the catalog, per catalog version
+    private final TinyLfuCache<UUID, Boolean> unknownIds;
+    private final LongAdder bloomRejections = new LongAdder();
+    private final LongAdder negativeCacheHits = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    // Searches currently being computed, so a burst of identical misses runs only once
+    private final SingleFlight<InFlightKey, SearchResult> inFlight = new SingleFlight<>();
+
+    // Catalog versions restart at 1 on every boot, so entity tags also carry a random per-instance epoch
+    private final String epoch = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
 
     public ProductService() {
-        initializeMockProducts();
+        this(new CatalogProperties());
+    }
+
+    @Autowired
+    public ProductService(CatalogProperties properties) {
+        snapshot = new AtomicReference<>(CatalogSnapshot.initial(initializeMockProducts(),
+                emptyStore(properties.getStorage())));
+        resultCache = new TinyLfuCache<>(properties.getCache().getQueryResultEntries());
+        unknownIds = new TinyLfuCache<>(properties.getCache().getUnknownIdEntries());
+    }
+
+    /**
+     * Registers:
+     * <ul>
+     *   <li>{@code catalog.search.requests} - searches that missed the result cache, by whether
+     *       they ran the search (executed) or joined an identical one in flight (coalesced)</li>
+     *   <li>{@code catalog.lookup.misses} - unknown product ids, by where the miss was settled:
+     *       the Bloom filter, the negative cache, or the catalog index (a Bloom false positive)</li>
+     *   <li>{@code catalog.lookup.bloom.false.positive.rate} - share of unknown ids the Bloom
+     *       filter let through, observed and as predicted for the current snapshot</li>
+     *   <li>{@code catalog.storage.off.heap.bytes} - direct memory held by the current
+     *       snapshot's product records ({@code catalog.storage.mode=off-heap})</li>
+     * </ul>
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("catalog.search.requests", inFlight, SingleFlight::executionCount)
+                .description("Result cache misses by whether the search ran or was coalesced")
+                .tag("outcome", "executed")
+                .register(registry);
+        FunctionCounter.builder("catalog.search.requests", inFlight, SingleFlight::coalescedCount)
+                .description("Result cache misses by whether the search ran or was coalesced")
+                .tag("outcome", "coalesced")
+                .register(registry);
+
+        lookupMisses(registry, "bloom", bloomRejections);
+        lookupMisses(registry, "negative-cache", negativeCacheHits);
+        lookupMisses(registry, "catalog", falsePositives);
+        Gauge.builder("catalog.lookup.bloom.false.positive.rate", this, ProductService::observedFalsePositiveRate)
+                .description("Share of unknown product ids that passed the Bloom filter")
+                .tag("kind", "observed")
+                .register(registry);
+        Gauge.builder("catalog.lookup.bloom.false.positive.rate", snapshot, s -> s.get().knownIds.expectedFalsePositiveRate())
+                .description("Share of unknown product ids that passed the Bloom filter")
+                .tag("kind", "expected")
+                .register(registry);
+        Gauge.builder("catalog.storage.off.heap.bytes", snapshot, s -> s.get().offHeapBytes())
+                .description("Direct memory held by the product records of the current catalog snapshot")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static ProductStore emptyStore(CatalogProperties.Storage storage) {
+        return switch (storage.getMode()) {
+            case "heap" -> new HeapProductStore();
+            case "off-heap" -> new OffHeapProductStore(
+                    (int) storage.getOffHeapChunkSize().toBytes(), storage.getDecodedCacheEntries());
+            default -> throw new IllegalArgumentException("Unknown catalog.storage.mode: " + storage.getMode());
+        };
+    }
+
+    private static void lookupMisses(MeterRegistry registry, String outcome, LongAdder counter) {
+        FunctionCounter.builder("catalog.lookup.misses", counter, LongAdder::sum)
+                .description("Lookups of unknown product ids by where the miss was settled")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private double observedFalsePositiveRate() {
+        long passed = negativeCacheHits.sum() + falsePositives.sum();
+        long unknown = passed + bloomRejections.sum();
+        return unknown == 0 ? 0 : (double) passed / unknown;
+    }
+
+    /**
+     * Query result cache, for statistics.
+     */
+    public TinyLfuCache<?, ?> resultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Negative cache of unknown product ids, for statistics.
+     */
+    public TinyLfuCache<UUID, ?> unknownIdCache() {
+        return unknownIds;
+    }
+
+    /**
+     * Coalescing of identical concurrent searches, for statistics.
+     */
+    public SingleFlight<?, ?> searchesInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Unknown product ids by where the miss was settled: bloom, negative-cache or catalog.
+     */
+    public Map<String, Long> lookupMisses() {
+        Map<String, Long> misses = new LinkedHashMap<>();
+        misses.put("bloom", bloomRejections.sum());
+        misses.put("negative-cache", negativeCacheHits.sum());
+        misses.put("catalog", falsePositives.sum());
+        return misses;
+    }
+
+    /**
+     * Catalog snapshot currently served to readers.
+     */
+    public CatalogSnapshot currentSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Replace the catalog contents and rebuild all indexes.
+     * The new snapshot is fully built before being published, so concurrent
+     * lookups never observe a partially built index.
+     *
+     * @param products new catalog contents
+     * @throws IllegalStateException if two products share the same id or SKU
+     */
+    public synchronized void reloadCatalog(List<Product> products) {
+        CatalogIndexes rebuilt = CatalogIndexes.build(products);
+        ProductStore.Editor catalog = snapshot.get().store().empty().edit();
+        products.forEach(catalog::append);
+        snapshot.set(snapshot.get().next(catalog.publish(), rebuilt));
+    }
+
+    /**
+     * Insert or replace a single product and publish a new snapshot.
+     * A replaced product keeps its ordinal; a new product takes the slot of a removed
+     * one if there is any, and is appended otherwise.
+     *
+     * @param product product to insert or replace
+     * @throws IllegalArgumentException if the product has no id
+     * @throws IllegalStateException if another product already uses the same SKU
+     */
+    public synchronized void upsertProduct(Product product) {
+        CatalogSnapshot current = snapshot.get();
+        ProductStore.Editor catalog = current.store().edit();
+        CatalogIndexes next = current.indexes.copy();
+        upsert(catalog, next, product);
+        snapshot.set(current.next(catalog.publish(), next));
+    }
+
+    /**
+     * Remove a single product and publish a new snapshot.
+     *
+     * @param id product UUID
+     * @return true if the product existed
+     */
+    public synchronized boolean removeProduct(UUID id) {
+        CatalogSnapshot current = snapshot.get();
+        if (id == null || !current.indexes.ordinalsById.containsKey(id)) {
+            return false;
+        }
+        ProductStore.Editor catalog = current.store().edit();
+        CatalogIndexes next = current.indexes.copy();
+        remove(catalog, next, id);
+        snapshot.set(current.next(catalog.publish(), next));
+        return true;
+    }
+
+    /**
+     * Apply a batch of changes and publish them as one new snapshot, so the
+     * copy-on-write cost is paid once per batch instead of once per change.
+     * A change that would break a catalog invariant (a SKU clash, a product without
+     * an id, or a status change for an unknown product) is rejected on its own; the
+     * rest still apply. So is an upsert that fails part-way through indexing: the
+     * working copy is thrown away and the batch replayed without it.
+     *
+     * @param upserts       products to insert or replace
+     * @param statusChanges new statuses for existing products
+     * @param removals      ids of products to remove; unknown ids are ignored
+     * @return applied and rejected counts, and the version now being served
+     */
+    public synchronized ChangeResult applyChanges(Collection<Product> upserts, Map<UUID, ProductStatus> statusChanges,
+                                                  Collection<UUID> removals) {
+        // Upserts that failed part-way through indexing; the batch is replayed without them
+        Set<Product> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        ChangeResult result;
+        do {
+            result = tryApplyChanges(upserts, statusChanges, removals, failed);
+        } while (result == null);
+        return result;
+    }
+
+    // One attempt at a batch on a fresh copy; null if an upsert failed after the copy was modified
+    private ChangeResult tryApplyChanges(Collection<Product> upserts, Map<UUID, ProductStatus> statusChanges,
+                                         Collection<UUID> removals, Set<Product> failed) {
+        CatalogSnapshot current = snapshot.get();
+        ProductStore.Editor catalog = current.store().edit();
+        CatalogIndexes next = current.indexes.copy();
+        int applied = 0;
+        int rejected = 0;
+
+        for (UUID id : removals) {
+            if (next.ordinalsById.containsKey(id)) {
+                remove(catalog, next, id);
+                applied++;
+            }
+        }
+        for (Product product : upserts) {
+            if (failed.contains(product)) {
+                rejected++;
+                continue;
+            }
+            try {
+                checkUpsert(catalog, next, product);
+            } catch (RuntimeException e) {
+                // A bad payload must not cost the rest of the batch; nothing was modified yet
+                rejected++;
+                continue;
+            }
+            try {
+                applyUpsert(catalog, next, product);
+            } catch (RuntimeException e) {
+                // The copy may be half-updated for this product, so it is thrown away
+                failed.add(product);
+                return null;
+            }
+            applied++;
+        }
+        for (Map.Entry<UUID, ProductStatus> change : statusChanges.entrySet()) {
+            Integer ordinal = next.ordinalsById.get(change.getKey());
+            if (ordinal == null) {
+                rejected++;
+                continue;
+            }
+            // Published Product instances are never mutated; the change goes to a copy
+            Product updated = new Product(catalog.get(ordinal));
+            updated.setStatus(change.getValue());
+            updated.setUpdatedAt(LocalDateTime.now());
+            upsert(catalog, next, updated);
+            applied++;
+        }
+
+        if (applied > 0) {
+            current = current.next(catalog.publish(), next);
+            snapshot.set(current);
+        }
+        return new ChangeResult(applied, rejected, current.version());
+    }
+
+    // Apply an upsert to an unpublished catalog copy and its indexes
+    private static void upsert(ProductStore.Editor catalog, CatalogIndexes indexes, Product product) {
+        checkUpsert(catalog, indexes, product);
+        applyUpsert(catalog, indexes, product);
+    }
+
+    // The invariants an upsert can break, checked before anything is modified
+    private static void checkUpsert(ProductStore.Editor catalog, CatalogIndexes indexes, Product product) {
+        if (product.getId() == null) {
+            throw new IllegalArgumentException("Product id is required");
+        }
+        if (product.getSku() != null) {
+            Integer skuOwner = indexes.ordinalOfSku(product.getSku());
+            if (skuOwner != null && !catalog.get(skuOwner).getId().equals(product.getId())) {
+                throw new IllegalStateException("Duplicate SKU in catalog: " + product.getSku());
+            }
+        }
+    }
+
+    // The store is written first: an off-heap record that fails to encode leaves the indexes untouched
+    private static void applyUpsert(ProductStore.Editor catalog, CatalogIndexes indexes, Product product) {
+        Integer ordinal = indexes.ordinalsById.get(product.getId());
+        if (ordinal != null) {
+            Product previous = catalog.get(ordinal);
+            catalog.set(ordinal, product);
+            indexes.remove(ordinal, previous);
+        } else {
+            ordinal = indexes.freeOrdinal();
+            if (ordinal >= 0) {
+                catalog.set(ordinal, product);
+            } else {
+                ordinal = catalog.append(product);
+            }
+        }
+        indexes.add(ordinal, product);
+    }
+
+    // Apply a removal to an unpublished catalog copy and its indexes
+    private static void remove(ProductStore.Editor catalog, CatalogIndexes indexes, UUID id) {
+        Integer ordinal = indexes.ordinalsById.get(id);
+        if (ordinal != null) {
+            indexes.remove(ordinal, catalog.get(ordinal));
+            catalog.set(ordinal, null);
+        }
     }
 
     /**
      * Initialize mock product data for demonstration.
      */
-    private void initializeMockProducts() {
-        mockProducts = new ArrayList<>();
+    private List<Product> initializeMockProducts() {
+        List<Product> mockProducts = new ArrayList<>();
         
         // Sample products
         Product p1 = new Product(UUID.randomUUID(), "Laptop", new BigDecimal("999.99"), "Electronics", "LAPTOP-001");
@@ -70,6 +400,7 @@ public class ProductService {
         p5.setCreatedAt(LocalDateTime.now().minusDays(15));
         p5.setUpdatedAt(LocalDateTime.now().minusDays(7));
         mockProducts.add(p5);
+        return mockProducts;
     }
 
     /**
@@ -82,40 +413,57 @@ public class ProductService {
      * @return paginated list of products
      */
     public SearchResult searchProducts(Integer page, Integer pageSize, String sortBy, String sortOrder) {
-        page = page != null && page > 0 ? page : 1;
-        pageSize = pageSize != null && pageSize > 0 ? pageSize : 20;
-        pageSize = Math.min(pageSize, 100); // Max 100 items per page
-        sortBy = sortBy != null ? sortBy : "name";
-        sortOrder = sortOrder != null && sortOrder.equalsIgnoreCase("desc") ? "desc" : "asc";
-
-        // Filter only active products
-        List<Product> activeProducts = mockProducts.stream()
-                .filter(p -> p.getStatus() == ProductStatus.ACTIVE)
-                .collect(Collectors.toList());
-
-        // Sort
-        final String finalSortBy = sortBy;
-        final String finalSortOrder = sortOrder;
-        activeProducts.sort((p1, p2) -> {
-            int comparison = switch (finalSortBy.toLowerCase()) {
-                case "price" -> p1.getPrice().compareTo(p2.getPrice());
-                case "created" -> p1.getCreatedAt().compareTo(p2.getCreatedAt());
-                default -> p1.getName().compareTo(p2.getName());
-            };
-            return finalSortOrder.equalsIgnoreCase("desc") ? -comparison : comparison;
-        });
-
-        // Paginate
-        int totalCount = activeProducts.size();
+        return searchProducts(page, pageSize, sortBy, sortOrder, null);
+    }
+
+    /**
+     * Get all products with pagination, continuing from a cursor when one is given.
+     * A cursor seeks straight into the pre-sorted ordering instead of skipping
+     * {@code (page - 1) * pageSize} products, and takes precedence over {@code page}.
+     *
+     * @param page     page number (1-based), ignored with a cursor
+     * @param pageSize number of items per page
+     * @param sortBy   field to sort by (default: name)
+     * @param sortOrder sort order (asc or desc)
+     * @param cursor   {@link SearchResult#nextCursor} of the previous page, or null
+     * @return paginated list of products
+     * @throws InvalidCursorException if the cursor is malformed or was issued for another sort
+     */
+    public SearchResult searchProducts(Integer page, Integer pageSize, String sortBy, String sortOrder, String cursor) {
+        SearchCacheKey key = listingKey(page, pageSize, sortBy, sortOrder, cursor);
+
+        CatalogSnapshot snapshot = this.snapshot.get();
+        SearchResult cachedResult = fromCache(key, snapshot);
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+        return compute(key, snapshot, () -> executeListing(snapshot, key));
+    }
+
+    private SearchResult executeListing(CatalogSnapshot snapshot, SearchCacheKey key) {
+        int page = key.page();
+        int pageSize = key.pageSize();
+
+        // Slice the pre-sorted ordering of the active products, or seek in it to the cursor
+        CatalogIndexes current = snapshot.indexes;
+        ProductColumns columns = current.columns;
+        int totalCount = current.activeSorted.size();
         int totalPages = (int) Math.ceil((double) totalCount / pageSize);
-        int startIndex = (page - 1) * pageSize;
-        int endIndex = Math.min(startIndex + pageSize, totalCount);
+        SearchCursor cursor = key.after() != null ? SearchCursor.decode(key.after()) : null;
+        int[] pageDocs = cursor != null
+                ? current.activeSorted.pageAfter(key.sortBy(), key.descending(), doc -> cursor.follows(doc, columns),
+                        pageSize, doc -> true)
+                : current.activeSorted.page(key.sortBy(), key.descending(), pageOffset(page, pageSize), pageSize);
 
-        List<Product> paginatedProducts = startIndex < totalCount
-                ? activeProducts.subList(startIndex, endIndex)
-                : new ArrayList<>();
+        List<Product> paginatedProducts = new ArrayList<>(pageDocs.length);
+        for (int doc : pageDocs) {
+            paginatedProducts.add(snapshot.product(doc));
+        }
 
-        return new SearchResult(paginatedProducts, page, pageSize, (long) totalCount, totalPages, true, "mongodb");
+        SearchResult result = new SearchResult(paginatedProducts, page, pageSize, (long) totalCount, totalPages, false, "mongodb");
+        result.catalogVersion = snapshot.version();
+        result.catalogPublishedAt = snapshot.publishedAt();
+        return withNextCursor(result, pageDocs, SearchCursor.Order.of(key.sortBy()), key.descending(), columns);
     }
 
     /**
@@ -132,30 +480,273 @@ public class ProductService {
      */
     public SearchResult searchByFilters(String query, String category, BigDecimal minPrice, BigDecimal maxPrice,
                                        Boolean inStock, Integer page, Integer pageSize) {
-        page = page != null && page > 0 ? page : 1;
-        pageSize = pageSize != null && pageSize > 0 ? pageSize : 20;
-        pageSize = Math.min(pageSize, 100);
-
-        List<Product> results = mockProducts.stream()
-                .filter(p -> p.getStatus() == ProductStatus.ACTIVE || (inStock != null && !inStock))
-                .filter(p -> query == null || p.getName().toLowerCase().contains(query.toLowerCase()) ||
-                        (p.getDescription() != null && p.getDescription().toLowerCase().contains(query.toLowerCase())))
-                .filter(p -> category == null || p.getCategory().equalsIgnoreCase(category))
-                .filter(p -> minPrice == null || p.getPrice().compareTo(minPrice) >= 0)
-                .filter(p -> maxPrice == null || p.getPrice().compareTo(maxPrice) <= 0)
-                .filter(p -> inStock == null || !inStock || p.getStockQuantity() > 0)
-                .collect(Collectors.toList());
-
-        int totalCount = results.size();
+        return searchByFilters(query, category, minPrice, maxPrice, inStock, page, pageSize, TextMatchMode.ALL);
+    }
+
+    /**
+     * Search products by query and filters using the given text matching mode.
+     * ALL and ANY resolve the query against the inverted index; SUBSTRING keeps
+     * the original per-product substring scan for comparison.
+     *
+     * @param query      search query
+     * @param category   filter by category
+     * @param minPrice   minimum price
+     * @param maxPrice   maximum price
+     * @param inStock    filter by stock availability
+     * @param page       page number
+     * @param pageSize   items per page
+     * @param matchMode  text matching mode (default: ALL)
+     * @return search results
+     */
+    public SearchResult searchByFilters(String query, String category, BigDecimal minPrice, BigDecimal maxPrice,
+                                       Boolean inStock, Integer page, Integer pageSize, TextMatchMode matchMode) {
+        SearchQuery searchQuery = new SearchQuery();
+        searchQuery.setQuery(query);
+        searchQuery.setCategory(category);
+        searchQuery.setMinPrice(minPrice);
+        searchQuery.setMaxPrice(maxPrice);
+        searchQuery.setInStock(inStock);
+        searchQuery.setPage(page);
+        searchQuery.setPageSize(pageSize);
+        searchQuery.setMatchMode(matchMode);
+        return searchByFilters(searchQuery);
+    }
+
+    /**
+     * Search products by query, filters and optional sort order.
+     * Without a sortBy, results keep catalog order. With one, only the best
+     * {@code page * pageSize} matches are retained in a bounded heap rather than
+     * sorting every match. sortBy=relevance ranks text matches by BM25 score,
+     * abandoning each match as soon as it cannot reach the heap.
+     *
+     * Pages are served from the result cache while the catalog version they were
+     * computed from is still current.
+     *
+     * @param searchQuery search parameters
+     * @return search results
+     */
+    public SearchResult searchByFilters(SearchQuery searchQuery) {
+        SearchCacheKey key = searchKey(searchQuery);
+
+        CatalogSnapshot snapshot = this.snapshot.get();
+        SearchResult cachedResult = fromCache(key, snapshot);
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+        return compute(key, snapshot, () -> executeSearch(snapshot, searchQuery, key));
+    }
+
+    private SearchResult executeSearch(CatalogSnapshot snapshot, SearchQuery searchQuery, SearchCacheKey key) {
+        // The planner orders the predicates by estimated selectivity and picks how each is resolved
+        CatalogIndexes current = snapshot.indexes;
+        QueryPlan plan = QueryPlanner.plan(current, searchQuery);
+        QueryPlanner.Matches matches = QueryPlanner.execute(current, searchQuery, plan);
+
+        FacetCounts facets = null;
+        Set<Facet> requested = searchQuery.getFacets();
+        if (requested != null && !requested.isEmpty()) {
+            // Facets need every match once; the page is then served from the same materialized docs
+            int[] matched = matches.stream().toArray();
+            facets = collectFacets(current, matched, requested);
+            if (matches.bitmap == null) {
+                matches = QueryPlanner.Matches.of(matched);
+            }
+        }
+
+        SearchCursor cursor = key.after() != null ? SearchCursor.decode(key.after()) : null;
+        SearchResult result = executePage(snapshot, searchQuery, plan, matches, key.page(), key.pageSize(), cursor);
+        result.facets = facets;
+        return result;
+    }
+
+    private SearchResult executePage(CatalogSnapshot snapshot, SearchQuery searchQuery, QueryPlan plan,
+                                     QueryPlanner.Matches matches, int page, int pageSize, SearchCursor cursor) {
+        boolean sorted = searchQuery.getSortBy() != null && !searchQuery.isRelevanceSort();
+        CatalogIndexes current = snapshot.indexes;
+        ProductColumns columns = current.columns;
+
+        // Structured filters are counted from the maintained counts; text and price need the matches
+        long counted = QueryPlanner.count(current, searchQuery);
+
+        // A cursor replaces the offset: the page starts right after the position it encodes
+        int offset = cursor != null ? 0 : pageOffset(page, pageSize);
+        int k = (int) Math.min((long) offset + pageSize, Integer.MAX_VALUE);
+        if (searchQuery.ranksByRelevance()) {
+            // Each match is scored against the heap's current threshold, so the heap size bounds the work
+            TopScoreCollector topK = new TopScoreCollector(k, columns::compareIds);
+            // Ranking implies an indexed text query, so the plan holds its expanded terms
+            Bm25Scorer scorer = current.text.scorer(plan.textTerms);
+            long totalCount = 0;
+            for (PrimitiveIterator.OfInt docs = matches.stream().iterator(); docs.hasNext(); totalCount++) {
+                int doc = docs.nextInt();
+                float score = scorer.score(doc, topK.threshold());
+                if (cursor == null || cursor.follows(doc, score, columns)) {
+                    topK.collect(doc, score);
+                }
+            }
+            int[] pageDocs = topK.page(offset, pageSize);
+            SearchResult result = toResult(snapshot, pageDocs, page, pageSize, totalCount, plan);
+            if (hasNextPage(pageDocs, page, pageSize, totalCount)) {
+                int last = pageDocs[pageDocs.length - 1];
+                result.nextCursor = SearchCursor.after(last, SearchCursor.Order.RELEVANCE, false, page + 1, columns,
+                        scorer.score(last)).encode();
+            }
+            return result;
+        }
+
+        if (!sorted) {
+            int[] pageDocs;
+            long totalCount;
+            if (matches.bitmap != null) {
+                // The bitmap gives the requested page without a scan, and seeks to a cursor by rank
+                totalCount = counted >= 0 ? counted : matches.bitmap.cardinality();
+                int from = cursor != null ? matches.bitmap.rank(cursor.ordinal() + 1) : offset;
+                pageDocs = matches.bitmap.toArray(from, pageSize);
+            } else {
+                int[] matched = matches.stream().toArray();
+                totalCount = matched.length;
+                int from = Math.min(cursor != null ? lowerBound(matched, cursor.ordinal() + 1) : offset, matched.length);
+                pageDocs = Arrays.copyOfRange(matched, from, Math.min(from + pageSize, matched.length));
+            }
+            return withNextCursor(toResult(snapshot, pageDocs, page, pageSize, totalCount, plan), pageDocs,
+                    SearchCursor.Order.CATALOG, false, columns);
+        }
+
+        SortKey sortKey = SortKey.fromValue(searchQuery.getSortBy());
+        boolean descending = "desc".equalsIgnoreCase(searchQuery.getSortOrder());
+        SearchCursor.Order order = SearchCursor.Order.of(sortKey);
+        if (counted > 0 && matches.bitmap != null && !Boolean.FALSE.equals(searchQuery.getInStock())) {
+            // Every match is ACTIVE and so already in the pre-sorted active orderings. With the total
+            // known, walking an ordering to the page beats ranking every match when the filter is
+            // not too selective for the page depth.
+            long expectedWalk = ((long) offset + pageSize) * current.activeSorted.size() / counted;
+            if (expectedWalk < counted) {
+                int[] pageDocs = cursor != null
+                        ? current.activeSorted.pageAfter(sortKey, descending, doc -> cursor.follows(doc, columns),
+                                pageSize, matches.bitmap::contains)
+                        : current.activeSorted.page(sortKey, descending, offset, pageSize, matches.bitmap::contains);
+                return withNextCursor(toResult(snapshot, pageDocs, page, pageSize, counted, plan), pageDocs,
+                        order, descending, columns);
+            }
+        }
+
+        // Heap comparisons read the primitive columns; Products are materialized only for the page
+        TopKCollector topK = new TopKCollector(k, columns.comparator(sortKey, descending));
+        long totalCount = 0;
+        for (PrimitiveIterator.OfInt docs = matches.stream().iterator(); docs.hasNext(); totalCount++) {
+            int doc = docs.nextInt();
+            if (cursor == null || cursor.follows(doc, columns)) {
+                topK.collect(doc);
+            }
+        }
+
+        int[] pageDocs = topK.page(offset, pageSize);
+        return withNextCursor(toResult(snapshot, pageDocs, page, pageSize, counted >= 0 ? counted : totalCount, plan),
+                pageDocs, order, descending, columns);
+    }
+
+    /**
+     * Facet counts over every product matching the query's filters, in one pass over the
+     * matches and without materializing a page. Paging and sort parameters are ignored;
+     * with no facets requested, all are aggregated.
+     *
+     * Counts are served from the result cache while the catalog version is current.
+     *
+     * @param searchQuery search parameters and requested facets
+     * @return result with {@link SearchResult#facets} and the total match count, but no products
+     */
+    public SearchResult facets(SearchQuery searchQuery) {
+        SearchCacheKey key = facetKey(searchQuery);
+
+        CatalogSnapshot snapshot = this.snapshot.get();
+        SearchResult cachedResult = fromCache(key, snapshot);
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+        return compute(key, snapshot, () -> executeFacets(snapshot, searchQuery, key.facets()));
+    }
+
+    private SearchResult executeFacets(CatalogSnapshot snapshot, SearchQuery searchQuery, Set<Facet> requested) {
+        CatalogIndexes current = snapshot.indexes;
+        QueryPlan plan = QueryPlanner.plan(current, searchQuery);
+        int[] matched = QueryPlanner.execute(current, searchQuery, plan).stream().toArray();
+
+        SearchResult result = new SearchResult(List.of(), 1, 0, matched.length, 0, false, "elasticsearch");
+        result.facets = collectFacets(current, matched, requested);
+        result.plan = plan;
+        result.catalogVersion = snapshot.version();
+        result.catalogPublishedAt = snapshot.publishedAt();
+        return result;
+    }
+
+    private static FacetCounts collectFacets(CatalogIndexes indexes, int[] docs, Set<Facet> requested) {
+        FacetCollector collector = new FacetCollector(indexes.columns, requested);
+        for (int doc : docs) {
+            collector.collect(doc);
+        }
+        return collector.result();
+    }
+
+    private static SearchResult toResult(CatalogSnapshot snapshot, int[] pageDocs, int page, int pageSize, long totalCount,
+                                         QueryPlan plan) {
+        List<Product> paginatedResults = new ArrayList<>(pageDocs.length);
+        for (int doc : pageDocs) {
+            paginatedResults.add(snapshot.product(doc));
+        }
         int totalPages = (int) Math.ceil((double) totalCount / pageSize);
-        int startIndex = (page - 1) * pageSize;
-        int endIndex = Math.min(startIndex + pageSize, totalCount);
+        SearchResult result = new SearchResult(paginatedResults, page, pageSize, totalCount, totalPages, false, "elasticsearch");
+        result.plan = plan;
+        result.catalogVersion = snapshot.version();
+        result.catalogPublishedAt = snapshot.publishedAt();
+        return result;
+    }
 
-        List<Product> paginatedResults = startIndex < totalCount
-                ? results.subList(startIndex, endIndex)
-                : new ArrayList<>();
+    private SearchResult fromCache(SearchCacheKey key, CatalogSnapshot snapshot) {
+        TinyLfuCache.Entry<SearchResult> entry = resultCache.get(key, snapshot.version());
+        return entry != null ? entry.value().asCached(entry.ageMillis()) : null;
+    }
+
+    // Identical concurrent misses on the same snapshot share one computation; every caller gets its own copy
+    private SearchResult compute(SearchCacheKey key, CatalogSnapshot snapshot, Supplier<SearchResult> search) {
+        return inFlight.execute(new InFlightKey(key, snapshot.version()), () -> {
+            long start = System.nanoTime();
+            SearchResult result = search.get();
+            resultCache.recordLoad(System.nanoTime() - start);
+            return cache(key, snapshot, result);
+        }).copy();
+    }
 
-        return new SearchResult(paginatedResults, page, pageSize, (long) totalCount, totalPages, false, "elasticsearch");
+    private record InFlightKey(SearchCacheKey key, long catalogVersion) {
+    }
+
+    private SearchResult cache(SearchCacheKey key, CatalogSnapshot snapshot, SearchResult result) {
+        result.products = Collections.unmodifiableList(result.products);
+        resultCache.put(key, result.copy(), snapshot.version());
+        return result;
+    }
+
+    private static int pageOffset(int page, int pageSize) {
+        return (int) Math.min((long) (page - 1) * pageSize, Integer.MAX_VALUE);
+    }
+
+    // A full page that has not reached the total may be followed by another
+    private static boolean hasNextPage(int[] pageDocs, int page, int pageSize, long totalCount) {
+        return pageDocs.length > 0 && pageDocs.length == pageSize && (long) page * pageSize < totalCount;
+    }
+
+    private static SearchResult withNextCursor(SearchResult result, int[] pageDocs, SearchCursor.Order order,
+                                               boolean descending, ProductColumns columns) {
+        if (hasNextPage(pageDocs, result.page, result.pageSize, result.totalCount)) {
+            result.nextCursor = SearchCursor.after(pageDocs[pageDocs.length - 1], order, descending, result.page + 1,
+                    columns).encode();
+        }
+        return result;
+    }
+
+    // Position of the first element not below the value in a sorted array
+    private static int lowerBound(int[] sorted, int value) {
+        int pos = Arrays.binarySearch(sorted, value);
+        return pos >= 0 ? pos : -pos - 1;
     }
 
     /**
@@ -165,9 +756,65 @@ public class ProductService {
      * @return product if found
      */
     public Optional<Product> getProductById(UUID id) {
-        return mockProducts.stream()
-                .filter(p -> p.getId().equals(id))
-                .findFirst();
+        if (id == null) {
+            return Optional.empty();
+        }
+        CatalogSnapshot current = snapshot.get();
+        // Ids the Bloom filter rules out, or recent false positives, never reach the index
+        if (!current.knownIds.mightContain(id)) {
+            bloomRejections.increment();
+            return Optional.empty();
+        }
+        if (unknownIds.get(id, current.version()) != null) {
+            negativeCacheHits.increment();
+            return Optional.empty();
+        }
+        Integer ordinal = current.indexes.ordinalsById.get(id);
+        Product product = ordinal != null ? current.product(ordinal) : null;
+        if (product == null) {
+            falsePositives.increment();
+            unknownIds.put(id, Boolean.TRUE, current.version());
+        }
+        return Optional.ofNullable(product);
+    }
+
+    /**
+     * Get a product by SKU (case-insensitive).
+     *
+     * @param sku product SKU
+     * @return product if found
+     */
+    public Optional<Product> getProductBySku(String sku) {
+        if (sku == null || sku.isBlank()) {
+            return Optional.empty();
+        }
+        CatalogSnapshot current = snapshot.get();
+        Integer ordinal = current.indexes.ordinalOfSku(sku);
+        return ordinal != null ? Optional.ofNullable(current.product(ordinal)) : Optional.empty();
+    }
+
+    /**
+     * Typeahead completions: active products whose normalized name or SKU starts with
+     * the prefix, most stock on hand first. Each lookup reads a ranked list stored in
+     * the prefix trie, so it costs the same for any catalog size and needs no cache.
+     *
+     * @param prefix text typed so far
+     * @param limit  maximum number of suggestions (1 to 10, default: 10)
+     * @return matching products, best first
+     */
+    public SearchResult suggest(String prefix, Integer limit) {
+        int n = clampSuggestions(limit);
+        CatalogSnapshot current = snapshot.get();
+        int[] docs = prefix != null ? current.indexes.completions.suggest(prefix, n) : new int[0];
+
+        List<Product> products = new ArrayList<>(docs.length);
+        for (int doc : docs) {
+            products.add(current.product(doc));
+        }
+        SearchResult result = new SearchResult(products, 1, n, docs.length, 1, false, "elasticsearch");
+        result.catalogVersion = current.version();
+        result.catalogPublishedAt = current.publishedAt();
+        return result;
     }
 
     /**
@@ -179,7 +826,114 @@ public class ProductService {
      * @return paginated results
      */
     public SearchResult getByCategory(String category, Integer page, Integer pageSize) {
-        return searchByFilters(null, category, null, null, true, page, pageSize);
+        return searchByFilters(categoryQuery(category, page, pageSize));
+    }
+
+    /**
+     * Strong entity tag for a {@link #searchProducts} page served from the given catalog version.
+     */
+    public String listingETag(Integer page, Integer pageSize, String sortBy, String sortOrder, long catalogVersion) {
+        return listingETag(page, pageSize, sortBy, sortOrder, null, catalogVersion);
+    }
+
+    /**
+     * Strong entity tag for a {@link #searchProducts} page continuing from a cursor.
+     */
+    public String listingETag(Integer page, Integer pageSize, String sortBy, String sortOrder, String cursor,
+                              long catalogVersion) {
+        return eTag(listingKey(page, pageSize, sortBy, sortOrder, cursor), catalogVersion);
+    }
+
+    /**
+     * Strong entity tag for a {@link #searchByFilters(SearchQuery)} page served from the given catalog version.
+     */
+    public String searchETag(SearchQuery searchQuery, long catalogVersion) {
+        return eTag(searchKey(searchQuery), catalogVersion);
+    }
+
+    /**
+     * Strong entity tag for {@link #facets} counts served from the given catalog version.
+     */
+    public String facetsETag(SearchQuery searchQuery, long catalogVersion) {
+        return eTag(facetKey(searchQuery), catalogVersion);
+    }
+
+    /**
+     * Strong entity tag for {@link #suggest} completions served from the given catalog version.
+     */
+    public String suggestETag(String prefix, Integer limit, long catalogVersion) {
+        return catalogTag(catalogVersion) + "-" + SearchCacheKey.fingerprint(
+                "suggest|" + CompletionIndex.normalize(prefix) + "|" + clampSuggestions(limit));
+    }
+
+    /**
+     * Strong entity tag for a {@link #getByCategory} page served from the given catalog version.
+     */
+    public String categoryETag(String category, Integer page, Integer pageSize, long catalogVersion) {
+        return eTag(searchKey(categoryQuery(category, page, pageSize)), catalogVersion);
+    }
+
+    // Requests that normalize to the same key get the same page, and so the same tag
+    private String eTag(SearchCacheKey key, long catalogVersion) {
+        return catalogTag(catalogVersion) + "-" + key.fingerprint();
+    }
+
+    // Versions are only unique within one instance; the epoch keeps a restarted catalog from reusing old tags
+    private String catalogTag(long catalogVersion) {
+        return "v" + epoch + "." + catalogVersion;
+    }
+
+    private static SearchCacheKey listingKey(Integer page, Integer pageSize, String sortBy, String sortOrder,
+                                             String cursor) {
+        return SearchCacheKey.forListing(sortBy != null ? sortBy : "name", sortOrder, clampPage(page),
+                clampPageSize(pageSize), cursor);
+    }
+
+    private static SearchCacheKey searchKey(SearchQuery searchQuery) {
+        return SearchCacheKey.forSearch(searchQuery, clampPage(searchQuery.getPage()), clampPageSize(searchQuery.getPageSize()));
+    }
+
+    private static SearchCacheKey facetKey(SearchQuery searchQuery) {
+        Set<Facet> facets = searchQuery.getFacets();
+        return SearchCacheKey.forFacets(searchQuery, facets == null || facets.isEmpty() ? EnumSet.allOf(Facet.class) : facets);
+    }
+
+    private static SearchQuery categoryQuery(String category, Integer page, Integer pageSize) {
+        SearchQuery searchQuery = new SearchQuery();
+        searchQuery.setCategory(category);
+        searchQuery.setInStock(true);
+        searchQuery.setPage(page);
+        searchQuery.setPageSize(pageSize);
+        searchQuery.setMatchMode(TextMatchMode.ALL);
+        return searchQuery;
+    }
+
+    private static int clampSuggestions(Integer limit) {
+        return limit != null && limit > 0 ? Math.min(limit, CompletionIndex.MAX_SUGGESTIONS) : CompletionIndex.MAX_SUGGESTIONS;
+    }
+
+    private static int clampPage(Integer page) {
+        return page != null && page > 0 ? page : 1;
+    }
+
+    private static int clampPageSize(Integer pageSize) {
+        // Max 100 items per page
+        return Math.min(pageSize != null && pageSize > 0 ? pageSize : 20, 100);
+    }
+
+    /**
+     * Outcome of {@link #applyChanges}.
+     */
+    public static class ChangeResult {
+        public int applied;
+        public int rejected;
+        public long catalogVersion;
+
+        public ChangeResult(int applied, int rejected, long catalogVersion) {
+            this.applied = applied;
+            this.rejected = rejected;
+            this.catalogVersion = catalogVersion;
+        }
     }
 
     /**
@@ -193,6 +947,18 @@ public class ProductService {
         public int totalPages;
         public boolean cached;
         public String source;
+        // Execution plan of a filtered search; null for plain listings
+        public QueryPlan plan;
+        // Version of the catalog snapshot the result was served from
+        public long catalogVersion;
+        // When that snapshot was published
+        public Instant catalogPublishedAt;
+        // Age of the cache entry the result came from; 0 when freshly computed
+        public long cacheAgeMillis;
+        // Facet counts over every match; null unless facets were requested
+        public FacetCounts facets;
+        // Keyset token for the following page; null on the last page
+        public String nextCursor;
 
         public SearchResult(List<Product> products, int page, int pageSize, long totalCount, int totalPages,
                           boolean cached, String source) {
@@ -204,5 +970,23 @@ public class ProductService {
             this.cached = cached;
             this.source = source;
         }
+
+        SearchResult copy() {
+            SearchResult copy = new SearchResult(products, page, pageSize, totalCount, totalPages, cached, source);
+            copy.plan = plan;
+            copy.catalogVersion = catalogVersion;
+            copy.catalogPublishedAt = catalogPublishedAt;
+            copy.cacheAgeMillis = cacheAgeMillis;
+            copy.facets = facets;
+            copy.nextCursor = nextCursor;
+            return copy;
+        }
+
+        SearchResult asCached(long ageMillis) {
+            SearchResult copy = copy();
+            copy.cached = true;
+            copy.cacheAgeMillis = ageMillis;
+            return copy;
+        }
     }
 }
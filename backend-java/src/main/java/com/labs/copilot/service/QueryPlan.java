@@ -0,0 +1,105 @@
+package com.labs.copilot.service;
+
+import com.labs.copilot.search.CompressedBitmap;
+import com.labs.copilot.search.InvertedIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Execution plan chosen by {@link QueryPlanner} for a filtered search: the order in
+ * which predicates run, how each one is resolved, and the estimated rows after it.
+ *
+ * {@link #toString()} renders the plan for the debug metadata, e.g.
+ * {@code category:bitmap(~4) -> text:probe(~2) -> price:column(~1)}.
+ */
+public final class QueryPlan {
+
+    /**
+     * How a predicate is resolved.
+     * BITMAP: AND of an index bitmap into the candidate set
+     * POSTINGS: text posting lists drive, other predicates are probed per match
+     * PROBE: membership check of each driving document against a resolved predicate
+     * RANGE: price index range materialized as a bitmap
+     * COLUMN: per-document check against the price column
+     * SCAN: per-document substring match
+     * EMPTY: statistics prove the result is empty; nothing else runs
+     */
+    public enum Access {
+        BITMAP, POSTINGS, PROBE, RANGE, COLUMN, SCAN, EMPTY
+    }
+
+    /**
+     * One predicate in execution order.
+     */
+    public static final class Step {
+        private final String predicate;
+        private final Access access;
+        private final long estimatedRows;
+
+        Step(String predicate, Access access, long estimatedRows) {
+            this.predicate = predicate;
+            this.access = access;
+            this.estimatedRows = estimatedRows;
+        }
+
+        public String getPredicate() {
+            return predicate;
+        }
+
+        public Access getAccess() {
+            return access;
+        }
+
+        public long getEstimatedRows() {
+            return estimatedRows;
+        }
+
+        @Override
+        public String toString() {
+            return predicate + ":" + access.name().toLowerCase(Locale.ROOT) + "(~" + estimatedRows + ")";
+        }
+    }
+
+    private final List<Step> steps = new ArrayList<>();
+
+    // Execution choices, read by QueryPlanner.execute; a null bitmap stands for the price range
+    final List<CompressedBitmap> bitmaps = new ArrayList<>();
+    boolean empty;
+    boolean textDrives;
+    boolean priceByColumn;
+    // Indexed text terms, expanded once for estimation, matching and scoring; null otherwise
+    InvertedIndex.QueryTerms textTerms;
+
+    QueryPlan() {
+    }
+
+    void addStep(String predicate, Access access, long estimatedRows) {
+        steps.add(new Step(predicate, access, estimatedRows));
+    }
+
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * Whether the planner short-circuited the query to an empty result.
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (Step step : steps) {
+            if (out.length() > 0) {
+                out.append(" -> ");
+            }
+            out.append(step);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,241 @@
+package com.labs.copilot.service;
+
+import com.labs.copilot.model.ProductStatus;
+import com.labs.copilot.search.CompressedBitmap;
+import com.labs.copilot.search.FilterIndex;
+import com.labs.copilot.search.PriceIndex;
+import com.labs.copilot.search.ProductColumns;
+import com.labs.copilot.search.Fuzziness;
+import com.labs.copilot.search.TextMatchMode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * Cost-based planner for {@link ProductService#searchByFilters(SearchQuery)}.
+ *
+ * Selectivity comes from index statistics that are exact and cheap to read: bitmap
+ * cardinalities for status, category and stock, a binary-search count over the
+ * price index, and posting list sizes for text terms. Combined estimates assume the
+ * predicates are independent. The plan then
+ * <ul>
+ *   <li>short-circuits to an empty result when any predicate matches nothing,</li>
+ *   <li>ANDs the filter bitmaps smallest first,</li>
+ *   <li>lets the text postings drive only when they are smaller than the filtered
+ *       candidates, probing the other side otherwise,</li>
+ *   <li>materializes the price range only when it is smaller than the rows it would
+ *       filter, checking the price column per row otherwise,</li>
+ *   <li>and always runs a substring scan last, over the fewest rows.</li>
+ * </ul>
+ */
+final class QueryPlanner {
+
+    // Assumed fraction of rows a substring needle keeps; there are no statistics for it
+    private static final double SUBSTRING_SELECTIVITY = 0.1;
+
+    private QueryPlanner() {
+    }
+
+    /**
+     * Matching documents in catalog order. When {@link #bitmap} is set it is the exact
+     * result set, so callers can count and page it without a scan.
+     */
+    static final class Matches {
+        final CompressedBitmap bitmap;
+        private final IntStream docs;
+
+        private Matches(CompressedBitmap bitmap, IntStream docs) {
+            this.bitmap = bitmap;
+            this.docs = docs;
+        }
+
+        /**
+         * Matches already materialized in catalog order, e.g. after a facet pass.
+         */
+        static Matches of(int[] docs) {
+            return new Matches(null, Arrays.stream(docs));
+        }
+
+        IntStream stream() {
+            return bitmap != null ? Arrays.stream(bitmap.toArray()) : docs;
+        }
+    }
+
+    private record Predicate(String name, CompressedBitmap bitmap, long cardinality) {
+    }
+
+    static QueryPlan plan(CatalogIndexes indexes, SearchQuery query) {
+        FilterIndex filters = indexes.filters;
+        QueryPlan plan = new QueryPlan();
+        long total = filters.all().cardinality();
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.getInStock() == null || query.getInStock()) {
+            CompressedBitmap active = filters.status(ProductStatus.ACTIVE);
+            predicates.add(new Predicate("status", active, active.cardinality()));
+        }
+        if (query.getCategory() != null) {
+            CompressedBitmap category = filters.category(query.getCategory());
+            predicates.add(new Predicate("category", category, category.cardinality()));
+        }
+        if (Boolean.TRUE.equals(query.getInStock())) {
+            predicates.add(new Predicate("inStock", filters.inStock(), filters.inStock().cardinality()));
+        }
+        boolean priced = query.getMinPrice() != null || query.getMaxPrice() != null;
+        long priceCount = priced ? indexes.prices.count(query.getMinPrice(), query.getMaxPrice()) : total;
+
+        String text = query.getQuery();
+        TextMatchMode mode = query.getMatchMode() != null ? query.getMatchMode() : TextMatchMode.ALL;
+        boolean textQuery = text != null && !text.isBlank();
+        boolean indexedText = textQuery && mode != TextMatchMode.SUBSTRING;
+        if (indexedText) {
+            plan.textTerms = indexes.text.expand(text, fuzziness(query));
+        }
+        long textCount = indexedText ? Math.min(indexes.text.estimate(plan.textTerms, mode), total) : total;
+
+        // Any predicate with no matches decides the whole query
+        for (Predicate predicate : predicates) {
+            if (predicate.cardinality() == 0) {
+                return empty(plan, predicate.name());
+            }
+        }
+        if (priced && priceCount == 0) {
+            return empty(plan, "price");
+        }
+        if (indexedText && textCount == 0) {
+            return empty(plan, "text");
+        }
+
+        predicates.sort(Comparator.comparingLong(Predicate::cardinality));
+        long filtered = total;
+        for (Predicate predicate : predicates) {
+            filtered = estimate(filtered, predicate.cardinality(), total);
+        }
+
+        plan.textDrives = indexedText && textCount < filtered;
+        long driving = plan.textDrives ? textCount : filtered;
+        // Materializing the range costs its size; the column check costs one read per driving row
+        plan.priceByColumn = priced && priceCount > driving;
+        if (priced && !plan.priceByColumn) {
+            predicates.add(new Predicate("price", null, priceCount));
+            predicates.sort(Comparator.comparingLong(Predicate::cardinality));
+        }
+
+        long rows = total;
+        if (plan.textDrives) {
+            rows = textCount;
+            plan.addStep("text", QueryPlan.Access.POSTINGS, rows);
+        }
+        for (Predicate predicate : predicates) {
+            rows = estimate(rows, predicate.cardinality(), total);
+            boolean range = predicate.bitmap() == null;
+            plan.bitmaps.add(predicate.bitmap());
+            plan.addStep(predicate.name(),
+                    plan.textDrives ? QueryPlan.Access.PROBE : range ? QueryPlan.Access.RANGE : QueryPlan.Access.BITMAP,
+                    rows);
+        }
+        if (predicates.isEmpty() && !plan.textDrives) {
+            plan.addStep("all", QueryPlan.Access.BITMAP, rows);
+        }
+        if (indexedText && !plan.textDrives) {
+            rows = estimate(rows, textCount, total);
+            plan.addStep("text", QueryPlan.Access.PROBE, rows);
+        }
+        if (plan.priceByColumn) {
+            rows = estimate(rows, priceCount, total);
+            plan.addStep("price", QueryPlan.Access.COLUMN, rows);
+        }
+        if (textQuery && !indexedText) {
+            rows = Math.round(rows * SUBSTRING_SELECTIVITY);
+            plan.addStep("text", QueryPlan.Access.SCAN, rows);
+        }
+        return plan;
+    }
+
+    /**
+     * Exact number of matches from the maintained counts, or -1 if the query has a
+     * text or price predicate, which the counts do not cover.
+     */
+    static long count(CatalogIndexes indexes, SearchQuery query) {
+        boolean textQuery = query.getQuery() != null && !query.getQuery().isBlank();
+        if (textQuery || query.getMinPrice() != null || query.getMaxPrice() != null) {
+            return -1;
+        }
+        // Same semantics as the bitmaps: inStock=false lifts the ACTIVE restriction
+        ProductStatus status = Boolean.FALSE.equals(query.getInStock()) ? null : ProductStatus.ACTIVE;
+        Boolean inStock = Boolean.TRUE.equals(query.getInStock()) ? Boolean.TRUE : null;
+        return indexes.counts.count(query.getCategory(), status, inStock);
+    }
+
+    static Matches execute(CatalogIndexes indexes, SearchQuery query, QueryPlan plan) {
+        if (plan.empty) {
+            return new Matches(new CompressedBitmap(), null);
+        }
+
+        CompressedBitmap candidates = null;
+        for (CompressedBitmap planned : plan.bitmaps) {
+            CompressedBitmap bitmap = planned != null
+                    ? planned
+                    : indexes.prices.range(query.getMinPrice(), query.getMaxPrice());
+            candidates = candidates == null ? bitmap : CompressedBitmap.and(candidates, bitmap);
+            if (candidates.isEmpty()) {
+                return new Matches(candidates, null);
+            }
+        }
+        if (candidates == null) {
+            candidates = indexes.filters.all();
+        }
+
+        String text = query.getQuery();
+        TextMatchMode mode = query.getMatchMode() != null ? query.getMatchMode() : TextMatchMode.ALL;
+        boolean textQuery = text != null && !text.isBlank();
+        if (!textQuery && !plan.priceByColumn) {
+            return new Matches(candidates, null);
+        }
+
+        IntStream docs;
+        if (textQuery && mode != TextMatchMode.SUBSTRING) {
+            int[] textDocs = indexes.text.search(plan.textTerms, mode);
+            CompressedBitmap filtered = candidates;
+            docs = plan.textDrives
+                    ? Arrays.stream(textDocs).filter(filtered::contains)
+                    : Arrays.stream(candidates.toArray()).filter(doc -> Arrays.binarySearch(textDocs, doc) >= 0);
+        } else {
+            docs = Arrays.stream(candidates.toArray());
+        }
+
+        ProductColumns columns = indexes.columns;
+        if (plan.priceByColumn) {
+            long min = PriceIndex.minCents(query.getMinPrice());
+            long max = PriceIndex.maxCents(query.getMaxPrice());
+            docs = docs.filter(doc -> {
+                long cents = columns.priceCents(doc);
+                return cents != ProductColumns.NULL_LONG && cents >= min && cents <= max;
+            });
+        }
+        if (textQuery && mode == TextMatchMode.SUBSTRING) {
+            String needle = text.toLowerCase(Locale.ROOT);
+            docs = docs.filter(doc -> columns.containsText(doc, needle));
+        }
+        return new Matches(null, docs);
+    }
+
+    private static QueryPlan empty(QueryPlan plan, String predicate) {
+        plan.empty = true;
+        plan.addStep(predicate, QueryPlan.Access.EMPTY, 0);
+        return plan;
+    }
+
+    static Fuzziness fuzziness(SearchQuery query) {
+        return query.getFuzziness() != null ? query.getFuzziness() : Fuzziness.ZERO;
+    }
+
+    // Rows left after applying a predicate of the given cardinality, assuming independence
+    private static long estimate(long rows, long cardinality, long total) {
+        return total == 0 ? 0 : Math.round((double) rows * cardinality / total);
+    }
+}
@@ -0,0 +1,130 @@
+package com.labs.copilot.service;
+
+import com.labs.copilot.search.Facet;
+import com.labs.copilot.search.FilterIndex;
+import com.labs.copilot.search.Fuzziness;
+import com.labs.copilot.search.InvalidCursorException;
+import com.labs.copilot.search.SearchCursor;
+import com.labs.copilot.search.SortKey;
+import com.labs.copilot.search.TextAnalyzer;
+import com.labs.copilot.search.TextMatchMode;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalized query tuple used as the result cache key.
+ *
+ * Requests that must return the same page map to the same key: text is reduced to
+ * its analyzed terms (SUBSTRING only lower-cases, since spacing is significant),
+ * categories are case-folded, prices drop trailing zeros, and the match mode,
+ * fuzziness and sort order are dropped when they cannot affect the result. A relevance
+ * sort has no sort key and is always best first. A cursor is kept in its canonical
+ * encoding and sets the page to the one it leads to. Requested facets are part
+ * of the key; a facet-only request has page and page size 0.
+ */
+record SearchCacheKey(boolean listing, String query, TextMatchMode matchMode, Fuzziness fuzziness, String category,
+                      BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock,
+                      SortKey sortBy, boolean relevance, boolean descending, int page, int pageSize,
+                      String after, Set<Facet> facets) {
+
+    /**
+     * Key for a {@code searchProducts} listing page.
+     *
+     * @throws InvalidCursorException if the cursor is malformed or belongs to another sort
+     */
+    static SearchCacheKey forListing(String sortBy, String sortOrder, int page, int pageSize, String cursor) {
+        SortKey key = SortKey.fromValue(sortBy);
+        boolean descending = "desc".equalsIgnoreCase(sortOrder);
+        SearchCursor after = cursor(cursor, SearchCursor.Order.of(key), descending);
+        return new SearchCacheKey(true, null, null, null, null, null, null, null, key, false, descending,
+                after != null ? after.page() : page, pageSize, after != null ? after.encode() : null, Set.of());
+    }
+
+    /**
+     * Key for a {@code searchByFilters} page; {@code page} and {@code pageSize} are the clamped values.
+     *
+     * @throws InvalidCursorException if the cursor is malformed or belongs to another sort
+     */
+    static SearchCacheKey forSearch(SearchQuery query, int page, int pageSize) {
+        SortKey sortBy = query.getSortBy() != null && !query.isRelevanceSort()
+                ? SortKey.fromValue(query.getSortBy())
+                : null;
+        boolean descending = sortBy != null && "desc".equalsIgnoreCase(query.getSortOrder());
+        SearchCursor after = cursor(query.getCursor(),
+                query.ranksByRelevance() ? SearchCursor.Order.RELEVANCE
+                        : sortBy != null ? SearchCursor.Order.of(sortBy)
+                        : SearchCursor.Order.CATALOG,
+                descending);
+        return of(query, sortBy, query.ranksByRelevance(), descending, after != null ? after.page() : page, pageSize,
+                after != null ? after.encode() : null, query.getFacets());
+    }
+
+    /**
+     * Key for the facet counts of a {@code searchByFilters} query, independent of its page and sort.
+     */
+    static SearchCacheKey forFacets(SearchQuery query, Set<Facet> facets) {
+        return of(query, null, false, false, 0, 0, null, facets);
+    }
+
+    private static SearchCacheKey of(SearchQuery query, SortKey sortBy, boolean relevance, boolean descending,
+                                     int page, int pageSize, String after, Set<Facet> facets) {
+        String text = query.getQuery();
+        TextMatchMode mode = null;
+        Fuzziness fuzziness = null;
+        if (text != null && !text.isBlank()) {
+            mode = query.getMatchMode() != null ? query.getMatchMode() : TextMatchMode.ALL;
+            // Substring matching scans raw text and ignores fuzziness
+            fuzziness = mode != TextMatchMode.SUBSTRING && query.getFuzziness() != null
+                    ? query.getFuzziness()
+                    : Fuzziness.ZERO;
+            text = mode == TextMatchMode.SUBSTRING
+                    ? text.toLowerCase(Locale.ROOT)
+                    : String.join(" ", TextAnalyzer.tokenize(text));
+        } else {
+            text = null;
+        }
+        return new SearchCacheKey(false, text, mode, fuzziness,
+                query.getCategory() != null ? FilterIndex.normalizeCategory(query.getCategory()) : null,
+                normalize(query.getMinPrice()), normalize(query.getMaxPrice()), query.getInStock(),
+                sortBy, relevance, descending, page, pageSize, after,
+                facets == null || facets.isEmpty() ? Set.of() : EnumSet.copyOf(facets));
+    }
+
+    /**
+     * Stable 64-bit hash of the key as hex, for use in entity tags.
+     */
+    String fingerprint() {
+        // The canonical record rendering is identical across JVMs and restarts
+        return fingerprint(toString());
+    }
+
+    /**
+     * Stable 64-bit FNV-1a hash of any text as hex.
+     */
+    static String fingerprint(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return String.format("%016x", hash);
+    }
+
+    private static SearchCursor cursor(String token, SearchCursor.Order order, boolean descending) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        SearchCursor cursor = SearchCursor.decode(token);
+        if (!cursor.continues(order, descending)) {
+            throw new InvalidCursorException("Cursor belongs to a different sort order");
+        }
+        return cursor;
+    }
+
+    private static BigDecimal normalize(BigDecimal price) {
+        return price != null ? price.stripTrailingZeros() : null;
+    }
+}
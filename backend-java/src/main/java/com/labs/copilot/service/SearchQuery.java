@@ -0,0 +1,158 @@
+package com.labs.copilot.service;
+
+import com.labs.copilot.search.Facet;
+import com.labs.copilot.search.Fuzziness;
+import com.labs.copilot.search.SearchCursor;
+import com.labs.copilot.search.TextMatchMode;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Parameters for a filtered product search.
+ * Unset paging fields fall back to the service defaults; a null sortBy keeps catalog order.
+ * sortBy {@value #RELEVANCE} ranks indexed text matches by BM25 score, best first.
+ * Facets are only aggregated when requested. A cursor token from a previous page
+ * ({@link SearchCursor}) replaces the page number.
+ */
+public class SearchQuery {
+
+    public static final String RELEVANCE = "relevance";
+
+    private String query;
+    private String category;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Boolean inStock;
+    private Integer page;
+    private Integer pageSize;
+    private TextMatchMode matchMode = TextMatchMode.ALL;
+    private Fuzziness fuzziness = Fuzziness.ZERO;
+    private String sortBy;
+    private String sortOrder;
+    private Set<Facet> facets = EnumSet.noneOf(Facet.class);
+    private String cursor;
+
+    public SearchQuery() {
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Boolean getInStock() {
+        return inStock;
+    }
+
+    public void setInStock(Boolean inStock) {
+        this.inStock = inStock;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public TextMatchMode getMatchMode() {
+        return matchMode;
+    }
+
+    public void setMatchMode(TextMatchMode matchMode) {
+        this.matchMode = matchMode;
+    }
+
+    public Fuzziness getFuzziness() {
+        return fuzziness;
+    }
+
+    public void setFuzziness(Fuzziness fuzziness) {
+        this.fuzziness = fuzziness;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public void setSortBy(String sortBy) {
+        this.sortBy = sortBy;
+    }
+
+    /**
+     * Whether sortBy asks for relevance ranking.
+     */
+    public boolean isRelevanceSort() {
+        return RELEVANCE.equalsIgnoreCase(sortBy);
+    }
+
+    /**
+     * Whether results are ranked by relevance: requested, and with an indexed text
+     * query to score. Otherwise a relevance sort keeps catalog order.
+     */
+    public boolean ranksByRelevance() {
+        return isRelevanceSort() && query != null && !query.isBlank() && matchMode != TextMatchMode.SUBSTRING;
+    }
+
+    public String getSortOrder() {
+        return sortOrder;
+    }
+
+    public void setSortOrder(String sortOrder) {
+        this.sortOrder = sortOrder;
+    }
+
+    public Set<Facet> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Set<Facet> facets) {
+        this.facets = facets;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+}
@@ -0,0 +1,82 @@
+package com.labs.copilot.store;
+
+import com.labs.copilot.model.Product;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Store that keeps every {@link Product} as an object on the heap (the default).
+ */
+public final class HeapProductStore implements ProductStore {
+
+    private final List<Product> products;
+
+    public HeapProductStore() {
+        this(new ArrayList<>());
+    }
+
+    private HeapProductStore(List<Product> products) {
+        this.products = Collections.unmodifiableList(products);
+    }
+
+    @Override
+    public int size() {
+        return products.size();
+    }
+
+    @Override
+    public Product get(int ordinal) {
+        return products.get(ordinal);
+    }
+
+    @Override
+    public Editor edit() {
+        return new HeapEditor(new ArrayList<>(products));
+    }
+
+    @Override
+    public ProductStore empty() {
+        return new HeapProductStore();
+    }
+
+    @Override
+    public long offHeapBytes() {
+        return 0;
+    }
+
+    private static final class HeapEditor implements Editor {
+        private final List<Product> products;
+
+        HeapEditor(List<Product> products) {
+            this.products = products;
+        }
+
+        @Override
+        public int size() {
+            return products.size();
+        }
+
+        @Override
+        public Product get(int ordinal) {
+            return products.get(ordinal);
+        }
+
+        @Override
+        public void set(int ordinal, Product product) {
+            products.set(ordinal, product);
+        }
+
+        @Override
+        public int append(Product product) {
+            products.add(product);
+            return products.size() - 1;
+        }
+
+        @Override
+        public ProductStore publish() {
+            return new HeapProductStore(products);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.labs.copilot.store;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.labs.copilot.cache.TinyLfuCache;
+import com.labs.copilot.model.Product;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Store that keeps products serialized (as JSON) in direct memory, outside the
+ * Java heap, so a large catalog adds little to old-gen size and GC work.
+ *
+ * Records are appended to an arena of direct {@link ByteBuffer} chunks that is
+ * shared by successive snapshots; each store only holds an on-heap slot table of
+ * record addresses and lengths. A product is decoded when it is read, which for
+ * listings and searches means only the rows on the returned page. Recently decoded
+ * products are kept in a small cache, so hot products are decoded once and stay the
+ * same instance across requests.
+ *
+ * Replaced and removed records stay in the arena as garbage. When garbage outgrows
+ * the live records, the next publish copies the live records into a fresh arena;
+ * the old one is freed once no snapshot refers to it.
+ */
+public final class OffHeapProductStore implements ProductStore {
+
+    private static final long EMPTY = -1;
+
+    private static final ObjectMapper CODEC = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final Arena arena;
+    // Per slot: chunk index << 32 | offset, or EMPTY for a removed product
+    private final long[] addresses;
+    private final int[] lengths;
+    private final int size;
+    private final long liveBytes;
+
+    /**
+     * @param chunkBytes          size of each direct buffer the arena allocates
+     * @param decodedCacheEntries maximum decoded products kept on the heap
+     */
+    public OffHeapProductStore(int chunkBytes, int decodedCacheEntries) {
+        this(new Arena(chunkBytes, decodedCacheEntries), new long[0], new int[0], 0, 0);
+    }
+
+    private OffHeapProductStore(Arena arena, long[] addresses, int[] lengths, int size, long liveBytes) {
+        this.arena = arena;
+        this.addresses = addresses;
+        this.lengths = lengths;
+        this.size = size;
+        this.liveBytes = liveBytes;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Product get(int ordinal) {
+        if (ordinal < 0 || ordinal >= size) {
+            throw new IndexOutOfBoundsException("Ordinal " + ordinal + " out of bounds for size " + size);
+        }
+        return arena.decode(addresses[ordinal], lengths[ordinal]);
+    }
+
+    @Override
+    public Editor edit() {
+        return new OffHeapEditor(this);
+    }
+
+    @Override
+    public ProductStore empty() {
+        return new OffHeapProductStore(arena.chunkBytes, arena.decodedCacheEntries);
+    }
+
+    @Override
+    public long offHeapBytes() {
+        return arena.allocatedBytes();
+    }
+
+    /**
+     * Bytes of live (encoded) records.
+     */
+    public long liveBytes() {
+        return liveBytes;
+    }
+
+    private static final class OffHeapEditor implements Editor {
+        private Arena arena;
+        private long[] addresses;
+        private int[] lengths;
+        private int size;
+        private long liveBytes;
+
+        OffHeapEditor(OffHeapProductStore base) {
+            this.arena = base.arena;
+            this.addresses = Arrays.copyOf(base.addresses, Math.max(8, base.size + (base.size >> 3)));
+            this.lengths = Arrays.copyOf(base.lengths, addresses.length);
+            this.size = base.size;
+            this.liveBytes = base.liveBytes;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Product get(int ordinal) {
+            if (ordinal < 0 || ordinal >= size) {
+                throw new IndexOutOfBoundsException("Ordinal " + ordinal + " out of bounds for size " + size);
+            }
+            return arena.decode(addresses[ordinal], lengths[ordinal]);
+        }
+
+        @Override
+        public void set(int ordinal, Product product) {
+            if (ordinal < 0 || ordinal >= size) {
+                throw new IndexOutOfBoundsException("Ordinal " + ordinal + " out of bounds for size " + size);
+            }
+            // Encoded before anything changes, so a product that cannot be encoded leaves the editor as it was
+            byte[] record = product != null ? encode(product) : null;
+            if (addresses[ordinal] != EMPTY) {
+                liveBytes -= lengths[ordinal];
+            }
+            if (record == null) {
+                addresses[ordinal] = EMPTY;
+                lengths[ordinal] = 0;
+                return;
+            }
+            store(ordinal, record);
+        }
+
+        @Override
+        public int append(Product product) {
+            byte[] record = product != null ? encode(product) : null;
+            if (size == addresses.length) {
+                addresses = Arrays.copyOf(addresses, size + (size >> 1));
+                lengths = Arrays.copyOf(lengths, addresses.length);
+            }
+            addresses[size] = EMPTY;
+            size++;
+            if (record != null) {
+                store(size - 1, record);
+            }
+            return size - 1;
+        }
+
+        private void store(int ordinal, byte[] record) {
+            addresses[ordinal] = arena.append(record);
+            lengths[ordinal] = record.length;
+            liveBytes += record.length;
+        }
+
+        @Override
+        public ProductStore publish() {
+            long garbage = arena.usedBytes() - liveBytes;
+            if (garbage > liveBytes && garbage > arena.chunkBytes) {
+                compact();
+            }
+            return new OffHeapProductStore(arena, addresses, lengths, size, liveBytes);
+        }
+
+        // Copy the live records, still encoded, into a fresh arena
+        private void compact() {
+            Arena compacted = new Arena(arena.chunkBytes, arena.decodedCacheEntries);
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                if (addresses[ordinal] != EMPTY) {
+                    addresses[ordinal] = compacted.append(arena.read(addresses[ordinal], lengths[ordinal]));
+                }
+            }
+            arena = compacted;
+        }
+    }
+
+    /**
+     * Append-only direct memory shared by the stores of successive snapshots.
+     * Appends come from the single catalog writer; reads are lock-free and only
+     * see records published before the snapshot that refers to them.
+     */
+    private static final class Arena {
+        private final int chunkBytes;
+        private final int decodedCacheEntries;
+        // Keyed by record address; addresses are never reused within an arena
+        private final TinyLfuCache<Long, Product> decoded;
+
+        private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+        private volatile long allocatedBytes;
+        private int position;
+        private long usedBytes;
+
+        Arena(int chunkBytes, int decodedCacheEntries) {
+            this.chunkBytes = Math.max(4096, chunkBytes);
+            this.decodedCacheEntries = decodedCacheEntries;
+            this.decoded = decodedCacheEntries > 0 ? new TinyLfuCache<>(decodedCacheEntries) : null;
+        }
+
+        synchronized long append(byte[] record) {
+            ByteBuffer[] current = chunks;
+            ByteBuffer last = current.length > 0 ? current[current.length - 1] : null;
+            if (last == null || last.capacity() - position < record.length) {
+                // A record larger than a chunk gets a chunk of its own
+                last = ByteBuffer.allocateDirect(Math.max(chunkBytes, record.length));
+                current = Arrays.copyOf(current, current.length + 1);
+                current[current.length - 1] = last;
+                position = 0;
+                allocatedBytes += last.capacity();
+                chunks = current;
+            }
+            last.put(position, record);
+            long address = ((long) (current.length - 1) << 32) | position;
+            position += record.length;
+            usedBytes += record.length;
+            return address;
+        }
+
+        byte[] read(long address, int length) {
+            byte[] record = new byte[length];
+            // Absolute reads leave the buffer position alone, so concurrent readers are safe
+            chunks[(int) (address >>> 32)].get((int) address, record);
+            return record;
+        }
+
+        Product decode(long address, int length) {
+            if (address == EMPTY) {
+                return null;
+            }
+            if (decoded != null) {
+                TinyLfuCache.Entry<Product> entry = decoded.get(address, 0);
+                if (entry != null) {
+                    return entry.value();
+                }
+            }
+            Product product;
+            try {
+                product = CODEC.readValue(read(address, length), Product.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot decode product record at " + Long.toHexString(address), e);
+            }
+            if (decoded != null) {
+                decoded.put(address, product, 0);
+            }
+            return product;
+        }
+
+        synchronized long usedBytes() {
+            return usedBytes;
+        }
+
+        long allocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+
+    private static byte[] encode(Product product) {
+        try {
+            return CODEC.writeValueAsBytes(product);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot encode product " + product.getId(), e);
+        }
+    }
+}
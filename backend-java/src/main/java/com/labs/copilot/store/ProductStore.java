@@ -0,0 +1,64 @@
+package com.labs.copilot.store;
+
+import com.labs.copilot.model.Product;
+
+/**
+ * Product records of one catalog snapshot, addressed by document ordinal.
+ *
+ * A store is immutable once published. Writers take an {@link Editor}, which
+ * copies the store's slot table, apply their changes to it and publish a new
+ * store; readers of the old store are not affected. Removed products leave a
+ * null slot so the remaining ordinals stay stable; writers fill it again with
+ * {@link Editor#set} instead of appending.
+ */
+public interface ProductStore {
+
+    /**
+     * Number of slots, including removed ones.
+     */
+    int size();
+
+    /**
+     * Product in a slot, or null if it was removed.
+     */
+    Product get(int ordinal);
+
+    /**
+     * Start a copy-on-write edit of this store.
+     */
+    Editor edit();
+
+    /**
+     * Empty store of the same kind and settings, for a full catalog reload.
+     */
+    ProductStore empty();
+
+    /**
+     * Bytes of memory held outside the Java heap; 0 for heap-backed stores.
+     */
+    long offHeapBytes();
+
+    /**
+     * Unpublished changes to a store. Not thread-safe, and not usable after {@link #publish()}.
+     */
+    interface Editor {
+
+        int size();
+
+        Product get(int ordinal);
+
+        /**
+         * Replace the product in an existing slot; null removes it.
+         */
+        void set(int ordinal, Product product);
+
+        /**
+         * Add a product in a new slot.
+         *
+         * @return ordinal of the new slot
+         */
+        int append(Product product);
+
+        ProductStore publish();
+    }
+}
@@ -0,0 +1,139 @@
+package com.labs.copilot.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labs.copilot.cache.ProductJsonCache;
+import com.labs.copilot.dto.PaginatedResponse;
+import com.labs.copilot.dto.ResponseMetadata;
+import com.labs.copilot.model.Product;
+import com.labs.copilot.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Replays the requests in the warm-up file before the instance reports ready.
+ *
+ * Listings, searches and product lookups go through {@link ProductService} and are
+ * serialized the way the controller would, which fills the result and product JSON
+ * caches and gives the JIT a profile of real traffic. Spring Boot only moves the
+ * readiness state to ACCEPTING_TRAFFIC after all application runners return, so
+ * {@code /actuator/health/readiness} stays down until the warm-up finishes.
+ *
+ * A missing or unreadable file, or a request that fails, never blocks startup; the
+ * warm-up also stops once {@code timeout} has elapsed.
+ */
+public class CatalogWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogWarmup.class);
+
+    private final ProductService productService;
+    private final ProductJsonCache productJsonCache;
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final int iterations;
+    private final Duration timeout;
+
+    public CatalogWarmup(ProductService productService, ProductJsonCache productJsonCache, ObjectMapper objectMapper,
+                         Path file, int iterations, Duration timeout) {
+        this.productService = productService;
+        this.productJsonCache = productJsonCache;
+        this.objectMapper = objectMapper;
+        this.file = file;
+        this.iterations = Math.max(1, iterations);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    /**
+     * Replay the warm-up file.
+     *
+     * @return number of requests replayed
+     */
+    public int warmUp() {
+        if (!Files.isRegularFile(file)) {
+            log.info("No warm-up file at {}; starting with cold caches", file);
+            return 0;
+        }
+        TopQueries top;
+        try {
+            top = TopQueries.read(file, objectMapper);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable warm-up file {}", file, e);
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        int replayed = 0;
+        // The first round fills the caches; later rounds repeat the cache-hit and serialization paths
+        for (int round = 0; round < iterations; round++) {
+            for (TopQueries.Listing listing : top.getListings()) {
+                if (System.nanoTime() > deadline) {
+                    return finish(replayed, start, true);
+                }
+                replayed += replay(() -> serialize(productService.searchProducts(
+                        listing.page(), listing.pageSize(), listing.sortBy(), listing.sortOrder())));
+            }
+            for (TopQueries.Search search : top.getSearches()) {
+                if (System.nanoTime() > deadline) {
+                    return finish(replayed, start, true);
+                }
+                replayed += replay(() -> serialize(productService.searchByFilters(search.toSearchQuery())));
+            }
+            for (UUID productId : top.getProductIds()) {
+                if (System.nanoTime() > deadline) {
+                    return finish(replayed, start, true);
+                }
+                replayed += replay(() -> productService.getProductById(productId).ifPresent(productJsonCache::render));
+            }
+        }
+        return finish(replayed, start, false);
+    }
+
+    private int replay(Runnable request) {
+        try {
+            request.run();
+            return 1;
+        } catch (RuntimeException e) {
+            log.debug("Warm-up request failed", e);
+            return 0;
+        }
+    }
+
+    private void serialize(ProductService.SearchResult result) {
+        PaginatedResponse<Product> response = new PaginatedResponse<>(result.products, new PaginatedResponse.PaginationInfo(
+                result.page, result.pageSize, result.totalCount, result.totalPages));
+        ResponseMetadata metadata = new ResponseMetadata();
+        metadata.setCached(result.cached);
+        metadata.setSource(result.source);
+        metadata.setCatalogVersion(result.catalogVersion);
+        response.set_metadata(metadata);
+        try {
+            objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int finish(int replayed, long start, boolean timedOut) {
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        if (timedOut) {
+            log.warn("Warm-up stopped after {} ms ({} requests replayed)", millis, replayed);
+        } else {
+            log.info("Warm-up replayed {} requests from {} in {} ms", replayed, file, millis);
+        }
+        return replayed;
+    }
+}
@@ -0,0 +1,119 @@
+package com.labs.copilot.warmup;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labs.copilot.search.Fuzziness;
+import com.labs.copilot.search.TextMatchMode;
+import com.labs.copilot.service.SearchQuery;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The most frequent requests seen by a running instance, most frequent first, as
+ * stored in the warm-up file:
+ *
+ * <pre>
+ * {"searches": [{"query": "laptop", "matchMode": "ALL", "page": 1, "pageSize": 20, ...}],
+ *  "listings": [{"page": 1, "pageSize": 20, "sortBy": "name", "sortOrder": "asc"}],
+ *  "productIds": ["..."]}
+ * </pre>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TopQueries {
+
+    /**
+     * A recorded {@code /products/search} request.
+     */
+    public record Search(String query, TextMatchMode matchMode, Fuzziness fuzziness, String category,
+                         BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock, String sortBy, String sortOrder,
+                         Integer page, Integer pageSize) {
+
+        public static Search of(SearchQuery query) {
+            return new Search(query.getQuery(), query.getMatchMode(), query.getFuzziness(), query.getCategory(),
+                    query.getMinPrice(), query.getMaxPrice(), query.getInStock(), query.getSortBy(), query.getSortOrder(),
+                    query.getPage(), query.getPageSize());
+        }
+
+        public SearchQuery toSearchQuery() {
+            SearchQuery searchQuery = new SearchQuery();
+            searchQuery.setQuery(query);
+            searchQuery.setMatchMode(matchMode);
+            searchQuery.setFuzziness(fuzziness);
+            searchQuery.setCategory(category);
+            searchQuery.setMinPrice(minPrice);
+            searchQuery.setMaxPrice(maxPrice);
+            searchQuery.setInStock(inStock);
+            searchQuery.setSortBy(sortBy);
+            searchQuery.setSortOrder(sortOrder);
+            searchQuery.setPage(page);
+            searchQuery.setPageSize(pageSize);
+            return searchQuery;
+        }
+    }
+
+    /**
+     * A recorded {@code /products} listing request.
+     */
+    public record Listing(Integer page, Integer pageSize, String sortBy, String sortOrder) {
+    }
+
+    private List<Search> searches = new ArrayList<>();
+    private List<Listing> listings = new ArrayList<>();
+    private List<UUID> productIds = new ArrayList<>();
+
+    public List<Search> getSearches() {
+        return searches;
+    }
+
+    public void setSearches(List<Search> searches) {
+        this.searches = searches;
+    }
+
+    public List<Listing> getListings() {
+        return listings;
+    }
+
+    public void setListings(List<Listing> listings) {
+        this.listings = listings;
+    }
+
+    public List<UUID> getProductIds() {
+        return productIds;
+    }
+
+    public void setProductIds(List<UUID> productIds) {
+        this.productIds = productIds;
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return searches.isEmpty() && listings.isEmpty() && productIds.isEmpty();
+    }
+
+    public static TopQueries read(Path path, ObjectMapper objectMapper) throws IOException {
+        return objectMapper.readValue(path.toFile(), TopQueries.class);
+    }
+
+    /**
+     * Write to a temporary file and move it into place, so readers never see a partial file.
+     */
+    public void write(Path path, ObjectMapper objectMapper) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), this);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.labs.copilot.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labs.copilot.search.SortKey;
+import com.labs.copilot.search.TextMatchMode;
+import com.labs.copilot.service.SearchQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the requests served by this instance and periodically writes the most
+ * frequent ones to the warm-up file read by {@link CatalogWarmup} on the next start.
+ *
+ * Each kind of request is tracked in a bounded map; once full, new keys are ignored
+ * until the next dump halves every count and drops the ones that reach zero, so the
+ * file follows recent traffic. Nothing is written until something has been recorded,
+ * so a short-lived instance does not replace a useful file with an empty one.
+ *
+ * It also keeps running totals of the filters and sort keys requested, which are
+ * never aged, for the catalog actuator endpoint.
+ */
+public class TopQueriesRecorder implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TopQueriesRecorder.class);
+
+    private static final int MAX_TRACKED = 10_000;
+
+    private final Counts<TopQueries.Search> searches = new Counts<>();
+    private final Counts<TopQueries.Listing> listings = new Counts<>();
+    private final Counts<UUID> products = new Counts<>();
+    private final Map<String, LongAdder> filterUsage = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> sortKeyUsage = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final Duration dumpInterval;
+    private final int maxQueries;
+    private final int maxProducts;
+
+    private volatile ScheduledExecutorService scheduler;
+
+    public TopQueriesRecorder(Path file, ObjectMapper objectMapper, Duration dumpInterval, int maxQueries, int maxProducts) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        this.dumpInterval = dumpInterval;
+        this.maxQueries = maxQueries;
+        this.maxProducts = maxProducts;
+    }
+
+    public void recordSearch(TopQueries.Search search) {
+        searches.record(search);
+        boolean filtered = false;
+        if (search.query() != null && !search.query().isBlank()) {
+            count(filterUsage, "text:" + (search.matchMode() != null ? search.matchMode() : TextMatchMode.ALL)
+                    .name().toLowerCase(Locale.ROOT));
+            filtered = true;
+        }
+        if (search.category() != null) {
+            count(filterUsage, "category");
+            filtered = true;
+        }
+        if (search.minPrice() != null || search.maxPrice() != null) {
+            count(filterUsage, "price");
+            filtered = true;
+        }
+        if (search.inStock() != null) {
+            count(filterUsage, "inStock:" + search.inStock());
+            filtered = true;
+        }
+        if (!filtered) {
+            count(filterUsage, "none");
+        }
+        count(sortKeyUsage, search.sortBy() == null ? "none"
+                : SearchQuery.RELEVANCE.equalsIgnoreCase(search.sortBy()) ? SearchQuery.RELEVANCE
+                : SortKey.fromValue(search.sortBy()).getValue());
+    }
+
+    public void recordListing(TopQueries.Listing listing) {
+        listings.record(listing);
+        count(sortKeyUsage, SortKey.fromValue(listing.sortBy()).getValue());
+    }
+
+    public void recordProduct(UUID productId) {
+        products.record(productId);
+    }
+
+    /**
+     * Searches per filter used ("text:all", "category", "price", "inStock:true", ...;
+     * "none" for searches without filters). A search counts once for each of its filters.
+     */
+    public Map<String, Long> filterUsage() {
+        return totals(filterUsage);
+    }
+
+    /**
+     * Searches and listings per sort key; "none" for searches in catalog order.
+     */
+    public Map<String, Long> sortKeyUsage() {
+        return totals(sortKeyUsage);
+    }
+
+    /**
+     * The most frequent requests recorded so far.
+     */
+    public TopQueries top() {
+        TopQueries top = new TopQueries();
+        top.setSearches(searches.top(maxQueries));
+        top.setListings(listings.top(maxQueries));
+        top.setProductIds(products.top(maxProducts));
+        return top;
+    }
+
+    /**
+     * Write the current top requests to the warm-up file, then age the counts.
+     *
+     * @return true if a file was written
+     */
+    public boolean dump() throws IOException {
+        TopQueries top = top();
+        if (top.isEmpty()) {
+            return false;
+        }
+        top.write(file, objectMapper);
+        searches.decay();
+        listings.decay();
+        products.decay();
+        return true;
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-top-queries");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = dumpInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::dumpQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        scheduler = executor;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void dumpQuietly() {
+        try {
+            if (dump()) {
+                log.debug("Wrote top queries to {}", file);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write top queries to {}", file, e);
+        }
+    }
+
+    private static void count(Map<String, LongAdder> usage, String key) {
+        usage.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    private static Map<String, Long> totals(Map<String, LongAdder> usage) {
+        Map<String, Long> totals = new TreeMap<>();
+        usage.forEach((key, count) -> totals.put(key, count.sum()));
+        return totals;
+    }
+
+    private static final class Counts<K> {
+        private final ConcurrentHashMap<K, Long> counts = new ConcurrentHashMap<>();
+
+        void record(K key) {
+            if (counts.size() < MAX_TRACKED || counts.containsKey(key)) {
+                counts.merge(key, 1L, Long::sum);
+            }
+        }
+
+        List<K> top(int limit) {
+            List<Map.Entry<K, Long>> entries = new ArrayList<>(counts.entrySet());
+            entries.sort(Map.Entry.<K, Long>comparingByValue(Comparator.reverseOrder()));
+            List<K> keys = new ArrayList<>(Math.min(limit, entries.size()));
+            for (int i = 0; i < entries.size() && i < limit; i++) {
+                keys.add(entries.get(i).getKey());
+            }
+            return keys;
+        }
+
+        void decay() {
+            counts.replaceAll((key, count) -> count / 2);
+            counts.values().removeIf(count -> count == 0);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.labs.copilot.actuator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labs.copilot.cache.ProductJsonCache;
+import com.labs.copilot.config.CatalogProperties;
+import com.labs.copilot.model.Product;
+import com.labs.copilot.service.ProductService;
+import com.labs.copilot.warmup.TopQueries;
+import com.labs.copilot.warmup.TopQueriesRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CatalogEndpoint.
+ */
+@DisplayName("CatalogEndpoint Tests")
+class CatalogEndpointTests {
+
+    private ProductService productService;
+    private ProductJsonCache productJsonCache;
+    private TopQueriesRecorder recorder;
+    private CatalogEndpoint endpoint;
+
+    @BeforeEach
+    void setup() {
+        CatalogProperties properties = new CatalogProperties();
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        productService = new ProductService(properties);
+        productJsonCache = new ProductJsonCache(objectMapper, properties);
+        recorder = new TopQueriesRecorder(Path.of("unused.json"), objectMapper, Duration.ofMinutes(5), 10, 10);
+        endpoint = new CatalogEndpoint(productService, productJsonCache, recorder, properties);
+    }
+
+    @Test
+    @DisplayName("Should report the snapshot being served and the index footprint")
+    void testCatalog() {
+        Map<String, Object> catalog = section(endpoint.statistics(), "catalog");
+
+        assertEquals(productService.currentSnapshot().version(), catalog.get("version"));
+        assertEquals(productService.currentSnapshot().productCount(), catalog.get("products"));
+        assertEquals("heap", catalog.get("storage"));
+        assertEquals(0L, catalog.get("offHeapBytes"));
+
+        Map<String, Object> indexBytes = section(catalog, "indexBytes");
+        assertTrue(indexBytes.keySet().containsAll(
+                List.of("columns", "ids", "skus", "text", "filters", "counts", "prices", "activeSorted", "knownIds")));
+        long sum = indexBytes.entrySet().stream()
+                .filter(entry -> !entry.getKey().equals("total"))
+                .mapToLong(entry -> (Long) entry.getValue())
+                .sum();
+        assertTrue(sum > 0);
+        assertEquals(sum, indexBytes.get("total"));
+    }
+
+    @Test
+    @DisplayName("Should report hits, misses and load times per cache layer")
+    void testCaches() {
+        productService.searchProducts(1, 20, "name", "asc");
+        productService.searchProducts(1, 20, "name", "asc");
+        Product product = productService.searchProducts(1, 1, "name", "asc").products.get(0);
+        productJsonCache.render(product);
+        productJsonCache.render(product);
+
+        Map<String, Object> caches = section(endpoint.statistics(), "caches");
+
+        Map<String, Object> results = section(caches, "queryResults");
+        assertEquals(1L, results.get("hits"));
+        assertEquals(2L, results.get("misses"));
+        assertEquals(2L, results.get("loads"));
+        assertEquals(1.0 / 3, (Double) results.get("hitRate"), 1e-9);
+        Map<String, Object> json = section(caches, "productJson");
+        assertEquals(1L, json.get("hits"));
+        assertEquals(1L, json.get("loads"));
+        assertEquals(false, section(caches, "productJsonFile").get("enabled"));
+        assertEquals(2L, section(caches, "searchesInFlight").get("executed"));
+        assertTrue(section(caches, "unknownIds").containsKey("misses"));
+    }
+
+    @Test
+    @DisplayName("Should report the filters and sort keys requested")
+    void testQueries() {
+        recorder.recordListing(new TopQueries.Listing(1, 20, "price", "desc"));
+
+        Map<String, Object> queries = section(endpoint.statistics(), "queries");
+
+        assertEquals(Map.of("price", 1L), queries.get("sortKeys"));
+        assertEquals(Map.of(), queries.get("filters"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> section(Map<String, Object> statistics, String name) {
+        return (Map<String, Object>) statistics.get(name);
+    }
+}
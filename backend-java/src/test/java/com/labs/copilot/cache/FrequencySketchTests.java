@@ -0,0 +1,44 @@
+package com.labs.copilot.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FrequencySketch.
+ */
+@DisplayName("FrequencySketch Tests")
+class FrequencySketchTests {
+
+    @Test
+    @DisplayName("Should estimate at least the true count, saturating at 15")
+    void testFrequency() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 7; i++) {
+            sketch.increment("a");
+        }
+        for (int i = 0; i < 40; i++) {
+            sketch.increment("b");
+        }
+
+        assertTrue(sketch.frequency("a") >= 7);
+        assertEquals(15, sketch.frequency("b"));
+        assertTrue(sketch.frequency("never-seen") < 7);
+    }
+
+    @Test
+    @DisplayName("Should halve counts once the sample size is reached")
+    void testAging() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 8; i++) {
+            sketch.increment("hot");
+        }
+        int before = sketch.frequency("hot");
+        for (int i = 0; i < 160; i++) {
+            sketch.increment("k" + i);
+        }
+
+        assertTrue(sketch.frequency("hot") < before);
+    }
+}
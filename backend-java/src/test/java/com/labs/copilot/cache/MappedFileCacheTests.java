@@ -0,0 +1,147 @@
+package com.labs.copilot.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MappedFileCache.
+ */
+@DisplayName("MappedFileCache Tests")
+class MappedFileCacheTests {
+
+    private static final int SLOT_BYTES = 256;
+
+    private Path dir;
+    private Path file;
+    private MappedFileCache cache;
+
+    @BeforeEach
+    void setup() throws IOException {
+        dir = Files.createTempDirectory("l2");
+        file = dir.resolve("cache/products.cache");
+        cache = MappedFileCache.open(file, 64 * 1024, SLOT_BYTES);
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        cache.close();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    @DisplayName("Should return a value only for the same id and version")
+    void testGetPut() {
+        UUID id = UUID.randomUUID();
+        assertNull(cache.get(id, 1));
+
+        assertTrue(cache.put(id, 1, bytes("{\"name\":\"Laptop\"}")));
+
+        assertEquals("{\"name\":\"Laptop\"}", string(cache.get(id, 1)));
+        assertNull(cache.get(id, 2));
+        assertNull(cache.get(UUID.randomUUID(), 1));
+        assertEquals(1, cache.hitCount());
+        assertEquals(3, cache.missCount());
+    }
+
+    @Test
+    @DisplayName("Should replace an older version of the same id")
+    void testReplaceVersion() {
+        UUID id = UUID.randomUUID();
+        cache.put(id, 1, bytes("v1"));
+        cache.put(id, 2, bytes("v2"));
+
+        assertNull(cache.get(id, 1));
+        assertEquals("v2", string(cache.get(id, 2)));
+        assertEquals(1, cache.entryCount());
+    }
+
+    @Test
+    @DisplayName("Should keep entries across a reopen")
+    void testSurvivesReopen() throws IOException {
+        UUID id = UUID.randomUUID();
+        cache.put(id, 7, bytes("persisted"));
+        cache.close();
+
+        cache = MappedFileCache.open(file, 64 * 1024, SLOT_BYTES);
+
+        assertEquals("persisted", string(cache.get(id, 7)));
+        assertEquals(1, cache.entryCount());
+    }
+
+    @Test
+    @DisplayName("Should clear the file when the layout changes")
+    void testLayoutChange() throws IOException {
+        UUID id = UUID.randomUUID();
+        cache.put(id, 7, bytes("persisted"));
+        cache.close();
+
+        cache = MappedFileCache.open(file, 64 * 1024, 2 * SLOT_BYTES);
+
+        assertNull(cache.get(id, 7));
+        assertEquals(0, cache.entryCount());
+    }
+
+    @Test
+    @DisplayName("Should clear the file when the value schema changes")
+    void testSchemaChange() throws IOException {
+        UUID id = UUID.randomUUID();
+        cache.close();
+        cache = MappedFileCache.open(file, 64 * 1024, SLOT_BYTES, 1);
+        cache.put(id, 7, bytes("persisted"));
+        cache.close();
+
+        cache = MappedFileCache.open(file, 64 * 1024, SLOT_BYTES, 1);
+        assertEquals("persisted", string(cache.get(id, 7)));
+        cache.close();
+
+        cache = MappedFileCache.open(file, 64 * 1024, SLOT_BYTES, 2);
+        assertNull(cache.get(id, 7));
+        assertEquals(0, cache.entryCount());
+    }
+
+    @Test
+    @DisplayName("Should not store values larger than a slot")
+    void testTooLarge() {
+        UUID id = UUID.randomUUID();
+
+        assertFalse(cache.put(id, 1, new byte[cache.maxValueBytes() + 1]));
+        assertTrue(cache.put(id, 1, new byte[cache.maxValueBytes()]));
+        assertEquals(cache.maxValueBytes(), cache.get(id, 1).length);
+    }
+
+    @Test
+    @DisplayName("Should stay within its slots when more ids are written than fit")
+    void testBoundedCapacity() {
+        for (int i = 0; i < cache.slotCount() * 4; i++) {
+            cache.put(UUID.randomUUID(), i, bytes("value " + i));
+        }
+        UUID last = UUID.randomUUID();
+        cache.put(last, 1, bytes("last"));
+
+        assertTrue(cache.entryCount() <= cache.slotCount());
+        assertEquals("last", string(cache.get(last, 1)));
+        assertTrue(cache.sizeInBytes() <= 64 * 1024);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,218 @@
+package com.labs.copilot.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.labs.copilot.config.CatalogProperties;
+import com.labs.copilot.model.Product;
+import com.labs.copilot.model.ProductImage;
+import com.labs.copilot.model.ProductStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ProductJsonCache.
+ */
+@DisplayName("ProductJsonCache Tests")
+class ProductJsonCacheTests {
+
+    private ObjectMapper objectMapper;
+    private ProductJsonCache cache;
+
+    @BeforeEach
+    void setup() {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        cache = new ProductJsonCache(objectMapper, new CatalogProperties());
+    }
+
+    @Test
+    @DisplayName("Should render the same JSON as Jackson")
+    void testRender() throws Exception {
+        Product laptop = product("Laptop", "999.99");
+
+        byte[] json = cache.render(laptop);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(laptop), json);
+        assertTrue(new String(json, StandardCharsets.UTF_8).contains("\"sku\":\"LAPTOP-001\""));
+    }
+
+    @Test
+    @DisplayName("Should reuse the rendered bytes for an unchanged product")
+    void testReuse() {
+        Product laptop = product("Laptop", "999.99");
+
+        assertSame(cache.render(laptop), cache.render(laptop));
+        assertEquals(1, cache.entries().hitCount());
+    }
+
+    @Test
+    @DisplayName("Should re-render a product once it is replaced")
+    void testInvalidatedByNewInstance() {
+        Product laptop = product("Laptop", "999.99");
+        byte[] before = cache.render(laptop);
+        Product repriced = new Product(laptop);
+        repriced.setPrice(new BigDecimal("899.99"));
+
+        byte[] after = cache.render(repriced);
+
+        assertNotSame(before, after);
+        assertTrue(new String(after, StandardCharsets.UTF_8).contains("899.99"));
+        assertSame(after, cache.render(repriced));
+    }
+
+    @Test
+    @DisplayName("Should serve a restarted service from the on-disk tier")
+    void testL2SurvivesRestart() throws Exception {
+        Path dir = Files.createTempDirectory("product-json");
+        CatalogProperties properties = new CatalogProperties();
+        properties.getCache().getL2().setEnabled(true);
+        properties.getCache().getL2().setFile(dir.resolve("product-json.cache").toString());
+        properties.getCache().getL2().setSize(DataSize.ofKilobytes(256));
+        try {
+            Product laptop = product("Laptop", "999.99");
+            ProductJsonCache before = new ProductJsonCache(objectMapper, properties);
+            byte[] rendered = before.render(laptop);
+            before.close();
+
+            ProductJsonCache after = new ProductJsonCache(objectMapper, properties);
+            Product reloaded = new Product(laptop);
+            byte[] restored = after.render(reloaded);
+            assertArrayEquals(rendered, restored);
+            assertEquals(1, after.l2().hitCount());
+            // Promoted to the on-heap tier
+            assertSame(restored, after.render(reloaded));
+            assertEquals(1, after.l2().hitCount());
+
+            // A newer last-modified time misses L2 and renders the new content
+            Product repriced = new Product(laptop);
+            repriced.setPrice(new BigDecimal("899.99"));
+            repriced.setUpdatedAt(LocalDateTime.of(2025, 2, 1, 12, 0));
+            assertTrue(new String(after.render(repriced), StandardCharsets.UTF_8).contains("899.99"));
+            after.close();
+        } finally {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should not serve on-disk JSON for a product changed without a new timestamp")
+    void testL2SameTimestampUpdate() throws Exception {
+        Path dir = Files.createTempDirectory("product-json");
+        CatalogProperties properties = new CatalogProperties();
+        properties.getCache().getL2().setEnabled(true);
+        properties.getCache().getL2().setFile(dir.resolve("product-json.cache").toString());
+        properties.getCache().getL2().setSize(DataSize.ofKilobytes(256));
+        try {
+            ProductJsonCache l2Cache = new ProductJsonCache(objectMapper, properties);
+            Product product = product("Laptop", "10.00");
+            l2Cache.render(product);
+
+            Product repriced = new Product(product);
+            repriced.setPrice(new BigDecimal("99.00"));
+            byte[] json = l2Cache.render(repriced);
+
+            assertArrayEquals(objectMapper.writeValueAsBytes(repriced), json);
+            assertEquals(0, l2Cache.l2().hitCount());
+            // The unchanged content is still served from disk
+            assertArrayEquals(json, l2Cache.render(new Product(repriced)));
+            l2Cache.close();
+        } finally {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should fingerprint every rendered product field")
+    void testFingerprintCoversEveryField() throws Exception {
+        Product base = product("Laptop", "999.99");
+        base.setDescription("description");
+        base.setStockQuantity(1);
+        base.setImages(List.of(new ProductImage("url", "alt", true)));
+        base.setAttributes(Map.of("key", "value"));
+        base.setStatus(ProductStatus.ACTIVE);
+        base.setUpdatedAt(LocalDateTime.of(2025, 1, 2, 12, 0));
+        base.setCreatedBy("createdBy");
+        base.setUpdatedBy("updatedBy");
+        long fingerprint = ProductJsonCache.fingerprint(base);
+        assertEquals(fingerprint, ProductJsonCache.fingerprint(new Product(base)));
+
+        // Any field Jackson renders must change the fingerprint, including fields added later
+        for (Field field : Product.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            field.setAccessible(true);
+            Product changed = new Product(base);
+            field.set(changed, null);
+            assertNotEquals(fingerprint, ProductJsonCache.fingerprint(changed), field.getName());
+        }
+        Product restocked = new Product(base);
+        restocked.setStockQuantity(2);
+        assertNotEquals(fingerprint, ProductJsonCache.fingerprint(restocked));
+        Product retitled = new Product(base);
+        retitled.setImages(List.of(new ProductImage("url", "other", true)));
+        assertNotEquals(fingerprint, ProductJsonCache.fingerprint(retitled));
+    }
+
+    @Test
+    @DisplayName("Should discard on-disk entries rendered with another JSON shape")
+    void testL2SchemaChange() throws Exception {
+        Path dir = Files.createTempDirectory("product-json");
+        CatalogProperties properties = new CatalogProperties();
+        properties.getCache().getL2().setEnabled(true);
+        properties.getCache().getL2().setFile(dir.resolve("product-json.cache").toString());
+        properties.getCache().getL2().setSize(DataSize.ofKilobytes(256));
+        ObjectMapper indented = new ObjectMapper().findAndRegisterModules()
+                .enable(SerializationFeature.INDENT_OUTPUT);
+        try {
+            assertEquals(ProductJsonCache.schema(objectMapper), ProductJsonCache.schema(objectMapper.copy()));
+            assertNotEquals(ProductJsonCache.schema(objectMapper), ProductJsonCache.schema(indented));
+
+            Product laptop = product("Laptop", "999.99");
+            ProductJsonCache before = new ProductJsonCache(objectMapper, properties);
+            before.render(laptop);
+            before.close();
+
+            ProductJsonCache after = new ProductJsonCache(indented, properties);
+            assertArrayEquals(indented.writeValueAsBytes(laptop), after.render(new Product(laptop)));
+            assertEquals(0, after.l2().hitCount());
+            after.close();
+        } finally {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should run without the on-disk tier by default")
+    void testL2Disabled() {
+        assertNull(cache.l2());
+    }
+
+    private static Product product(String name, String price) {
+        Product product = new Product(UUID.randomUUID(), name, new BigDecimal(price), "Electronics", "LAPTOP-001");
+        product.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0));
+        return product;
+    }
+}
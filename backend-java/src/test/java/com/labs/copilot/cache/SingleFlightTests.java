@@ -0,0 +1,95 @@
+package com.labs.copilot.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlight.
+ */
+@DisplayName("SingleFlight Tests")
+class SingleFlightTests {
+
+    @Test
+    @DisplayName("Should run one computation for concurrent callers of the same key")
+    void testCoalescesConcurrentCallers() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            Future<Integer> leader = pool.submit(() -> flight.execute("page-1", () -> {
+                started.countDown();
+                await(release);
+                return runs.incrementAndGet();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                followers.add(pool.submit(() -> flight.execute("page-1", runs::incrementAndGet)));
+            }
+            while (flight.coalescedCount() < 7) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+            for (Future<Integer> follower : followers) {
+                assertEquals(1, follower.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, runs.get());
+        assertEquals(1, flight.executionCount());
+        assertEquals(7, flight.coalescedCount());
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    @DisplayName("Should run again once the previous computation has finished")
+    void testNothingRetained() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger runs = new AtomicInteger();
+
+        flight.execute("page-1", runs::incrementAndGet);
+        flight.execute("page-1", runs::incrementAndGet);
+        flight.execute("page-2", runs::incrementAndGet);
+
+        assertEquals(3, runs.get());
+        assertEquals(0, flight.coalescedCount());
+    }
+
+    @Test
+    @DisplayName("Should propagate a failure and allow a retry")
+    void testFailure() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+
+        assertThrows(IllegalStateException.class, () -> flight.execute("page-1", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(0, flight.inFlightCount());
+        assertEquals(2, flight.execute("page-1", () -> 2));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.labs.copilot.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TinyLfuCache.
+ */
+@DisplayName("TinyLfuCache Tests")
+class TinyLfuCacheTests {
+
+    @Test
+    @DisplayName("Should return stored values for the same version")
+    void testHitAndMiss() {
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>(4);
+
+        assertNull(cache.get("a", 1));
+        assertTrue(cache.put("a", "alpha", 1));
+        TinyLfuCache.Entry<String> entry = cache.get("a", 1);
+
+        assertNotNull(entry);
+        assertEquals("alpha", entry.value());
+        assertEquals(1, entry.version());
+        assertTrue(entry.ageMillis() >= 0);
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    @DisplayName("Should drop entries computed from another version")
+    void testVersionInvalidation() {
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>(4);
+        cache.put("a", "alpha", 1);
+
+        assertNull(cache.get("a", 2));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should keep frequently requested keys when a scan of one-off keys arrives")
+    void testAdmissionResistsScan() {
+        TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(4);
+        for (int i = 0; i < 4; i++) {
+            String key = "hot-" + i;
+            for (int n = 0; n < 15; n++) {
+                cache.get(key, 1);
+            }
+            cache.put(key, i, 1);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            String key = "scan-" + i;
+            cache.get(key, 1);
+            cache.put(key, i, 1);
+        }
+
+        for (int i = 0; i < 4; i++) {
+            assertNotNull(cache.get("hot-" + i, 1), "hot-" + i);
+        }
+        assertEquals(4, cache.size());
+        assertTrue(cache.rejectionCount() > 0);
+    }
+
+    @Test
+    @DisplayName("Should let a newer version replace stale entries when full")
+    void testStaleEntriesMakeRoom() {
+        TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(2);
+        for (int n = 0; n < 5; n++) {
+            cache.get("a", 1);
+            cache.get("b", 1);
+        }
+        cache.put("a", 1, 1);
+        cache.put("b", 2, 1);
+
+        assertTrue(cache.put("c", 3, 2));
+        assertEquals(1, cache.evictionCount());
+        assertNotNull(cache.get("c", 2));
+    }
+
+    @Test
+    @DisplayName("Should accumulate recorded load times")
+    void testRecordLoad() {
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>(4);
+        cache.recordLoad(1_000);
+        cache.recordLoad(3_000);
+
+        assertEquals(2, cache.loadCount());
+        assertEquals(4_000, cache.totalLoadNanos());
+    }
+
+    @Test
+    @DisplayName("Should never exceed the maximum size")
+    void testBounded() {
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(8);
+        for (int i = 0; i < 1000; i++) {
+            cache.get(i % 50, 1);
+            cache.put(i % 50, i, 1);
+            assertTrue(cache.size() <= 8);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.labs.copilot.controller;
 
+import com.labs.copilot.model.Product;
 import com.labs.copilot.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -132,7 +133,8 @@ class ProductControllerTests {
         mockMvc.perform(get("/products"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$._metadata.source", notNullValue()))
-                .andExpect(jsonPath("$._metadata.cached", notNullValue()));
+                .andExpect(jsonPath("$._metadata.cached", notNullValue()))
+                .andExpect(jsonPath("$._metadata.catalogVersion", greaterThanOrEqualTo(1)));
     }
 
     @ParameterizedTest
@@ -164,8 +166,11 @@ class ProductControllerTests {
         UUID nonExistentId = UUID.randomUUID();
         mockMvc.perform(get("/products/" + nonExistentId))
                 .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.error", notNullValue()))
-                .andExpect(jsonPath("$.code", equalTo("PRODUCT_NOT_FOUND")));
+                .andExpect(jsonPath("$.code", equalTo("PRODUCT_NOT_FOUND")))
+                .andExpect(jsonPath("$.timestamp", notNullValue()))
+                .andExpect(jsonPath("$.path", equalTo("/api/v1/products/" + nonExistentId)));
     }
 
     @Test
@@ -191,6 +196,63 @@ class ProductControllerTests {
         }
     }
 
+    @Test
+    @DisplayName("Should serve the current product JSON after the product changes")
+    void testGetProductByIdAfterUpdate() throws Exception {
+        Product mouse = productService.getProductBySku("MOUSE-001").get();
+        mockMvc.perform(get("/products/" + mouse.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.sku", equalTo("MOUSE-001")));
+
+        Product renamed = new Product(mouse);
+        renamed.setName("Wireless Mouse Pro");
+        productService.upsertProduct(renamed);
+        try {
+            mockMvc.perform(get("/products/" + mouse.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name", equalTo("Wireless Mouse Pro")));
+        } finally {
+            productService.upsertProduct(mouse);
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer a matching If-None-Match with 304 for a product")
+    void testGetProductByIdNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get("/products/sku/LAPTOP-001"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=300"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn();
+        String eTag = first.getResponse().getHeader("ETag");
+        String id = productService.getProductBySku("LAPTOP-001").get().getId().toString();
+
+        mockMvc.perform(get("/products/" + id).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    // ================== GET /products/sku/{sku} Tests ==================
+
+    @Test
+    @DisplayName("Should return product by SKU")
+    void testGetProductBySkuSuccess() throws Exception {
+        mockMvc.perform(get("/products/sku/LAPTOP-001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sku", equalTo("LAPTOP-001")))
+                .andExpect(jsonPath("$.name", equalTo("Laptop")));
+    }
+
+    @Test
+    @DisplayName("Should return 404 for unknown SKU")
+    void testGetProductBySkuNotFound() throws Exception {
+        mockMvc.perform(get("/products/sku/UNKNOWN-999"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code", equalTo("PRODUCT_NOT_FOUND")))
+                .andExpect(jsonPath("$.path", equalTo("/api/v1/products/sku/UNKNOWN-999")));
+    }
+
     // ================== GET /search Tests ==================
 
     @Test
@@ -229,6 +291,24 @@ class ProductControllerTests {
                 .andExpect(jsonPath("$.pagination", notNullValue()));
     }
 
+    @Test
+    @DisplayName("Should treat price bounds beyond any stored price as open")
+    void testSearchProductsByHugePriceBounds() throws Exception {
+        mockMvc.perform(get("/products/search")
+                .param("maxPrice", "1e20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(greaterThan(0))));
+        mockMvc.perform(get("/products/search")
+                .param("minPrice", "-1e20")
+                .param("maxPrice", "-1e20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pagination.totalCount", equalTo(0)));
+        mockMvc.perform(get("/products/search")
+                .param("minPrice", "1e20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pagination.totalCount", equalTo(0)));
+    }
+
     @Test
     @DisplayName("Should search products by price range")
     void testSearchProductsByPriceRange() throws Exception {
@@ -281,6 +361,164 @@ class ProductControllerTests {
                 .andExpect(jsonPath("$._metadata.cached", equalTo(false)));
     }
 
+    @Test
+    @DisplayName("Should serve a repeated search from the result cache")
+    void testSearchProductsCachedOnRepeat() throws Exception {
+        mockMvc.perform(get("/products/search")
+                .param("query", "wireless")
+                .param("pageSize", "7"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/products/search")
+                .param("query", "Wireless")
+                .param("pageSize", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._metadata.cached", equalTo(true)))
+                .andExpect(jsonPath("$._metadata.cacheAge", notNullValue()));
+    }
+
+    @Test
+    @DisplayName("Should answer a matching If-None-Match with 304 for an equivalent search")
+    void testSearchProductsNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get("/products/search")
+                .param("query", "desk lamp")
+                .param("category", "office"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Cache-Control", "max-age=300"))
+                .andReturn();
+        String eTag = first.getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/products/search")
+                .param("query", "Desk  Lamp")
+                .param("category", "Office")
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/products/search")
+                .param("query", "desk lamp")
+                .param("category", "office")
+                .param("page", "2")
+                .header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should change the listing ETag when the catalog changes")
+    void testGetAllProductsETagChangesWithCatalog() throws Exception {
+        String before = mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        Product mouse = productService.getProductBySku("MOUSE-001").get();
+        productService.upsertProduct(new Product(mouse));
+        try {
+            mockMvc.perform(get("/products").header("If-None-Match", before))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", not(equalTo(before))));
+        } finally {
+            productService.upsertProduct(mouse);
+        }
+    }
+
+    @Test
+    @DisplayName("Should support the substring match mode")
+    void testSearchProductsSubstringMatchMode() throws Exception {
+        mockMvc.perform(get("/products/search")
+                .param("query", "aptop")
+                .param("matchMode", "substring"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pagination.totalCount", equalTo(1)));
+    }
+
+    @Test
+    @DisplayName("Should tolerate typos when fuzziness is given")
+    void testSearchProductsFuzzy() throws Exception {
+        mockMvc.perform(get("/products/search")
+                .param("query", "mechanicl keybaord"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pagination.totalCount", equalTo(0)));
+
+        mockMvc.perform(get("/products/search")
+                .param("query", "mechanicl keybaord")
+                .param("fuzziness", "auto"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].sku", equalTo("KB-001")));
+    }
+
+    @Test
+    @DisplayName("Should rank search results by relevance")
+    void testSearchProductsByRelevance() throws Exception {
+        mockMvc.perform(get("/products/search")
+                .param("query", "mouse hub usb")
+                .param("matchMode", "any")
+                .param("sortBy", "relevance"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].sku", equalTo("HUB-001")))
+                .andExpect(jsonPath("$.data[1].sku", equalTo("MOUSE-001")))
+                .andExpect(jsonPath("$.pagination.totalCount", equalTo(2)));
+    }
+
+    @Test
+    @DisplayName("Should continue a listing from its next cursor")
+    void testGetAllProductsWithCursor() throws Exception {
+        String cursor = productService.searchProducts(1, 2, "name", "asc").nextCursor;
+
+        mockMvc.perform(get("/products")
+                .param("pageSize", "2")
+                .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].sku", equalTo("HUB-001")))
+                .andExpect(jsonPath("$.data[1].sku", equalTo("MOUSE-001")))
+                .andExpect(jsonPath("$.pagination.page", equalTo(2)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/products").param("pageSize", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor", equalTo(cursor)));
+    }
+
+    @Test
+    @DisplayName("Should return 400 for a cursor that does not match the sort")
+    void testSearchProductsInvalidCursor() throws Exception {
+        String cursor = productService.searchProducts(1, 2, "name", "asc").nextCursor;
+
+        mockMvc.perform(get("/products/search")
+                .param("category", "Electronics")
+                .param("cursor", cursor))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", equalTo("INVALID_CURSOR")));
+        mockMvc.perform(get("/products").param("cursor", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", equalTo("INVALID_CURSOR")));
+    }
+
+    @Test
+    @DisplayName("Should sort search results when sortBy is given")
+    void testSearchProductsSorted() throws Exception {
+        mockMvc.perform(get("/products/search")
+                .param("category", "Electronics")
+                .param("sortBy", "price")
+                .param("sortOrder", "asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].sku", equalTo("MOUSE-001")));
+    }
+
+    @Test
+    @DisplayName("Should report the query plan only in debug mode")
+    void testSearchProductsDebugQueryPlan() throws Exception {
+        mockMvc.perform(get("/products/search")
+                .param("query", "laptop")
+                .param("category", "Electronics")
+                .param("debug", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._metadata.queryPlan", containsString("text:postings")));
+
+        mockMvc.perform(get("/products/search")
+                .param("query", "laptop"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._metadata.queryPlan").doesNotExist());
+    }
+
     @Test
     @DisplayName("Should support pagination in search results")
     void testSearchProductsPagination() throws Exception {
@@ -291,7 +529,87 @@ class ProductControllerTests {
                 .andExpect(jsonPath("$.pagination.pageSize", equalTo(5)));
     }
 
-    // ================== GET /products/category/{category} Tests ==================
+    @Test
+    @DisplayName("Should include facets in search results only when requested")
+    void testSearchProductsWithFacets() throws Exception {
+        mockMvc.perform(get("/products/search")
+                .param("category", "Electronics")
+                .param("facets", "category,stock"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets.categories.Electronics", greaterThan(0)))
+                .andExpect(jsonPath("$.facets.stock.inStock").exists())
+                .andExpect(jsonPath("$.facets.priceBuckets").doesNotExist());
+
+        mockMvc.perform(get("/products/search")
+                .param("category", "Electronics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets").doesNotExist());
+    }
+
+    // ================== GET /products/facets Tests ==================
+
+    @Test
+    @DisplayName("Should return every facet for the filter set")
+    void testGetFacets() throws Exception {
+        mockMvc.perform(get("/products/facets")
+                .param("maxPrice", "100"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.totalCount", greaterThan(0)))
+                .andExpect(jsonPath("$.facets.categories.Electronics", greaterThan(0)))
+                .andExpect(jsonPath("$.facets.priceBuckets[0].min", equalTo(0.0)))
+                .andExpect(jsonPath("$.facets.priceBuckets[1].count", greaterThan(0)))
+                .andExpect(jsonPath("$.facets.stock.outOfStock").exists())
+                .andExpect(jsonPath("$._metadata.catalogVersion").exists());
+    }
+
+    @Test
+    @DisplayName("Should answer a matching If-None-Match with 304 for facets")
+    void testGetFacetsNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get("/products/facets")
+                .param("category", "Electronics")
+                .param("facets", "price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets.categories").doesNotExist())
+                .andReturn();
+
+        mockMvc.perform(get("/products/facets")
+                .param("category", "electronics")
+                .param("facets", "price")
+                .header("If-None-Match", first.getResponse().getHeader("ETag")))
+                .andExpect(status().isNotModified());
+    }
+
+        // ================== GET /products/suggest Tests ==================
+
+    @Test
+    @DisplayName("Should return typeahead suggestions for a prefix")
+    void testSuggest() throws Exception {
+        mockMvc.perform(get("/products/suggest")
+                .param("prefix", "wire"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.prefix", equalTo("wire")))
+                .andExpect(jsonPath("$.suggestions[0].sku", equalTo("MOUSE-001")))
+                .andExpect(jsonPath("$.suggestions[0].name").exists())
+                .andExpect(jsonPath("$._metadata.searchTime").exists());
+    }
+
+    @Test
+    @DisplayName("Should cap the number of suggestions")
+    void testSuggestLimit() throws Exception {
+        mockMvc.perform(get("/products/suggest")
+                .param("prefix", "m")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.suggestions", hasSize(1)));
+
+        mockMvc.perform(get("/products/suggest"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.suggestions", hasSize(0)));
+    }
+
+        // ================== GET /products/category/{category} Tests ==================
 
     @Test
     @DisplayName("Should return products by category")
@@ -0,0 +1,178 @@
+package com.labs.copilot.ingestion;
+
+import com.labs.copilot.model.Product;
+import com.labs.copilot.model.ProductStatus;
+import com.labs.copilot.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CatalogIngestionService.
+ */
+@DisplayName("CatalogIngestionService Tests")
+class CatalogIngestionServiceTests {
+
+    private ProductService productService;
+    private InMemoryChangeEventSource source;
+    private SimpleMeterRegistry registry;
+    private CatalogIngestionService ingestion;
+
+    @BeforeEach
+    void setup() {
+        productService = new ProductService();
+        source = new InMemoryChangeEventSource();
+        registry = new SimpleMeterRegistry();
+        ingestion = new CatalogIngestionService(productService, source, registry, 100, Duration.ZERO, Duration.ofMillis(10));
+    }
+
+    @Test
+    @DisplayName("Should apply a batch of upserts, status changes and deletes as one snapshot")
+    void testApplyBatch() throws InterruptedException {
+        long version = productService.currentSnapshot().version();
+        Product laptop = productService.getProductBySku("LAPTOP-001").get();
+        Product mouse = productService.getProductBySku("MOUSE-001").get();
+        Product tablet = product("Drawing Tablet", "TAB-001");
+
+        source.publish(ProductChangeEvent.upsert(tablet));
+        source.publish(ProductChangeEvent.statusChange(laptop.getId(), ProductStatus.DISCONTINUED));
+        source.publish(ProductChangeEvent.delete(mouse.getId()));
+
+        assertEquals(3, ingestion.runOnce());
+        assertEquals(version + 1, productService.currentSnapshot().version());
+        assertEquals(tablet, productService.getProductBySku("TAB-001").orElse(null));
+        assertEquals(ProductStatus.DISCONTINUED, productService.getProductById(laptop.getId()).get().getStatus());
+        assertEquals(ProductStatus.ACTIVE, laptop.getStatus());
+        assertTrue(productService.getProductById(mouse.getId()).isEmpty());
+        assertEquals(1, productService.searchByFilters("drawing", null, null, null, null, 1, 20).totalCount);
+    }
+
+    @Test
+    @DisplayName("Should coalesce events to the net change per product")
+    void testCoalesce() {
+        UUID deletedId = UUID.randomUUID();
+        Product first = product("Desk Lamp", "LAMP-001");
+        Product second = new Product(first);
+        second.setName("Desk Lamp Pro");
+
+        CatalogIngestionService.Batch batch = CatalogIngestionService.coalesce(List.of(
+                ProductChangeEvent.upsert(first),
+                ProductChangeEvent.upsert(second),
+                ProductChangeEvent.statusChange(first.getId(), ProductStatus.INACTIVE),
+                ProductChangeEvent.upsert(product("Old", "OLD-001")),
+                ProductChangeEvent.delete(deletedId),
+                ProductChangeEvent.statusChange(deletedId, ProductStatus.ACTIVE)));
+
+        assertEquals(3, batch.size());
+        Product merged = batch.upserts.get(first.getId());
+        assertEquals("Desk Lamp Pro", merged.getName());
+        assertEquals(ProductStatus.INACTIVE, merged.getStatus());
+        assertEquals(ProductStatus.ACTIVE, second.getStatus());
+        assertEquals(List.of(deletedId), batch.removals);
+        assertTrue(batch.statusChanges.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid changes without failing the batch")
+    void testRejectedChanges() throws InterruptedException {
+        source.publish(ProductChangeEvent.upsert(product("Clone", "LAPTOP-001")));
+        source.publish(ProductChangeEvent.statusChange(UUID.randomUUID(), ProductStatus.INACTIVE));
+        source.publish(ProductChangeEvent.upsert(product("Stapler", "STAPLE-001")));
+
+        ingestion.runOnce();
+
+        assertTrue(productService.getProductBySku("STAPLE-001").isPresent());
+        assertEquals(1.0, registry.get("catalog.ingestion.events").tag("outcome", "applied").counter().count());
+        assertEquals(2.0, registry.get("catalog.ingestion.events").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should drop upserts without a product id or with a mismatched id")
+    void testCoalesceInvalidUpserts() {
+        Product anonymous = product("Anonymous", "ANON-001");
+        anonymous.setId(null);
+        ProductChangeEvent withoutId = ProductChangeEvent.upsert(anonymous);
+        withoutId.setProductId(UUID.randomUUID());
+        ProductChangeEvent mismatched = ProductChangeEvent.upsert(product("Lamp", "LAMP-001"));
+        mismatched.setProductId(UUID.randomUUID());
+        Product stapler = product("Stapler", "STAPLE-001");
+
+        CatalogIngestionService.Batch batch = CatalogIngestionService.coalesce(List.of(
+                withoutId, mismatched, ProductChangeEvent.upsert(stapler)));
+
+        assertEquals(2, batch.invalid);
+        assertEquals(1, batch.size());
+        assertEquals(stapler, batch.upserts.get(stapler.getId()));
+    }
+
+    @Test
+    @DisplayName("Should apply the rest of a batch around an upsert without a product id")
+    void testRejectedUpsertWithoutId() throws InterruptedException {
+        Product anonymous = product("Anonymous", "ANON-001");
+        anonymous.setId(null);
+        ProductChangeEvent withoutId = ProductChangeEvent.upsert(anonymous);
+        withoutId.setProductId(UUID.randomUUID());
+        source.publish(withoutId);
+        source.publish(ProductChangeEvent.upsert(product("Stapler", "STAPLE-001")));
+
+        ingestion.runOnce();
+
+        assertTrue(productService.getProductBySku("STAPLE-001").isPresent());
+        assertTrue(productService.getProductBySku("ANON-001").isEmpty());
+        assertEquals(1.0, registry.get("catalog.ingestion.events").tag("outcome", "applied").counter().count());
+        assertEquals(1.0, registry.get("catalog.ingestion.events").tag("outcome", "rejected").counter().count());
+        assertEquals(0.0, registry.get("catalog.ingestion.events").tag("outcome", "coalesced").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should record throughput, lag and version metrics")
+    void testMetrics() throws InterruptedException {
+        Product lamp = product("Desk Lamp", "LAMP-001");
+        ProductChangeEvent late = ProductChangeEvent.upsert(lamp);
+        late.setEventTime(Instant.now().minusSeconds(5));
+        source.publish(late);
+        source.publish(ProductChangeEvent.statusChange(lamp.getId(), ProductStatus.INACTIVE));
+
+        assertEquals(0, registry.get("catalog.ingestion.pending").gauge().value() - source.pending());
+        ingestion.runOnce();
+
+        assertEquals(2.0, registry.get("catalog.ingestion.events").tag("outcome", "received").counter().count());
+        assertEquals(1.0, registry.get("catalog.ingestion.events").tag("outcome", "coalesced").counter().count());
+        assertEquals(1, registry.get("catalog.ingestion.batch.size").summary().count());
+        assertTrue(registry.get("catalog.ingestion.lag").timer().max(java.util.concurrent.TimeUnit.SECONDS) >= 5);
+        assertEquals(productService.currentSnapshot().version(), registry.get("catalog.snapshot.version").gauge().value());
+        assertEquals(0, ingestion.runOnce());
+    }
+
+    @Test
+    @DisplayName("Should apply published events from the background worker")
+    void testWorker() throws InterruptedException {
+        ingestion.start();
+        try {
+            source.publish(ProductChangeEvent.upsert(product("Desk Lamp", "LAMP-001")));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (productService.getProductBySku("LAMP-001").isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(productService.getProductBySku("LAMP-001").isPresent());
+        } finally {
+            ingestion.stop();
+        }
+        assertFalse(ingestion.isRunning());
+    }
+
+    private static Product product(String name, String sku) {
+        Product product = new Product(UUID.randomUUID(), name, new BigDecimal("19.99"), "Office", sku);
+        product.setStockQuantity(10);
+        return product;
+    }
+}
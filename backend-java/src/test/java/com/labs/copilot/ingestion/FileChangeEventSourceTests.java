@@ -0,0 +1,88 @@
+package com.labs.copilot.ingestion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labs.copilot.model.ProductStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FileChangeEventSource.
+ */
+@DisplayName("FileChangeEventSource Tests")
+class FileChangeEventSourceTests {
+
+    private Path file;
+    private FileChangeEventSource source;
+
+    @BeforeEach
+    void setup() throws IOException {
+        file = Files.createTempFile("catalog-changes", ".jsonl");
+        source = new FileChangeEventSource(file, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    @DisplayName("Should read appended lines and wait for incomplete ones")
+    void testTail() throws Exception {
+        UUID id = UUID.randomUUID();
+        append("{\"type\":\"UPSERT\",\"product\":{\"id\":\"" + id + "\",\"name\":\"Desk Lamp\",\"price\":19.99,"
+                + "\"sku\":\"LAMP-001\",\"status\":\"ACTIVE\",\"createdAt\":\"2025-01-01T10:00:00\"}}\n"
+                + "{\"type\":\"STATUS_CHANGE\",\"productId\":\"" + id + "\",\"sta");
+
+        List<ProductChangeEvent> first = source.poll(10, Duration.ZERO);
+        assertEquals(1, first.size());
+        assertEquals(id, first.get(0).targetId());
+        assertEquals("Desk Lamp", first.get(0).getProduct().getName());
+        assertEquals(1, first.get(0).getSequence());
+
+        append("tus\":\"INACTIVE\"}\n");
+        List<ProductChangeEvent> second = source.poll(10, Duration.ZERO);
+        assertEquals(1, second.size());
+        assertEquals(ProductStatus.INACTIVE, second.get(0).getStatus());
+        assertEquals(2, second.get(0).getSequence());
+
+        assertTrue(source.poll(10, Duration.ofMillis(20)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should honour maxEvents and skip malformed lines")
+    void testBatchLimitAndMalformed() throws Exception {
+        StringBuilder lines = new StringBuilder("not json\n\n");
+        for (int i = 0; i < 5; i++) {
+            lines.append("{\"type\":\"DELETE\",\"productId\":\"").append(UUID.randomUUID()).append("\"}\n");
+        }
+        append(lines.toString());
+
+        assertEquals(3, source.poll(3, Duration.ZERO).size());
+        assertEquals(2, source.poll(3, Duration.ZERO).size());
+        assertEquals(-1, source.pending());
+    }
+
+    @Test
+    @DisplayName("Should return nothing for a missing file")
+    void testMissingFile() throws Exception {
+        Files.delete(file);
+        assertTrue(source.poll(10, Duration.ZERO).isEmpty());
+    }
+
+    private void append(String text) throws IOException {
+        Files.writeString(file, text, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,64 @@
+package com.labs.copilot.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BloomFilter.
+ */
+@DisplayName("BloomFilter Tests")
+class BloomFilterTests {
+
+    @Test
+    @DisplayName("Should contain every id it was built from")
+    void testNoFalseNegatives() {
+        List<UUID> ids = randomIds(5000, 1);
+        BloomFilter filter = BloomFilter.of(ids, 0.01);
+
+        for (UUID id : ids) {
+            assertTrue(filter.mightContain(id), id.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the false-positive rate near its target")
+    void testFalsePositiveRate() {
+        BloomFilter filter = BloomFilter.of(randomIds(10000, 2), 0.01);
+
+        int falsePositives = 0;
+        for (UUID id : randomIds(100000, 3)) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives / 100000.0 < 0.02, "observed " + falsePositives);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.002);
+        assertEquals(7, filter.hashCount());
+    }
+
+    @Test
+    @DisplayName("Should reject everything when empty")
+    void testEmpty() {
+        BloomFilter filter = BloomFilter.of(List.of(), 0.01);
+
+        assertFalse(filter.mightContain(UUID.randomUUID()));
+        assertEquals(0.0, filter.expectedFalsePositiveRate());
+    }
+
+    private static List<UUID> randomIds(int count, long seed) {
+        Random random = new Random(seed);
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,165 @@
+package com.labs.copilot.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Bm25Scorer and the collection statistics of InvertedIndex.
+ */
+@DisplayName("Bm25Scorer Tests")
+class Bm25ScorerTests {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new InvertedIndex();
+        index.add(0, "Laptop", "High-performance laptop for developers");
+        index.add(1, "Wireless Mouse", "Ergonomic wireless mouse with extended battery");
+        index.add(2, "Mouse Pad", "Large pad for any mouse or keyboard");
+        index.add(3, "Mechanical Keyboard", "RGB mechanical keyboard with hot-swappable switches");
+    }
+
+    @Test
+    @DisplayName("Should compute the BM25 formula with a boosted title")
+    void testScore() {
+        // "laptop": title once (boost 2) and description once
+        float tf = InvertedIndex.TITLE_BOOST + 1;
+        float length = InvertedIndex.TITLE_BOOST * 1 + 5;
+        double average = index.averageLength();
+        double expected = Bm25Scorer.idf(4, 1) * tf * (Bm25Scorer.K1 + 1)
+                / (tf + Bm25Scorer.K1 * (1 - Bm25Scorer.B + Bm25Scorer.B * length / average));
+
+        Bm25Scorer scorer = index.scorer("laptop", Fuzziness.ZERO);
+        assertEquals(expected, scorer.score(0), 1e-5);
+        assertEquals(0f, scorer.score(1));
+        assertTrue(scorer.maxScore() >= scorer.score(0));
+    }
+
+    @Test
+    @DisplayName("Should rank title matches above description matches")
+    void testTitleBoost() {
+        Bm25Scorer scorer = index.scorer("keyboard", Fuzziness.ZERO);
+        assertTrue(scorer.score(3) > scorer.score(2));
+
+        scorer = index.scorer("mouse", Fuzziness.ZERO);
+        assertTrue(scorer.score(1) > 0);
+        assertTrue(scorer.score(2) > 0);
+    }
+
+    @Test
+    @DisplayName("Should score expansions below exact terms")
+    void testExpansions() {
+        Bm25Scorer scorer = index.scorer("keyboards", Fuzziness.ONE);
+        Bm25Scorer exact = index.scorer("keyboard", Fuzziness.ZERO);
+        assertTrue(scorer.score(3) > 0);
+        assertTrue(scorer.score(3) < exact.score(3));
+
+        assertTrue(index.scorer("mech", Fuzziness.ZERO).score(3) > 0);
+    }
+
+    @Test
+    @DisplayName("Should keep the best-scoring entry of a document across many expansions")
+    void testBestOfManyExpansions() {
+        Random random = new Random(11);
+        List<Bm25Scorer.Term> expansions = new ArrayList<>();
+        // Saturation at average length is tf / (tf + k1), up to the constant k1 + 1
+        TreeMap<Integer, Float> expected = new TreeMap<>();
+        for (int t = 0; t < 50; t++) {
+            int[] docs = random.ints(random.nextInt(30), 0, 500).sorted().distinct().toArray();
+            float[] freqs = new float[docs.length];
+            float weight = 0.1f + random.nextFloat();
+            for (int i = 0; i < docs.length; i++) {
+                freqs[i] = 1 + random.nextInt(4);
+                expected.merge(docs[i], weight * freqs[i] / (freqs[i] + Bm25Scorer.K1), Math::max);
+            }
+            expansions.add(new Bm25Scorer.Term(docs, freqs, docs.length, weight, 4));
+        }
+
+        Bm25Scorer.Term merged = Bm25Scorer.Term.best(expansions);
+
+        assertEquals(expected.size(), merged.size);
+        int i = 0;
+        for (Map.Entry<Integer, Float> entry : expected.entrySet()) {
+            assertEquals(entry.getKey(), merged.docs[i]);
+            assertEquals(entry.getValue(), merged.weight(i) * merged.freqs[i] / (merged.freqs[i] + Bm25Scorer.K1), 1e-6);
+            i++;
+        }
+        assertSame(Bm25Scorer.Term.NONE, Bm25Scorer.Term.best(List.of()));
+    }
+
+    @Test
+    @DisplayName("Should keep collection statistics in step with adds and removes")
+    void testIncrementalStatistics() {
+        index.remove(2, "Mouse Pad", "Large pad for any mouse or keyboard");
+        index.add(4, "Desk Lamp", "LED lamp");
+
+        InvertedIndex rebuilt = new InvertedIndex();
+        rebuilt.add(0, "Laptop", "High-performance laptop for developers");
+        rebuilt.add(1, "Wireless Mouse", "Ergonomic wireless mouse with extended battery");
+        rebuilt.add(3, "Mechanical Keyboard", "RGB mechanical keyboard with hot-swappable switches");
+        rebuilt.add(4, "Desk Lamp", "LED lamp");
+
+        assertEquals(rebuilt.documentCount(), index.documentCount());
+        assertEquals(rebuilt.averageLength(), index.averageLength(), 1e-9);
+        for (int doc : new int[]{0, 1, 3, 4}) {
+            assertEquals(rebuilt.scorer("mouse lamp", Fuzziness.ZERO).score(doc),
+                    index.scorer("mouse lamp", Fuzziness.ZERO).score(doc), 1e-6);
+        }
+        assertEquals(0f, index.scorer("pad", Fuzziness.ZERO).score(2));
+    }
+
+    @Test
+    @DisplayName("Should select the same top documents with pruning as with full scoring")
+    void testPruningAgainstFullScoring() {
+        Random random = new Random(3);
+        String[] vocabulary = {"red", "green", "blue", "lamp", "desk", "chair", "cable", "usb", "hub", "stand"};
+        InvertedIndex corpus = new InvertedIndex();
+        int n = 400;
+        for (int doc = 0; doc < n; doc++) {
+            corpus.add(doc, words(random, vocabulary, 1 + random.nextInt(3)),
+                    words(random, vocabulary, random.nextInt(12)));
+        }
+        for (int round = 0; round < 40; round++) {
+            String query = words(random, vocabulary, 1 + random.nextInt(3));
+            int k = 1 + random.nextInt(30);
+            Bm25Scorer full = corpus.scorer(query, Fuzziness.ZERO);
+            float[] scores = new float[n];
+            for (int doc = 0; doc < n; doc++) {
+                scores[doc] = full.score(doc);
+            }
+
+            Bm25Scorer pruned = corpus.scorer(query, Fuzziness.ZERO);
+            TopScoreCollector collector = new TopScoreCollector(k, Integer::compare);
+            for (int doc = 0; doc < n; doc++) {
+                collector.collect(doc, pruned.score(doc, collector.threshold()));
+            }
+
+            int[] expected = IntStream.range(0, n).boxed()
+                    .sorted(Comparator.<Integer>comparingDouble(doc -> -scores[doc]).thenComparing(doc -> doc))
+                    .limit(k)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            assertArrayEquals(expected, collector.page(0, k), "query " + query + ", k " + k);
+            assertEquals(n, collector.totalHits());
+        }
+    }
+
+    private static String words(Random random, String[] vocabulary, int count) {
+        String[] words = new String[count];
+        Arrays.setAll(words, i -> vocabulary[random.nextInt(vocabulary.length)]);
+        return String.join(" ", words);
+    }
+}
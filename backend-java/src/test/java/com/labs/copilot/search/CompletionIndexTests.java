@@ -0,0 +1,108 @@
+package com.labs.copilot.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompletionIndex.
+ */
+@DisplayName("CompletionIndex Tests")
+class CompletionIndexTests {
+
+    private CompletionIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new CompletionIndex();
+        index.add(0, "Laptop", "LAPTOP-001", 50);
+        index.add(1, "Wireless Mouse", "MOUSE-001", 200);
+        index.add(2, "Laptop Stand", "STAND-001", 80);
+        index.add(3, "USB-C Hub", "HUB-001", 120);
+    }
+
+    @Test
+    @DisplayName("Should rank name completions by weight")
+    void testSuggestByName() {
+        assertArrayEquals(new int[]{2, 0}, index.suggest("lap", 10));
+        assertArrayEquals(new int[]{2}, index.suggest("Laptop  s", 10));
+        assertArrayEquals(new int[]{3}, index.suggest("usb c", 10));
+        assertArrayEquals(new int[0], index.suggest("keyboard", 10));
+        assertArrayEquals(new int[0], index.suggest("  ", 10));
+    }
+
+    @Test
+    @DisplayName("Should match SKUs and merge them with names without duplicates")
+    void testSuggestBySku() {
+        assertArrayEquals(new int[]{3}, index.suggest("hub-0", 10));
+        index.add(4, "Hub Adapter", "ADAPT-001", 10);
+
+        assertArrayEquals(new int[]{3, 4}, index.suggest("hub", 10));
+        assertArrayEquals(new int[]{2, 0}, index.suggest("LAPTOP", 10));
+        assertArrayEquals(new int[]{2}, index.suggest("lap", 1));
+    }
+
+    @Test
+    @DisplayName("Should promote the next best document once a ranked one is removed")
+    void testRemove() {
+        index.remove(2, "Laptop Stand", "STAND-001");
+
+        assertArrayEquals(new int[]{0}, index.suggest("lap", 10));
+        assertArrayEquals(new int[0], index.suggest("stand", 10));
+
+        index.add(2, "Laptop Stand", "STAND-001", 10);
+        assertArrayEquals(new int[]{0, 2}, index.suggest("laptop", 10));
+    }
+
+    @Test
+    @DisplayName("Should leave the original untouched when a copy is modified")
+    void testCopyIsolation() {
+        CompletionIndex copy = index.copy();
+        copy.remove(0, "Laptop", "LAPTOP-001");
+        copy.add(5, "Lamp", "LAMP-001", 500);
+
+        assertArrayEquals(new int[]{2, 0}, index.suggest("la", 10));
+        assertArrayEquals(new int[]{5, 2}, copy.suggest("la", 10));
+    }
+
+    @Test
+    @DisplayName("Should return the same top completions as a full scan")
+    void testMatchesFullScan() {
+        CompletionIndex large = new CompletionIndex();
+        Random random = new Random(11);
+        List<String> names = new ArrayList<>();
+        List<Long> weights = new ArrayList<>();
+        for (int doc = 0; doc < 500; doc++) {
+            String name = "p" + random.nextInt(40) + " item";
+            long weight = random.nextInt(30);
+            names.add(name);
+            weights.add(weight);
+            large.add(doc, name, "SKU-" + doc, weight);
+        }
+        for (int doc = 0; doc < 500; doc += 3) {
+            large.remove(doc, names.get(doc), "SKU-" + doc);
+        }
+
+        for (String prefix : new String[]{"p", "p1", "p23", "p7 i"}) {
+            List<Integer> expected = new ArrayList<>();
+            for (int doc = 0; doc < 500; doc++) {
+                if (doc % 3 != 0 && names.get(doc).startsWith(prefix)) {
+                    expected.add(doc);
+                }
+            }
+            expected.sort(Comparator.<Integer>comparingLong(doc -> -weights.get(doc))
+                    .thenComparing(names::get)
+                    .thenComparing(Comparator.naturalOrder()));
+            int[] top = expected.stream().limit(CompletionIndex.MAX_SUGGESTIONS).mapToInt(Integer::intValue).toArray();
+
+            assertArrayEquals(top, large.suggest(prefix, 20), prefix);
+        }
+    }
+}
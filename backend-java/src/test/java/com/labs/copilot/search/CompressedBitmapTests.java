@@ -0,0 +1,129 @@
+package com.labs.copilot.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompressedBitmap.
+ * Set operations are checked against TreeSet across sparse and dense containers.
+ */
+@DisplayName("CompressedBitmap Tests")
+class CompressedBitmapTests {
+
+    @Test
+    @DisplayName("Should add, remove and test membership")
+    void testAddRemoveContains() {
+        CompressedBitmap bitmap = CompressedBitmap.of(1, 5, 70000, 5);
+
+        assertEquals(3, bitmap.cardinality());
+        assertTrue(bitmap.contains(70000));
+        assertFalse(bitmap.contains(2));
+
+        bitmap.remove(70000);
+        bitmap.remove(42);
+
+        assertArrayEquals(new int[]{1, 5}, bitmap.toArray());
+    }
+
+    @Test
+    @DisplayName("Should switch between array and bitset containers")
+    void testDenseContainer() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i < 10000; i++) {
+            bitmap.add(i);
+        }
+        long denseBytes = bitmap.sizeInBytes();
+        assertEquals(10000, bitmap.cardinality());
+
+        for (int i = 0; i < 9990; i++) {
+            bitmap.remove(i);
+        }
+
+        assertEquals(10, bitmap.cardinality());
+        assertTrue(bitmap.sizeInBytes() < denseBytes);
+        assertEquals(9990, bitmap.toArray()[0]);
+    }
+
+    @Test
+    @DisplayName("Should return page slices across containers")
+    void testToArraySlice() {
+        CompressedBitmap bitmap = CompressedBitmap.of(3, 65536, 65537, 131072, 200000);
+
+        assertArrayEquals(new int[]{65537, 131072}, bitmap.toArray(2, 2));
+        assertArrayEquals(new int[]{200000}, bitmap.toArray(4, 10));
+        assertArrayEquals(new int[0], bitmap.toArray(5, 10));
+    }
+
+    @Test
+    @DisplayName("Should rank values in array and bitset containers")
+    void testRank() {
+        CompressedBitmap bitmap = CompressedBitmap.of(3, 65536, 65537, 131072, 200000);
+        for (int i = 0; i < 10000; i++) {
+            bitmap.add(300000 + 2 * i);
+        }
+
+        assertEquals(0, bitmap.rank(3));
+        assertEquals(1, bitmap.rank(4));
+        assertEquals(2, bitmap.rank(65537));
+        assertEquals(3, bitmap.rank(65538));
+        assertEquals(5, bitmap.rank(300000));
+        assertEquals(6, bitmap.rank(300001));
+        assertEquals(5 + 5000, bitmap.rank(310000));
+        assertEquals(bitmap.cardinality(), bitmap.rank(Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should leave the source untouched when a copy is mutated")
+    void testCopy() {
+        CompressedBitmap original = CompressedBitmap.of(1, 2, 3);
+        CompressedBitmap copy = original.copy();
+        copy.add(4);
+        copy.remove(1);
+
+        assertArrayEquals(new int[]{1, 2, 3}, original.toArray());
+        assertArrayEquals(new int[]{2, 3, 4}, copy.toArray());
+    }
+
+    @Test
+    @DisplayName("Should match TreeSet semantics for and, or and andNot")
+    void testSetOperationsRandomized() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            int range = round % 2 == 0 ? 200_000 : 20_000;
+            int count = random.nextInt(15_000);
+            TreeSet<Integer> expectedA = new TreeSet<>();
+            TreeSet<Integer> expectedB = new TreeSet<>();
+            CompressedBitmap a = new CompressedBitmap();
+            CompressedBitmap b = new CompressedBitmap();
+            for (int i = 0; i < count; i++) {
+                int x = random.nextInt(range);
+                int y = random.nextInt(range);
+                a.add(x);
+                expectedA.add(x);
+                b.add(y);
+                expectedB.add(y);
+            }
+
+            TreeSet<Integer> and = new TreeSet<>(expectedA);
+            and.retainAll(expectedB);
+            TreeSet<Integer> or = new TreeSet<>(expectedA);
+            or.addAll(expectedB);
+            TreeSet<Integer> andNot = new TreeSet<>(expectedA);
+            andNot.removeAll(expectedB);
+
+            assertArrayEquals(toArray(and), CompressedBitmap.and(a, b).toArray());
+            assertArrayEquals(toArray(or), CompressedBitmap.or(a, b).toArray());
+            assertArrayEquals(toArray(andNot), CompressedBitmap.andNot(a, b).toArray());
+            assertEquals(and.size(), CompressedBitmap.and(a, b).cardinality());
+        }
+    }
+
+    private static int[] toArray(TreeSet<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,81 @@
+package com.labs.copilot.search;
+
+import com.labs.copilot.model.Product;
+import com.labs.copilot.model.ProductStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CountCube.
+ */
+@DisplayName("CountCube Tests")
+class CountCubeTests {
+
+    private CountCube cube;
+    private Product laptop;
+
+    @BeforeEach
+    void setup() {
+        cube = new CountCube();
+        laptop = product("Electronics", ProductStatus.ACTIVE, 50);
+        cube.add(laptop);
+        cube.add(product("Electronics", ProductStatus.ACTIVE, 0));
+        cube.add(product("electronics", ProductStatus.INACTIVE, 5));
+        cube.add(product("Office", ProductStatus.ACTIVE, 10));
+        cube.add(product(null, null, 3));
+    }
+
+    @Test
+    @DisplayName("Should count any combination of category, status and stock")
+    void testCount() {
+        assertEquals(5, cube.count(null, null, null));
+        assertEquals(3, cube.count(null, ProductStatus.ACTIVE, null));
+        assertEquals(2, cube.count(null, ProductStatus.ACTIVE, true));
+        assertEquals(1, cube.count(null, ProductStatus.ACTIVE, false));
+        assertEquals(3, cube.count("ELECTRONICS", null, null));
+        assertEquals(1, cube.count("Electronics", ProductStatus.ACTIVE, true));
+        assertEquals(1, cube.count("Electronics", ProductStatus.INACTIVE, null));
+        assertEquals(0, cube.count("Electronics", ProductStatus.DISCONTINUED, null));
+        assertEquals(0, cube.count("Garden", null, null));
+        assertEquals(4, cube.count(null, null, true));
+    }
+
+    @Test
+    @DisplayName("Should forget a category once its last product is removed")
+    void testRemove() {
+        Product office = product("Office", ProductStatus.ACTIVE, 10);
+        cube.add(office);
+        cube.remove(office);
+        cube.remove(laptop);
+
+        assertEquals(4, cube.count(null, null, null));
+        assertEquals(0, cube.count("Electronics", ProductStatus.ACTIVE, true));
+        assertEquals(1, cube.count("Office", null, null));
+    }
+
+    @Test
+    @DisplayName("Should leave the original untouched when a copy is modified")
+    void testCopyIsolation() {
+        CountCube copy = cube.copy();
+        copy.remove(laptop);
+        copy.add(product("Garden", ProductStatus.ACTIVE, 1));
+
+        assertEquals(1, cube.count("Electronics", ProductStatus.ACTIVE, true));
+        assertEquals(0, cube.count("Garden", null, null));
+        assertEquals(0, copy.count("Electronics", ProductStatus.ACTIVE, true));
+        assertEquals(1, copy.count("Garden", null, null));
+    }
+
+    private static Product product(String category, ProductStatus status, int stock) {
+        Product product = new Product(UUID.randomUUID(), "Product", new BigDecimal("10.00"), category, null);
+        product.setStatus(status);
+        product.setStockQuantity(stock);
+        return product;
+    }
+}
@@ -0,0 +1,48 @@
+package com.labs.copilot.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DocSort.
+ */
+@DisplayName("DocSort Tests")
+class DocSortTests {
+
+    @Test
+    @DisplayName("Should match a boxed sort and keep equal documents in order")
+    void testMatchesBoxedStableSort() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            int n = random.nextInt(500);
+            int[] keys = new int[n];
+            int[] docs = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = random.nextInt(round % 2 == 0 ? 10 : 1000);
+                docs[i] = i;
+            }
+
+            Integer[] expected = Arrays.stream(docs).boxed().toArray(Integer[]::new);
+            Arrays.sort(expected, Comparator.comparingInt(doc -> keys[doc]));
+            DocSort.sort(docs, 0, n, (a, b) -> Integer.compare(keys[a], keys[b]));
+
+            assertArrayEquals(Arrays.stream(expected).mapToInt(Integer::intValue).toArray(), docs);
+        }
+    }
+
+    @Test
+    @DisplayName("Should only sort the given range")
+    void testRange() {
+        int[] docs = {9, 5, 4, 3, 2, 1, 0};
+
+        DocSort.sort(docs, 1, 5, Integer::compare);
+
+        assertArrayEquals(new int[]{9, 2, 3, 4, 5, 1, 0}, docs);
+    }
+}
@@ -0,0 +1,103 @@
+package com.labs.copilot.search;
+
+import com.labs.copilot.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FacetCollector and Facet.
+ */
+@DisplayName("FacetCollector Tests")
+class FacetCollectorTests {
+
+    private ProductColumns columns;
+
+    @BeforeEach
+    void setup() {
+        columns = new ProductColumns();
+        columns.set(0, product("Electronics", "999.99", 50));
+        columns.set(1, product("Electronics", "29.99", 200));
+        columns.set(2, product("electronics", "49.99", 0));
+        columns.set(3, product("Office", "39.99", 0));
+        columns.set(4, product(null, null, 3));
+    }
+
+    @Test
+    @DisplayName("Should count categories, price buckets and stock in one pass")
+    void testCollectAll() {
+        FacetCounts counts = collect(EnumSet.allOf(Facet.class), 0, 1, 2, 3, 4);
+
+        assertEquals(List.of("Electronics", "Office"), List.copyOf(counts.getCategories().keySet()));
+        assertEquals(3L, counts.getCategories().get("Electronics"));
+        assertEquals(1L, counts.getCategories().get("Office"));
+
+        List<FacetCounts.PriceBucket> buckets = counts.getPriceBuckets();
+        assertEquals(FacetCollector.PRICE_EDGES_CENTS.length, buckets.size());
+        assertEquals(new BigDecimal("25.00"), buckets.get(1).min());
+        assertEquals(new BigDecimal("50.00"), buckets.get(1).max());
+        assertEquals(3, buckets.get(1).count());
+        assertEquals(1, buckets.get(5).count());
+        assertEquals(0, buckets.get(0).count());
+        assertNull(buckets.get(buckets.size() - 1).max());
+
+        assertEquals(3L, counts.getInStock());
+        assertEquals(2L, counts.getOutOfStock());
+    }
+
+    @Test
+    @DisplayName("Should count only the collected documents and requested facets")
+    void testCollectSubset() {
+        FacetCounts counts = collect(EnumSet.of(Facet.CATEGORY), 2, 3);
+
+        assertEquals(1L, counts.getCategories().get("Electronics"));
+        assertEquals(1L, counts.getCategories().get("Office"));
+        assertNull(counts.getPriceBuckets());
+        assertNull(counts.getInStock());
+        assertNull(counts.getOutOfStock());
+    }
+
+    @Test
+    @DisplayName("Should put prices on a bucket edge into the bucket that starts there")
+    void testBucketEdges() {
+        columns.set(5, product("Office", "100.00", 1));
+        columns.set(6, product("Office", "99.99", 1));
+        columns.set(7, product("Office", "2500.00", 1));
+
+        List<FacetCounts.PriceBucket> buckets = collect(EnumSet.of(Facet.PRICE), 5, 6, 7).getPriceBuckets();
+
+        assertEquals(1, buckets.get(2).count());
+        assertEquals(1, buckets.get(3).count());
+        assertEquals(1, buckets.get(buckets.size() - 1).count());
+    }
+
+    @Test
+    @DisplayName("Should parse comma-separated facet names")
+    void testFromValues() {
+        assertEquals(EnumSet.of(Facet.CATEGORY, Facet.STOCK), Facet.fromValues("category, Stock,unknown"));
+        assertEquals(EnumSet.allOf(Facet.class), Facet.fromValues("all"));
+        assertTrue(Facet.fromValues(null).isEmpty());
+        assertTrue(Facet.fromValues("").isEmpty());
+    }
+
+    private FacetCounts collect(EnumSet<Facet> facets, int... docs) {
+        FacetCollector collector = new FacetCollector(columns, facets);
+        for (int doc : docs) {
+            collector.collect(doc);
+        }
+        return collector.result();
+    }
+
+    private static Product product(String category, String price, int stock) {
+        Product product = new Product(UUID.randomUUID(), "Product", price != null ? new BigDecimal(price) : null, category, null);
+        product.setStockQuantity(stock);
+        return product;
+    }
+}
@@ -0,0 +1,67 @@
+package com.labs.copilot.search;
+
+import com.labs.copilot.model.Product;
+import com.labs.copilot.model.ProductStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FilterIndex.
+ */
+@DisplayName("FilterIndex Tests")
+class FilterIndexTests {
+
+    private FilterIndex index;
+    private Product mouse;
+
+    @BeforeEach
+    void setup() {
+        index = new FilterIndex();
+
+        Product laptop = new Product(UUID.randomUUID(), "Laptop", new BigDecimal("999.99"), "Electronics", "LAPTOP-001");
+        laptop.setStockQuantity(50);
+        mouse = new Product(UUID.randomUUID(), "Wireless Mouse", new BigDecimal("29.99"), "Electronics", "MOUSE-001");
+        mouse.setStockQuantity(0);
+        Product stand = new Product(UUID.randomUUID(), "Monitor Stand", new BigDecimal("39.99"), "Office", "STAND-001");
+        stand.setStockQuantity(3);
+        stand.setStatus(ProductStatus.INACTIVE);
+
+        index.add(0, laptop);
+        index.add(1, mouse);
+        index.add(2, stand);
+    }
+
+    @Test
+    @DisplayName("Should index categories case-insensitively")
+    void testCategory() {
+        assertArrayEquals(new int[]{0, 1}, index.category("electronics").toArray());
+        assertArrayEquals(new int[]{2}, index.category("OFFICE").toArray());
+        assertTrue(index.category("Garden").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should index status and stock availability")
+    void testStatusAndStock() {
+        assertArrayEquals(new int[]{0, 1}, index.status(ProductStatus.ACTIVE).toArray());
+        assertArrayEquals(new int[]{2}, index.status(ProductStatus.INACTIVE).toArray());
+        assertTrue(index.status(ProductStatus.DISCONTINUED).isEmpty());
+        assertArrayEquals(new int[]{0, 2}, index.inStock().toArray());
+        assertEquals(3, index.all().cardinality());
+    }
+
+    @Test
+    @DisplayName("Should remove a document from every bitmap")
+    void testRemove() {
+        index.remove(1, mouse);
+
+        assertArrayEquals(new int[]{0}, index.category("Electronics").toArray());
+        assertArrayEquals(new int[]{0}, index.status(ProductStatus.ACTIVE).toArray());
+        assertEquals(2, index.all().cardinality());
+    }
+}
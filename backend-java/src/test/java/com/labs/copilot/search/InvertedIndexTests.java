@@ -0,0 +1,157 @@
+package com.labs.copilot.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InvertedIndex and TextAnalyzer.
+ */
+@DisplayName("InvertedIndex Tests")
+class InvertedIndexTests {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new InvertedIndex();
+        index.add(0, "Laptop", "High-performance laptop for developers");
+        index.add(1, "Wireless Mouse", "Ergonomic wireless mouse with extended battery");
+        index.add(2, "USB-C Hub", "Multi-port USB-C hub with HDMI and SD card reader");
+        index.add(3, "Mechanical Keyboard", "RGB mechanical keyboard with hot-swappable switches");
+    }
+
+    @Test
+    @DisplayName("Should tokenize on non-alphanumeric characters and lowercase terms")
+    void testTokenize() {
+        assertEquals(List.of("usb", "c", "hub"), TextAnalyzer.tokenize("USB-C Hub"));
+        assertEquals(List.of("hot", "swappable"), TextAnalyzer.tokenize("  hot-swappable!"));
+        assertTrue(TextAnalyzer.tokenize(null).isEmpty());
+        assertTrue(TextAnalyzer.tokenize("--").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should find documents by single term")
+    void testSingleTerm() {
+        assertArrayEquals(new int[]{1}, index.search("ergonomic", TextMatchMode.ALL));
+        assertArrayEquals(new int[]{0}, index.search("LAPTOP", TextMatchMode.ALL));
+    }
+
+    @Test
+    @DisplayName("Should intersect terms in ALL mode")
+    void testAllMode() {
+        assertArrayEquals(new int[]{2}, index.search("usb hub", TextMatchMode.ALL));
+        assertArrayEquals(new int[0], index.search("laptop mouse", TextMatchMode.ALL));
+    }
+
+    @Test
+    @DisplayName("Should union terms in ANY mode")
+    void testAnyMode() {
+        assertArrayEquals(new int[]{0, 1}, index.search("laptop mouse", TextMatchMode.ANY));
+        assertArrayEquals(new int[]{3}, index.search("keyboard nonexistent", TextMatchMode.ANY));
+    }
+
+    @Test
+    @DisplayName("Should match the last query term as a prefix")
+    void testPrefixLastTerm() {
+        assertArrayEquals(new int[]{0}, index.search("lap", TextMatchMode.ALL));
+        assertArrayEquals(new int[]{1, 2, 3}, index.search("w", TextMatchMode.ALL));
+        assertArrayEquals(new int[]{1}, index.search("mouse wire", TextMatchMode.ALL));
+        assertArrayEquals(new int[0], index.search("lap developers", TextMatchMode.ALL));
+    }
+
+    @Test
+    @DisplayName("Should tolerate misspelled terms within the allowed edits")
+    void testFuzzy() {
+        assertArrayEquals(new int[0], index.search("mechancal keybaord", TextMatchMode.ALL));
+        assertArrayEquals(new int[]{3}, index.search("mechancal keybaord", TextMatchMode.ALL, Fuzziness.AUTO));
+        assertArrayEquals(new int[0], index.search("mechancal keybaord", TextMatchMode.ALL, Fuzziness.ONE));
+        assertArrayEquals(new int[]{1, 3}, index.search("wirless keybord", TextMatchMode.ANY, Fuzziness.ONE));
+        assertArrayEquals(new int[]{0}, index.search("laptp", TextMatchMode.ALL, Fuzziness.ONE));
+        assertArrayEquals(new int[]{3}, index.search("mechanical keybaord", TextMatchMode.ALL, Fuzziness.TWO));
+        assertEquals(1, index.estimate("keybaord", TextMatchMode.ALL, Fuzziness.AUTO));
+        assertEquals(0, index.estimate("keybaord", TextMatchMode.ALL));
+    }
+
+    @Test
+    @DisplayName("Should estimate, match and score from one expansion of the query")
+    void testExpandedTerms() {
+        InvertedIndex.QueryTerms terms = index.expand("wirless keyb", Fuzziness.ONE);
+
+        assertEquals(2, terms.size());
+        assertEquals(index.estimate("wirless keyb", TextMatchMode.ANY, Fuzziness.ONE), index.estimate(terms, TextMatchMode.ANY));
+        assertArrayEquals(new int[]{1, 3}, index.search(terms, TextMatchMode.ANY));
+        assertArrayEquals(new int[0], index.search(terms, TextMatchMode.ALL));
+        for (int doc = 0; doc < 4; doc++) {
+            assertEquals(index.scorer("wirless keyb", Fuzziness.ONE).score(doc), index.scorer(terms).score(doc), 1e-6);
+        }
+        assertEquals(0, index.expand("", Fuzziness.AUTO).size());
+    }
+
+    @Test
+    @DisplayName("Should union many sorted arrays in one pass")
+    void testUnion() {
+        Random random = new Random(7);
+        List<int[]> arrays = new ArrayList<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int a = 0; a < 200; a++) {
+            int[] array = random.ints(random.nextInt(40), 0, 5_000).sorted().distinct().toArray();
+            arrays.add(array);
+            Arrays.stream(array).forEach(expected::add);
+        }
+        arrays.add(new int[0]);
+
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), InvertedIndex.union(arrays));
+        assertArrayEquals(new int[]{3, 5}, InvertedIndex.union(List.of(new int[0], new int[]{3, 5})));
+        assertArrayEquals(new int[0], InvertedIndex.union(List.of()));
+    }
+
+    @Test
+    @DisplayName("Should match a short prefix with many completions")
+    void testPrefixWithManyCompletions() {
+        InvertedIndex corpus = new InvertedIndex();
+        for (int doc = 0; doc < 3_000; doc++) {
+            corpus.add(doc, "term" + doc, "shared");
+        }
+
+        assertEquals(3_000, corpus.search("te", TextMatchMode.ALL).length);
+        assertArrayEquals(new int[]{7, 70}, Arrays.stream(corpus.search("shared term7", TextMatchMode.ALL))
+                .filter(doc -> doc == 7 || doc == 70).toArray());
+    }
+
+    @Test
+    @DisplayName("Should return no documents for empty or unknown queries")
+    void testNoMatches() {
+        assertArrayEquals(new int[0], index.search("", TextMatchMode.ALL));
+        assertArrayEquals(new int[0], index.search("nonexistent123", TextMatchMode.ANY));
+    }
+
+    @Test
+    @DisplayName("Should remove documents and drop empty terms")
+    void testRemove() {
+        int terms = index.termCount();
+        index.remove(0, "Laptop", "High-performance laptop for developers");
+
+        assertArrayEquals(new int[0], index.search("laptop", TextMatchMode.ALL));
+        assertEquals(0, index.documentFrequency("developers"));
+        assertTrue(index.termCount() < terms);
+    }
+
+    @Test
+    @DisplayName("Should keep postings sorted when documents arrive out of order")
+    void testOutOfOrderAdd() {
+        index.add(10, "Laptop Sleeve", null);
+        index.add(5, "Laptop Stand", null);
+
+        assertArrayEquals(new int[]{0, 5, 10}, index.search("laptop", TextMatchMode.ALL));
+        assertEquals(3, index.documentFrequency("laptop"));
+    }
+}
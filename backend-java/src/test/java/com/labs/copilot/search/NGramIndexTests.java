@@ -0,0 +1,145 @@
+package com.labs.copilot.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NGramIndex and EditDistance.
+ */
+@DisplayName("NGramIndex Tests")
+class NGramIndexTests {
+
+    private NGramIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new NGramIndex();
+        for (String term : List.of("laptop", "mouse", "keyboard", "keyboards", "hub", "house", "mechanical")) {
+            index.add(term);
+        }
+    }
+
+    @Test
+    @DisplayName("Should compute bounded edit distances")
+    void testEditDistance() {
+        assertEquals(0, EditDistance.bounded("keyboard", "keyboard", 2));
+        assertEquals(1, EditDistance.bounded("mouse", "moose", 2));
+        assertEquals(2, EditDistance.bounded("keybaord", "keyboard", 2));
+        assertEquals(1, EditDistance.bounded("hub", "hubs", 1));
+        assertEquals(3, EditDistance.bounded("laptop", "lap", 2));
+        assertEquals(2, EditDistance.bounded("abc", "xyz", 1));
+    }
+
+    @Test
+    @DisplayName("Should find terms within the allowed edits")
+    void testSimilar() {
+        assertEquals(Set.of("keyboard"), new HashSet<>(index.similar("keybaord", 2)));
+        assertEquals(Set.of("keyboard", "keyboards"), new HashSet<>(index.similar("keyboard", 1)));
+        assertEquals(Set.of("mouse"), new HashSet<>(index.similar("moise", 1)));
+        assertEquals(Set.of("mouse", "house"), new HashSet<>(index.similar("mouse", 1)));
+        assertEquals(Set.of("hub"), new HashSet<>(index.similar("hub", 0)));
+        assertTrue(index.similar("keybaord", 1).isEmpty());
+        assertTrue(index.similar("hub", 0).contains("hub"));
+    }
+
+    @Test
+    @DisplayName("Should fall back to length buckets for short terms")
+    void testShortTerms() {
+        assertEquals(Set.of("hub"), new HashSet<>(index.similar("hb", 2)));
+        assertEquals(Set.of("hub"), new HashSet<>(index.similar("xub", 1)));
+    }
+
+    @Test
+    @DisplayName("Should forget removed terms and leave copies untouched")
+    void testRemoveAndCopy() {
+        NGramIndex copy = index.copy();
+        index.remove("house");
+
+        assertEquals(List.of("mouse"), index.similar("mouse", 1));
+        assertEquals(Set.of("mouse", "house"), new HashSet<>(copy.similar("mouse", 1)));
+        assertTrue(index.sizeInBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("Should agree with a full edit distance scan for random terms")
+    void testAgainstFullScan() {
+        Random random = new Random(11);
+        List<String> dictionary = new ArrayList<>();
+        NGramIndex randomIndex = new NGramIndex();
+        for (int i = 0; i < 300; i++) {
+            String term = randomTerm(random);
+            dictionary.add(term);
+            randomIndex.add(term);
+        }
+        for (int round = 0; round < 200; round++) {
+            String query = random.nextBoolean() ? mutate(dictionary.get(random.nextInt(dictionary.size())), random)
+                    : randomTerm(random);
+            for (int maxEdits = 0; maxEdits <= 2; maxEdits++) {
+                Set<String> expected = new HashSet<>();
+                for (String term : dictionary) {
+                    if (levenshtein(query, term) <= maxEdits) {
+                        expected.add(term);
+                    }
+                }
+                assertEquals(expected, new HashSet<>(randomIndex.similar(query, maxEdits)));
+            }
+        }
+    }
+
+    private static String randomTerm(Random random) {
+        StringBuilder term = new StringBuilder();
+        int length = 1 + random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            term.append((char) ('a' + random.nextInt(4)));
+        }
+        return term.toString();
+    }
+
+    private static String mutate(String term, Random random) {
+        StringBuilder mutated = new StringBuilder(term);
+        int edits = 1 + random.nextInt(2);
+        for (int i = 0; i < edits; i++) {
+            int pos = random.nextInt(mutated.length() + 1);
+            switch (random.nextInt(3)) {
+                case 0 -> mutated.insert(pos, (char) ('a' + random.nextInt(4)));
+                case 1 -> {
+                    if (pos < mutated.length() && mutated.length() > 1) {
+                        mutated.deleteCharAt(pos);
+                    }
+                }
+                default -> {
+                    if (pos < mutated.length()) {
+                        mutated.setCharAt(pos, (char) ('a' + random.nextInt(4)));
+                    }
+                }
+            }
+        }
+        return mutated.toString();
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(d[i - 1][j - 1] + cost, Math.min(d[i - 1][j], d[i][j - 1]) + 1);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
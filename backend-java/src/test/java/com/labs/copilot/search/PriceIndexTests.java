@@ -0,0 +1,111 @@
+package com.labs.copilot.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PriceIndex.
+ */
+@DisplayName("PriceIndex Tests")
+class PriceIndexTests {
+
+    private PriceIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = PriceIndex.build(
+                new int[]{0, 1, 2, 3, 4},
+                new BigDecimal[]{price("999.99"), price("29.99"), price("49.99"), price("149.99"), price("29.99")});
+    }
+
+    @Test
+    @DisplayName("Should resolve inclusive ranges with open bounds")
+    void testRange() {
+        assertArrayEquals(new int[]{1, 2, 4}, index.range(price("29.99"), price("49.99")).toArray());
+        assertArrayEquals(new int[]{0, 3}, index.range(price("100"), null).toArray());
+        assertArrayEquals(new int[]{1, 4}, index.range(null, price("30")).toArray());
+        assertEquals(5, index.range(null, null).cardinality());
+        assertTrue(index.range(price("500"), price("50")).isEmpty());
+        assertTrue(index.range(price("1000"), null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should count matches without materializing them")
+    void testCount() {
+        assertEquals(3, index.count(price("29.99"), price("49.99")));
+        assertEquals(5, index.count(null, null));
+        assertEquals(0, index.count(price("50"), price("149.98")));
+        assertEquals(0, index.count(price("500"), price("50")));
+    }
+
+    @Test
+    @DisplayName("Should compare sub-cent bounds at cent precision")
+    void testSubCentBounds() {
+        assertEquals(2, index.count(price("29.985"), price("29.99")));
+        assertEquals(0, index.count(price("29.991"), price("49.989")));
+        assertEquals(1, index.count(price("49.989"), price("49.999")));
+    }
+
+    @Test
+    @DisplayName("Should saturate bounds beyond the cent range")
+    void testHugeBounds() {
+        assertEquals(Long.MAX_VALUE, PriceIndex.maxCents(price("1e20")));
+        assertEquals(Long.MIN_VALUE, PriceIndex.minCents(price("-1e20")));
+        assertEquals(5, index.count(price("-1e20"), price("1e20")));
+        assertEquals(0, index.count(price("1e20"), null));
+        assertEquals(0, index.count(null, price("-1e20")));
+    }
+
+    @Test
+    @DisplayName("Should clamp bounds with huge exponents without expanding them")
+    @Timeout(5)
+    void testHugeExponents() {
+        assertEquals(Long.MAX_VALUE, PriceIndex.maxCents(price("1e100000000")));
+        assertEquals(Long.MIN_VALUE, PriceIndex.minCents(price("-1e100000000")));
+        assertEquals(1, PriceIndex.minCents(price("1e-100000000")));
+        assertEquals(0, PriceIndex.maxCents(price("1e-100000000")));
+        assertEquals(0, PriceIndex.minCents(price("-1e-100000000")));
+        assertEquals(-1, PriceIndex.maxCents(price("-1e-100000000")));
+        assertEquals(0, PriceIndex.minCents(price("0e-100000000")));
+        assertEquals(0, index.count(price("1e100000000"), null));
+        assertEquals(5, index.count(price("1e-100000000"), price("1e100000000")));
+        assertEquals(2999, PriceIndex.minCents(price("29.981")));
+        assertEquals(2998, PriceIndex.maxCents(price("29.989")));
+    }
+
+    @Test
+    @DisplayName("Should insert and remove documents in price order")
+    void testIncrementalUpdates() {
+        index.add(5, price("5.00"));
+        index.add(5, price("5.00"));
+        index.remove(0, price("999.99"));
+        index.remove(1, price("29.99"));
+
+        assertEquals(4, index.size());
+        assertArrayEquals(new int[]{4, 5}, index.range(null, price("30")).toArray());
+        assertTrue(index.range(price("500"), null).isEmpty());
+
+        index.remove(7, price("5.00"));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    @DisplayName("Should skip documents without a price")
+    void testNullPrice() {
+        PriceIndex sparse = PriceIndex.build(new int[]{0, 1}, new BigDecimal[]{null, price("10")});
+        sparse.add(2, null);
+
+        assertEquals(1, sparse.size());
+        assertArrayEquals(new int[]{1}, sparse.range(null, null).toArray());
+    }
+
+    private static BigDecimal price(String value) {
+        return new BigDecimal(value);
+    }
+}
@@ -0,0 +1,130 @@
+package com.labs.copilot.search;
+
+import com.labs.copilot.model.Product;
+import com.labs.copilot.model.ProductStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ProductColumns.
+ */
+@DisplayName("ProductColumns Tests")
+class ProductColumnsTests {
+
+    private List<Product> products;
+    private ProductColumns columns;
+
+    @BeforeEach
+    void setup() {
+        products = new ArrayList<>();
+        products.add(product("Laptop", "999.99", "Electronics", 30, 50));
+        products.add(product("Wireless Mouse", "29.99", "electronics", 60, 200));
+        products.add(product("Monitor Stand", "39.99", "Office", 10, 0));
+        products.get(2).setStatus(ProductStatus.INACTIVE);
+        products.get(2).setDescription("Adjustable DESK riser");
+
+        columns = new ProductColumns();
+        for (int doc = 0; doc < products.size(); doc++) {
+            columns.set(doc, products.get(doc));
+        }
+    }
+
+    @Test
+    @DisplayName("Should store primitive copies of each field")
+    void testColumns() {
+        assertEquals(99999L, columns.priceCents(0));
+        assertEquals(200, columns.stock(1));
+        assertEquals(ProductStatus.INACTIVE, columns.status(2));
+        assertTrue(columns.createdAt(1) < columns.createdAt(0));
+        assertTrue(columns.isLive(2));
+        assertFalse(columns.isLive(3));
+    }
+
+    @Test
+    @DisplayName("Should dictionary-encode categories case-insensitively")
+    void testCategoryDictionary() {
+        assertEquals(2, columns.categoryCount());
+        assertEquals(columns.categoryId(0), columns.categoryId(1));
+        assertEquals(columns.categoryId(2), columns.lookupCategory("OFFICE"));
+        assertEquals("Electronics", columns.categoryName(columns.categoryId(1)));
+        assertEquals(ProductColumns.NO_CATEGORY, columns.lookupCategory("Garden"));
+    }
+
+    @Test
+    @DisplayName("Should agree with the SortKey comparators")
+    void testComparatorMatchesSortKey() {
+        for (SortKey key : SortKey.values()) {
+            TopKCollector.DocComparator comparator = columns.comparator(key, false);
+            TopKCollector.DocComparator reversed = columns.comparator(key, true);
+            for (int a = 0; a < products.size(); a++) {
+                for (int b = 0; b < products.size(); b++) {
+                    int expected = Integer.signum(key.comparator().compare(products.get(a), products.get(b)));
+                    assertEquals(expected, Integer.signum(comparator.compare(a, b)));
+                    assertEquals(-expected, Integer.signum(reversed.compare(a, b)));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should match lower-cased needles in name or description")
+    void testContainsText() {
+        assertTrue(columns.containsText(1, "mouse"));
+        assertTrue(columns.containsText(2, "desk"));
+        assertFalse(columns.containsText(0, "desk"));
+        assertTrue(columns.containsText(2, "desk riser"));
+        assertTrue(columns.containsText(1, "ss mo"));
+        assertTrue(columns.containsText(0, ""));
+        assertFalse(columns.containsText(0, "laptops"));
+    }
+
+    @Test
+    @DisplayName("Should agree with a scan over lower-cased copies")
+    void testContainsTextMatchesLowerCasedScan() {
+        for (int doc = 0; doc < products.size(); doc++) {
+            Product product = products.get(doc);
+            String text = (product.getName() + "\n" + product.getDescription()).toLowerCase(java.util.Locale.ROOT);
+            for (String needle : List.of("la", "top", "desk", "stand", "adjustable desk", "mouse", "riser", "null")) {
+                boolean expected = product.getName().toLowerCase(java.util.Locale.ROOT).contains(needle)
+                        || (product.getDescription() != null
+                        && product.getDescription().toLowerCase(java.util.Locale.ROOT).contains(needle));
+                assertEquals(expected, columns.containsText(doc, needle), text + " / " + needle);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should sort missing values first and drop cleared rows")
+    void testNullsAndClear() {
+        Product bare = new Product();
+        bare.setId(UUID.randomUUID());
+        columns.set(5, bare);
+
+        assertEquals(ProductColumns.NULL_LONG, columns.priceCents(5));
+        assertEquals(0, columns.stock(5));
+        assertNull(columns.status(5));
+        assertTrue(columns.comparator(SortKey.PRICE, false).compare(5, 1) < 0);
+        assertTrue(columns.comparator(SortKey.NAME, false).compare(5, 0) < 0);
+
+        columns.clear(5);
+        assertFalse(columns.isLive(5));
+        assertFalse(columns.containsText(5, "laptop"));
+    }
+
+    private static Product product(String name, String price, String category, int ageDays, int stock) {
+        Product product = new Product(UUID.randomUUID(), name, new BigDecimal(price), category, name.toUpperCase());
+        product.setCreatedAt(LocalDateTime.now().minusDays(ageDays));
+        product.setStockQuantity(stock);
+        product.setStatus(ProductStatus.ACTIVE);
+        return product;
+    }
+}
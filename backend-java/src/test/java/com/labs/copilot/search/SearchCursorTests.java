@@ -0,0 +1,110 @@
+package com.labs.copilot.search;
+
+import com.labs.copilot.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SearchCursor.
+ */
+@DisplayName("SearchCursor Tests")
+class SearchCursorTests {
+
+    private ProductColumns columns;
+
+    @BeforeEach
+    void setup() {
+        columns = new ProductColumns();
+        columns.set(0, product("Laptop", "999.99", 30));
+        columns.set(1, product("Wireless Mouse", "29.99", 60));
+        columns.set(2, product("Keys: spare set", "29.99", 10));
+    }
+
+    @Test
+    @DisplayName("Should round-trip through its token")
+    void testEncodeDecode() {
+        SearchCursor cursor = SearchCursor.after(2, SearchCursor.Order.NAME, true, 3, columns);
+        SearchCursor decoded = SearchCursor.decode(cursor.encode());
+
+        assertEquals(cursor.encode(), decoded.encode());
+        assertEquals(SearchCursor.Order.NAME, decoded.order());
+        assertTrue(decoded.descending());
+        assertEquals(3, decoded.page());
+        for (int doc = 0; doc < 3; doc++) {
+            assertEquals(cursor.follows(doc, columns), decoded.follows(doc, columns));
+        }
+        assertEquals(2, SearchCursor.decode(SearchCursor.after(2, SearchCursor.Order.CATALOG, false, 2, columns)
+                .encode()).ordinal());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed tokens")
+    void testDecodeMalformed() {
+        String firstPage = SearchCursor.after(0, SearchCursor.Order.PRICE, false, 1, columns).encode();
+
+        assertThrows(InvalidCursorException.class, () -> SearchCursor.decode("not a cursor"));
+        assertThrows(InvalidCursorException.class, () -> SearchCursor.decode(token("2:PRICE:a:2:1:2:3:-")));
+        assertThrows(InvalidCursorException.class, () -> SearchCursor.decode(token("1:RATING:a:2:1:2:3:-")));
+        assertThrows(InvalidCursorException.class, () -> SearchCursor.decode(token("1:PRICE:a:2:x:2:3:-")));
+        assertThrows(InvalidCursorException.class, () -> SearchCursor.decode(firstPage));
+    }
+
+    @Test
+    @DisplayName("Should order documents after the cursor by value, then product id")
+    void testFollows() {
+        SearchCursor byPrice = SearchCursor.after(1, SearchCursor.Order.PRICE, false, 2, columns);
+        boolean mouseFirst = columns.compareIds(1, 2) < 0;
+
+        assertTrue(byPrice.follows(0, columns));
+        assertFalse(byPrice.follows(1, columns));
+        assertEquals(mouseFirst, byPrice.follows(2, columns));
+
+        SearchCursor byCatalog = SearchCursor.after(1, SearchCursor.Order.CATALOG, false, 2, columns);
+        assertFalse(byCatalog.follows(0, columns));
+        assertFalse(byCatalog.follows(1, columns));
+        assertTrue(byCatalog.follows(2, columns));
+    }
+
+    @Test
+    @DisplayName("Should order relevance cursors by descending score, then product id")
+    void testFollowsScore() {
+        SearchCursor cursor = SearchCursor.after(1, SearchCursor.Order.RELEVANCE, false, 2, columns, 1.5f);
+
+        assertTrue(cursor.follows(0, 1.0f, columns));
+        assertFalse(cursor.follows(0, 2.0f, columns));
+        assertFalse(cursor.follows(1, 1.5f, columns));
+        assertEquals(columns.compareIds(1, 2) < 0, cursor.follows(2, 1.5f, columns));
+    }
+
+    @Test
+    @DisplayName("Should only continue the ordering it was issued for")
+    void testContinues() {
+        SearchCursor byPrice = SearchCursor.after(0, SearchCursor.Order.PRICE, true, 2, columns);
+        SearchCursor byRelevance = SearchCursor.after(0, SearchCursor.Order.RELEVANCE, false, 2, columns, 1f);
+
+        assertTrue(byPrice.continues(SearchCursor.Order.PRICE, true));
+        assertFalse(byPrice.continues(SearchCursor.Order.PRICE, false));
+        assertFalse(byPrice.continues(SearchCursor.Order.NAME, true));
+        assertTrue(byRelevance.continues(SearchCursor.Order.RELEVANCE, true));
+        assertFalse(byRelevance.continues(SearchCursor.Order.CATALOG, false));
+    }
+
+    private static String token(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Product product(String name, String price, int ageDays) {
+        Product product = new Product(UUID.randomUUID(), name, new BigDecimal(price), "Electronics", name.toUpperCase());
+        product.setCreatedAt(LocalDateTime.now().minusDays(ageDays));
+        return product;
+    }
+}
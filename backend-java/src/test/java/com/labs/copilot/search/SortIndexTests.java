@@ -0,0 +1,135 @@
+package com.labs.copilot.search;
+
+import com.labs.copilot.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SortIndex and SortKey.
+ */
+@DisplayName("SortIndex Tests")
+class SortIndexTests {
+
+    private Product laptop;
+    private Product mouse;
+    private Product hub;
+    private ProductColumns columns;
+    private SortIndex index;
+
+    @BeforeEach
+    void setup() {
+        laptop = product("Laptop", "999.99", 30);
+        mouse = product("Wireless Mouse", "29.99", 60);
+        hub = product("USB-C Hub", "49.99", 45);
+        columns = new ProductColumns();
+        columns.set(0, laptop);
+        columns.set(1, mouse);
+        columns.set(2, hub);
+        index = SortIndex.build(new int[]{0, 1, 2}, columns);
+    }
+
+    @Test
+    @DisplayName("Should slice each ordering in both directions")
+    void testPageBothDirections() {
+        assertArrayEquals(new int[]{0, 2, 1}, index.page(SortKey.NAME, false, 0, 10));
+        assertArrayEquals(new int[]{1, 2, 0}, index.page(SortKey.NAME, true, 0, 10));
+        assertArrayEquals(new int[]{1, 2}, index.page(SortKey.PRICE, false, 0, 2));
+        assertArrayEquals(new int[]{0}, index.page(SortKey.PRICE, false, 2, 2));
+        assertArrayEquals(new int[]{1, 2, 0}, index.page(SortKey.CREATED, false, 0, 10));
+        assertArrayEquals(new int[0], index.page(SortKey.NAME, false, 5, 10));
+    }
+
+    @Test
+    @DisplayName("Should insert and remove documents without re-sorting")
+    void testIncrementalUpdates() {
+        Product keyboard = product("Mechanical Keyboard", "149.99", 20);
+        columns.set(3, keyboard);
+        index.add(3);
+        index.remove(0);
+        columns.clear(0);
+
+        assertEquals(3, index.size());
+        assertArrayEquals(new int[]{3, 2, 1}, index.page(SortKey.NAME, false, 0, 10));
+        assertArrayEquals(new int[]{1, 2, 3}, index.page(SortKey.PRICE, false, 0, 10));
+    }
+
+    @Test
+    @DisplayName("Should break ties by product id")
+    void testTieBreak() {
+        Product twin = product("Laptop", "999.99", 30);
+        columns.set(3, twin);
+        index.add(3);
+
+        int[] byName = index.page(SortKey.NAME, false, 0, 2);
+        boolean laptopFirst = laptop.getId().compareTo(twin.getId()) < 0;
+        assertArrayEquals(laptopFirst ? new int[]{0, 3} : new int[]{3, 0}, byName);
+    }
+
+    @Test
+    @DisplayName("Should page through only the documents that pass a filter")
+    void testFilteredPage() {
+        columns.set(3, product("Mechanical Keyboard", "149.99", 20));
+        index.add(3);
+
+        assertArrayEquals(new int[]{0, 3}, index.page(SortKey.NAME, false, 0, 2, doc -> doc != 2));
+        assertArrayEquals(new int[]{1}, index.page(SortKey.NAME, false, 2, 2, doc -> doc != 2));
+        assertArrayEquals(new int[]{3, 2}, index.page(SortKey.PRICE, true, 1, 5, doc -> doc % 2 == 0 || doc == 3));
+        assertArrayEquals(new int[0], index.page(SortKey.NAME, false, 0, 5, doc -> false));
+    }
+
+    @Test
+    @DisplayName("Should resume each ordering right after a cursor")
+    void testPageAfter() {
+        columns.set(3, product("Mechanical Keyboard", "149.99", 20));
+        index.add(3);
+
+        SearchCursor afterLaptop = SearchCursor.after(0, SearchCursor.Order.NAME, false, 2, columns);
+        assertArrayEquals(new int[]{3, 2}, index.pageAfter(SortKey.NAME, false,
+                doc -> afterLaptop.follows(doc, columns), 2, doc -> true));
+
+        SearchCursor afterKeyboard = SearchCursor.after(3, SearchCursor.Order.PRICE, true, 2, columns);
+        assertArrayEquals(new int[]{2, 1}, index.pageAfter(SortKey.PRICE, true,
+                doc -> afterKeyboard.follows(doc, columns), 5, doc -> true));
+        assertArrayEquals(new int[]{1}, index.pageAfter(SortKey.PRICE, true,
+                doc -> afterKeyboard.follows(doc, columns), 5, doc -> doc != 2));
+
+        SearchCursor afterLast = SearchCursor.after(1, SearchCursor.Order.NAME, false, 2, columns);
+        assertArrayEquals(new int[0], index.pageAfter(SortKey.NAME, false,
+                doc -> afterLast.follows(doc, columns), 5, doc -> true));
+    }
+
+    @Test
+    @DisplayName("Should keep a copy independent of the original")
+    void testCopyIsolation() {
+        ProductColumns copiedColumns = columns.copy();
+        SortIndex copy = index.copy(copiedColumns);
+        copiedColumns.set(3, product("Mechanical Keyboard", "149.99", 20));
+        copy.add(3);
+        copy.remove(1);
+
+        assertArrayEquals(new int[]{0, 2, 1}, index.page(SortKey.NAME, false, 0, 10));
+        assertArrayEquals(new int[]{0, 3, 2}, copy.page(SortKey.NAME, false, 0, 10));
+    }
+
+    @Test
+    @DisplayName("Should default unknown sort keys to name")
+    void testSortKeyFromValue() {
+        assertEquals(SortKey.PRICE, SortKey.fromValue("PRICE"));
+        assertEquals(SortKey.CREATED, SortKey.fromValue("created"));
+        assertEquals(SortKey.NAME, SortKey.fromValue("rating"));
+        assertEquals(SortKey.NAME, SortKey.fromValue(null));
+    }
+
+    private static Product product(String name, String price, int ageDays) {
+        Product product = new Product(UUID.randomUUID(), name, new BigDecimal(price), "Electronics", name.toUpperCase());
+        product.setCreatedAt(LocalDateTime.now().minusDays(ageDays));
+        return product;
+    }
+}
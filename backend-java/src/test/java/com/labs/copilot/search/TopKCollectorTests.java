@@ -0,0 +1,73 @@
+package com.labs.copilot.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TopKCollector.
+ */
+@DisplayName("TopKCollector Tests")
+class TopKCollectorTests {
+
+    @Test
+    @DisplayName("Should keep the k best documents in rank order")
+    void testTopK() {
+        int[] scores = {50, 10, 40, 30, 20};
+        TopKCollector collector = new TopKCollector(3, (a, b) -> Integer.compare(scores[a], scores[b]));
+        for (int doc = 0; doc < scores.length; doc++) {
+            collector.collect(doc);
+        }
+
+        assertEquals(5, collector.totalHits());
+        assertArrayEquals(new int[]{1, 4, 3}, collector.page(0, 3));
+        assertArrayEquals(new int[]{3}, collector.page(2, 10));
+    }
+
+    @Test
+    @DisplayName("Should return an empty page when k is zero or offset is past the end")
+    void testEmptyPages() {
+        TopKCollector empty = new TopKCollector(0, Integer::compare);
+        empty.collect(1);
+
+        assertEquals(1, empty.totalHits());
+        assertArrayEquals(new int[0], empty.page(0, 10));
+
+        TopKCollector collector = new TopKCollector(10, Integer::compare);
+        collector.collect(7);
+        assertArrayEquals(new int[0], collector.page(5, 10));
+    }
+
+    @Test
+    @DisplayName("Should agree with a full sort for random input")
+    void testAgainstFullSort() {
+        Random random = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            int n = random.nextInt(500);
+            int k = 1 + random.nextInt(60);
+            int[] keys = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = random.nextInt(100);
+            }
+            TopKCollector.DocComparator byKeyThenDoc = (a, b) -> keys[a] != keys[b]
+                    ? Integer.compare(keys[a], keys[b])
+                    : Integer.compare(a, b);
+
+            TopKCollector collector = new TopKCollector(k, byKeyThenDoc);
+            for (int doc = 0; doc < n; doc++) {
+                collector.collect(doc);
+            }
+
+            int[] expected = Arrays.stream(java.util.stream.IntStream.range(0, n).boxed()
+                            .sorted(byKeyThenDoc::compare)
+                            .mapToInt(Integer::intValue)
+                            .toArray(), 0, Math.min(k, n))
+                    .toArray();
+            assertArrayEquals(expected, collector.page(0, k));
+        }
+    }
+}
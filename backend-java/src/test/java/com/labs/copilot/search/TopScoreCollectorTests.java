@@ -0,0 +1,46 @@
+package com.labs.copilot.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TopScoreCollector.
+ */
+@DisplayName("TopScoreCollector Tests")
+class TopScoreCollectorTests {
+
+    @Test
+    @DisplayName("Should keep the k highest scores, breaking ties with the comparator")
+    void testTopK() {
+        float[] scores = {1.5f, 3.0f, 0.5f, 3.0f, 2.0f};
+        TopScoreCollector collector = new TopScoreCollector(3, (a, b) -> Integer.compare(b, a));
+        for (int doc = 0; doc < scores.length; doc++) {
+            collector.collect(doc, scores[doc]);
+        }
+
+        assertEquals(5, collector.totalHits());
+        assertArrayEquals(new int[]{3, 1, 4}, collector.page(0, 3));
+        assertArrayEquals(new int[]{4}, collector.page(2, 10));
+        assertEquals(2.0f, collector.threshold());
+    }
+
+    @Test
+    @DisplayName("Should report the entry threshold")
+    void testThreshold() {
+        TopScoreCollector collector = new TopScoreCollector(2, Integer::compare);
+        assertEquals(Float.NEGATIVE_INFINITY, collector.threshold());
+        collector.collect(0, 1.0f);
+        collector.collect(1, 4.0f);
+        assertEquals(1.0f, collector.threshold());
+        collector.collect(2, Float.NEGATIVE_INFINITY);
+        assertArrayEquals(new int[]{1, 0}, collector.page(0, 2));
+
+        TopScoreCollector empty = new TopScoreCollector(0, Integer::compare);
+        empty.collect(0, 1.0f);
+        assertEquals(Float.POSITIVE_INFINITY, empty.threshold());
+        assertArrayEquals(new int[0], empty.page(0, 10));
+        assertEquals(1, empty.totalHits());
+    }
+}
@@ -0,0 +1,101 @@
+package com.labs.copilot.service;
+
+import com.labs.copilot.model.Product;
+import com.labs.copilot.model.ProductStatus;
+import com.labs.copilot.search.SortKey;
+import com.labs.copilot.search.TextMatchMode;
+import com.labs.copilot.store.OffHeapProductStore;
+import com.labs.copilot.store.ProductStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CatalogSnapshot and copy-on-write index updates.
+ */
+@DisplayName("CatalogSnapshot Tests")
+class CatalogSnapshotTests {
+
+    private CatalogSnapshot initial;
+
+    @BeforeEach
+    void setup() {
+        List<Product> products = new ArrayList<>();
+        products.add(product("Laptop", "999.99", "LAPTOP-001"));
+        products.add(product("Wireless Mouse", "29.99", "MOUSE-001"));
+        initial = CatalogSnapshot.initial(products);
+    }
+
+    @Test
+    @DisplayName("Should start at version 1 and increment on each successor")
+    void testVersions() {
+        assertEquals(1, initial.version());
+        assertEquals(2, initial.productCount());
+
+        CatalogSnapshot next = initial.next(initial.store().edit().publish(), initial.indexes.copy());
+        assertEquals(2, next.version());
+        assertFalse(next.publishedAt().isBefore(initial.publishedAt()));
+    }
+
+    @Test
+    @DisplayName("Should leave the published store untouched when an edit is made")
+    void testStoreIsolation() {
+        ProductStore.Editor editor = initial.store().edit();
+        editor.set(0, null);
+        editor.append(product("Mechanical Keyboard", "149.99", "KB-001"));
+
+        assertEquals(2, initial.store().size());
+        assertEquals("Laptop", initial.product(0).getName());
+        assertEquals(3, editor.publish().size());
+    }
+
+    @Test
+    @DisplayName("Should keep products off the heap in an off-heap store")
+    void testOffHeapInitial() {
+        CatalogSnapshot offHeap = CatalogSnapshot.initial(List.of(product("Laptop", "999.99", "LAPTOP-001")),
+                new OffHeapProductStore(1 << 16, 16));
+
+        assertEquals(1, offHeap.productCount());
+        assertEquals("Laptop", offHeap.product(0).getName());
+        assertTrue(offHeap.offHeapBytes() > 0);
+        assertEquals(0, initial.offHeapBytes());
+    }
+
+    @Test
+    @DisplayName("Should leave the published indexes untouched when a copy is modified")
+    void testCopyIsolation() {
+        CatalogIndexes copy = initial.indexes.copy();
+        Product keyboard = product("Mechanical Keyboard", "149.99", "KB-001");
+        copy.add(2, keyboard);
+        copy.remove(0, initial.product(0));
+
+        CatalogIndexes published = initial.indexes;
+        assertEquals(2, published.ordinalsById.size());
+        assertNull(published.ordinalOfSku("KB-001"));
+        assertArrayEquals(new int[]{0}, published.text.search("laptop", TextMatchMode.ALL));
+        assertEquals(2, published.filters.all().cardinality());
+        assertEquals(2, published.prices.size());
+        assertEquals(2, published.activeSorted.size());
+        assertArrayEquals(new int[]{0, 1}, published.activeSorted.page(SortKey.NAME, false, 0, 10));
+        assertFalse(published.columns.isLive(2));
+
+        assertEquals(2, copy.ordinalsById.size());
+        assertArrayEquals(new int[0], copy.text.search("laptop", TextMatchMode.ALL));
+        assertArrayEquals(new int[]{2}, copy.text.search("keyboard", TextMatchMode.ALL));
+        assertArrayEquals(new int[]{2, 1}, copy.activeSorted.page(SortKey.NAME, false, 0, 10));
+    }
+
+    private static Product product(String name, String price, String sku) {
+        Product product = new Product(UUID.randomUUID(), name, new BigDecimal(price), "Electronics", sku);
+        product.setStockQuantity(10);
+        product.setStatus(ProductStatus.ACTIVE);
+        return product;
+    }
+}
@@ -1,7 +1,14 @@
 package com.labs.copilot.service;
 
+import com.labs.copilot.config.CatalogProperties;
 import com.labs.copilot.model.Product;
 import com.labs.copilot.model.ProductStatus;
+import com.labs.copilot.search.Facet;
+import com.labs.copilot.search.Fuzziness;
+import com.labs.copilot.search.InvalidCursorException;
+import com.labs.copilot.search.SortKey;
+import com.labs.copilot.search.TextMatchMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,7 +16,11 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,7 +52,8 @@ class ProductServiceTests {
         assertTrue(result.totalCount > 0);
         assertFalse(result.products.isEmpty());
         assertEquals("mongodb", result.source);
-        assertTrue(result.cached);
+        assertFalse(result.cached);
+        assertTrue(productService.searchProducts(1, 20, "name", "asc").cached);
     }
 
     @Test
@@ -237,6 +249,40 @@ class ProductServiceTests {
         ));
     }
 
+    @Test
+    @DisplayName("Should combine a narrow price band with the category filter")
+    void testSearchByPriceBandAndCategory() {
+        ProductService.SearchResult result = productService.searchByFilters(
+                null, "electronics", new BigDecimal("29.99"), new BigDecimal("49.99"), null, 1, 1);
+
+        assertEquals(2, result.totalCount);
+        assertEquals(2, result.totalPages);
+        assertEquals("MOUSE-001", result.products.get(0).getSku());
+        assertEquals("HUB-001", productService.searchByFilters(
+                null, "electronics", new BigDecimal("29.99"), new BigDecimal("49.99"), null, 2, 1).products.get(0).getSku());
+    }
+
+    @Test
+    @DisplayName("Should attach the executed query plan to filtered searches")
+    void testSearchByFiltersQueryPlan() {
+        ProductService.SearchResult result = productService.searchByFilters("laptop", "Gardening", null, null, null, 1, 20);
+
+        assertNotNull(result.plan);
+        assertTrue(result.plan.isEmpty());
+        assertEquals(0, result.totalCount);
+        assertNull(productService.searchProducts(1, 20, "name", "asc").plan);
+    }
+
+    @Test
+    @DisplayName("Should return nothing for an inverted price range")
+    void testSearchByInvertedPriceRange() {
+        ProductService.SearchResult result = productService.searchByFilters(
+                null, null, new BigDecimal("500"), new BigDecimal("50"), null, 1, 20);
+
+        assertEquals(0, result.totalCount);
+        assertTrue(result.products.isEmpty());
+    }
+
     @Test
     @DisplayName("Should filter products by stock availability - in stock only")
     void testSearchByInStockTrue() {
@@ -288,6 +334,169 @@ class ProductServiceTests {
         assertTrue(result.products.isEmpty());
     }
 
+    @Test
+    @DisplayName("Should match query terms by prefix through the text index")
+    void testSearchByQueryPrefix() {
+        ProductService.SearchResult result = productService.searchByFilters("mech", null, null, null, null, 1, 20);
+
+        assertEquals(1, result.totalCount);
+        assertEquals("Mechanical Keyboard", result.products.get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Should require all query terms by default and any term in ANY mode")
+    void testSearchByQueryMatchModes() {
+        ProductService.SearchResult all = productService.searchByFilters("laptop mouse", null, null, null, null, 1, 20);
+        ProductService.SearchResult any = productService.searchByFilters("laptop mouse", null, null, null, null, 1, 20, TextMatchMode.ANY);
+
+        assertEquals(0, all.totalCount);
+        assertEquals(2, any.totalCount);
+    }
+
+    @Test
+    @DisplayName("Should keep the legacy substring mode available")
+    void testSearchByQuerySubstringMode() {
+        ProductService.SearchResult indexed = productService.searchByFilters("aptop", null, null, null, null, 1, 20);
+        ProductService.SearchResult substring = productService.searchByFilters("aptop", null, null, null, null, 1, 20, TextMatchMode.SUBSTRING);
+
+        assertEquals(0, indexed.totalCount);
+        assertEquals(1, substring.totalCount);
+    }
+
+    @Test
+    @DisplayName("Should sort filtered results and page through them")
+    void testSearchByFiltersSorted() {
+        SearchQuery query = new SearchQuery();
+        query.setCategory("Electronics");
+        query.setSortBy("price");
+        query.setSortOrder("desc");
+        query.setPageSize(2);
+
+        ProductService.SearchResult first = productService.searchByFilters(query);
+        query.setPage(2);
+        ProductService.SearchResult second = productService.searchByFilters(query);
+
+        assertEquals(4, first.totalCount);
+        assertEquals(2, first.totalPages);
+        assertEquals(new BigDecimal("999.99"), first.products.get(0).getPrice());
+        assertEquals(new BigDecimal("149.99"), first.products.get(1).getPrice());
+        assertEquals(new BigDecimal("49.99"), second.products.get(0).getPrice());
+        assertEquals(new BigDecimal("29.99"), second.products.get(1).getPrice());
+    }
+
+    @Test
+    @DisplayName("Should page sorted structured filters the same way for every filter selectivity")
+    void testSearchByFiltersSortedPagesMatchFullSort() {
+        List<Product> catalog = new ArrayList<>();
+        Random random = new Random(7);
+        String[] categories = {"Electronics", "Electronics", "Electronics", "Office", "Garden"};
+        for (int i = 0; i < 300; i++) {
+            Product product = new Product(UUID.randomUUID(), "Product " + random.nextInt(100),
+                    BigDecimal.valueOf(100 + random.nextInt(5000), 2), categories[random.nextInt(categories.length)], "SKU-" + i);
+            product.setStockQuantity(random.nextInt(3) == 0 ? 0 : 10);
+            product.setStatus(random.nextInt(6) == 0 ? ProductStatus.INACTIVE : ProductStatus.ACTIVE);
+            catalog.add(product);
+        }
+        productService.reloadCatalog(catalog);
+
+        for (String category : new String[]{null, "Electronics", "Garden"}) {
+            for (Boolean inStock : new Boolean[]{null, true}) {
+                List<Product> expected = catalog.stream()
+                        .filter(p -> p.getStatus() == ProductStatus.ACTIVE)
+                        .filter(p -> category == null || p.getCategory().equals(category))
+                        .filter(p -> !Boolean.TRUE.equals(inStock) || p.getStockQuantity() > 0)
+                        .sorted(SortKey.PRICE.comparator().reversed())
+                        .toList();
+                for (int page : new int[]{1, 3, 12}) {
+                    SearchQuery query = new SearchQuery();
+                    query.setCategory(category);
+                    query.setInStock(inStock);
+                    query.setSortBy("price");
+                    query.setSortOrder("desc");
+                    query.setPage(page);
+                    query.setPageSize(10);
+
+                    ProductService.SearchResult result = productService.searchByFilters(query);
+
+                    assertEquals(expected.size(), result.totalCount);
+                    int from = Math.min((page - 1) * 10, expected.size());
+                    assertEquals(expected.subList(from, Math.min(from + 10, expected.size())), result.products,
+                            category + "/" + inStock + "/" + page);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should sort text matches by name")
+    void testSearchByQuerySortedByName() {
+        SearchQuery query = new SearchQuery();
+        query.setQuery("with");
+        query.setSortBy("name");
+
+        ProductService.SearchResult result = productService.searchByFilters(query);
+
+        assertEquals(3, result.totalCount);
+        for (int i = 0; i < result.products.size() - 1; i++) {
+            assertTrue(result.products.get(i).getName().compareTo(result.products.get(i + 1).getName()) <= 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should match misspelled terms only when fuzziness allows it")
+    void testSearchByFiltersFuzzy() {
+        SearchQuery query = new SearchQuery();
+        query.setQuery("wireles mose");
+
+        assertEquals(0, productService.searchByFilters(query).totalCount);
+
+        query.setFuzziness(Fuzziness.AUTO);
+        ProductService.SearchResult result = productService.searchByFilters(query);
+        assertEquals(1, result.totalCount);
+        assertEquals("Wireless Mouse", result.products.get(0).getName());
+        assertFalse(result.cached);
+
+        SearchQuery exact = new SearchQuery();
+        exact.setQuery("wireles mose");
+        assertNotEquals(productService.searchETag(exact, result.catalogVersion),
+                productService.searchETag(query, result.catalogVersion));
+    }
+
+    @Test
+    @DisplayName("Should rank text matches by relevance when sortBy is relevance")
+    void testSearchByFiltersRelevance() {
+        SearchQuery query = new SearchQuery();
+        query.setQuery("mouse hub usb");
+        query.setMatchMode(TextMatchMode.ANY);
+
+        assertEquals(List.of("Wireless Mouse", "USB-C Hub"),
+                productService.searchByFilters(query).products.stream().map(Product::getName).toList());
+
+        query.setSortBy("relevance");
+        ProductService.SearchResult ranked = productService.searchByFilters(query);
+        assertEquals(List.of("USB-C Hub", "Wireless Mouse"), ranked.products.stream().map(Product::getName).toList());
+        assertEquals(2, ranked.totalCount);
+
+        query.setPage(2);
+        query.setPageSize(1);
+        ProductService.SearchResult second = productService.searchByFilters(query);
+        assertEquals("Wireless Mouse", second.products.get(0).getName());
+        assertEquals(2, second.totalPages);
+    }
+
+    @Test
+    @DisplayName("Should keep catalog order for a relevance sort without text")
+    void testSearchByFiltersRelevanceWithoutText() {
+        SearchQuery query = new SearchQuery();
+        query.setCategory("Electronics");
+        List<Product> unsorted = productService.searchByFilters(query).products;
+
+        query.setSortBy("relevance");
+        ProductService.SearchResult result = productService.searchByFilters(query);
+        assertEquals(unsorted, result.products);
+        assertTrue(result.cached);
+    }
+
     @Test
     @DisplayName("Should handle pagination in filtered results")
     void testSearchByFiltersWithPagination() {
@@ -297,7 +506,92 @@ class ProductServiceTests {
         assertEquals(2, result.pageSize);
     }
 
-    // ================== getProductById Tests ==================
+    // ================== facets Tests ==================
+
+    @Test
+    @DisplayName("Should count facets over every match of the filters")
+    void testFacets() {
+        SearchQuery query = new SearchQuery();
+        query.setMaxPrice(new BigDecimal("100"));
+
+        ProductService.SearchResult result = productService.facets(query);
+
+        assertEquals(2, result.totalCount);
+        assertTrue(result.products.isEmpty());
+        assertEquals(2L, result.facets.getCategories().get("Electronics"));
+        assertEquals(2, result.facets.getPriceBuckets().get(1).count());
+        assertEquals(0, result.facets.getPriceBuckets().get(2).count());
+        assertEquals(2L, result.facets.getInStock());
+        assertEquals(0L, result.facets.getOutOfStock());
+        assertTrue(productService.facets(query).cached);
+    }
+
+    @Test
+    @DisplayName("Should include inactive products in facets when inStock is false")
+    void testFacetsInStockFalse() {
+        SearchQuery query = new SearchQuery();
+        query.setInStock(false);
+        query.setFacets(EnumSet.of(Facet.CATEGORY, Facet.STOCK));
+
+        ProductService.SearchResult result = productService.facets(query);
+
+        assertEquals(5, result.totalCount);
+        assertEquals(4L, result.facets.getCategories().get("Electronics"));
+        assertEquals(1L, result.facets.getCategories().get("Office"));
+        assertEquals(1L, result.facets.getOutOfStock());
+        assertNull(result.facets.getPriceBuckets());
+    }
+
+    @Test
+    @DisplayName("Should return facets with a search page only when requested")
+    void testSearchByFiltersWithFacets() {
+        SearchQuery query = new SearchQuery();
+        query.setQuery("with");
+        query.setSortBy("price");
+        query.setPageSize(1);
+
+        assertNull(productService.searchByFilters(query).facets);
+
+        query.setFacets(EnumSet.of(Facet.CATEGORY));
+        ProductService.SearchResult result = productService.searchByFilters(query);
+
+        assertEquals(1, result.products.size());
+        assertEquals(3, result.totalCount);
+        assertEquals(3L, result.facets.getCategories().get("Electronics"));
+        assertEquals(new BigDecimal("29.99"), result.products.get(0).getPrice());
+    }
+
+        // ================== suggest Tests ==================
+
+    @Test
+    @DisplayName("Should suggest active products by name or SKU prefix, most stock first")
+    void testSuggest() {
+        ProductService.SearchResult result = productService.suggest("m", 10);
+
+        assertEquals(List.of("Wireless Mouse", "Mechanical Keyboard"),
+                result.products.stream().map(Product::getName).toList());
+        assertEquals("Laptop", productService.suggest("LAPTOP-0", 10).products.get(0).getName());
+        assertTrue(productService.suggest("monitor", 10).products.isEmpty());
+        assertTrue(productService.suggest("", 10).products.isEmpty());
+        assertEquals(1, productService.suggest("m", 1).products.size());
+    }
+
+    @Test
+    @DisplayName("Should update suggestions when products change")
+    void testSuggestAfterUpdate() {
+        Product lamp = new Product(UUID.randomUUID(), "Desk Lamp", new BigDecimal("19.99"), "Office", "LAMP-001");
+        lamp.setStatus(ProductStatus.ACTIVE);
+        lamp.setStockQuantity(500);
+        productService.upsertProduct(lamp);
+        assertEquals(lamp.getId(), productService.suggest("de", 10).products.get(0).getId());
+
+        Product discontinued = new Product(lamp);
+        discontinued.setStatus(ProductStatus.DISCONTINUED);
+        productService.upsertProduct(discontinued);
+        assertTrue(productService.suggest("desk", 10).products.isEmpty());
+    }
+
+        // ================== getProductById Tests ==================
 
     @Test
     @DisplayName("Should retrieve product by existing ID")
@@ -329,6 +623,565 @@ class ProductServiceTests {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    @DisplayName("Should settle unknown ids in the Bloom filter or the negative cache")
+    void testGetProductByIdUnknownMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        productService.bindTo(registry);
+
+        for (int i = 0; i < 200; i++) {
+            UUID unknown = UUID.randomUUID();
+            assertTrue(productService.getProductById(unknown).isEmpty());
+            assertTrue(productService.getProductById(unknown).isEmpty());
+        }
+
+        double bloom = registry.get("catalog.lookup.misses").tag("outcome", "bloom").functionCounter().count();
+        double negative = registry.get("catalog.lookup.misses").tag("outcome", "negative-cache").functionCounter().count();
+        double catalog = registry.get("catalog.lookup.misses").tag("outcome", "catalog").functionCounter().count();
+        assertEquals(400.0, bloom + negative + catalog);
+        // Every false positive is looked up once, then answered by the negative cache
+        assertEquals(catalog, negative);
+        assertTrue(bloom >= 300);
+        assertEquals((negative + catalog) / 400.0,
+                registry.get("catalog.lookup.bloom.false.positive.rate").tag("kind", "observed").gauge().value(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should find a product added after its id was looked up")
+    void testGetProductByIdAfterUnknownLookup() {
+        Product tablet = new Product(UUID.randomUUID(), "Drawing Tablet", new BigDecimal("5.00"), "Electronics", "TAB-001");
+        assertTrue(productService.getProductById(tablet.getId()).isEmpty());
+
+        productService.upsertProduct(tablet);
+
+        assertEquals(tablet, productService.getProductById(tablet.getId()).orElse(null));
+    }
+
+    // ================== upsertProduct / removeProduct Tests ==================
+
+    @Test
+    @DisplayName("Should add a new product to every index")
+    void testUpsertNewProduct() {
+        Product tablet = new Product(UUID.randomUUID(), "Drawing Tablet", new BigDecimal("5.00"), "Electronics", "TAB-001");
+        tablet.setStockQuantity(10);
+        tablet.setCreatedAt(java.time.LocalDateTime.now());
+
+        productService.upsertProduct(tablet);
+
+        assertEquals(tablet, productService.getProductById(tablet.getId()).orElse(null));
+        assertEquals(tablet, productService.getProductBySku("tab-001").orElse(null));
+        assertEquals(tablet, productService.searchProducts(1, 1, "price", "asc").products.get(0));
+        assertEquals(5, productService.searchProducts(1, 20, "name", "asc").totalCount);
+        assertEquals(1, productService.searchByFilters("drawing", null, null, null, null, 1, 20).totalCount);
+    }
+
+    @Test
+    @DisplayName("Should re-position an updated product in the sorted orderings")
+    void testUpsertExistingProduct() {
+        Product laptop = productService.getProductBySku("LAPTOP-001").get();
+        Product cheaper = new Product(laptop.getId(), "Laptop", new BigDecimal("1.00"), "Electronics", "LAPTOP-001");
+        cheaper.setCreatedAt(laptop.getCreatedAt());
+
+        productService.upsertProduct(cheaper);
+
+        assertEquals(4, productService.searchProducts(1, 20, "price", "asc").totalCount);
+        assertEquals(cheaper, productService.searchProducts(1, 1, "price", "asc").products.get(0));
+        assertEquals(cheaper, productService.searchProducts(4, 1, "price", "desc").products.get(0));
+    }
+
+    @Test
+    @DisplayName("Should move a repriced product between price ranges")
+    void testUpsertRepricedProductPriceRange() {
+        Product laptop = productService.getProductBySku("LAPTOP-001").get();
+        Product cheaper = new Product(laptop.getId(), "Laptop", new BigDecimal("1.00"), "Electronics", "LAPTOP-001");
+
+        productService.upsertProduct(cheaper);
+
+        assertEquals(0, productService.searchByFilters(null, null, new BigDecimal("500"), null, null, 1, 20).totalCount);
+        ProductService.SearchResult result = productService.searchByFilters(null, null, null, new BigDecimal("1"), null, 1, 20);
+        assertEquals(1, result.totalCount);
+        assertEquals(cheaper, result.products.get(0));
+    }
+
+    @Test
+    @DisplayName("Should drop a deactivated product from the active orderings")
+    void testUpsertDeactivatedProduct() {
+        Product mouse = productService.getProductBySku("MOUSE-001").get();
+        Product inactive = new Product(mouse.getId(), mouse.getName(), mouse.getPrice(), mouse.getCategory(), mouse.getSku());
+        inactive.setStatus(ProductStatus.INACTIVE);
+
+        productService.upsertProduct(inactive);
+
+        ProductService.SearchResult result = productService.searchProducts(1, 100, "name", "asc");
+        assertEquals(3, result.totalCount);
+        assertTrue(result.products.stream().noneMatch(p -> p.getId().equals(mouse.getId())));
+    }
+
+    @Test
+    @DisplayName("Should reject an upsert that steals another product's SKU")
+    void testUpsertDuplicateSku() {
+        Product clash = new Product(UUID.randomUUID(), "Laptop Clone", new BigDecimal("10.00"), "Electronics", "LAPTOP-001");
+
+        assertThrows(IllegalStateException.class, () -> productService.upsertProduct(clash));
+        assertTrue(productService.getProductById(clash.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should remove a product from every index")
+    void testRemoveProduct() {
+        Product hub = productService.getProductBySku("HUB-001").get();
+
+        assertTrue(productService.removeProduct(hub.getId()));
+        assertFalse(productService.removeProduct(hub.getId()));
+
+        assertTrue(productService.getProductById(hub.getId()).isEmpty());
+        assertTrue(productService.getProductBySku("HUB-001").isEmpty());
+        assertEquals(3, productService.searchProducts(1, 20, "name", "asc").totalCount);
+        assertEquals(0, productService.searchByFilters("hub", null, null, null, null, 1, 20).totalCount);
+        assertEquals(3, productService.getByCategory("Electronics", 1, 20).totalCount);
+    }
+
+    @Test
+    @DisplayName("Should publish a new catalog version for each write")
+    void testWritesPublishNewVersions() {
+        CatalogSnapshot before = productService.currentSnapshot();
+        Product laptop = productService.getProductBySku("LAPTOP-001").get();
+
+        productService.removeProduct(laptop.getId());
+        productService.upsertProduct(laptop);
+
+        assertEquals(before.version() + 2, productService.currentSnapshot().version());
+        assertEquals(before.version() + 2, productService.searchProducts(1, 20, "name", "asc").catalogVersion);
+        assertEquals(before.version() + 2, productService.searchByFilters(null, null, null, null, null, 1, 20).catalogVersion);
+        assertFalse(productService.removeProduct(UUID.randomUUID()));
+        assertEquals(before.version() + 2, productService.currentSnapshot().version());
+    }
+
+    @Test
+    @DisplayName("Should not publish a rejected write")
+    void testRejectedWriteKeepsSnapshot() {
+        CatalogSnapshot before = productService.currentSnapshot();
+        Product clash = new Product(UUID.randomUUID(), "Clone", new BigDecimal("1.00"), "Electronics", "LAPTOP-001");
+
+        assertThrows(IllegalStateException.class, () -> productService.upsertProduct(clash));
+
+        assertSame(before, productService.currentSnapshot());
+        assertEquals(5, before.productCount());
+    }
+
+    @Test
+    @DisplayName("Should keep a held snapshot consistent while writers publish new ones")
+    void testReadersSeeConsistentSnapshots() throws InterruptedException {
+        Product mouse = productService.getProductBySku("MOUSE-001").get();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 200; i++) {
+                productService.removeProduct(mouse.getId());
+                productService.upsertProduct(mouse);
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 200; i++) {
+                ProductService.SearchResult result = productService.searchByFilters(null, "Electronics", null, null, null, 1, 20);
+                assertTrue(result.totalCount == 3 || result.totalCount == 4);
+                assertEquals(result.totalCount, result.products.size());
+            }
+        } finally {
+            writer.join();
+        }
+        assertEquals(4, productService.searchByFilters(null, "Electronics", null, null, null, 1, 20).totalCount);
+    }
+
+    @Test
+    @DisplayName("Should reject a product without an id and still apply the rest of the batch")
+    void testApplyChangesRejectsProductWithoutId() {
+        Product anonymous = new Product(null, "Anonymous", new BigDecimal("5.00"), "Office", "ANON-001");
+        Product stapler = new Product(UUID.randomUUID(), "Stapler", new BigDecimal("7.50"), "Office", "STAPLE-001");
+
+        ProductService.ChangeResult result = productService.applyChanges(
+                List.of(anonymous, stapler), java.util.Map.of(), List.of());
+
+        assertEquals(1, result.applied);
+        assertEquals(1, result.rejected);
+        assertTrue(productService.getProductBySku("STAPLE-001").isPresent());
+        assertTrue(productService.getProductBySku("ANON-001").isEmpty());
+        assertEquals(1, productService.searchByFilters("stapler", null, null, null, null, 1, 20).totalCount);
+    }
+
+    @Test
+    @DisplayName("Should reuse the slots of removed products")
+    void testRemovedSlotsAreReused() {
+        int slots = productService.currentSnapshot().slotCount();
+        int products = productService.currentSnapshot().productCount();
+
+        for (int i = 0; i < 50; i++) {
+            Product product = new Product(UUID.randomUUID(), "Churn " + i, new BigDecimal("1.00"), "Office", "CHURN-" + i);
+            productService.applyChanges(List.of(product), java.util.Map.of(), List.of());
+            productService.applyChanges(List.of(), java.util.Map.of(), List.of(product.getId()));
+        }
+        Product hub = productService.getProductBySku("HUB-001").get();
+        productService.removeProduct(hub.getId());
+        Product stapler = new Product(UUID.randomUUID(), "Stapler", new BigDecimal("7.50"), "Office", "STAPLE-001");
+        productService.upsertProduct(stapler);
+
+        assertEquals(slots + 1, productService.currentSnapshot().slotCount());
+        assertEquals(products, productService.currentSnapshot().productCount());
+        assertEquals(stapler, productService.getProductById(stapler.getId()).get());
+        assertEquals(1, productService.searchByFilters("stapler", null, null, null, null, 1, 20).totalCount);
+        assertEquals(0, productService.searchByFilters("hub", null, null, null, null, 1, 20).totalCount);
+        assertEquals(0, productService.searchByFilters("churn", null, null, null, null, 1, 20).totalCount);
+        assertEquals(4, productService.searchProducts(1, 20, "name", "asc").totalCount);
+    }
+
+    @Test
+    @DisplayName("Should leave no trace of an upsert that fails part-way through indexing")
+    void testApplyChangesDiscardsHalfIndexedUpsert() {
+        Product laptop = productService.getProductBySku("LAPTOP-001").get();
+        // Passes validation, then fails once the old version has been unindexed
+        Product broken = new Product(laptop) {
+            @Override
+            public String getDescription() {
+                throw new IllegalStateException("unreadable description");
+            }
+        };
+        Product stapler = new Product(UUID.randomUUID(), "Stapler", new BigDecimal("7.50"), "Office", "STAPLE-001");
+
+        ProductService.ChangeResult result = productService.applyChanges(
+                List.of(broken, stapler), java.util.Map.of(), List.of());
+
+        assertEquals(1, result.applied);
+        assertEquals(1, result.rejected);
+        assertSame(laptop, productService.getProductById(laptop.getId()).get());
+        assertEquals(1, productService.searchByFilters("stapler", null, null, null, null, 1, 20).totalCount);
+
+        // The next batch starts from a consistent copy
+        productService.applyChanges(List.of(), java.util.Map.of(laptop.getId(), ProductStatus.ACTIVE), List.of());
+        assertEquals(1, productService.searchByFilters("laptop", null, null, null, null, 1, 20).totalCount);
+        assertEquals(laptop.getId(), productService.getProductBySku("LAPTOP-001").get().getId());
+    }
+
+    @Test
+    @DisplayName("Should reject an upsert whose off-heap record cannot be encoded")
+    void testApplyChangesRejectsUnencodableProduct() {
+        ProductService offHeap = new ProductService(storage("off-heap"));
+        Product laptop = offHeap.getProductBySku("LAPTOP-001").get();
+        Product unencodable = new Product(laptop);
+        java.util.Map<String, String> attributes = new java.util.HashMap<>();
+        // JSON objects cannot have a null key
+        attributes.put(null, "value");
+        unencodable.setAttributes(attributes);
+        Product stapler = new Product(UUID.randomUUID(), "Stapler", new BigDecimal("7.50"), "Office", "STAPLE-001");
+        int slots = offHeap.currentSnapshot().slotCount();
+
+        ProductService.ChangeResult result = offHeap.applyChanges(
+                List.of(unencodable, stapler), java.util.Map.of(), List.of());
+
+        assertEquals(1, result.applied);
+        assertEquals(1, result.rejected);
+        assertEquals(slots + 1, offHeap.currentSnapshot().slotCount());
+        assertEquals(laptop.getName(), offHeap.getProductById(laptop.getId()).get().getName());
+        assertEquals(1, offHeap.searchByFilters("laptop", null, null, null, null, 1, 20).totalCount);
+        assertEquals(1, offHeap.searchByFilters("stapler", null, null, null, null, 1, 20).totalCount);
+    }
+
+    @Test
+    @DisplayName("Should not publish a batch that changes nothing")
+    void testApplyChangesNoop() {
+        CatalogSnapshot before = productService.currentSnapshot();
+
+        ProductService.ChangeResult result = productService.applyChanges(
+                java.util.List.of(), java.util.Map.of(UUID.randomUUID(), ProductStatus.INACTIVE), java.util.List.of(UUID.randomUUID()));
+
+        assertEquals(0, result.applied);
+        assertEquals(1, result.rejected);
+        assertEquals(before.version(), result.catalogVersion);
+        assertSame(before, productService.currentSnapshot());
+    }
+
+    // ================== Query result cache Tests ==================
+
+    @Test
+    @DisplayName("Should serve a repeated search from the result cache")
+    void testSearchResultCacheHit() {
+        ProductService.SearchResult first = productService.searchByFilters("Wireless  MOUSE", "electronics", null, null, null, 1, 20);
+        ProductService.SearchResult second = productService.searchByFilters("wireless mouse", "Electronics", null, null, null, 1, 20);
+
+        assertFalse(first.cached);
+        assertEquals(0, first.cacheAgeMillis);
+        assertTrue(second.cached);
+        assertTrue(second.cacheAgeMillis >= 0);
+        assertEquals(first.totalCount, second.totalCount);
+        assertEquals(first.products, second.products);
+        assertEquals(first.catalogVersion, second.catalogVersion);
+    }
+
+    @Test
+    @DisplayName("Should not share cached pages between different pages or sizes")
+    void testSearchResultCacheKeyedByPage() {
+        productService.searchByFilters(null, "Electronics", null, null, null, 1, 2);
+
+        assertFalse(productService.searchByFilters(null, "Electronics", null, null, null, 2, 2).cached);
+        assertFalse(productService.searchByFilters(null, "Electronics", null, null, null, 1, 3).cached);
+        assertTrue(productService.searchByFilters(null, "Electronics", null, null, null, 1, 2).cached);
+    }
+
+    @Test
+    @DisplayName("Should recompute cached results after the catalog changes")
+    void testSearchResultCacheInvalidatedByWrite() {
+        ProductService.SearchResult before = productService.searchByFilters(null, "Electronics", null, null, null, 1, 20);
+        ProductService.SearchResult listing = productService.searchProducts(1, 20, "name", "asc");
+        Product tablet = new Product(UUID.randomUUID(), "Drawing Tablet", new BigDecimal("5.00"), "Electronics", "TAB-001");
+        tablet.setStockQuantity(10);
+
+        productService.upsertProduct(tablet);
+        ProductService.SearchResult after = productService.searchByFilters(null, "Electronics", null, null, null, 1, 20);
+
+        assertFalse(after.cached);
+        assertEquals(before.totalCount + 1, after.totalCount);
+        assertTrue(after.catalogVersion > before.catalogVersion);
+        assertFalse(productService.searchProducts(1, 20, "name", "asc").cached);
+        assertEquals(listing.totalCount + 1, productService.searchProducts(1, 20, "name", "asc").totalCount);
+    }
+
+    @Test
+    @DisplayName("Should tag equivalent requests alike and bump tags with the catalog version")
+    void testSearchETag() {
+        SearchQuery lamp = new SearchQuery();
+        lamp.setQuery("Desk  LAMP");
+        lamp.setMinPrice(new BigDecimal("10.00"));
+        SearchQuery same = new SearchQuery();
+        same.setQuery("desk lamp");
+        same.setMinPrice(new BigDecimal("10"));
+        same.setPage(1);
+
+        assertEquals(productService.searchETag(lamp, 3), productService.searchETag(same, 3));
+        assertNotEquals(productService.searchETag(lamp, 3), productService.searchETag(lamp, 4));
+        assertEquals(productService.listingETag(null, null, null, "ASC", 1), productService.listingETag(1, 20, "name", "asc", 1));
+        assertNotEquals(productService.listingETag(1, 20, "name", "asc", 1), productService.listingETag(1, 20, "name", "desc", 1));
+        assertNotEquals(productService.categoryETag("Office", 1, 20, 1), productService.categoryETag("Garden", 1, 20, 1));
+    }
+
+    @Test
+    @DisplayName("Should never reuse a tag across service instances")
+    void testETagsDifferAcrossInstances() {
+        ProductService restarted = new ProductService();
+        SearchQuery query = new SearchQuery();
+        query.setQuery("laptop");
+
+        assertNotEquals(productService.listingETag(1, 20, "name", "asc", 1), restarted.listingETag(1, 20, "name", "asc", 1));
+        assertNotEquals(productService.searchETag(query, 1), restarted.searchETag(query, 1));
+        assertNotEquals(productService.facetsETag(query, 1), restarted.facetsETag(query, 1));
+        assertNotEquals(productService.suggestETag("lap", 5, 1), restarted.suggestETag("lap", 5, 1));
+        assertNotEquals(productService.categoryETag("Office", 1, 20, 1), restarted.categoryETag("Office", 1, 20, 1));
+    }
+
+    @Test
+    @DisplayName("Should count searches that missed the result cache")
+    void testSearchRequestMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        productService.bindTo(registry);
+
+        productService.searchByFilters("laptop", null, null, null, null, 1, 20);
+        productService.searchByFilters("laptop", null, null, null, null, 1, 20);
+        productService.searchProducts(1, 20, "price", "asc");
+
+        assertEquals(2.0, registry.get("catalog.search.requests").tag("outcome", "executed").functionCounter().count());
+        assertEquals(0.0, registry.get("catalog.search.requests").tag("outcome", "coalesced").functionCounter().count());
+    }
+
+    // ================== Cursor pagination Tests ==================
+
+    @Test
+    @DisplayName("Should walk a listing by cursor through the same pages as page numbers")
+    void testSearchProductsCursorMatchesPages() {
+        for (String sortBy : List.of("name", "price", "created")) {
+            for (String sortOrder : List.of("asc", "desc")) {
+                List<Product> byPage = productService.searchProducts(1, 100, sortBy, sortOrder).products;
+                List<Product> byCursor = new ArrayList<>();
+                String cursor = null;
+                int page = 1;
+                do {
+                    ProductService.SearchResult result = productService.searchProducts(1, 1, sortBy, sortOrder, cursor);
+                    assertEquals(page++, result.page);
+                    assertEquals(byPage.size(), result.totalCount);
+                    byCursor.addAll(result.products);
+                    cursor = result.nextCursor;
+                } while (cursor != null);
+
+                assertEquals(byPage, byCursor, sortBy + " " + sortOrder);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should walk filtered searches by cursor through the same pages as page numbers")
+    void testSearchByFiltersCursorMatchesPages() {
+        SearchQuery unsorted = new SearchQuery();
+        unsorted.setCategory("Electronics");
+        SearchQuery sorted = new SearchQuery();
+        sorted.setCategory("Electronics");
+        sorted.setInStock(true);
+        sorted.setSortBy("price");
+        sorted.setSortOrder("desc");
+        SearchQuery text = new SearchQuery();
+        text.setQuery("laptop mouse hub keyboard");
+        text.setMatchMode(TextMatchMode.ANY);
+        text.setSortBy("name");
+        SearchQuery relevance = new SearchQuery();
+        relevance.setQuery("mouse hub usb wireless");
+        relevance.setMatchMode(TextMatchMode.ANY);
+        relevance.setSortBy("relevance");
+
+        for (SearchQuery query : List.of(unsorted, sorted, text, relevance)) {
+            query.setPageSize(100);
+            List<Product> byPage = productService.searchByFilters(query).products;
+            assertTrue(byPage.size() >= 2);
+
+            query.setPageSize(1);
+            List<Product> byCursor = new ArrayList<>();
+            do {
+                ProductService.SearchResult result = productService.searchByFilters(query);
+                assertEquals(byPage.size(), result.totalCount);
+                byCursor.addAll(result.products);
+                query.setCursor(result.nextCursor);
+            } while (query.getCursor() != null);
+
+            assertEquals(byPage, byCursor);
+        }
+    }
+
+    @Test
+    @DisplayName("Should resume after the cursor when earlier products are removed")
+    void testCursorIsStableUnderRemoval() {
+        ProductService.SearchResult first = productService.searchProducts(1, 2, "name", "asc");
+        List<Product> expected = productService.searchProducts(2, 2, "name", "asc").products;
+
+        productService.removeProduct(first.products.get(0).getId());
+
+        ProductService.SearchResult second = productService.searchProducts(1, 2, "name", "asc", first.nextCursor);
+        assertEquals(expected, second.products);
+        assertEquals(2, second.page);
+        assertEquals(3, second.totalCount);
+        assertNull(second.nextCursor);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors and cursors from another sort")
+    void testInvalidCursor() {
+        String byName = productService.searchProducts(1, 1, "name", "asc").nextCursor;
+        assertNotNull(byName);
+
+        assertThrows(InvalidCursorException.class, () -> productService.searchProducts(1, 1, "name", "asc", "bogus"));
+        assertThrows(InvalidCursorException.class, () -> productService.searchProducts(1, 1, "price", "asc", byName));
+        assertThrows(InvalidCursorException.class, () -> productService.searchProducts(1, 1, "name", "desc", byName));
+
+        SearchQuery query = new SearchQuery();
+        query.setCursor(byName);
+        assertThrows(InvalidCursorException.class, () -> productService.searchByFilters(query));
+        query.setSortBy("name");
+        ProductService.SearchResult result = productService.searchByFilters(query);
+        assertEquals(2, result.page);
+        assertEquals(3, result.products.size());
+    }
+
+    // ================== Off-heap storage Tests ==================
+
+    @Test
+    @DisplayName("Should serve the same results from off-heap storage")
+    void testOffHeapStorage() {
+        ProductService offHeap = new ProductService(storage("off-heap"));
+
+        ProductService.SearchResult expected = productService.searchProducts(1, 100, "price", "desc");
+        ProductService.SearchResult actual = offHeap.searchProducts(1, 100, "price", "desc");
+        assertEquals(expected.totalCount, actual.totalCount);
+        assertEquals(expected.products.stream().map(Product::getSku).toList(),
+                actual.products.stream().map(Product::getSku).toList());
+        assertEquals(expected.products.get(0).getAttributes(), actual.products.get(0).getAttributes());
+
+        Product first = actual.products.get(0);
+        Product updated = new Product(first);
+        updated.setName("Renamed Product");
+        offHeap.upsertProduct(updated);
+        assertEquals("Renamed Product", offHeap.getProductById(first.getId()).orElseThrow().getName());
+        assertTrue(offHeap.removeProduct(first.getId()));
+        assertTrue(offHeap.getProductById(first.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report off-heap bytes only in off-heap mode")
+    void testOffHeapBytesMetric() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new ProductService(storage("off-heap")).bindTo(registry);
+        assertTrue(registry.get("catalog.storage.off.heap.bytes").gauge().value() > 0);
+
+        SimpleMeterRegistry heapRegistry = new SimpleMeterRegistry();
+        productService.bindTo(heapRegistry);
+        assertEquals(0.0, heapRegistry.get("catalog.storage.off.heap.bytes").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown storage mode")
+    void testUnknownStorageMode() {
+        assertThrows(IllegalArgumentException.class, () -> new ProductService(storage("disk")));
+    }
+
+    private static CatalogProperties storage(String mode) {
+        CatalogProperties properties = new CatalogProperties();
+        properties.getStorage().setMode(mode);
+        return properties;
+    }
+
+    // ================== getProductBySku Tests ==================
+
+    @Test
+    @DisplayName("Should retrieve product by existing SKU")
+    void testGetProductBySkuExists() {
+        Optional<Product> product = productService.getProductBySku("LAPTOP-001");
+
+        assertTrue(product.isPresent());
+        assertEquals("Laptop", product.get().getName());
+    }
+
+    @Test
+    @DisplayName("Should match SKU case-insensitively")
+    void testGetProductBySkuCaseInsensitive() {
+        Optional<Product> product = productService.getProductBySku(" mouse-001 ");
+
+        assertTrue(product.isPresent());
+        assertEquals("MOUSE-001", product.get().getSku());
+    }
+
+    @Test
+    @DisplayName("Should return empty optional for unknown or blank SKU")
+    void testGetProductBySkuNotExists() {
+        assertTrue(productService.getProductBySku("UNKNOWN-999").isEmpty());
+        assertTrue(productService.getProductBySku("").isEmpty());
+        assertTrue(productService.getProductBySku(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep id and SKU indexes in sync after catalog reload")
+    void testReloadCatalogRebuildsIndexes() {
+        UUID oldId = productService.getProductBySku("LAPTOP-001").get().getId();
+        Product replacement = new Product(UUID.randomUUID(), "Tablet", new BigDecimal("399.99"), "Electronics", "TAB-001");
+
+        productService.reloadCatalog(java.util.List.of(replacement));
+
+        assertTrue(productService.getProductById(oldId).isEmpty());
+        assertTrue(productService.getProductBySku("LAPTOP-001").isEmpty());
+        assertEquals(replacement, productService.getProductById(replacement.getId()).orElse(null));
+        assertEquals(replacement, productService.getProductBySku("TAB-001").orElse(null));
+    }
+
+    @Test
+    @DisplayName("Should reject catalogs with duplicate SKUs")
+    void testReloadCatalogDuplicateSku() {
+        Product first = new Product(UUID.randomUUID(), "Tablet", new BigDecimal("399.99"), "Electronics", "TAB-001");
+        Product second = new Product(UUID.randomUUID(), "Tablet Pro", new BigDecimal("599.99"), "Electronics", "tab-001");
+
+        assertThrows(IllegalStateException.class, () -> productService.reloadCatalog(java.util.List.of(first, second)));
+    }
+
     // ================== getByCategory Tests ==================
 
     @Test
@@ -349,6 +1202,28 @@ class ProductServiceTests {
         assertTrue(result.products.isEmpty());
     }
 
+    @Test
+    @DisplayName("Should report exact totalCount for category results across pages")
+    void testGetByCategoryTotalCount() {
+        ProductService.SearchResult first = productService.getByCategory("electronics", 1, 3);
+        ProductService.SearchResult second = productService.getByCategory("electronics", 2, 3);
+
+        assertEquals(4, first.totalCount);
+        assertEquals(2, first.totalPages);
+        assertEquals(3, first.products.size());
+        assertEquals(1, second.products.size());
+        assertFalse(first.products.contains(second.products.get(0)));
+    }
+
+    @Test
+    @DisplayName("Should include inactive products when inStock is false")
+    void testSearchByInStockFalseIncludesInactive() {
+        ProductService.SearchResult result = productService.searchByFilters(null, "Office", null, null, false, 1, 100);
+
+        assertEquals(1, result.totalCount);
+        assertEquals(ProductStatus.INACTIVE, result.products.get(0).getStatus());
+    }
+
     @Test
     @DisplayName("Should handle pagination in category results")
     void testGetByCategoryPagination() {
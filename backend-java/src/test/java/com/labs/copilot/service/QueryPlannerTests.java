@@ -0,0 +1,196 @@
+package com.labs.copilot.service;
+
+import com.labs.copilot.model.Product;
+import com.labs.copilot.model.ProductStatus;
+import com.labs.copilot.search.TextMatchMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for QueryPlanner and QueryPlan.
+ */
+@DisplayName("QueryPlanner Tests")
+class QueryPlannerTests {
+
+    private static final String[] CATEGORIES = {"Electronics", "Electronics", "Electronics", "Office", "Garden"};
+    private static final String[] WORDS = {"wireless", "desk", "cable", "lamp", "mouse", "stand"};
+
+    private List<Product> catalog;
+    private CatalogIndexes indexes;
+
+    @BeforeEach
+    void setup() {
+        Random random = new Random(42);
+        catalog = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            Product product = new Product(UUID.randomUUID(), name, BigDecimal.valueOf(100 + random.nextInt(10000), 2),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], "SKU-" + i);
+            product.setStockQuantity(random.nextInt(4) == 0 ? 0 : random.nextInt(100));
+            product.setStatus(random.nextInt(5) == 0 ? ProductStatus.INACTIVE : ProductStatus.ACTIVE);
+            catalog.add(product);
+        }
+        Product rare = new Product(UUID.randomUUID(), "Ergonomic keyboard", new BigDecimal("89.00"), "Electronics", "KB-1");
+        rare.setStockQuantity(5);
+        rare.setStatus(ProductStatus.ACTIVE);
+        catalog.add(rare);
+        indexes = CatalogIndexes.build(catalog);
+    }
+
+    @Test
+    @DisplayName("Should short-circuit when a predicate matches nothing")
+    void testEmptyPredicate() {
+        QueryPlan plan = QueryPlanner.plan(indexes, query("wireless", "Kitchen", null, null, null, TextMatchMode.ALL));
+
+        assertTrue(plan.isEmpty());
+        assertEquals("category:empty(~0)", plan.toString());
+        assertEquals(0, QueryPlanner.execute(indexes, query("wireless", "Kitchen", null, null, null, TextMatchMode.ALL), plan)
+                .bitmap.cardinality());
+    }
+
+    @Test
+    @DisplayName("Should AND filter bitmaps smallest first")
+    void testBitmapOrder() {
+        QueryPlan plan = QueryPlanner.plan(indexes, query(null, "Garden", null, null, true, TextMatchMode.ALL));
+
+        List<QueryPlan.Step> steps = plan.getSteps();
+        assertEquals("category", steps.get(0).getPredicate());
+        assertEquals(QueryPlan.Access.BITMAP, steps.get(0).getAccess());
+        assertTrue(steps.get(steps.size() - 1).getEstimatedRows() <= steps.get(0).getEstimatedRows());
+    }
+
+    @Test
+    @DisplayName("Should drive from postings only for selective text")
+    void testTextDriver() {
+        QueryPlan rare = QueryPlanner.plan(indexes, query("keyboard", null, null, null, null, TextMatchMode.ALL));
+        assertEquals("text", rare.getSteps().get(0).getPredicate());
+        assertEquals(QueryPlan.Access.POSTINGS, rare.getSteps().get(0).getAccess());
+
+        QueryPlan common = QueryPlanner.plan(indexes, query("wireless", "Garden", null, null, true, TextMatchMode.ANY));
+        QueryPlan.Step last = common.getSteps().get(common.getSteps().size() - 1);
+        assertEquals("text", last.getPredicate());
+        assertEquals(QueryPlan.Access.PROBE, last.getAccess());
+    }
+
+    @Test
+    @DisplayName("Should choose between a price range and a price column check")
+    void testPriceAccess() {
+        QueryPlan narrow = QueryPlanner.plan(indexes, query(null, null, new BigDecimal("89.00"), new BigDecimal("89.00"), null,
+                TextMatchMode.ALL));
+        assertEquals(QueryPlan.Access.RANGE, narrow.getSteps().get(0).getAccess());
+
+        QueryPlan wide = QueryPlanner.plan(indexes, query("keyboard", null, new BigDecimal("1"), null, null, TextMatchMode.ALL));
+        assertTrue(wide.toString().contains("price:column"));
+    }
+
+    @Test
+    @DisplayName("Should run a substring scan last")
+    void testSubstringLast() {
+        QueryPlan plan = QueryPlanner.plan(indexes, query("ire", "Office", new BigDecimal("10"), null, null,
+                TextMatchMode.SUBSTRING));
+        QueryPlan.Step last = plan.getSteps().get(plan.getSteps().size() - 1);
+
+        assertEquals(QueryPlan.Access.SCAN, last.getAccess());
+    }
+
+    @Test
+    @DisplayName("Should match a brute-force filter for every plan shape")
+    void testExecuteMatchesBruteForce() {
+        String[] texts = {null, "wireless", "desk lamp", "mou", "keyboard", "zzz"};
+        String[] categories = {null, "electronics", "Office", "Kitchen"};
+        BigDecimal[][] prices = {{null, null}, {new BigDecimal("20"), null}, {null, new BigDecimal("5.5")},
+                {new BigDecimal("30"), new BigDecimal("31")}};
+        Boolean[] stock = {null, true, false};
+
+        for (String text : texts) {
+            for (TextMatchMode mode : TextMatchMode.values()) {
+                for (String category : categories) {
+                    for (BigDecimal[] price : prices) {
+                        for (Boolean inStock : stock) {
+                            SearchQuery query = query(text, category, price[0], price[1], inStock, mode);
+                            QueryPlan plan = QueryPlanner.plan(indexes, query);
+                            int[] actual = QueryPlanner.execute(indexes, query, plan).stream().toArray();
+                            assertArrayEquals(bruteForce(query), actual, plan.toString());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should count structured filters from the maintained counts")
+    void testCountMatchesBruteForce() {
+        for (String category : new String[]{null, "electronics", "Office", "Kitchen"}) {
+            for (Boolean inStock : new Boolean[]{null, true, false}) {
+                SearchQuery query = query(null, category, null, null, inStock, TextMatchMode.ALL);
+                assertEquals(bruteForce(query).length, QueryPlanner.count(indexes, query), category + "/" + inStock);
+            }
+        }
+
+        assertEquals(-1, QueryPlanner.count(indexes, query("desk", null, null, null, null, TextMatchMode.ALL)));
+        assertEquals(-1, QueryPlanner.count(indexes, query(null, null, new BigDecimal("20"), null, null, TextMatchMode.ALL)));
+    }
+
+    private int[] bruteForce(SearchQuery query) {
+        return IntStream.range(0, catalog.size()).filter(doc -> {
+            Product p = catalog.get(doc);
+            if (!Boolean.FALSE.equals(query.getInStock()) && p.getStatus() != ProductStatus.ACTIVE) {
+                return false;
+            }
+            if (Boolean.TRUE.equals(query.getInStock()) && p.getStockQuantity() <= 0) {
+                return false;
+            }
+            if (query.getCategory() != null && !p.getCategory().equalsIgnoreCase(query.getCategory())) {
+                return false;
+            }
+            if (query.getMinPrice() != null && p.getPrice().compareTo(query.getMinPrice()) < 0) {
+                return false;
+            }
+            if (query.getMaxPrice() != null && p.getPrice().compareTo(query.getMaxPrice()) > 0) {
+                return false;
+            }
+            return query.getQuery() == null || matchesText(p.getName().toLowerCase(), query.getQuery(), query.getMatchMode());
+        }).toArray();
+    }
+
+    private static boolean matchesText(String name, String text, TextMatchMode mode) {
+        if (mode == TextMatchMode.SUBSTRING) {
+            return name.contains(text);
+        }
+        String[] terms = text.split(" ");
+        List<String> tokens = List.of(name.split(" "));
+        boolean any = false;
+        boolean all = true;
+        for (int i = 0; i < terms.length; i++) {
+            String term = terms[i];
+            boolean last = i == terms.length - 1;
+            boolean hit = tokens.stream().anyMatch(token -> last ? token.startsWith(term) : token.equals(term));
+            any |= hit;
+            all &= hit;
+        }
+        return mode == TextMatchMode.ANY ? any : all;
+    }
+
+    private static SearchQuery query(String text, String category, BigDecimal minPrice, BigDecimal maxPrice,
+                                     Boolean inStock, TextMatchMode mode) {
+        SearchQuery query = new SearchQuery();
+        query.setQuery(text);
+        query.setCategory(category);
+        query.setMinPrice(minPrice);
+        query.setMaxPrice(maxPrice);
+        query.setInStock(inStock);
+        query.setMatchMode(mode);
+        return query;
+    }
+}
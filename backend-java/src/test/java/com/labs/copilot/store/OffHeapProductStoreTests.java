@@ -0,0 +1,146 @@
+package com.labs.copilot.store;
+
+import com.labs.copilot.model.Product;
+import com.labs.copilot.model.ProductImage;
+import com.labs.copilot.model.ProductStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OffHeapProductStore.
+ */
+@DisplayName("OffHeapProductStore Tests")
+class OffHeapProductStoreTests {
+
+    private static final int CHUNK_BYTES = 4096;
+
+    @Test
+    @DisplayName("Should round-trip every product field")
+    void testRoundTrip() {
+        Product laptop = product("Laptop", "999.99");
+        laptop.setImages(List.of(new ProductImage("https://example.com/laptop.jpg", "Laptop", true)));
+        laptop.setAttributes(Map.of("brand", "TechBrand", "ram", "16GB"));
+        laptop.setUpdatedAt(LocalDateTime.of(2024, 5, 1, 12, 30));
+
+        ProductStore.Editor editor = new OffHeapProductStore(CHUNK_BYTES, 16).edit();
+        int ordinal = editor.append(laptop);
+        Product decoded = editor.publish().get(ordinal);
+
+        assertNotSame(laptop, decoded);
+        assertEquals(laptop.getId(), decoded.getId());
+        assertEquals(0, laptop.getPrice().compareTo(decoded.getPrice()));
+        assertEquals(laptop.getStatus(), decoded.getStatus());
+        assertEquals(laptop.getUpdatedAt(), decoded.getUpdatedAt());
+        assertEquals("https://example.com/laptop.jpg", decoded.getImages().get(0).getUrl());
+        assertEquals("16GB", decoded.getAttributes().get("ram"));
+    }
+
+    @Test
+    @DisplayName("Should return the same decoded instance while it is cached")
+    void testDecodedCache() {
+        ProductStore.Editor editor = new OffHeapProductStore(CHUNK_BYTES, 16).edit();
+        editor.append(product("Laptop", "999.99"));
+        ProductStore store = editor.publish();
+
+        assertSame(store.get(0), store.get(0));
+
+        ProductStore.Editor uncachedEditor = new OffHeapProductStore(CHUNK_BYTES, 0).edit();
+        uncachedEditor.append(product("Laptop", "999.99"));
+        ProductStore uncached = uncachedEditor.publish();
+        assertNotSame(uncached.get(0), uncached.get(0));
+    }
+
+    @Test
+    @DisplayName("Should leave a published store untouched by later edits")
+    void testEditIsolation() {
+        ProductStore.Editor editor = new OffHeapProductStore(CHUNK_BYTES, 16).edit();
+        editor.append(product("Laptop", "999.99"));
+        editor.append(product("Wireless Mouse", "29.99"));
+        ProductStore first = editor.publish();
+
+        ProductStore.Editor next = first.edit();
+        next.set(0, product("Gaming Laptop", "1499.99"));
+        next.set(1, null);
+        next.append(product("USB-C Hub", "49.99"));
+        ProductStore second = next.publish();
+
+        assertEquals(2, first.size());
+        assertEquals("Laptop", first.get(0).getName());
+        assertEquals("Wireless Mouse", first.get(1).getName());
+        assertEquals(3, second.size());
+        assertEquals("Gaming Laptop", second.get(0).getName());
+        assertNull(second.get(1));
+        assertEquals("USB-C Hub", second.get(2).getName());
+    }
+
+    @Test
+    @DisplayName("Should compact the arena once garbage outgrows live records")
+    void testCompaction() {
+        ProductStore.Editor editor = new OffHeapProductStore(CHUNK_BYTES, 16).edit();
+        editor.append(product("Laptop", "999.99"));
+        editor.append(product("Wireless Mouse", "29.99"));
+        OffHeapProductStore store = (OffHeapProductStore) editor.publish();
+
+        for (int i = 0; i < 200; i++) {
+            ProductStore.Editor update = store.edit();
+            update.set(0, product("Laptop v" + i, "999.99"));
+            store = (OffHeapProductStore) update.publish();
+        }
+
+        assertEquals("Laptop v199", store.get(0).getName());
+        assertEquals("Wireless Mouse", store.get(1).getName());
+        // Without compaction 200 rewritten records would need several chunks
+        assertTrue(store.offHeapBytes() <= 2L * CHUNK_BYTES, "allocated " + store.offHeapBytes());
+        assertTrue(store.liveBytes() < CHUNK_BYTES);
+    }
+
+    @Test
+    @DisplayName("Should report allocated direct memory, with oversized records in their own chunk")
+    void testOffHeapBytes() {
+        OffHeapProductStore empty = new OffHeapProductStore(CHUNK_BYTES, 16);
+        assertEquals(0, empty.offHeapBytes());
+
+        ProductStore.Editor editor = empty.edit();
+        editor.append(product("Laptop", "999.99"));
+        assertEquals(CHUNK_BYTES, editor.publish().offHeapBytes());
+
+        Product large = product("Laptop", "999.99");
+        large.setDescription("x".repeat(2 * CHUNK_BYTES));
+        editor = empty.edit();
+        editor.append(large);
+        ProductStore store = editor.publish();
+        assertTrue(store.offHeapBytes() > 2L * CHUNK_BYTES);
+        assertEquals(large.getDescription(), store.get(0).getDescription());
+    }
+
+    @Test
+    @DisplayName("Should start an empty store on a new arena")
+    void testEmpty() {
+        ProductStore.Editor editor = new OffHeapProductStore(CHUNK_BYTES, 16).edit();
+        editor.append(product("Laptop", "999.99"));
+        ProductStore store = editor.publish();
+
+        ProductStore empty = store.empty();
+
+        assertEquals(0, empty.size());
+        assertEquals(0, empty.offHeapBytes());
+        assertTrue(store.offHeapBytes() > 0);
+    }
+
+    private static Product product(String name, String price) {
+        Product product = new Product(UUID.randomUUID(), name, new BigDecimal(price), "Electronics",
+                name.toUpperCase().replace(' ', '-'));
+        product.setStockQuantity(10);
+        product.setStatus(ProductStatus.ACTIVE);
+        product.setCreatedAt(LocalDateTime.of(2024, 1, 15, 9, 0));
+        return product;
+    }
+}
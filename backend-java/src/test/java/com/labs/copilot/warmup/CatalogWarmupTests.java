@@ -0,0 +1,94 @@
+package com.labs.copilot.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labs.copilot.cache.ProductJsonCache;
+import com.labs.copilot.config.CatalogProperties;
+import com.labs.copilot.model.Product;
+import com.labs.copilot.search.TextMatchMode;
+import com.labs.copilot.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CatalogWarmup.
+ */
+@DisplayName("CatalogWarmup Tests")
+class CatalogWarmupTests {
+
+    private ObjectMapper objectMapper;
+    private ProductService productService;
+    private ProductJsonCache productJsonCache;
+    private Path directory;
+    private Path file;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("warmup");
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        productService = new ProductService();
+        productJsonCache = new ProductJsonCache(objectMapper, new CatalogProperties());
+        file = directory.resolve("top-queries.json");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    @DisplayName("Should fill the result and product JSON caches from the file")
+    void testWarmUpFillsCaches() throws Exception {
+        Product laptop = productService.getProductBySku("LAPTOP-001").get();
+        TopQueries top = new TopQueries();
+        top.setListings(List.of(new TopQueries.Listing(1, 20, "name", "asc")));
+        top.setSearches(List.of(new TopQueries.Search("laptop", TextMatchMode.ALL, null, null, null, null,
+                null, null, null, 1, 20)));
+        top.setProductIds(List.of(laptop.getId(), UUID.randomUUID()));
+        top.write(file, objectMapper);
+
+        int replayed = warmup(1).warmUp();
+
+        assertEquals(4, replayed);
+        assertTrue(productService.searchProducts(1, 20, "name", "asc").cached);
+        assertTrue(productService.searchByFilters("laptop", null, null, null, null, 1, 20).cached);
+        productJsonCache.render(laptop);
+        assertEquals(1, productJsonCache.entries().hitCount());
+    }
+
+    @Test
+    @DisplayName("Should start cold when the file is missing or unreadable")
+    void testMissingOrBadFile() throws Exception {
+        assertEquals(0, warmup(2).warmUp());
+
+        Files.writeString(file, "not json");
+        assertEquals(0, warmup(2).warmUp());
+    }
+
+    @Test
+    @DisplayName("Should stop replaying once the timeout has elapsed")
+    void testTimeout() throws Exception {
+        TopQueries top = new TopQueries();
+        top.setListings(List.of(new TopQueries.Listing(1, 20, "name", "asc")));
+        top.write(file, objectMapper);
+
+        CatalogWarmup warmup = new CatalogWarmup(productService, productJsonCache, objectMapper, file, 5, Duration.ZERO);
+
+        assertEquals(0, warmup.warmUp());
+    }
+
+    private CatalogWarmup warmup(int iterations) {
+        return new CatalogWarmup(productService, productJsonCache, objectMapper, file, iterations, Duration.ofSeconds(30));
+    }
+}
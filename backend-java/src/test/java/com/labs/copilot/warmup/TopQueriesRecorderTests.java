@@ -0,0 +1,110 @@
+package com.labs.copilot.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labs.copilot.search.TextMatchMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TopQueriesRecorder and the TopQueries file format.
+ */
+@DisplayName("TopQueriesRecorder Tests")
+class TopQueriesRecorderTests {
+
+    private ObjectMapper objectMapper;
+    private Path directory;
+    private Path file;
+    private TopQueriesRecorder recorder;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("warmup");
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        file = directory.resolve("top-queries.json");
+        recorder = new TopQueriesRecorder(file, objectMapper, Duration.ofMinutes(5), 2, 10);
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    @DisplayName("Should keep the most frequent requests, most frequent first")
+    void testTop() {
+        TopQueries.Search laptop = search("laptop");
+        TopQueries.Search mouse = search("mouse");
+        TopQueries.Search lamp = search("lamp");
+        record(laptop, 1);
+        record(mouse, 5);
+        record(lamp, 3);
+
+        assertEquals(List.of(mouse, lamp), recorder.top().getSearches());
+    }
+
+    @Test
+    @DisplayName("Should round-trip the file and halve counts after a dump")
+    void testDump() throws Exception {
+        UUID product = UUID.randomUUID();
+        recorder.recordProduct(product);
+        recorder.recordListing(new TopQueries.Listing(1, 20, "name", "asc"));
+        record(search("laptop"), 3);
+
+        assertTrue(recorder.dump());
+        TopQueries read = TopQueries.read(file, objectMapper);
+
+        assertEquals(List.of(search("laptop")), read.getSearches());
+        assertEquals(List.of(new TopQueries.Listing(1, 20, "name", "asc")), read.getListings());
+        assertEquals(List.of(product), read.getProductIds());
+        // Single hits decay away; the search seen three times survives with a count of one
+        assertEquals(List.of(search("laptop")), recorder.top().getSearches());
+        assertTrue(recorder.top().getProductIds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not write a file when nothing was recorded")
+    void testEmptyDump() throws Exception {
+        assertFalse(recorder.dump());
+        assertFalse(Files.exists(file));
+    }
+
+    private void record(TopQueries.Search search, int times) {
+        for (int i = 0; i < times; i++) {
+            recorder.recordSearch(search);
+        }
+    }
+
+    @Test
+    @DisplayName("Should total the filters and sort keys requested")
+    void testUsage() {
+        recorder.recordSearch(search("laptop"));
+        recorder.recordSearch(new TopQueries.Search("lap", TextMatchMode.SUBSTRING, null, null, null, null,
+                null, null, null, 1, 20));
+        recorder.recordSearch(new TopQueries.Search(null, null, null, null, null, null, null, "created", "desc", 1, 20));
+        recorder.recordListing(new TopQueries.Listing(1, 20, "price", "asc"));
+        recorder.recordListing(new TopQueries.Listing(1, 20, null, null));
+
+        assertEquals(Map.of("text:all", 1L, "text:substring", 1L, "category", 1L, "price", 1L, "inStock:true", 1L,
+                "none", 1L), recorder.filterUsage());
+        assertEquals(Map.of("price", 2L, "none", 1L, "created", 1L, "name", 1L), recorder.sortKeyUsage());
+    }
+
+    private static TopQueries.Search search(String text) {
+        return new TopQueries.Search(text, TextMatchMode.ALL, null, "Electronics", new BigDecimal("10.00"), null,
+                true, "price", "asc", 1, 20);
+    }
+}